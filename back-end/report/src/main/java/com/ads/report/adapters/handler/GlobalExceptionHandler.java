@@ -3,6 +3,7 @@ package com.ads.report.adapters.handler;
 import com.ads.report.application.exception.CsvException;
 import com.ads.report.application.exception.GoogleAdsException;
 import com.ads.report.application.exception.GoogleSheetsException;
+import com.ads.report.application.exception.ReportJobException;
 import com.ads.report.infrastructure.exception.ForbiddenException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -79,6 +80,34 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", exception.getMessage()));
     }
 
+    /**
+     *
+     * Handler to report job exception, with 404 code.
+     *
+     * @param exception An instance of type ReportJobException.
+     * @param request The request param.
+     *
+     * @return Return a response entity of object type.
+     */
+    @ExceptionHandler(ReportJobException.class)
+    public ResponseEntity<Object> handleReportJobException(ReportJobException exception, WebRequest request) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", exception.getMessage()));
+    }
+
+    /**
+     *
+     * Handler to invalid arguments, like dates or cron expressions, with 400 code.
+     *
+     * @param exception An instance of type IllegalArgumentException.
+     * @param request The request param.
+     *
+     * @return Return a response entity of object type.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Object> handleIllegalArgument(IllegalArgumentException exception, WebRequest request) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", exception.getMessage()));
+    }
+
     /**
      *
      * Handler to unknown runtime exceptions, with 500 code.
@@ -0,0 +1,15 @@
+package com.ads.report.adapters.input;
+
+import com.ads.report.domain.reports.UpdateAllReports;
+
+import java.util.List;
+
+/**
+ *
+ * The DTO to schedule the update of various reports.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public record ReportScheduleRequestDto(String cron, String zone, int lookbackDays, List<UpdateAllReports> data) {}
@@ -4,10 +4,11 @@ import com.ads.report.application.usecases.ads.GoogleAdsUseCase;
 import com.ads.report.application.usecases.csv.CsvUseCase;
 import com.ads.report.domain.account.AccountMetrics;
 import com.ads.report.domain.campaign.CampaignKeywordMetrics;
+import com.ads.report.domain.campaign.CampaignMetrics;
 import com.ads.report.domain.campaign.CampaignPerDay;
 import com.ads.report.domain.campaign.CampaignTitleAndDescription;
-import com.google.common.reflect.TypeToken;
-import com.google.gson.Gson;
+import com.ads.report.domain.columnar.MetricTable;
+import com.ads.report.domain.columnar.RollupDimension;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.servlet.http.HttpServletResponse;
@@ -17,7 +18,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  *
@@ -34,8 +34,6 @@ public class CsvResource {
     @Autowired
     private GoogleAdsUseCase googleAdsUseCase;
     @Autowired
-    private Gson gson;
-    @Autowired
     private CsvUseCase csvUseCase;
 
     /**
@@ -60,12 +58,11 @@ public class CsvResource {
             @PathParam("end_date") String end_date,
             @PathParam("active") boolean active,
             HttpServletResponse response) {
-        String json = gson.toJson(googleAdsUseCase.getCampaignMetrics(customerId, start_date, end_date, active));
+        List<CampaignMetrics> campaignMetrics = googleAdsUseCase.getCampaignMetrics(customerId, start_date, end_date, active);
         String fileName = "campaigns-"+customerId+".csv";
-        List<Map<String, Object>> records = gson.fromJson(json, new TypeToken<List<Map<String, Object>>>() {}.getType());
         response.setContentType("text/csv");
         response.setHeader("Content-Disposition", "attachment; filename=" + '"' + fileName + '"');
-        csvUseCase.fromJson(records, response);
+        csvUseCase.campaignMetricsToCsv(campaignMetrics, response);
     }
 
     /**
@@ -91,12 +88,10 @@ public class CsvResource {
             @PathParam("end_date") String end_date,
             HttpServletResponse response) {
         List<AccountMetrics> accountMetrics = googleAdsUseCase.getAccountMetrics(customerId, start_date, end_date);
-        String json = gson.toJson(accountMetrics);
         String fileName = "account-metrics-"+accountMetrics.getFirst().getDescriptiveName()+"-"+start_date+"-"+end_date+".csv";
-        List<Map<String, Object>> records = gson.fromJson(json, new TypeToken<List<Map<String, Object>>>() {}.getType());
         response.setContentType("text/csv");
         response.setHeader("Content-Disposition", "attachment; filename=" + '"' + fileName + '"');
-        csvUseCase.fromJson(records, response);
+        csvUseCase.accountMetricsToCsv(accountMetrics, response);
     }
 
     /**
@@ -125,12 +120,10 @@ public class CsvResource {
             HttpServletResponse response) {
         List<CampaignKeywordMetrics> campaignKeywordMetrics = googleAdsUseCase
             .getKeywordMetrics(customerId, start_date, end_date, active);
-        String json = gson.toJson(campaignKeywordMetrics);
         String fileName = "keyword-metrics-"+campaignKeywordMetrics.getFirst().getAdvertisingChannelType()+"-"+start_date+"-"+end_date+".csv";
-        List<Map<String, Object>> records = gson.fromJson(json, new TypeToken<List<Map<String, Object>>>() {}.getType());
         response.setContentType("text/csv");
         response.setHeader("Content-Disposition", "attachment; filename=" + '"' + fileName + '"');
-        csvUseCase.fromJson(records, response);
+        csvUseCase.keywordMetricsToCsv(campaignKeywordMetrics, response);
     }
 
     /**
@@ -156,12 +149,10 @@ public class CsvResource {
             @PathParam("end_date") String end_date,
             HttpServletResponse response) {
         List<CampaignTitleAndDescription> campaignTitleAndDescriptions = googleAdsUseCase.getAdTitleAndDescriptions(customerId, start_date, end_date);
-        String json = gson.toJson(campaignTitleAndDescriptions);
         String fileName = "headlines-"+campaignTitleAndDescriptions.getFirst().getResponsiveHeadlines()+"-"+start_date+"-"+end_date+".csv";
-        List<Map<String, Object>> records = gson.fromJson(json, new TypeToken<List<Map<String, Object>>>() {}.getType());
         response.setContentType("text/csv");
         response.setHeader("Content-Disposition", "attachment; filename=" + '"' + fileName + '"');
-        csvUseCase.fromJson(records, response);
+        csvUseCase.adTitleAndDescriptionToCsv(campaignTitleAndDescriptions, response);
     }
 
     /**
@@ -187,11 +178,290 @@ public class CsvResource {
             @PathParam("end_date") String end_date,
             HttpServletResponse response) {
         List<CampaignPerDay> campaignPerDays = googleAdsUseCase.getTotalPerDay(customerId, start_date, end_date);
-        String json = gson.toJson(campaignPerDays);
         String fileName = "campaign-per-days-"+customerId+"-"+start_date+"-"+end_date+".csv";
-        List<Map<String, Object>> records = gson.fromJson(json, new TypeToken<List<Map<String, Object>>>() {}.getType());
         response.setContentType("text/csv");
         response.setHeader("Content-Disposition", "attachment; filename=" + '"' + fileName + '"');
-        csvUseCase.fromJson(records, response);
+        csvUseCase.totalPerDayToCsv(campaignPerDays, response);
+    }
+
+    /**
+     *
+     * Endpoint to stream campaign metrics from a client.
+     *
+     * <p>The rows are written to the response while they arrive from Google Ads, so the memory
+     * does not grow with the period, and the download starts before the query ends.<p/>
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param start_date The start date of the analysis period.
+     * @param end_date The end date of the analysis period.
+     * @param active Flag to check if the campaign is enabled.
+     * @param response The response object.
+     */
+    @GetMapping("/stream/campaign/{customerId}")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+        summary = "Stream all campaign metrics (CSV)",
+        description = "In this route you can stream all campaign metrics from a client, in a certain period."
+    )
+    @ApiResponse(responseCode = "200", description = "Streaming the CSV with campaign metrics.")
+    public void streamCampaignMetrics(
+            @PathVariable("customerId") String customerId,
+            @PathParam("start_date") String start_date,
+            @PathParam("end_date") String end_date,
+            @PathParam("active") boolean active,
+            HttpServletResponse response) {
+        String fileName = "campaigns-"+customerId+"-"+start_date+"-"+end_date+".csv";
+        response.setContentType("text/csv");
+        response.setHeader("Content-Disposition", "attachment; filename=" + '"' + fileName + '"');
+        csvUseCase.streamCampaignMetricsToCsv(consumer -> googleAdsUseCase.streamCampaignMetrics(customerId, start_date, end_date, active, consumer), response);
+    }
+
+    /**
+     *
+     * Endpoint to stream keyword metrics from a client.
+     *
+     * <p>The rows are written to the response while they arrive from Google Ads, so the memory
+     * does not grow with the period, and the download starts before the query ends.<p/>
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param start_date The start date of the analysis period.
+     * @param end_date The end date of the analysis period.
+     * @param active Flag to check if the campaign is enabled.
+     * @param response The response object.
+     */
+    @GetMapping("/stream/keywords/{customerId}")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+        summary = "Stream all keyword metrics (CSV)",
+        description = "In this route you can stream all keyword metrics from a client, in a certain period."
+    )
+    @ApiResponse(responseCode = "200", description = "Streaming the CSV with keyword metrics.")
+    public void streamCampaignKeywordMetrics(
+            @PathVariable("customerId") String customerId,
+            @PathParam("start_date") String start_date,
+            @PathParam("end_date") String end_date,
+            @PathParam("active") boolean active,
+            HttpServletResponse response) {
+        String fileName = "keyword-metrics-"+customerId+"-"+start_date+"-"+end_date+".csv";
+        response.setContentType("text/csv");
+        response.setHeader("Content-Disposition", "attachment; filename=" + '"' + fileName + '"');
+        csvUseCase.streamKeywordMetricsToCsv(consumer -> googleAdsUseCase.streamKeywordMetrics(customerId, start_date, end_date, active, consumer), response);
+    }
+
+    /**
+     *
+     * Endpoint to stream titles and descriptions from a client.
+     *
+     * <p>The rows are written to the response while they arrive from Google Ads, so the memory
+     * does not grow with the period, and the download starts before the query ends.<p/>
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param start_date The start date of the analysis period.
+     * @param end_date The end date of the analysis period.
+     * @param response The response object.
+     */
+    @GetMapping("/stream/headlines/{customerId}")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+        summary = "Stream title and descriptions (CSV)",
+        description = "In this route you can stream all titles and descriptions from a client, in a certain period."
+    )
+    @ApiResponse(responseCode = "200", description = "Streaming the CSV with titles and descriptions.")
+    public void streamTitleAndDescriptionMetrics(
+            @PathVariable("customerId") String customerId,
+            @PathParam("start_date") String start_date,
+            @PathParam("end_date") String end_date,
+            HttpServletResponse response) {
+        String fileName = "headlines-"+customerId+"-"+start_date+"-"+end_date+".csv";
+        response.setContentType("text/csv");
+        response.setHeader("Content-Disposition", "attachment; filename=" + '"' + fileName + '"');
+        csvUseCase.streamAdTitleAndDescriptionToCsv(consumer -> googleAdsUseCase.streamAdTitleAndDescriptions(customerId, start_date, end_date, consumer), response);
+    }
+
+    /**
+     *
+     * Endpoint to stream campaign per days metrics from a client.
+     *
+     * <p>The rows are written to the response while they arrive from Google Ads, so the memory
+     * does not grow with the period, and the download starts before the query ends.<p/>
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param start_date The start date of the analysis period.
+     * @param end_date The end date of the analysis period.
+     * @param response The response object.
+     */
+    @GetMapping("/stream/campaign/days/{customerId}")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+        summary = "Stream campaign per days metrics (CSV)",
+        description = "In this route you can stream all campaign per days metrics from a client, in a certain period."
+    )
+    @ApiResponse(responseCode = "200", description = "Streaming the CSV with campaign per days metrics.")
+    public void streamCampaignPerDaysMetrics(
+            @PathVariable("customerId") String customerId,
+            @PathParam("start_date") String start_date,
+            @PathParam("end_date") String end_date,
+            HttpServletResponse response) {
+        String fileName = "campaign-per-days-"+customerId+"-"+start_date+"-"+end_date+".csv";
+        response.setContentType("text/csv");
+        response.setHeader("Content-Disposition", "attachment; filename=" + '"' + fileName + '"');
+        csvUseCase.streamTotalPerDayToCsv(consumer -> googleAdsUseCase.streamTotalPerDay(customerId, start_date, end_date, consumer), response);
+    }
+
+    /**
+     *
+     * Endpoint to get campaign metrics from a client, through a columnar table.
+     *
+     * <p>The rows are kept in primitive columns and written straight from them, so a large report
+     * costs a fraction of the memory of the domain objects.<p/>
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param start_date The start date of the analysis period.
+     * @param end_date The end date of the analysis period.
+     * @param active Flag to check if the campaign is enabled.
+     * @param response The response object.
+     */
+    @GetMapping("/table/campaign/{customerId}")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+        summary = "Get campaign metrics from a columnar table (CSV)",
+        description = "In this route you can get all campaign metrics from a client, in a certain period, with a low memory footprint."
+    )
+    @ApiResponse(responseCode = "200", description = "Returning the CSV with campaign metrics.")
+    public void tableCampaignMetrics(
+            @PathVariable("customerId") String customerId,
+            @PathParam("start_date") String start_date,
+            @PathParam("end_date") String end_date,
+            @PathParam("active") boolean active,
+            HttpServletResponse response) {
+        String fileName = "campaigns-"+customerId+"-"+start_date+"-"+end_date+".csv";
+        response.setContentType("text/csv");
+        response.setHeader("Content-Disposition", "attachment; filename=" + '"' + fileName + '"');
+        csvUseCase.metricTableToCsv(googleAdsUseCase.getCampaignMetricsTable(customerId, start_date, end_date, active), response);
+    }
+
+    /**
+     *
+     * Endpoint to get keyword metrics from a client, through a columnar table.
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param start_date The start date of the analysis period.
+     * @param end_date The end date of the analysis period.
+     * @param active Flag to check if the campaign is enabled.
+     * @param response The response object.
+     */
+    @GetMapping("/table/keywords/{customerId}")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+        summary = "Get keyword metrics from a columnar table (CSV)",
+        description = "In this route you can get all keyword metrics from a client, in a certain period, with a low memory footprint."
+    )
+    @ApiResponse(responseCode = "200", description = "Returning the CSV with keyword metrics.")
+    public void tableCampaignKeywordMetrics(
+            @PathVariable("customerId") String customerId,
+            @PathParam("start_date") String start_date,
+            @PathParam("end_date") String end_date,
+            @PathParam("active") boolean active,
+            HttpServletResponse response) {
+        String fileName = "keyword-metrics-"+customerId+"-"+start_date+"-"+end_date+".csv";
+        response.setContentType("text/csv");
+        response.setHeader("Content-Disposition", "attachment; filename=" + '"' + fileName + '"');
+        csvUseCase.metricTableToCsv(googleAdsUseCase.getKeywordMetricsTable(customerId, start_date, end_date, active), response);
+    }
+
+    /**
+     *
+     * Endpoint to get campaign per days metrics from a client, through a columnar table.
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param start_date The start date of the analysis period.
+     * @param end_date The end date of the analysis period.
+     * @param response The response object.
+     */
+    @GetMapping("/table/campaign/days/{customerId}")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+        summary = "Get campaign per days metrics from a columnar table (CSV)",
+        description = "In this route you can get all campaign per days metrics from a client, in a certain period, with a low memory footprint."
+    )
+    @ApiResponse(responseCode = "200", description = "Returning the CSV with campaign per days metrics.")
+    public void tableCampaignPerDaysMetrics(
+            @PathVariable("customerId") String customerId,
+            @PathParam("start_date") String start_date,
+            @PathParam("end_date") String end_date,
+            HttpServletResponse response) {
+        String fileName = "campaign-per-days-"+customerId+"-"+start_date+"-"+end_date+".csv";
+        response.setContentType("text/csv");
+        response.setHeader("Content-Disposition", "attachment; filename=" + '"' + fileName + '"');
+        csvUseCase.metricTableToCsv(googleAdsUseCase.getTotalPerDayTable(customerId, start_date, end_date), response);
+    }
+
+    /**
+     *
+     * Endpoint to get the campaign metrics of a client, summed by a dimension.
+     *
+     * <p>Instead of the rows of each day, this returns one row per campaign, ad group, ISO week or month,
+     * with the CTR, CPC and CPA recomputed from the sums, ready to use without a pivot table.<p/>
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param start_date The start date of the analysis period.
+     * @param end_date The end date of the analysis period.
+     * @param active Flag to check if the campaign is enabled.
+     * @param group_by The dimension: campaign, ad_group, week or month.
+     * @param response The response object.
+     */
+    @GetMapping("/rollup/campaign/{customerId}")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+        summary = "Get campaign metrics summed by a dimension (CSV)",
+        description = "In this route you can get the campaign metrics of a client, in a certain period, summed by campaign, ad_group, week or month."
+    )
+    @ApiResponse(responseCode = "200", description = "Returning the CSV with one row per group.")
+    public void rollupCampaignMetrics(
+            @PathVariable("customerId") String customerId,
+            @PathParam("start_date") String start_date,
+            @PathParam("end_date") String end_date,
+            @PathParam("active") boolean active,
+            @PathParam("group_by") String group_by,
+            HttpServletResponse response) {
+        final RollupDimension groupBy = RollupDimension.valueOf(group_by.toUpperCase());
+        final MetricTable rollup = googleAdsUseCase.getCampaignRollup(customerId, start_date, end_date, active, groupBy);
+        String fileName = "campaigns-by-"+group_by.toLowerCase()+"-"+customerId+"-"+start_date+"-"+end_date+".csv";
+        response.setContentType("text/csv");
+        response.setHeader("Content-Disposition", "attachment; filename=" + '"' + fileName + '"');
+        csvUseCase.metricTableToCsv(rollup, response);
+    }
+
+    /**
+     *
+     * Endpoint to get the keyword metrics of a client, summed by a dimension.
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param start_date The start date of the analysis period.
+     * @param end_date The end date of the analysis period.
+     * @param active Flag to check if the keyword had impressions.
+     * @param group_by The dimension: campaign, ad_group, keyword, week or month.
+     * @param response The response object.
+     */
+    @GetMapping("/rollup/keywords/{customerId}")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+        summary = "Get keyword metrics summed by a dimension (CSV)",
+        description = "In this route you can get the keyword metrics of a client, in a certain period, summed by campaign, ad_group, keyword, week or month."
+    )
+    @ApiResponse(responseCode = "200", description = "Returning the CSV with one row per group.")
+    public void rollupKeywordMetrics(
+            @PathVariable("customerId") String customerId,
+            @PathParam("start_date") String start_date,
+            @PathParam("end_date") String end_date,
+            @PathParam("active") boolean active,
+            @PathParam("group_by") String group_by,
+            HttpServletResponse response) {
+        final RollupDimension groupBy = RollupDimension.valueOf(group_by.toUpperCase());
+        final MetricTable rollup = googleAdsUseCase.getKeywordRollup(customerId, start_date, end_date, active, groupBy);
+        String fileName = "keywords-by-"+group_by.toLowerCase()+"-"+customerId+"-"+start_date+"-"+end_date+".csv";
+        response.setContentType("text/csv");
+        response.setHeader("Content-Disposition", "attachment; filename=" + '"' + fileName + '"');
+        csvUseCase.metricTableToCsv(rollup, response);
     }
 }
@@ -1,19 +1,30 @@
 package com.ads.report.adapters.resources.google;
 
+import com.ads.report.adapters.input.ReportScheduleRequestDto;
 import com.ads.report.adapters.input.UpdateAllReportsRequestDto;
 import com.ads.report.adapters.mappers.GoogleAdsDtoMapper;
 import com.ads.report.adapters.output.TestResponseDto;
 import com.ads.report.application.usecases.ads.GoogleAdsUseCase;
-import com.ads.report.application.usecases.ads.UpdateAllReportsUseCase;
+import com.ads.report.application.usecases.ads.ManagerPortfolioUseCase;
+import com.ads.report.application.usecases.reports.ReportJobUseCase;
+import com.ads.report.application.usecases.reports.ReportScheduleUseCase;
 import com.ads.report.domain.manager.ManagerAccountInfo;
+import com.ads.report.domain.manager.ManagerPortfolio;
+import com.ads.report.domain.reports.ReportJob;
+import com.ads.report.domain.reports.ReportSchedule;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
+import jakarta.websocket.server.PathParam;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
+import java.util.List;
+
 /**
  *
  * The controller to general Google resources.
@@ -34,7 +45,11 @@ public class GoogleResource {
     @Autowired
     private GoogleAdsDtoMapper googleAdsDtoMapper;
     @Autowired
-    private UpdateAllReportsUseCase updateAllReportsUseCase;
+    private ReportJobUseCase reportJobUseCase;
+    @Autowired
+    private ManagerPortfolioUseCase managerPortfolioUseCase;
+    @Autowired
+    private ReportScheduleUseCase reportScheduleUseCase;
 
     /**
      *
@@ -71,6 +86,34 @@ public class GoogleResource {
         return ResponseEntity.ok(googleAdsUseCase.getManagerAccount(id));
     }
 
+    /**
+     *
+     * Recover the metrics of every client account under a manager account, in one request.
+     *
+     * <p>In this route you can refresh a whole portfolio: the client accounts are discovered through
+     * the manager account (MCC) and fetched together, within a fixed time budget. The clients not
+     * fetched in time are returned as failed, and the portfolio as incomplete.<p/>
+     *
+     * @param id The id of the manager account (MCC).
+     * @param start_date The start date of the analysis period.
+     * @param end_date The end date of the analysis period.
+     *
+     * @return An object of type {@link ManagerPortfolio}, with the metrics of each client account.
+     */
+    @GetMapping("/manager/{id}/portfolio")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+        summary = "Get the metrics of all the manager (MCC) clients",
+        description = "In this route you can get the account metrics of every client under a MCC, in a certain period, with one request."
+    )
+    @ApiResponse(responseCode = "200", description = "Returning the metrics of each client account.")
+    public ResponseEntity<ManagerPortfolio> getManagerPortfolio(
+            @PathVariable("id") String id,
+            @PathParam("start_date") String start_date,
+            @PathParam("end_date") String end_date) {
+        return ResponseEntity.ok(managerPortfolioUseCase.getPortfolio(id, start_date, end_date));
+    }
+
     /**
      *
      * This endpoint allows the user to send a conjunct of data to sheets, from various accounts.
@@ -78,21 +121,111 @@ public class GoogleResource {
      * <p>By passing the customer id, start date, end date, spreadsheet id, client and active flag,
      * you can update the sheets tables with ease.<p/>
      *
+     * <p>The reports are generated by a background job: this route returns the job immediately,
+     * and its progress can be followed on the route /v2/reports/jobs/{id}.<p/>
+     *
      * @param allReportsRequestDto the list of {@link com.ads.report.domain.reports.UpdateAllReports} domain object.
+     * @param principal the logged user.
      *
-     * @return ok if the cll is successful.
+     * @return The submitted {@link ReportJob}, with its id.
      */
     @PostMapping("/generate")
-    @ResponseStatus(HttpStatus.OK)
+    @ResponseStatus(HttpStatus.ACCEPTED)
     @Operation(
         summary = "Generate various reports",
         description = "In this route you can send all client metrics with one request, " +
             "by passing the data from all the clients you want to on the request body."
     )
-    @ApiResponse(responseCode = "200", description = "Returning 200 and sending to sheets.")
-    public ResponseEntity<String> generateAllReports(
-            @RequestBody @Valid UpdateAllReportsRequestDto allReportsRequestDto) {
-        updateAllReportsUseCase.updateReports(allReportsRequestDto.data());
-        return ResponseEntity.ok("");
+    @ApiResponse(responseCode = "202", description = "Returning 202 and the submitted job.")
+    public ResponseEntity<ReportJob> generateAllReports(
+            @RequestBody @Valid UpdateAllReportsRequestDto allReportsRequestDto,
+            Principal principal) {
+        return ResponseEntity.accepted().body(reportJobUseCase.submit(allReportsRequestDto.data(), principal.getName()));
+    }
+
+    /**
+     *
+     * Recover the progress of a report generation job.
+     *
+     * <p>In this route you can follow a job submitted on /v2/reports/generate, with the status,
+     * timings and errors of each client and each of its tabs.<p/>
+     *
+     * @param id The job id.
+     * @param principal the logged user.
+     *
+     * @return The {@link ReportJob} object.
+     */
+    @GetMapping("/jobs/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Get a report job", description = "In this route you can get the progress of a report generation job.")
+    @ApiResponse(responseCode = "200", description = "Returning the job progress.")
+    public ResponseEntity<ReportJob> getReportJob(@PathVariable("id") String id, Principal principal) {
+        return ResponseEntity.ok(reportJobUseCase.getJob(id, principal.getName()));
+    }
+
+    /**
+     *
+     * Schedule the recurring generation of various reports.
+     *
+     * <p>The reports are generated at the times of the cron expression, like "0 0 6 * * *", as jobs of the
+     * logged user, with the authorization of its login. The schedules of the same time are spread over the
+     * hour. With a lookback of days, each run updates from that many days ago to today.<p/>
+     *
+     * @param reportScheduleRequestDto the cron expression, its zone, the lookback days and the reports.
+     * @param principal the logged user.
+     *
+     * @return The saved {@link ReportSchedule}, with its id and its next run.
+     */
+    @PostMapping("/schedules")
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Schedule various reports", description = "In this route you can schedule the recurring generation of various reports.")
+    @ApiResponse(responseCode = "201", description = "Returning 201 and the saved schedule.")
+    public ResponseEntity<ReportSchedule> createReportSchedule(
+            @RequestBody @Valid ReportScheduleRequestDto reportScheduleRequestDto,
+            Principal principal) {
+        final String registrationId = principal instanceof OAuth2AuthenticationToken token
+            ? token.getAuthorizedClientRegistrationId()
+            : "google";
+        final ReportSchedule reportSchedule = new ReportSchedule(
+            reportScheduleRequestDto.cron(),
+            reportScheduleRequestDto.zone(),
+            reportScheduleRequestDto.lookbackDays(),
+            reportScheduleRequestDto.data()
+        );
+        return ResponseEntity.status(HttpStatus.CREATED).body(reportScheduleUseCase.create(reportSchedule, principal.getName(), registrationId));
+    }
+
+    /**
+     *
+     * Recover the report schedules of the logged user.
+     *
+     * @param principal the logged user.
+     *
+     * @return The list of {@link ReportSchedule} objects.
+     */
+    @GetMapping("/schedules")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Get the report schedules", description = "In this route you can get your report schedules, with their next runs.")
+    @ApiResponse(responseCode = "200", description = "Returning the schedules.")
+    public ResponseEntity<List<ReportSchedule>> getReportSchedules(Principal principal) {
+        return ResponseEntity.ok(reportScheduleUseCase.list(principal.getName()));
+    }
+
+    /**
+     *
+     * Delete a report schedule.
+     *
+     * @param id The schedule id.
+     * @param principal the logged user.
+     *
+     * @return An empty response.
+     */
+    @DeleteMapping("/schedules/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(summary = "Delete a report schedule", description = "In this route you can delete one of your report schedules.")
+    @ApiResponse(responseCode = "204", description = "Returning 204 when deleted.")
+    public ResponseEntity<Void> deleteReportSchedule(@PathVariable("id") String id, Principal principal) {
+        reportScheduleUseCase.delete(id, principal.getName());
+        return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,48 @@
+package com.ads.report.adapters.resources.metrics;
+
+import com.ads.report.application.gateway.metrics.MetricsSource;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ *
+ * The controller of the runtime metrics.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+@RestController
+@RequestMapping("v2/metrics")
+public class MetricsResource {
+
+    @Autowired
+    private List<MetricsSource> metricsSources;
+
+    /**
+     *
+     * Endpoint to get the runtime metrics of the application.
+     *
+     * @return The metrics of each source, by source name.
+     */
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Get runtime metrics", description = "In this route you can get the metrics of the channel pools, limiters and queues.")
+    @ApiResponse(responseCode = "200", description = "Returning the metrics of each source.")
+    public ResponseEntity<Map<String, Map<String, Object>>> getMetrics() {
+        final Map<String, Map<String, Object>> metrics = new TreeMap<>();
+        metricsSources.forEach(source -> metrics.put(source.metricsName(), source.metrics()));
+        return ResponseEntity.ok(metrics);
+    }
+}
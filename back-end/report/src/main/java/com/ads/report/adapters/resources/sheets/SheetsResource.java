@@ -2,6 +2,9 @@ package com.ads.report.adapters.resources.sheets;
 
 import com.ads.report.application.usecases.ads.GoogleAdsUseCase;
 import com.ads.report.application.usecases.sheets.GoogleSheetsUseCase;
+import com.ads.report.application.usecases.sheets.SheetsAppendUseCase;
+import com.ads.report.domain.sheets.SheetsAppendReport;
+import com.ads.report.domain.sheets.SheetsAppendResult;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.websocket.server.PathParam;
@@ -28,6 +31,8 @@ public class SheetsResource {
     private GoogleAdsUseCase googleAdsUseCase;
     @Autowired
     private GoogleSheetsUseCase googleSheetsUseCase;
+    @Autowired
+    private SheetsAppendUseCase sheetsAppendUseCase;
 
     /**
      *
@@ -179,4 +184,40 @@ public class SheetsResource {
         googleSheetsUseCase.sendAdTitleAndDescription(spreadsheet_id, tab, googleAdsUseCase.getAdTitleAndDescriptions(customerId, start_date, end_date));
         return ResponseEntity.ok("");
     }
+
+    /**
+     *
+     * This method appends to a tab only the days of a report written after its last run.
+     *
+     * <p>The first run of a tab writes it whole, from the start date. The next runs fetch and append only
+     * the closed days after the last one written, up to the end date.<p/>
+     *
+     * @param report The report of the tab: campaign, total_per_day, keyword or headlines.
+     * @param customerId The id of an adwords customer (client).
+     * @param start_date The first day of the tab, used on its first run.
+     * @param end_date The last day to append.
+     * @param spreadsheet_id The spreadsheet id.
+     * @param tab The sheets tab to append to.
+     * @param active Flag to only get the rows that had impressions.
+     *
+     * @return Returns the days and the rows appended.
+     */
+    @GetMapping("/append/{report}/{customerId}")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+        summary = "Append the new days of a report to sheets",
+        description = "In this route you can append to a tab only the days after the last one written to it, instead of rewriting the whole tab."
+    )
+    @ApiResponse(responseCode = "200", description = "Returning 200 and the days appended.")
+    public ResponseEntity<SheetsAppendResult> appendReport(
+            @PathVariable("report") String report,
+            @PathVariable("customerId") String customerId,
+            @PathParam("start_date") String start_date,
+            @PathParam("end_date") String end_date,
+            @PathParam("spreadsheet_id") String spreadsheet_id,
+            @PathParam("tab") String tab,
+            @PathParam("active") boolean active) {
+        final SheetsAppendReport appendReport = SheetsAppendReport.valueOf(report.toUpperCase());
+        return ResponseEntity.ok(sheetsAppendUseCase.append(appendReport, customerId, spreadsheet_id, tab, start_date, end_date, active));
+    }
 }
@@ -0,0 +1,21 @@
+package com.ads.report.application.exception;
+
+import java.io.Serial;
+
+/**
+ *
+ * The Report Job Exception.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+public class ReportJobException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public ReportJobException(String message) {
+        super(message);
+    }
+}
@@ -6,9 +6,14 @@ import com.ads.report.domain.campaign.CampaignKeywordMetrics;
 import com.ads.report.domain.campaign.CampaignMetrics;
 import com.ads.report.domain.campaign.CampaignTitleAndDescription;
 import com.ads.report.domain.campaign.CampaignPerDay;
+import com.ads.report.domain.columnar.MetricTable;
+import com.ads.report.domain.columnar.RollupDimension;
 import com.ads.report.domain.manager.ManagerAccountInfo;
+import com.ads.report.domain.manager.ManagerClient;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  *
@@ -58,6 +63,31 @@ public interface GoogleAdsGateway {
      */
     ManagerAccountInfo getManagerAccount(String managerAccountId) throws GoogleAdsException;
 
+    /**
+     *
+     * Get the enabled client accounts under a manager account, at any level of its hierarchy.
+     *
+     * @param managerAccountId The id of the manager account (MCC).
+     *
+     * @return The list of ManagerClient objects, without the sub-manager accounts.
+     * @throws GoogleAdsException If fails to request the data.
+     */
+    List<ManagerClient> getManagerClients(String managerAccountId) throws GoogleAdsException;
+
+    /**
+     *
+     * Runs the calls of the current request through a manager account.
+     *
+     * <p>Each query made inside the calls, on any thread of the request, logs in through the manager account,
+     * which is how Google Ads grants the access to its client accounts.<p/>
+     *
+     * @param managerAccountId The id of the manager account (MCC).
+     * @param calls The calls to the gateway.
+     *
+     * @return The result of the calls.
+     */
+    <T> T throughManager(String managerAccountId, Supplier<T> calls);
+
     /**
      *
      * Get general information of manager account.
@@ -118,4 +148,168 @@ public interface GoogleAdsGateway {
             String customerId,
             String startDate,
             String endDate) throws GoogleAdsException;
+
+    /**
+     *
+     * Streams the campaign metrics, in date order, to the consumer as they arrive from Google Ads.
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param active Select if the campaign have had any impressions.
+     * @param consumer The consumer that receives each CampaignMetrics object.
+     *
+     * @throws GoogleAdsException if fails to request.
+     */
+    void streamCampaignMetrics(
+            String customerId,
+            String startDate,
+            String endDate,
+            boolean active,
+            Consumer<CampaignMetrics> consumer) throws GoogleAdsException;
+
+    /**
+     *
+     * Streams the metrics per day and hour, in date order, to the consumer as they arrive from Google Ads.
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param consumer The consumer that receives each TotalPerDay object.
+     *
+     * @throws GoogleAdsException if fails to request.
+     */
+    void streamTotalPerDay(
+            String customerId,
+            String startDate,
+            String endDate,
+            Consumer<CampaignPerDay> consumer) throws GoogleAdsException;
+
+    /**
+     *
+     * Streams the keyword metrics, in date order, to the consumer as they arrive from Google Ads.
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param active Select if the keyword have had any impressions or cost.
+     * @param consumer The consumer that receives each KeywordMetrics object.
+     *
+     * @throws GoogleAdsException if fails to request.
+     */
+    void streamKeywordMetrics(
+            String customerId,
+            String startDate,
+            String endDate,
+            boolean active,
+            Consumer<CampaignKeywordMetrics> consumer) throws GoogleAdsException;
+
+    /**
+     *
+     * Streams the titles and descriptions, in date order, to the consumer as they arrive from Google Ads.
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param consumer The consumer that receives each AdTitleAndDescriptionInfo object.
+     *
+     * @throws GoogleAdsException if fails to request.
+     */
+    void streamAdTitleAndDescriptions(
+            String customerId,
+            String startDate,
+            String endDate,
+            Consumer<CampaignTitleAndDescription> consumer) throws GoogleAdsException;
+
+    /**
+     *
+     * Gets the campaign metrics as a columnar table, in date order, without building a CampaignMetrics per row.
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param active Select if the campaign have had any impressions.
+     *
+     * @return A table with the columns of MetricTables.campaignMetrics.
+     * @throws GoogleAdsException if fails to request.
+     */
+    MetricTable getCampaignMetricsTable(
+            String customerId,
+            String startDate,
+            String endDate,
+            boolean active) throws GoogleAdsException;
+
+    /**
+     *
+     * Gets the metrics per day and hour as a columnar table, in date order.
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     *
+     * @return A table with the columns of MetricTables.totalPerDay.
+     * @throws GoogleAdsException if fails to request.
+     */
+    MetricTable getTotalPerDayTable(
+            String customerId,
+            String startDate,
+            String endDate) throws GoogleAdsException;
+
+    /**
+     *
+     * Gets the keyword metrics as a columnar table, in date order, without building a KeywordMetrics per row.
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param active Select if the keyword have had any impressions or cost.
+     *
+     * @return A table with the columns of MetricTables.keywordMetrics.
+     * @throws GoogleAdsException if fails to request.
+     */
+    MetricTable getKeywordMetricsTable(
+            String customerId,
+            String startDate,
+            String endDate,
+            boolean active) throws GoogleAdsException;
+
+    /**
+     *
+     * Gets the campaign metrics of a period, summed by Google Ads as far as the dimension allows.
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param active Select if the campaign have had any impressions.
+     * @param groupBy The dimension of the rollup.
+     *
+     * @return A table with the columns of the dimension, a 'date' column for the periods, and the summed metrics, to roll up by MetricRollup.
+     * @throws GoogleAdsException if fails to request.
+     */
+    MetricTable getCampaignRollupTable(
+            String customerId,
+            String startDate,
+            String endDate,
+            boolean active,
+            RollupDimension groupBy) throws GoogleAdsException;
+
+    /**
+     *
+     * Gets the keyword metrics of a period, summed by Google Ads as far as the dimension allows.
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param active Select if the keyword have had any impressions or cost.
+     * @param groupBy The dimension of the rollup.
+     *
+     * @return A table with the columns of the dimension, a 'date' column for the periods, and the summed metrics, to roll up by MetricRollup.
+     * @throws GoogleAdsException if fails to request.
+     */
+    MetricTable getKeywordRollupTable(
+            String customerId,
+            String startDate,
+            String endDate,
+            boolean active,
+            RollupDimension groupBy) throws GoogleAdsException;
 }
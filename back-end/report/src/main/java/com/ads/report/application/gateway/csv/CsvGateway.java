@@ -1,10 +1,15 @@
 package com.ads.report.application.gateway.csv;
 
 import com.ads.report.application.exception.CsvException;
+import com.ads.report.domain.account.AccountMetrics;
+import com.ads.report.domain.campaign.CampaignKeywordMetrics;
+import com.ads.report.domain.campaign.CampaignMetrics;
+import com.ads.report.domain.campaign.CampaignPerDay;
+import com.ads.report.domain.campaign.CampaignTitleAndDescription;
+import com.ads.report.domain.columnar.MetricTable;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  *
@@ -21,13 +26,121 @@ public interface CsvGateway {
 
     /**
      *
-     * Convert a json object to csv type file.
+     * Writes the account metrics to the response, as csv.
      *
-     * @param records The json.
+     * @param accountMetrics The list of AccountMetrics objects.
      * @param response The response of the http call.
      *
-     * @return The response with the converted csv written.
-     * @throws CsvException if fails to parse Json to CSV.
+     * @return The response with the csv written.
+     * @throws CsvException if fails to write the CSV.
      */
-    HttpServletResponse fromJson(List<Map<String, Object>> records, HttpServletResponse response) throws CsvException ;
+    HttpServletResponse accountMetricsToCsv(List<AccountMetrics> accountMetrics, HttpServletResponse response) throws CsvException;
+
+    /**
+     *
+     * Writes the campaign metrics to the response, as csv.
+     *
+     * @param campaignMetrics The list of CampaignMetrics objects.
+     * @param response The response of the http call.
+     *
+     * @return The response with the csv written.
+     * @throws CsvException if fails to write the CSV.
+     */
+    HttpServletResponse campaignMetricsToCsv(List<CampaignMetrics> campaignMetrics, HttpServletResponse response) throws CsvException;
+
+    /**
+     *
+     * Writes the keyword metrics to the response, as csv.
+     *
+     * @param campaignKeywordMetrics The list of CampaignKeywordMetrics objects.
+     * @param response The response of the http call.
+     *
+     * @return The response with the csv written.
+     * @throws CsvException if fails to write the CSV.
+     */
+    HttpServletResponse keywordMetricsToCsv(List<CampaignKeywordMetrics> campaignKeywordMetrics, HttpServletResponse response) throws CsvException;
+
+    /**
+     *
+     * Writes the metrics per day to the response, as csv.
+     *
+     * @param campaignPerDays The list of CampaignPerDay objects.
+     * @param response The response of the http call.
+     *
+     * @return The response with the csv written.
+     * @throws CsvException if fails to write the CSV.
+     */
+    HttpServletResponse totalPerDayToCsv(List<CampaignPerDay> campaignPerDays, HttpServletResponse response) throws CsvException;
+
+    /**
+     *
+     * Writes the titles and descriptions to the response, as csv.
+     *
+     * @param campaignTitleAndDescriptions The list of CampaignTitleAndDescription objects.
+     * @param response The response of the http call.
+     *
+     * @return The response with the csv written.
+     * @throws CsvException if fails to write the CSV.
+     */
+    HttpServletResponse adTitleAndDescriptionToCsv(List<CampaignTitleAndDescription> campaignTitleAndDescriptions, HttpServletResponse response) throws CsvException;
+
+    /**
+     *
+     * Writes the campaign metrics to the response, as csv, while the source produces them.
+     *
+     * @param campaignMetrics The source of CampaignMetrics objects.
+     * @param response The response of the http call.
+     *
+     * @return The response with the csv written.
+     * @throws CsvException if fails to write the CSV.
+     */
+    HttpServletResponse streamCampaignMetricsToCsv(RowSource<CampaignMetrics> campaignMetrics, HttpServletResponse response) throws CsvException;
+
+    /**
+     *
+     * Writes the keyword metrics to the response, as csv, while the source produces them.
+     *
+     * @param campaignKeywordMetrics The source of CampaignKeywordMetrics objects.
+     * @param response The response of the http call.
+     *
+     * @return The response with the csv written.
+     * @throws CsvException if fails to write the CSV.
+     */
+    HttpServletResponse streamKeywordMetricsToCsv(RowSource<CampaignKeywordMetrics> campaignKeywordMetrics, HttpServletResponse response) throws CsvException;
+
+    /**
+     *
+     * Writes the metrics per day to the response, as csv, while the source produces them.
+     *
+     * @param campaignPerDays The source of CampaignPerDay objects.
+     * @param response The response of the http call.
+     *
+     * @return The response with the csv written.
+     * @throws CsvException if fails to write the CSV.
+     */
+    HttpServletResponse streamTotalPerDayToCsv(RowSource<CampaignPerDay> campaignPerDays, HttpServletResponse response) throws CsvException;
+
+    /**
+     *
+     * Writes the titles and descriptions to the response, as csv, while the source produces them.
+     *
+     * @param campaignTitleAndDescriptions The source of CampaignTitleAndDescription objects.
+     * @param response The response of the http call.
+     *
+     * @return The response with the csv written.
+     * @throws CsvException if fails to write the CSV.
+     */
+    HttpServletResponse streamAdTitleAndDescriptionToCsv(RowSource<CampaignTitleAndDescription> campaignTitleAndDescriptions, HttpServletResponse response) throws CsvException;
+
+    /**
+     *
+     * Writes a columnar table to the response, as csv, reading the cells without building row objects.
+     *
+     * @param table The table, with its column names as headers.
+     * @param response The response of the http call.
+     *
+     * @return The response with the csv written.
+     * @throws CsvException if fails to write the CSV.
+     */
+    HttpServletResponse metricTableToCsv(MetricTable table, HttpServletResponse response) throws CsvException;
 }
@@ -0,0 +1,26 @@
+package com.ads.report.application.gateway.csv;
+
+import java.util.function.Consumer;
+
+/**
+ *
+ * A source of rows that pushes each row to a consumer.
+ *
+ * <p>It lets the CSV writer receive rows while they are still being produced, for example
+ * straight from a Google Ads stream, instead of a list already held in memory.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+@FunctionalInterface
+public interface RowSource<T> {
+
+    /**
+     *
+     * Pushes every row of the source to the consumer, in order.
+     *
+     * @param consumer The consumer of the rows.
+     */
+    void forEach(Consumer<T> consumer);
+}
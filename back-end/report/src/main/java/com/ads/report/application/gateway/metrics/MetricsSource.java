@@ -0,0 +1,29 @@
+package com.ads.report.application.gateway.metrics;
+
+import java.util.Map;
+
+/**
+ *
+ * The interface of a component that exposes its own runtime metrics.
+ *
+ * <p>Each source gives a name and a snapshot of its counters, so the metrics endpoint
+ * can show the state of the pools, limiters and queues of the application.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public interface MetricsSource {
+
+    /**
+     *
+     * @return The name of the source.
+     */
+    String metricsName();
+
+    /**
+     *
+     * @return A snapshot of the current metrics, by metric name.
+     */
+    Map<String, Object> metrics();
+}
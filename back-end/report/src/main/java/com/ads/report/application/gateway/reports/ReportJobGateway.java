@@ -0,0 +1,39 @@
+package com.ads.report.application.gateway.reports;
+
+import com.ads.report.application.exception.ReportJobException;
+import com.ads.report.domain.reports.ReportJob;
+
+/**
+ *
+ * The interface of the report jobs storage.
+ *
+ * <p>This represents the interface that communicates the application with the infra layer,
+ * making possible to share the job state between the application replicas.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public interface ReportJobGateway {
+
+    /**
+     *
+     * Saves the current state of a job.
+     *
+     * @param reportJob The job to save.
+     *
+     * @throws ReportJobException If fails to save the job.
+     */
+    void save(ReportJob reportJob) throws ReportJobException;
+
+    /**
+     *
+     * Finds a job by its id.
+     *
+     * @param id The job id.
+     *
+     * @return The job, or null if it does not exist or has expired.
+     * @throws ReportJobException If fails to load the job.
+     */
+    ReportJob findById(String id) throws ReportJobException;
+}
@@ -0,0 +1,27 @@
+package com.ads.report.application.gateway.reports;
+
+import java.time.Instant;
+
+/**
+ *
+ * The interface of the calendar of the schedules, that tells when a cron expression fires.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public interface ReportScheduleCalendar {
+
+    /**
+     *
+     * Gets the next time a cron expression fires.
+     *
+     * @param cron The cron expression.
+     * @param zone The time zone of the expression.
+     * @param after The time after which to look.
+     *
+     * @return The next time it fires, or null if it never fires again.
+     * @throws IllegalArgumentException If the expression or the zone are not valid.
+     */
+    Instant next(String cron, String zone, Instant after) throws IllegalArgumentException;
+}
@@ -0,0 +1,82 @@
+package com.ads.report.application.gateway.reports;
+
+import com.ads.report.application.exception.ReportJobException;
+import com.ads.report.domain.reports.ReportSchedule;
+
+import java.util.List;
+
+/**
+ *
+ * The interface of the report schedules storage.
+ *
+ * <p>The schedules are shared by all the application replicas, and so are the claims of their runs,
+ * so each run of a schedule is started by only one of them.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public interface ReportScheduleGateway {
+
+    /**
+     *
+     * Saves a schedule.
+     *
+     * @param reportSchedule The schedule to save.
+     *
+     * @throws ReportJobException If fails to save the schedule.
+     */
+    void save(ReportSchedule reportSchedule) throws ReportJobException;
+
+    /**
+     *
+     * Saves the runs of a schedule, only if the schedule still exists.
+     *
+     * @param reportSchedule The schedule, with its last and next runs.
+     *
+     * @return True if the schedule was saved, false if it was deleted meanwhile.
+     * @throws ReportJobException If fails to save the schedule.
+     */
+    boolean reschedule(ReportSchedule reportSchedule) throws ReportJobException;
+
+    /**
+     *
+     * Finds a schedule by its id.
+     *
+     * @param id The schedule id.
+     *
+     * @return The schedule, or null if it does not exist.
+     * @throws ReportJobException If fails to load the schedule.
+     */
+    ReportSchedule findById(String id) throws ReportJobException;
+
+    /**
+     *
+     * Finds every schedule.
+     *
+     * @return The schedules.
+     * @throws ReportJobException If fails to load the schedules.
+     */
+    List<ReportSchedule> findAll() throws ReportJobException;
+
+    /**
+     *
+     * Deletes a schedule.
+     *
+     * @param id The schedule id.
+     *
+     * @throws ReportJobException If fails to delete the schedule.
+     */
+    void delete(String id) throws ReportJobException;
+
+    /**
+     *
+     * Claims one run of a schedule, for the replica that calls it first.
+     *
+     * @param id The schedule id.
+     * @param runAt The time of the run, in epoch milliseconds.
+     *
+     * @return True if this call claimed the run, false if it was already claimed or could not be claimed.
+     */
+    boolean claim(String id, long runAt);
+}
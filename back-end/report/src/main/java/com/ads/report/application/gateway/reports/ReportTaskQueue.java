@@ -0,0 +1,86 @@
+package com.ads.report.application.gateway.reports;
+
+import com.ads.report.domain.reports.ReportTask;
+import com.ads.report.domain.reports.ReportTaskResult;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ *
+ * The interface of the queue of report tasks, shared by all the application replicas.
+ *
+ * <p>Any replica can claim a task. A claimed task that is not completed, retried or extended within the
+ * visibility timeout is handed over to another worker, so a replica that stops loses no task.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public interface ReportTaskQueue {
+
+    /**
+     *
+     * Adds tasks to the queue, to be run with the authorization of the current user.
+     *
+     * @param tasks The tasks.
+     */
+    void enqueue(List<ReportTask> tasks);
+
+    /**
+     *
+     * Waits for the next result of the tasks of an update.
+     *
+     * @param batchId The id of the update.
+     * @param timeout The maximum time to wait.
+     *
+     * @return The result, or null if none arrived in time.
+     */
+    ReportTaskResult awaitResult(String batchId, Duration timeout);
+
+    /**
+     *
+     * Claims the next task, first among the ones past their visibility timeout, then among the new ones.
+     *
+     * @param consumer The name of the worker claiming it.
+     * @param block The maximum time to wait for a new task.
+     *
+     * @return The task, with its attempts counted, or null if there was none.
+     */
+    ReportTask claim(String consumer, Duration block);
+
+    /**
+     *
+     * Extends the visibility timeout of the tasks still running on a worker.
+     *
+     * @param tasks The tasks running.
+     * @param consumer The name of the worker running them.
+     */
+    void extend(List<ReportTask> tasks, String consumer);
+
+    /**
+     *
+     * Sends the result of a task to its update, and removes the task from the queue.
+     *
+     * @param task The task.
+     * @param result The result.
+     */
+    void complete(ReportTask task, ReportTaskResult result);
+
+    /**
+     *
+     * Puts a failed task back at the end of the queue, with its attempts.
+     *
+     * @param task The task.
+     */
+    void retry(ReportTask task);
+
+    /**
+     *
+     * Keeps a task that failed all of its attempts, with its last error, for later inspection.
+     *
+     * @param task The task.
+     * @param error The last error.
+     */
+    void deadLetter(ReportTask task, String error);
+}
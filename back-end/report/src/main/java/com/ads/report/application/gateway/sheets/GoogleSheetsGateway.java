@@ -96,4 +96,24 @@ public interface GoogleSheetsGateway {
      * @throws GoogleSheetsException throws IOException if fails.
      */
     void clearSheetTab(String spreadsheetId, String tab) throws GoogleSheetsException;
+
+    /**
+     *
+     * <p>This method starts a batch of writes to the tabs of one spreadsheet.<p/>
+     *
+     * @param spreadsheetId The spreadsheet id.
+     *
+     * @return An empty batch, that writes to the given spreadsheet when executed.
+     */
+    SheetsBatch batch(String spreadsheetId);
+
+    /**
+     *
+     * <p>This method starts a batch of appends to the tabs of one spreadsheet.<p/>
+     *
+     * @param spreadsheetId The spreadsheet id.
+     *
+     * @return An empty batch, that adds its rows after the rows of each tab, without the headers, when executed.
+     */
+    SheetsBatch appendBatch(String spreadsheetId);
 }
@@ -0,0 +1,99 @@
+package com.ads.report.application.gateway.sheets;
+
+import com.ads.report.application.exception.GoogleSheetsException;
+import com.ads.report.domain.account.AccountMetrics;
+import com.ads.report.domain.campaign.CampaignKeywordMetrics;
+import com.ads.report.domain.campaign.CampaignMetrics;
+import com.ads.report.domain.campaign.CampaignPerDay;
+import com.ads.report.domain.campaign.CampaignTitleAndDescription;
+import com.ads.report.domain.columnar.MetricTable;
+
+import java.util.List;
+
+/**
+ *
+ * The interface of a batch of writes to the tabs of one spreadsheet.
+ *
+ * <p>The tabs added to the batch are only sent when it is executed, all of them together,
+ * so the number of calls to Google Sheets does not grow with the number of tabs.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public interface SheetsBatch {
+
+    /**
+     *
+     * Adds the account metrics to a tab of the batch.
+     *
+     * @param tab The sheets tab to write.
+     * @param accountMetrics A list of AccountMetrics object.
+     *
+     * @return This batch.
+     */
+    SheetsBatch accountMetrics(String tab, List<AccountMetrics> accountMetrics);
+
+    /**
+     *
+     * Adds the campaign metrics to a tab of the batch.
+     *
+     * @param tab The sheets tab to write.
+     * @param campaignMetrics A list of CampaignMetrics object.
+     *
+     * @return This batch.
+     */
+    SheetsBatch campaignMetrics(String tab, List<CampaignMetrics> campaignMetrics);
+
+    /**
+     *
+     * Adds the metrics per day to a tab of the batch.
+     *
+     * @param tab The sheets tab to write.
+     * @param campaignPerDays the list of TotalPerDay objects.
+     *
+     * @return This batch.
+     */
+    SheetsBatch totalPerDay(String tab, List<CampaignPerDay> campaignPerDays);
+
+    /**
+     *
+     * Adds the keyword metrics to a tab of the batch.
+     *
+     * @param tab The sheets tab to write.
+     * @param campaignKeywordMetrics the list of KeywordMetrics objects.
+     *
+     * @return This batch.
+     */
+    SheetsBatch keywordMetrics(String tab, List<CampaignKeywordMetrics> campaignKeywordMetrics);
+
+    /**
+     *
+     * Adds the titles and descriptions to a tab of the batch.
+     *
+     * @param tab The sheets tab to write.
+     * @param campaignTitleAndDescriptions the list of AdTitleAndDescriptionInfo objects.
+     *
+     * @return This batch.
+     */
+    SheetsBatch adTitleAndDescription(String tab, List<CampaignTitleAndDescription> campaignTitleAndDescriptions);
+
+    /**
+     *
+     * Adds a columnar table to a tab of the batch, with its column names as headers.
+     *
+     * @param tab The sheets tab to write.
+     * @param table The table of metrics.
+     *
+     * @return This batch.
+     */
+    SheetsBatch metricTable(String tab, MetricTable table);
+
+    /**
+     *
+     * Clears and writes all the tabs of the batch.
+     *
+     * @throws GoogleSheetsException If fails to send the batch.
+     */
+    void execute() throws GoogleSheetsException;
+}
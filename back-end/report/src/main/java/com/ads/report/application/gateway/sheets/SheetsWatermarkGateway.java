@@ -0,0 +1,65 @@
+package com.ads.report.application.gateway.sheets;
+
+import java.util.List;
+
+/**
+ *
+ * The interface of the store of the last day written to each sheets tab, by the append mode.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public interface SheetsWatermarkGateway {
+
+    /**
+     *
+     * <p>This method gets the last day appended to a tab.<p/>
+     *
+     * @param spreadsheetId The spreadsheet id.
+     * @param tab The sheets tab.
+     *
+     * @return The last day written, as yyyy-MM-dd, or null when the tab was never appended to.
+     */
+    String lastDate(String spreadsheetId, String tab);
+
+    /**
+     *
+     * <p>This method saves the last day appended to a tab.<p/>
+     *
+     * @param spreadsheetId The spreadsheet id.
+     * @param tab The sheets tab.
+     * @param date The last day written, as yyyy-MM-dd.
+     */
+    void saveLastDate(String spreadsheetId, String tab, String date);
+
+    /**
+     *
+     * <p>This method forgets the last day of tabs cleared or rewritten whole, so their next append starts over.<p/>
+     *
+     * @param spreadsheetId The spreadsheet id.
+     * @param tabs The sheets tabs.
+     */
+    void forget(String spreadsheetId, List<String> tabs);
+
+    /**
+     *
+     * <p>This method claims a tab for one append, for a limited time, so two appends of the tab never
+     * read the same last day and write the same days twice.<p/>
+     *
+     * @param spreadsheetId The spreadsheet id.
+     * @param tab The sheets tab.
+     *
+     * @return If the tab was claimed, or false when another append holds it.
+     */
+    boolean claim(String spreadsheetId, String tab);
+
+    /**
+     *
+     * <p>This method releases the claim of a tab, once its append is done.<p/>
+     *
+     * @param spreadsheetId The spreadsheet id.
+     * @param tab The sheets tab.
+     */
+    void release(String spreadsheetId, String tab);
+}
@@ -0,0 +1,144 @@
+package com.ads.report.application.usecases.ads;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ *
+ * The streaming gap filler of daily rows.
+ *
+ * <p>It receives rows sorted by date, as the Ads queries return them, and hands them to the downstream
+ * consumer, emitting one filler row for every day of the period that has no rows. Rows out of the period
+ * are dropped. Only the current day is kept, so memory does not grow with the period length.<p/>
+ *
+ * <p>Call 'finish' after the last row, to emit the fillers of the days left at the end of the period,
+ * or use 'collect' to gap fill a list of rows into a single result list.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class DayGapFiller<T> implements Consumer<T> {
+
+    private final LocalDate start;
+    private final LocalDate end;
+    private final Function<T, String> dateOf;
+    private final Function<LocalDate, T> filler;
+    private final Consumer<T> downstream;
+    // The next day that still has no rows emitted.
+    private LocalDate next;
+    // The last date seen, to skip parsing the rows of the same day.
+    private String currentDate;
+    private LocalDate current;
+
+    /**
+     *
+     * The constructor receives the period, how to read the date of a row and how to build a filler row.
+     *
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param dateOf The date of a row, in the 'yyyy-MM-dd' format.
+     * @param filler The filler row of a day with no rows.
+     * @param downstream The consumer of the gap filled rows.
+     *
+     * @throws IllegalArgumentException If the start date is after the end date.
+     */
+    public DayGapFiller(String startDate,
+                        String endDate,
+                        Function<T, String> dateOf,
+                        Function<LocalDate, T> filler,
+                        Consumer<T> downstream) {
+        this.start = LocalDate.parse(startDate);
+        this.end = LocalDate.parse(endDate);
+        this.next = start;
+        // Check if the start date is after the end date.
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("The start date is after the end date");
+        }
+        this.dateOf = dateOf;
+        this.filler = filler;
+        this.downstream = downstream;
+    }
+
+    /**
+     *
+     * Gap fills the rows of a list report into a single list, sized once for the rows and the fillers.
+     *
+     * <p>The period is checked before the rows are fetched, so an invalid period fails without querying
+     * Google Ads.<p/>
+     *
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param dateOf The date of a row, in the 'yyyy-MM-dd' format.
+     * @param filler The filler row of a day with no rows.
+     * @param rows The fetch of the rows, sorted by date.
+     *
+     * @return The gap filled rows.
+     * @throws IllegalArgumentException If the start date is after the end date.
+     */
+    public static <T> List<T> collect(String startDate,
+                                      String endDate,
+                                      Function<T, String> dateOf,
+                                      Function<LocalDate, T> filler,
+                                      Supplier<List<T>> rows) {
+        final ArrayList<T> results = new ArrayList<>();
+        final DayGapFiller<T> gapFiller = new DayGapFiller<>(startDate, endDate, dateOf, filler, results::add);
+        final List<T> fetched = rows.get();
+        // At most every row plus one filler for each day of the period.
+        results.ensureCapacity(fetched.size() + (int) ChronoUnit.DAYS.between(gapFiller.start, gapFiller.end) + 1);
+        fetched.forEach(gapFiller);
+        gapFiller.finish();
+        return results;
+    }
+
+    /**
+     *
+     * Emits the fillers of the days before the row, then the row itself.
+     *
+     * @param row The next row, in date order.
+     */
+    @Override
+    public void accept(T row) {
+        final String date = dateOf.apply(row);
+        if (!date.equals(currentDate)) {
+            currentDate = date;
+            current = LocalDate.parse(date);
+        }
+        // Drops the rows out of the period.
+        if (current.isBefore(start) || current.isAfter(end)) {
+            return;
+        }
+        fillUntil(current);
+        if (!current.isBefore(next)) {
+            next = current.plusDays(1);
+        }
+        downstream.accept(row);
+    }
+
+    /**
+     *
+     * Emits the fillers of the days left until the end of the period.
+     *
+     */
+    public void finish() {
+        fillUntil(end.plusDays(1));
+    }
+
+    /**
+     *
+     * Emits one filler row for each day from the next day up to the given day, exclusive.
+     *
+     * @param until The day where the fillers stop.
+     */
+    private void fillUntil(LocalDate until) {
+        while (next.isBefore(until)) {
+            downstream.accept(filler.apply(next));
+            next = next.plusDays(1);
+        }
+    }
+}
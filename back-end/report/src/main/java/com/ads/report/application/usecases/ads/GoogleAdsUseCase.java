@@ -6,13 +6,14 @@ import com.ads.report.domain.campaign.CampaignKeywordMetrics;
 import com.ads.report.domain.campaign.CampaignMetrics;
 import com.ads.report.domain.campaign.CampaignTitleAndDescription;
 import com.ads.report.domain.campaign.CampaignPerDay;
+import com.ads.report.domain.columnar.MetricRollup;
+import com.ads.report.domain.columnar.MetricTable;
+import com.ads.report.domain.columnar.RollupDimension;
 import com.ads.report.domain.manager.ManagerAccountInfo;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  *
@@ -71,33 +72,6 @@ public class GoogleAdsUseCase {
         return googleAdsGateway.getAccountMetrics(customerId, startDate, endDate);
     }
 
-    /**
-     *
-     * This auxiliar method provides a list of days in a given period.
-     *
-     * @param startDate The start date of the analysis period.
-     * @param endDate The end date of the analysis period.
-     *
-     * @return A list of all dates of a certain given period.
-     */
-    private List<LocalDate> getPeriodDaysList(String startDate, String endDate) {
-        // Creating a list with all dates from the given period.
-        final List<LocalDate> allDates = new ArrayList<>();
-        // Parsing the date strings to LocalDate.
-        LocalDate start = LocalDate.parse(startDate);
-        final LocalDate end = LocalDate.parse(endDate);
-        // Check if the start date is after the end date.
-        if (start.isAfter(end)) {
-            throw new IllegalArgumentException("The start date is after the end date");
-        }
-        // Loop into the dates to complement the dates list.
-        while (!start.isAfter(end)) {
-            allDates.add(start);
-            start = start.plusDays(1);
-        }
-        return allDates;
-    }
-
     /**
      *
      * This method allows to get campaigns metrics.
@@ -108,32 +82,11 @@ public class GoogleAdsUseCase {
      * @throws RuntimeException If fails to request the data.
      */
     public List<CampaignMetrics> getCampaignMetrics(String customerId, String startDate, String endDate, boolean active) {
-        // Getting campaign metrics from Google Ads.
-        final List<CampaignMetrics> campaignMetrics = googleAdsGateway.getCampaignMetrics(customerId, startDate, endDate, active);
-        final List<LocalDate> allDates = getPeriodDaysList(startDate, endDate);
-        // Creating a map to group metrics of a single date.
-        final Map<LocalDate, List<CampaignMetrics>> metricsMap = new HashMap<>();
-        for (CampaignMetrics m: campaignMetrics) {
-            final LocalDate date = LocalDate.parse(m.getDate());
-            if (!metricsMap.containsKey(date)) {
-                metricsMap.put(date, new ArrayList<>());
-            }
-            metricsMap.get(date).add(m);
-        }
-        // Creating a list to have the complete results.
-        final List<CampaignMetrics> completeResults = new ArrayList<>();
-        for (LocalDate date: allDates) {
-            final List<CampaignMetrics> dailyMetrics = metricsMap.get(date);
-            if (dailyMetrics == null || dailyMetrics.isEmpty()) {
-                completeResults.add(
-                    new CampaignMetrics(date.toString(), date.getDayOfWeek().name(), 0L,
-                        "null", "null", "null", 0L, 0L, 0d, 0d, 0d, 0d, 0d)
-                );
-            } else {
-                completeResults.addAll(dailyMetrics);
-            }
-        }
-        return completeResults;
+        // Getting campaign metrics from Google Ads, and filling the days without metrics.
+        return DayGapFiller.collect(
+            startDate, endDate, CampaignMetrics::getDate, GoogleAdsUseCase::emptyCampaignMetrics,
+            () -> googleAdsGateway.getCampaignMetrics(customerId, startDate, endDate, active)
+        );
     }
 
     /**
@@ -149,29 +102,11 @@ public class GoogleAdsUseCase {
      * @return Returns a list of TotalPerDay object.
      */
     public List<CampaignPerDay> getTotalPerDay(String customerId, String startDate, String endDate) {
-        // Getting metrics per days.
-        final List<CampaignPerDay> campaignPerDays = googleAdsGateway.getTotalPerDay(customerId, startDate, endDate);
-        final List<LocalDate> allDates = getPeriodDaysList(startDate, endDate);
-        // Creating a map to group metrics of a single date.
-        final Map<LocalDate, List<CampaignPerDay>> metricsMap = new HashMap<>();
-        for (CampaignPerDay m: campaignPerDays) {
-            final LocalDate date = LocalDate.parse(m.getDate());
-            if (!metricsMap.containsKey(date)) {
-                metricsMap.put(date, new ArrayList<>());
-            }
-            metricsMap.get(date).add(m);
-        }
-        // Creating a list to have the complete results.
-        final List<CampaignPerDay> completeResults = new ArrayList<>();
-        for (LocalDate date: allDates) {
-            List<CampaignPerDay> dailyMetrics = metricsMap.get(date);
-            if (dailyMetrics == null || dailyMetrics.isEmpty()) {
-                completeResults.add(new CampaignPerDay(date.toString(), 0L, 0L, 0d, 0d, 0, date.getDayOfWeek().name()));
-            } else {
-                completeResults.addAll(dailyMetrics);
-            }
-        }
-        return completeResults;
+        // Getting metrics per days, and filling the days without metrics.
+        return DayGapFiller.collect(
+            startDate, endDate, CampaignPerDay::getDate, GoogleAdsUseCase::emptyTotalPerDay,
+            () -> googleAdsGateway.getTotalPerDay(customerId, startDate, endDate)
+        );
     }
 
     /**
@@ -185,33 +120,11 @@ public class GoogleAdsUseCase {
      * @return A list of KeywordMetrics object.
      */
     public List<CampaignKeywordMetrics> getKeywordMetrics(String customerId, String startDate, String endDate, boolean active) {
-        // Getting keyword metrics form Google Ads.
-        final List<CampaignKeywordMetrics> campaignKeywordMetrics = googleAdsGateway.getKeywordMetrics(customerId, startDate, endDate, active);
-        // Creating a list with all dates from the given period.
-        final List<LocalDate> allDates = getPeriodDaysList(startDate, endDate);
-        // Creating a map to group metrics of a single date.
-        final Map<LocalDate, List<CampaignKeywordMetrics>> metricsMap = new HashMap<>();
-        for (CampaignKeywordMetrics m: campaignKeywordMetrics) {
-            final LocalDate date = LocalDate.parse(m.getDate());
-            if (!metricsMap.containsKey(date)) {
-                metricsMap.put(date, new ArrayList<>());
-            }
-            metricsMap.get(date).add(m);
-        }
-        // Creating a list to have the complete results.
-        final List<CampaignKeywordMetrics> completeResults = new ArrayList<>();
-        for (LocalDate date: allDates) {
-            final List<CampaignKeywordMetrics> dailyMetrics = metricsMap.get(date);
-            if (dailyMetrics == null || dailyMetrics.isEmpty()) {
-                completeResults.add(
-                    new CampaignKeywordMetrics(date.toString(), date.getDayOfWeek().name(),
-                        "null", "null", "null", "null", "null", 0L, 0L, 0d, 0d, 0d, 0d)
-                );
-            } else {
-                completeResults.addAll(dailyMetrics);
-            }
-        }
-        return completeResults;
+        // Getting keyword metrics form Google Ads, and filling the days without metrics.
+        return DayGapFiller.collect(
+            startDate, endDate, CampaignKeywordMetrics::getDate, GoogleAdsUseCase::emptyKeywordMetrics,
+            () -> googleAdsGateway.getKeywordMetrics(customerId, startDate, endDate, active)
+        );
     }
 
     /**
@@ -225,31 +138,214 @@ public class GoogleAdsUseCase {
      * @return A list of AdTitleAndDescriptionInfo object.
      */
     public List<CampaignTitleAndDescription> getAdTitleAndDescriptions(String customerId, String startDate, String endDate) {
-        // Getting title and description metrics from Google Ads.
-        final List<CampaignTitleAndDescription> campaignTitleAndDescriptions = googleAdsGateway.getAdTitleAndDescriptions(customerId, startDate, endDate);
-        // Creating a list with all dates from the given period.
-        final List<LocalDate> allDates = getPeriodDaysList(startDate, endDate);
-        // Creating a map to group metrics of a single date.
-        final Map<LocalDate, List<CampaignTitleAndDescription>> metricsMap = new HashMap<>();
-        for (CampaignTitleAndDescription m: campaignTitleAndDescriptions) {
-            final LocalDate date = LocalDate.parse(m.getDate());
-            if (!metricsMap.containsKey(date)) {
-                metricsMap.put(date, new ArrayList<>());
-            }
-            metricsMap.get(date).add(m);
+        // Getting title and description metrics from Google Ads, and filling the days without metrics.
+        return DayGapFiller.collect(
+            startDate, endDate, CampaignTitleAndDescription::getDate, GoogleAdsUseCase::emptyTitleAndDescription,
+            () -> googleAdsGateway.getAdTitleAndDescriptions(customerId, startDate, endDate)
+        );
+    }
+
+    /**
+     *
+     * This method streams the campaign metrics, with the days without metrics filled, to the consumer.
+     *
+     * <p>The rows flow from Google Ads to the consumer as they arrive, without holding the whole period in memory.<p/>
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param active Flag to check if the campaign is enabled.
+     * @param consumer The consumer of each CampaignMetrics object, in date order.
+     */
+    public void streamCampaignMetrics(String customerId, String startDate, String endDate, boolean active, Consumer<CampaignMetrics> consumer) {
+        final DayGapFiller<CampaignMetrics> filler = new DayGapFiller<>(
+            startDate, endDate, CampaignMetrics::getDate, GoogleAdsUseCase::emptyCampaignMetrics, consumer
+        );
+        googleAdsGateway.streamCampaignMetrics(customerId, startDate, endDate, active, filler);
+        filler.finish();
+    }
+
+    /**
+     *
+     * This method streams the metrics per day, with the days without metrics filled, to the consumer.
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param consumer The consumer of each TotalPerDay object, in date order.
+     */
+    public void streamTotalPerDay(String customerId, String startDate, String endDate, Consumer<CampaignPerDay> consumer) {
+        final DayGapFiller<CampaignPerDay> filler = new DayGapFiller<>(
+            startDate, endDate, CampaignPerDay::getDate, GoogleAdsUseCase::emptyTotalPerDay, consumer
+        );
+        googleAdsGateway.streamTotalPerDay(customerId, startDate, endDate, filler);
+        filler.finish();
+    }
+
+    /**
+     *
+     * This method streams the keyword metrics, with the days without metrics filled, to the consumer.
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param active Flag to check if the keyword had impressions.
+     * @param consumer The consumer of each KeywordMetrics object, in date order.
+     */
+    public void streamKeywordMetrics(String customerId, String startDate, String endDate, boolean active, Consumer<CampaignKeywordMetrics> consumer) {
+        final DayGapFiller<CampaignKeywordMetrics> filler = new DayGapFiller<>(
+            startDate, endDate, CampaignKeywordMetrics::getDate, GoogleAdsUseCase::emptyKeywordMetrics, consumer
+        );
+        googleAdsGateway.streamKeywordMetrics(customerId, startDate, endDate, active, filler);
+        filler.finish();
+    }
+
+    /**
+     *
+     * This method streams the titles and descriptions, with the days without metrics filled, to the consumer.
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param consumer The consumer of each AdTitleAndDescriptionInfo object, in date order.
+     */
+    public void streamAdTitleAndDescriptions(String customerId, String startDate, String endDate, Consumer<CampaignTitleAndDescription> consumer) {
+        final DayGapFiller<CampaignTitleAndDescription> filler = new DayGapFiller<>(
+            startDate, endDate, CampaignTitleAndDescription::getDate, GoogleAdsUseCase::emptyTitleAndDescription, consumer
+        );
+        googleAdsGateway.streamAdTitleAndDescriptions(customerId, startDate, endDate, filler);
+        filler.finish();
+    }
+
+    /**
+     *
+     * This method gets the campaign metrics as a columnar table, with the days without metrics filled.
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param active Flag to check if the campaign is enabled.
+     *
+     * @return The table of campaign metrics.
+     */
+    public MetricTable getCampaignMetricsTable(String customerId, String startDate, String endDate, boolean active) {
+        final LocalDate[] period = period(startDate, endDate);
+        return googleAdsGateway.getCampaignMetricsTable(customerId, startDate, endDate, active).withDayGapsFilled(period[0], period[1]);
+    }
+
+    /**
+     *
+     * This method gets the metrics per day and hour as a columnar table, with the days without metrics filled.
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     *
+     * @return The table of metrics per day and hour.
+     */
+    public MetricTable getTotalPerDayTable(String customerId, String startDate, String endDate) {
+        final LocalDate[] period = period(startDate, endDate);
+        return googleAdsGateway.getTotalPerDayTable(customerId, startDate, endDate).withDayGapsFilled(period[0], period[1]);
+    }
+
+    /**
+     *
+     * This method gets the keyword metrics as a columnar table, with the days without metrics filled.
+     *
+     * <p>A large keyword report costs a few bytes per row this way, instead of one object per row.<p/>
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param active Flag to check if the keyword had impressions.
+     *
+     * @return The table of keyword metrics.
+     */
+    public MetricTable getKeywordMetricsTable(String customerId, String startDate, String endDate, boolean active) {
+        final LocalDate[] period = period(startDate, endDate);
+        return googleAdsGateway.getKeywordMetricsTable(customerId, startDate, endDate, active).withDayGapsFilled(period[0], period[1]);
+    }
+
+    /**
+     *
+     * This method gets the campaign metrics of a period, summed by campaign, ad group, week or month.
+     *
+     * <p>The rows are aggregated on the server, so the response has one row per group, with the CTR,
+     * CPC and CPA recomputed from the sums. The query selects only the fields of the dimension, so
+     * Google Ads returns the rows already summed by period or name.<p/>
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param active Flag to check if the campaign is enabled.
+     * @param groupBy The dimension of the groups.
+     *
+     * @return The table with the metrics of each group.
+     * @throws IllegalArgumentException If the period is invalid, or the campaigns have no such dimension.
+     */
+    public MetricTable getCampaignRollup(String customerId, String startDate, String endDate, boolean active, RollupDimension groupBy) {
+        // Check if the dimension exists on the campaign metrics before querying.
+        if (groupBy == RollupDimension.KEYWORD) {
+            throw new IllegalArgumentException("The campaign metrics can not be grouped by keyword");
         }
-        // Creating a list to have the complete results.
-        final List<CampaignTitleAndDescription> completeResults = new ArrayList<>();
-        for (LocalDate date: allDates) {
-            List<CampaignTitleAndDescription> dailyMetrics = metricsMap.get(date);
-            if (dailyMetrics == null || dailyMetrics.isEmpty()) {
-                completeResults.add(
-                    new CampaignTitleAndDescription(date.toString(), "null", "null", List.of("null"), List.of("null"), 0L, 0L, 0d)
-                );
-            } else {
-                completeResults.addAll(dailyMetrics);
-            }
+        period(startDate, endDate);
+        // Google Ads sums what its query can, and the rows sharing a group are merged here.
+        return MetricRollup.rollup(googleAdsGateway.getCampaignRollupTable(customerId, startDate, endDate, active, groupBy), groupBy);
+    }
+
+    /**
+     *
+     * This method gets the keyword metrics of a period, summed by campaign, ad group, keyword, week or month.
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param active Flag to check if the keyword had impressions.
+     * @param groupBy The dimension of the groups.
+     *
+     * @return The table with the metrics of each group.
+     * @throws IllegalArgumentException If the period is invalid.
+     */
+    public MetricTable getKeywordRollup(String customerId, String startDate, String endDate, boolean active, RollupDimension groupBy) {
+        period(startDate, endDate);
+        // Google Ads sums what its query can, and the rows sharing a group are merged here.
+        return MetricRollup.rollup(googleAdsGateway.getKeywordRollupTable(customerId, startDate, endDate, active, groupBy), groupBy);
+    }
+
+    /**
+     *
+     * Parses and checks the analysis period, before Google Ads is queried.
+     *
+     * @return The start and end dates.
+     * @throws IllegalArgumentException If the start date is after the end date.
+     */
+    private static LocalDate[] period(String startDate, String endDate) {
+        final LocalDate start = LocalDate.parse(startDate);
+        final LocalDate end = LocalDate.parse(endDate);
+        // Check if the start date is after the end date.
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("The start date is after the end date");
         }
-        return completeResults;
+        return new LocalDate[]{start, end};
+    }
+
+    // The filler rows of the days without metrics.
+
+    private static CampaignMetrics emptyCampaignMetrics(LocalDate date) {
+        return new CampaignMetrics(date.toString(), date.getDayOfWeek().name(), 0L,
+            "null", "null", "null", 0L, 0L, 0d, 0d, 0d, 0d, 0d);
+    }
+
+    private static CampaignPerDay emptyTotalPerDay(LocalDate date) {
+        return new CampaignPerDay(date.toString(), 0L, 0L, 0d, 0d, 0, date.getDayOfWeek().name());
+    }
+
+    private static CampaignKeywordMetrics emptyKeywordMetrics(LocalDate date) {
+        return new CampaignKeywordMetrics(date.toString(), date.getDayOfWeek().name(),
+            "null", "null", "null", "null", "null", 0L, 0L, 0d, 0d, 0d, 0d);
+    }
+
+    private static CampaignTitleAndDescription emptyTitleAndDescription(LocalDate date) {
+        return new CampaignTitleAndDescription(date.toString(), "null", "null", List.of("null"), List.of("null"), 0L, 0L, 0d);
     }
 }
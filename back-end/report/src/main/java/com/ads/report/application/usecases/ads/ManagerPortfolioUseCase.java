@@ -0,0 +1,185 @@
+package com.ads.report.application.usecases.ads;
+
+import com.ads.report.application.gateway.ads.GoogleAdsGateway;
+import com.ads.report.domain.account.AccountMetrics;
+import com.ads.report.domain.manager.ManagerClient;
+import com.ads.report.domain.manager.ManagerClientResult;
+import com.ads.report.domain.manager.ManagerPortfolio;
+import com.ads.report.domain.reports.ReportStatus;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ *
+ * The use case of fetching the metrics of every client account of a manager account in one pass.
+ *
+ * <p>The client accounts are discovered through the manager account, and fetched as one fan-out on the
+ * given executor: the queries log in through the manager account, share the channels of the gateway,
+ * are bounded by one concurrency limit, and write their results to one shared buffer, a slot per client.<p/>
+ *
+ * <p>The whole fetch runs within a fixed time budget. The clients not fetched when it runs out are
+ * reported as failed, and the portfolio as incomplete, instead of holding the request. A fetch still
+ * waiting once the portfolio is answered skips its query, so it does not keep a permit or spend quota
+ * after the manager account is no longer logged in.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class ManagerPortfolioUseCase {
+
+    private final GoogleAdsGateway googleAdsGateway;
+    private final Executor executor;
+    private final Semaphore adsPermits;
+    private final Duration budget;
+
+    /**
+     *
+     * The constructor uses the Google Ads gateway interface to make the calls.
+     *
+     * @param googleAdsGateway the Google Ads gateway
+     * @param executor the executor that runs the client fetches
+     * @param adsConcurrency the maximum of simultaneous client fetches
+     * @param budget the time budget of a whole portfolio
+     */
+    public ManagerPortfolioUseCase(GoogleAdsGateway googleAdsGateway, Executor executor, int adsConcurrency, Duration budget) {
+        this.googleAdsGateway = googleAdsGateway;
+        this.executor = executor;
+        this.adsPermits = new Semaphore(adsConcurrency, true);
+        this.budget = budget;
+    }
+
+    /**
+     *
+     * This method gets the account metrics of every client account under a manager account.
+     *
+     * @param managerAccountId The id of the manager account (MCC).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     *
+     * @return The portfolio, with the result of each client account.
+     * @throws IllegalArgumentException If the start date is after the end date.
+     */
+    public ManagerPortfolio getPortfolio(String managerAccountId, String startDate, String endDate) {
+        // Check if the start date is after the end date.
+        if (LocalDate.parse(startDate).isAfter(LocalDate.parse(endDate))) {
+            throw new IllegalArgumentException("The start date is after the end date");
+        }
+        final long startedAt = System.currentTimeMillis();
+        final long deadline = System.nanoTime() + budget.toNanos();
+        // Closed once the portfolio is collected, before the manager account logs out.
+        final AtomicBoolean closed = new AtomicBoolean();
+        return googleAdsGateway.throughManager(managerAccountId, () -> {
+            try {
+                final List<ManagerClient> clients = googleAdsGateway.getManagerClients(managerAccountId);
+                // Fanning out all the clients at once, each one writing to its own slot.
+                final AtomicReferenceArray<ManagerClientResult> results = new AtomicReferenceArray<>(clients.size());
+                final CompletableFuture<?>[] tasks = new CompletableFuture[clients.size()];
+                for (int i = 0; i < clients.size(); i++) {
+                    final int index = i;
+                    tasks[i] = CompletableFuture.runAsync(
+                        () -> results.set(index, fetchClient(clients.get(index), startDate, endDate, deadline, closed)),
+                        executor
+                    );
+                }
+                awaitUntil(CompletableFuture.allOf(tasks), deadline);
+                // Collecting the results, and failing the clients still running.
+                final List<ManagerClientResult> portfolio = new ArrayList<>(clients.size());
+                boolean complete = true;
+                for (int i = 0; i < clients.size(); i++) {
+                    ManagerClientResult result = results.get(i);
+                    if (result == null) {
+                        tasks[i].cancel(false);
+                        result = failed(clients.get(i), System.currentTimeMillis() - startedAt, "The time budget ran out.");
+                    }
+                    complete &= result.getStatus() == ReportStatus.SUCCESS;
+                    portfolio.add(result);
+                }
+                return new ManagerPortfolio(managerAccountId, startDate, endDate, complete, System.currentTimeMillis() - startedAt, portfolio);
+            } finally {
+                closed.set(true);
+            }
+        });
+    }
+
+    /**
+     *
+     * Fetches the account metrics of one client, waiting for a permit only while the budget lasts.
+     *
+     * <p>The budget and the portfolio are checked again once the permit is taken, since a fetch already
+     * running is not stopped by cancelling its task.<p/>
+     *
+     * @param client The client account.
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param deadline The end of the budget, in System.nanoTime.
+     * @param closed Whether the portfolio was already collected.
+     *
+     * @return The result of the client, that never throws.
+     */
+    private ManagerClientResult fetchClient(ManagerClient client, String startDate, String endDate, long deadline, AtomicBoolean closed) {
+        final long start = System.currentTimeMillis();
+        if (closed.get()) {
+            return failed(client, 0, "The time budget ran out.");
+        }
+        try {
+            if (!adsPermits.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                return failed(client, System.currentTimeMillis() - start, "The time budget ran out.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failed(client, System.currentTimeMillis() - start, "Interrupted while waiting for a Google Ads permit.");
+        }
+        try {
+            // Skipping the query when the budget ran out while waiting for the permit.
+            if (closed.get() || deadline - System.nanoTime() <= 0) {
+                return failed(client, System.currentTimeMillis() - start, "The time budget ran out.");
+            }
+            final List<AccountMetrics> metrics = googleAdsGateway.getAccountMetrics(client.getCustomerId(), startDate, endDate);
+            return new ManagerClientResult(
+                client.getCustomerId(),
+                client.getDescriptiveName(),
+                ReportStatus.SUCCESS,
+                System.currentTimeMillis() - start,
+                null,
+                metrics.isEmpty() ? null : metrics.getFirst()
+            );
+        } catch (Exception e) {
+            return failed(client, System.currentTimeMillis() - start, e.getMessage());
+        } finally {
+            adsPermits.release();
+        }
+    }
+
+    /**
+     *
+     * Waits for the fan-out until the deadline, without failing when the deadline passes.
+     *
+     * @param fanOut The future of all the client fetches.
+     * @param deadline The end of the budget, in System.nanoTime.
+     */
+    private static void awaitUntil(CompletableFuture<?> fanOut, long deadline) {
+        try {
+            fanOut.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException ignored) {
+            // The clients not finished are failed by the caller.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ManagerClientResult failed(ManagerClient client, long durationMillis, String error) {
+        return new ManagerClientResult(client.getCustomerId(), client.getDescriptiveName(), ReportStatus.FAILED, durationMillis, error, null);
+    }
+}
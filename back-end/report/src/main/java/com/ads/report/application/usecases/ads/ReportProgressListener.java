@@ -0,0 +1,47 @@
+package com.ads.report.application.usecases.ads;
+
+import com.ads.report.domain.reports.ReportTabResult;
+
+/**
+ *
+ * The listener of the progress of an update of various reports.
+ *
+ * <p>The methods are called from the worker threads, possibly at the same time for different tabs.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public interface ReportProgressListener {
+
+    /**
+     *
+     * A listener that ignores all the progress.
+     *
+     */
+    ReportProgressListener NONE = new ReportProgressListener() {
+        @Override
+        public void tabStarted(int clientIndex, String tab) {}
+
+        @Override
+        public void tabFinished(int clientIndex, ReportTabResult result) {}
+    };
+
+    /**
+     *
+     * Called when a tab starts to be fetched.
+     *
+     * @param clientIndex The index of the client in the list being updated.
+     * @param tab The sheets tab.
+     */
+    void tabStarted(int clientIndex, String tab);
+
+    /**
+     *
+     * Called when a tab is written, or when it fails.
+     *
+     * @param clientIndex The index of the client in the list being updated.
+     * @param result The result of the tab.
+     */
+    void tabFinished(int clientIndex, ReportTabResult result);
+}
@@ -1,25 +1,61 @@
 package com.ads.report.application.usecases.ads;
 
-import com.ads.report.application.exception.GoogleSheetsException;
 import com.ads.report.application.gateway.ads.GoogleAdsGateway;
+import com.ads.report.application.gateway.reports.ReportTaskQueue;
 import com.ads.report.application.gateway.sheets.GoogleSheetsGateway;
+import com.ads.report.application.gateway.sheets.SheetsBatch;
+import com.ads.report.domain.reports.ReportStatus;
+import com.ads.report.domain.reports.ReportTabResult;
+import com.ads.report.domain.reports.ReportTask;
+import com.ads.report.domain.reports.ReportTaskResult;
+import com.ads.report.domain.reports.ReportType;
 import com.ads.report.domain.reports.UpdateAllReports;
+import com.ads.report.domain.reports.UpdateAllReportsResult;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 /**
  *
  * The use case of updating various reports.
  *
+ * <p>Each client and each of its report tabs is fetched as an independent task on the given executor,
+ * and the tabs of a client are then written to its spreadsheet in a single batch. The calls to each
+ * upstream API are bounded by their own concurrency limit, and the failure of one tab does not abort
+ * the other tabs, nor the other clients.<p/>
+ *
+ * <p>With a task queue, each report of each client becomes a task that any replica can run, fetching and
+ * writing its own tab, and the replica running the update only waits for their results. So adding replicas
+ * adds workers to every update.<p/>
+ *
  * @author Marcus Nastasi
  * @version 1.0.1
  * @since 2025
  * */
 public class UpdateAllReportsUseCase {
 
+    // The longest single wait for a result, so the deadline is checked while the results are late.
+    private static final Duration RESULT_POLL = Duration.ofSeconds(10);
+
     private final GoogleAdsGateway googleAdsGateway;
     private final GoogleSheetsGateway googleSheetsGateway;
     private final GoogleAdsUseCase googleAdsUseCase;
+    private final Executor executor;
+    private final Semaphore adsPermits;
+    private final Semaphore sheetsPermits;
+    private final ReportTaskQueue reportTaskQueue;
+    private final Duration resultTimeout;
 
     /**
      *
@@ -27,11 +63,49 @@ public class UpdateAllReportsUseCase {
      *
      * @param googleAdsGateway the Google Ads gateway
      * @param googleSheetsGateway the Google Sheets gateway
+     * @param googleAdsUseCase the Google Ads use case
+     * @param executor the executor that runs the report tasks
+     * @param adsConcurrency the maximum of simultaneous calls to Google Ads
+     * @param sheetsConcurrency the maximum of simultaneous calls to Google Sheets
      */
-    public UpdateAllReportsUseCase(GoogleAdsGateway googleAdsGateway, GoogleSheetsGateway googleSheetsGateway, GoogleAdsUseCase googleAdsUseCase) {
+    public UpdateAllReportsUseCase(GoogleAdsGateway googleAdsGateway,
+                                   GoogleSheetsGateway googleSheetsGateway,
+                                   GoogleAdsUseCase googleAdsUseCase,
+                                   Executor executor,
+                                   int adsConcurrency,
+                                   int sheetsConcurrency) {
+        this(googleAdsGateway, googleSheetsGateway, googleAdsUseCase, executor, adsConcurrency, sheetsConcurrency, null, null);
+    }
+
+    /**
+     *
+     * The constructor of the updates shared between replicas, through a queue of tasks.
+     *
+     * @param googleAdsGateway the Google Ads gateway
+     * @param googleSheetsGateway the Google Sheets gateway
+     * @param googleAdsUseCase the Google Ads use case
+     * @param executor the executor that runs the report tasks
+     * @param adsConcurrency the maximum of simultaneous calls to Google Ads
+     * @param sheetsConcurrency the maximum of simultaneous calls to Google Sheets
+     * @param reportTaskQueue the queue of the tasks, or null to run every update on this replica
+     * @param resultTimeout the maximum time an update waits for the results of its tasks
+     */
+    public UpdateAllReportsUseCase(GoogleAdsGateway googleAdsGateway,
+                                   GoogleSheetsGateway googleSheetsGateway,
+                                   GoogleAdsUseCase googleAdsUseCase,
+                                   Executor executor,
+                                   int adsConcurrency,
+                                   int sheetsConcurrency,
+                                   ReportTaskQueue reportTaskQueue,
+                                   Duration resultTimeout) {
         this.googleAdsGateway = googleAdsGateway;
         this.googleSheetsGateway = googleSheetsGateway;
         this.googleAdsUseCase = googleAdsUseCase;
+        this.executor = executor;
+        this.adsPermits = new Semaphore(adsConcurrency, true);
+        this.sheetsPermits = new Semaphore(sheetsConcurrency, true);
+        this.reportTaskQueue = reportTaskQueue;
+        this.resultTimeout = resultTimeout;
     }
 
     /**
@@ -42,38 +116,315 @@ public class UpdateAllReportsUseCase {
      * you can update the sheets tables with ease.<p/>
      *
      * @param updateAllReports the list of UpdateAllReports domain object.
+     *
+     * @return The result of each client, in the same order of the given list.
      */
-    public void updateReports(List<UpdateAllReports> updateAllReports) {
-        // Iterating through the objects.
-        updateAllReports.forEach(r -> {
+    public List<UpdateAllReportsResult> updateReports(List<UpdateAllReports> updateAllReports) {
+        return updateReports(updateAllReports, ReportProgressListener.NONE);
+    }
+
+    /**
+     *
+     * This method allows the user to send data to sheets, from various accounts, following the progress.
+     *
+     * @param updateAllReports the list of UpdateAllReports domain object.
+     * @param listener the listener notified when each tab starts and finishes.
+     *
+     * @return The result of each client, in the same order of the given list.
+     */
+    public List<UpdateAllReportsResult> updateReports(List<UpdateAllReports> updateAllReports, ReportProgressListener listener) {
+        if (reportTaskQueue != null) return distribute(updateAllReports, listener);
+        // Fanning out all the clients at once.
+        final List<CompletableFuture<UpdateAllReportsResult>> tasks = new ArrayList<>();
+        for (int i = 0; i < updateAllReports.size(); i++) {
+            tasks.add(runClient(i, updateAllReports.get(i), listener));
+        }
+        // Collecting the results of each client.
+        return tasks.stream().map(CompletableFuture::join).toList();
+    }
+
+    /**
+     *
+     * Fetches all the tabs of one client in parallel, then writes them to its spreadsheet in one batch.
+     *
+     * @param clientIndex The index of the client in the list being updated.
+     * @param r The client being updated.
+     * @param listener The listener of the progress.
+     *
+     * @return A future of the client result, that never completes exceptionally.
+     */
+    private CompletableFuture<UpdateAllReportsResult> runClient(int clientIndex,
+                                                                UpdateAllReports r,
+                                                                ReportProgressListener listener) {
+        final List<TabFetch<?>> fetches = Arrays.stream(ReportType.values())
+            .<TabFetch<?>>map(type -> fetchTab(clientIndex, listener, source(type, r)))
+            .toList();
+        final CompletableFuture<?>[] data = fetches.stream().map(TabFetch::data).toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(data)
+            .handleAsync((ignored, e) -> writeClient(clientIndex, r, listener, fetches), executor);
+    }
+
+    /**
+     *
+     * Runs one report of one client claimed from the task queue, fetching and writing its tab alone.
+     *
+     * @param task The task.
+     *
+     * @return The result of the tab.
+     * @throws RuntimeException If the fetch or the write fails.
+     */
+    public ReportTabResult runTask(ReportTask task) {
+        final long start = System.currentTimeMillis();
+        final TabSource<?> source = source(task.getType(), task.getReport());
+        write(source, task.getReport().getSpreadsheetId());
+        return new ReportTabResult(source.tab(), ReportStatus.SUCCESS, start, System.currentTimeMillis() - start, null);
+    }
+
+    /**
+     *
+     * Queues every report of every client as a task, then waits for their results.
+     *
+     * <p>A task can be delivered again after its worker stopped, so only the first result of each tab counts.
+     * The tabs without a result when the timeout ends are failed.<p/>
+     *
+     * @param updateAllReports the list of UpdateAllReports domain object.
+     * @param listener the listener notified when each tab is queued and finishes.
+     *
+     * @return The result of each client, in the same order of the given list.
+     */
+    private List<UpdateAllReportsResult> distribute(List<UpdateAllReports> updateAllReports, ReportProgressListener listener) {
+        final String batchId = UUID.randomUUID().toString();
+        final List<ReportTask> tasks = new ArrayList<>();
+        final List<Map<String, ReportTabResult>> tabs = new ArrayList<>(updateAllReports.size());
+        for (int i = 0; i < updateAllReports.size(); i++) {
+            final UpdateAllReports r = updateAllReports.get(i);
+            final Map<String, ReportTabResult> clientTabs = new LinkedHashMap<>();
+            for (ReportType type : ReportType.values()) {
+                tasks.add(new ReportTask(UUID.randomUUID().toString(), batchId, i, type, r));
+                clientTabs.put(type.tab(r.getClient()), null);
+                listener.tabStarted(i, type.tab(r.getClient()));
+            }
+            tabs.add(clientTabs);
+        }
+        final long queuedAt = System.currentTimeMillis();
+        reportTaskQueue.enqueue(tasks);
+        // Collecting the results, from any replica, until every tab has one or the time ends.
+        final long deadline = queuedAt + resultTimeout.toMillis();
+        int pending = tasks.size();
+        while (pending > 0 && System.currentTimeMillis() < deadline) {
+            final long left = deadline - System.currentTimeMillis();
+            final ReportTaskResult result = reportTaskQueue.awaitResult(batchId, Duration.ofMillis(Math.min(left, RESULT_POLL.toMillis())));
+            if (result == null) continue;
+            final Map<String, ReportTabResult> clientTabs = tabs.get(result.getClientIndex());
+            if (clientTabs.get(result.getTab().getTab()) != null) continue;
+            clientTabs.put(result.getTab().getTab(), result.getTab());
+            listener.tabFinished(result.getClientIndex(), result.getTab());
+            pending--;
+        }
+        final List<UpdateAllReportsResult> results = new ArrayList<>(updateAllReports.size());
+        for (int i = 0; i < updateAllReports.size(); i++) {
+            final UpdateAllReports r = updateAllReports.get(i);
+            final List<ReportTabResult> clientTabs = new ArrayList<>();
+            for (Map.Entry<String, ReportTabResult> tab : tabs.get(i).entrySet()) {
+                ReportTabResult result = tab.getValue();
+                if (result == null) {
+                    result = new ReportTabResult(tab.getKey(), ReportStatus.FAILED, queuedAt,
+                        System.currentTimeMillis() - queuedAt, "Timed out waiting for the report task.");
+                    listener.tabFinished(i, result);
+                }
+                clientTabs.add(result);
+            }
+            final ReportStatus status = clientTabs.stream().allMatch(t -> t.getStatus() == ReportStatus.SUCCESS)
+                ? ReportStatus.SUCCESS
+                : ReportStatus.FAILED;
+            results.add(new UpdateAllReportsResult(r.getCustomerId(), r.getClient(), r.getSpreadsheetId(), status, clientTabs));
+        }
+        return results;
+    }
+
+    /**
+     *
+     * Gets the fetch of one report of a client from Google Ads, and the way of adding it to a batch.
+     *
+     * @param type The report.
+     * @param r The client.
+     *
+     * @return The source of the tab.
+     */
+    private TabSource<?> source(ReportType type, UpdateAllReports r) {
+        final String tab = type.tab(r.getClient());
+        return switch (type) {
+            // Getting campaign metrics.
+            case CAMPAIGNS -> new TabSource<>(
+                tab,
+                () -> googleAdsGateway.getCampaignMetrics(r.getCustomerId(), r.getStartDate(), r.getEndDate(), r.getActive()),
+                (batch, data) -> batch.campaignMetrics(tab, data)
+            );
+            // Getting title and description metrics.
+            case ADS -> new TabSource<>(
+                tab,
+                () -> googleAdsGateway.getAdTitleAndDescriptions(r.getCustomerId(), r.getStartDate(), r.getEndDate()),
+                (batch, data) -> batch.adTitleAndDescription(tab, data)
+            );
+            // Getting keyword metrics.
+            case KEYWORDS -> new TabSource<>(
+                tab,
+                () -> googleAdsGateway.getKeywordMetrics(r.getCustomerId(), r.getStartDate(), r.getEndDate(), r.getActive()),
+                (batch, data) -> batch.keywordMetrics(tab, data)
+            );
+            // Getting campaign's total per day metrics.
+            case PER_DAY -> new TabSource<>(
+                tab,
+                () -> googleAdsUseCase.getTotalPerDay(r.getCustomerId(), r.getStartDate(), r.getEndDate()),
+                (batch, data) -> batch.totalPerDay(tab, data)
+            );
+        };
+    }
+
+    /**
+     *
+     * Fetches one tab and writes it alone to a spreadsheet, holding the permits of each API.
+     *
+     * @param source The source of the tab.
+     * @param spreadsheetId The spreadsheet id.
+     */
+    private <T> void write(TabSource<T> source, String spreadsheetId) {
+        final T data = withPermit(adsPermits, source.fetch());
+        final SheetsBatch batch = googleSheetsGateway.batch(spreadsheetId);
+        source.add().accept(batch, data);
+        withPermit(sheetsPermits, () -> {
+            batch.execute();
+            return null;
+        });
+    }
+
+    /**
+     *
+     * Starts the fetch of one tab on the executor, holding a Google Ads permit.
+     *
+     * @param clientIndex The index of the client in the list being updated.
+     * @param listener The listener of the progress.
+     * @param source The source of the tab being fetched.
+     *
+     * @return The fetch in progress.
+     */
+    private <T> TabFetch<T> fetchTab(int clientIndex, ReportProgressListener listener, TabSource<T> source) {
+        final long start = System.currentTimeMillis();
+        final CompletableFuture<T> data = CompletableFuture.supplyAsync(() -> {
+            listener.tabStarted(clientIndex, source.tab());
+            return withPermit(adsPermits, source.fetch());
+        }, executor);
+        return new TabFetch<>(source.tab(), start, data, source.add());
+    }
+
+    /**
+     *
+     * Writes the fetched tabs of one client in a single batch, holding a Google Sheets permit.
+     *
+     * <p>A tab whose fetch failed is left out of the batch, so the other tabs are still written.
+     * If the batch itself fails, every tab in it is reported as failed.<p/>
+     *
+     * @param clientIndex The index of the client in the list being updated.
+     * @param r The client being updated.
+     * @param listener The listener of the progress.
+     * @param fetches The completed fetches of the client.
+     *
+     * @return The client result.
+     */
+    private UpdateAllReportsResult writeClient(int clientIndex,
+                                               UpdateAllReports r,
+                                               ReportProgressListener listener,
+                                               List<TabFetch<?>> fetches) {
+        // Adding each fetched tab to the batch, and keeping the error of each failed one.
+        final String[] errors = new String[fetches.size()];
+        final SheetsBatch batch = googleSheetsGateway.batch(r.getSpreadsheetId());
+        boolean anyFetched = false;
+        for (int i = 0; i < fetches.size(); i++) {
             try {
-                // Getting and sending campaign metrics.
-                googleSheetsGateway.campaignMetricsToSheets(
-                    r.getSpreadsheetId(),
-                    r.getClient() + "-campanhas",
-                    googleAdsGateway.getCampaignMetrics(r.getCustomerId(), r.getStartDate(), r.getEndDate(), r.getActive())
-                );
-                // Getting and sending title and description metrics.
-                googleSheetsGateway.sendAdTitleAndDescription(
-                    r.getSpreadsheetId(),
-                    r.getClient() + "-anuncios",
-                    googleAdsGateway.getAdTitleAndDescriptions(r.getCustomerId(), r.getStartDate(), r.getEndDate())
-                );
-                // Getting and sending keyword metrics.
-                googleSheetsGateway.sendKeywordMetrics(
-                    r.getSpreadsheetId(),
-                    r.getClient() + "-keywords",
-                    googleAdsGateway.getKeywordMetrics(r.getCustomerId(), r.getStartDate(), r.getEndDate(), r.getActive())
-                );
-                // Getting and sending campaign's total per day metrics.
-                googleSheetsGateway.totalPerDayToSheets(
-                    r.getSpreadsheetId(),
-                    r.getClient() + "-grafico",
-                    googleAdsUseCase.getTotalPerDay(r.getCustomerId(), r.getStartDate(), r.getEndDate())
-                );
+                fetches.get(i).addTo(batch);
+                anyFetched = true;
             } catch (Exception e) {
-                throw new GoogleSheetsException(e.getMessage());
+                errors[i] = (e instanceof CompletionException && e.getCause() != null ? e.getCause() : e).getMessage();
             }
-        });
+        }
+        // Sending all the fetched tabs at once.
+        String batchError = null;
+        if (anyFetched) {
+            try {
+                withPermit(sheetsPermits, () -> {
+                    batch.execute();
+                    return null;
+                });
+            } catch (Exception e) {
+                batchError = e.getMessage();
+            }
+        }
+        final List<ReportTabResult> tabs = new ArrayList<>(fetches.size());
+        for (int i = 0; i < fetches.size(); i++) {
+            final TabFetch<?> f = fetches.get(i);
+            final String error = errors[i] != null ? errors[i] : batchError;
+            final ReportTabResult result = new ReportTabResult(
+                f.tab(),
+                error == null ? ReportStatus.SUCCESS : ReportStatus.FAILED,
+                f.startedAt(),
+                System.currentTimeMillis() - f.startedAt(),
+                error
+            );
+            listener.tabFinished(clientIndex, result);
+            tabs.add(result);
+        }
+        final ReportStatus status = tabs.stream().allMatch(t -> t.getStatus() == ReportStatus.SUCCESS)
+            ? ReportStatus.SUCCESS
+            : ReportStatus.FAILED;
+        return new UpdateAllReportsResult(r.getCustomerId(), r.getClient(), r.getSpreadsheetId(), status, tabs);
+    }
+
+    /**
+     *
+     * Runs a call while holding a permit of the given upstream API.
+     *
+     * @param permits The permits of the upstream API.
+     * @param call The call to run.
+     *
+     * @return The result of the call.
+     */
+    private <T> T withPermit(Semaphore permits, Supplier<T> call) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an upstream permit.");
+        }
+        try {
+            return call.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     *
+     * The fetch of one tab, and the way of adding its data to a batch.
+     *
+     * @param tab The sheets tab.
+     * @param fetch The fetch of the tab data from Google Ads.
+     * @param add The addition of the fetched data to a batch.
+     */
+    private record TabSource<T>(String tab, Supplier<T> fetch, BiConsumer<SheetsBatch, T> add) {}
+
+    /**
+     *
+     * The fetch in progress of one tab, with the way of adding its data to the batch.
+     *
+     * @param tab The sheets tab being fetched.
+     * @param startedAt The moment the tab was submitted.
+     * @param data The future of the fetched data.
+     * @param add The addition of the fetched data to a batch.
+     */
+    private record TabFetch<T>(String tab, long startedAt, CompletableFuture<T> data, BiConsumer<SheetsBatch, T> add) {
+
+        void addTo(SheetsBatch batch) {
+            add.accept(batch, data.join());
+        }
     }
 }
@@ -2,10 +2,16 @@ package com.ads.report.application.usecases.csv;
 
 import com.ads.report.application.exception.CsvException;
 import com.ads.report.application.gateway.csv.CsvGateway;
+import com.ads.report.application.gateway.csv.RowSource;
+import com.ads.report.domain.account.AccountMetrics;
+import com.ads.report.domain.campaign.CampaignKeywordMetrics;
+import com.ads.report.domain.campaign.CampaignMetrics;
+import com.ads.report.domain.campaign.CampaignPerDay;
+import com.ads.report.domain.campaign.CampaignTitleAndDescription;
+import com.ads.report.domain.columnar.MetricTable;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  *
@@ -28,15 +34,141 @@ public class CsvUseCase {
 
     /**
      *
-     * Convert a json object to csv type file.
+     * Writes the account metrics to the response, as csv.
      *
-     * @param records The json.
+     * @param accountMetrics The list of AccountMetrics objects.
      * @param response The response of the http call.
      *
-     * @return The response with the converted csv written.
-     * @throws CsvException if fails to parse from Json to CSV.
+     * @return The response with the csv written.
+     * @throws CsvException if fails to write the CSV.
      */
-    public HttpServletResponse fromJson(List<Map<String, Object>> records, HttpServletResponse response) throws CsvException {
-        return csvGateway.fromJson(records, response);
+    public HttpServletResponse accountMetricsToCsv(List<AccountMetrics> accountMetrics, HttpServletResponse response) throws CsvException {
+        return csvGateway.accountMetricsToCsv(accountMetrics, response);
+    }
+
+    /**
+     *
+     * Writes the campaign metrics to the response, as csv.
+     *
+     * @param campaignMetrics The list of CampaignMetrics objects.
+     * @param response The response of the http call.
+     *
+     * @return The response with the csv written.
+     * @throws CsvException if fails to write the CSV.
+     */
+    public HttpServletResponse campaignMetricsToCsv(List<CampaignMetrics> campaignMetrics, HttpServletResponse response) throws CsvException {
+        return csvGateway.campaignMetricsToCsv(campaignMetrics, response);
+    }
+
+    /**
+     *
+     * Writes the keyword metrics to the response, as csv.
+     *
+     * @param campaignKeywordMetrics The list of CampaignKeywordMetrics objects.
+     * @param response The response of the http call.
+     *
+     * @return The response with the csv written.
+     * @throws CsvException if fails to write the CSV.
+     */
+    public HttpServletResponse keywordMetricsToCsv(List<CampaignKeywordMetrics> campaignKeywordMetrics, HttpServletResponse response) throws CsvException {
+        return csvGateway.keywordMetricsToCsv(campaignKeywordMetrics, response);
+    }
+
+    /**
+     *
+     * Writes the metrics per day to the response, as csv.
+     *
+     * @param campaignPerDays The list of CampaignPerDay objects.
+     * @param response The response of the http call.
+     *
+     * @return The response with the csv written.
+     * @throws CsvException if fails to write the CSV.
+     */
+    public HttpServletResponse totalPerDayToCsv(List<CampaignPerDay> campaignPerDays, HttpServletResponse response) throws CsvException {
+        return csvGateway.totalPerDayToCsv(campaignPerDays, response);
+    }
+
+    /**
+     *
+     * Writes the titles and descriptions to the response, as csv.
+     *
+     * @param campaignTitleAndDescriptions The list of CampaignTitleAndDescription objects.
+     * @param response The response of the http call.
+     *
+     * @return The response with the csv written.
+     * @throws CsvException if fails to write the CSV.
+     */
+    public HttpServletResponse adTitleAndDescriptionToCsv(List<CampaignTitleAndDescription> campaignTitleAndDescriptions, HttpServletResponse response) throws CsvException {
+        return csvGateway.adTitleAndDescriptionToCsv(campaignTitleAndDescriptions, response);
+    }
+
+    /**
+     *
+     * Writes the campaign metrics to the response, as csv, while the source produces them.
+     *
+     * @param campaignMetrics The source of CampaignMetrics objects.
+     * @param response The response of the http call.
+     *
+     * @return The response with the csv written.
+     * @throws CsvException if fails to write the CSV.
+     */
+    public HttpServletResponse streamCampaignMetricsToCsv(RowSource<CampaignMetrics> campaignMetrics, HttpServletResponse response) throws CsvException {
+        return csvGateway.streamCampaignMetricsToCsv(campaignMetrics, response);
+    }
+
+    /**
+     *
+     * Writes the keyword metrics to the response, as csv, while the source produces them.
+     *
+     * @param campaignKeywordMetrics The source of CampaignKeywordMetrics objects.
+     * @param response The response of the http call.
+     *
+     * @return The response with the csv written.
+     * @throws CsvException if fails to write the CSV.
+     */
+    public HttpServletResponse streamKeywordMetricsToCsv(RowSource<CampaignKeywordMetrics> campaignKeywordMetrics, HttpServletResponse response) throws CsvException {
+        return csvGateway.streamKeywordMetricsToCsv(campaignKeywordMetrics, response);
+    }
+
+    /**
+     *
+     * Writes the metrics per day to the response, as csv, while the source produces them.
+     *
+     * @param campaignPerDays The source of CampaignPerDay objects.
+     * @param response The response of the http call.
+     *
+     * @return The response with the csv written.
+     * @throws CsvException if fails to write the CSV.
+     */
+    public HttpServletResponse streamTotalPerDayToCsv(RowSource<CampaignPerDay> campaignPerDays, HttpServletResponse response) throws CsvException {
+        return csvGateway.streamTotalPerDayToCsv(campaignPerDays, response);
+    }
+
+    /**
+     *
+     * Writes the titles and descriptions to the response, as csv, while the source produces them.
+     *
+     * @param campaignTitleAndDescriptions The source of CampaignTitleAndDescription objects.
+     * @param response The response of the http call.
+     *
+     * @return The response with the csv written.
+     * @throws CsvException if fails to write the CSV.
+     */
+    public HttpServletResponse streamAdTitleAndDescriptionToCsv(RowSource<CampaignTitleAndDescription> campaignTitleAndDescriptions, HttpServletResponse response) throws CsvException {
+        return csvGateway.streamAdTitleAndDescriptionToCsv(campaignTitleAndDescriptions, response);
+    }
+
+    /**
+     *
+     * Writes a columnar table to the response, as csv.
+     *
+     * @param table The table of metrics.
+     * @param response The response of the http call.
+     *
+     * @return The response with the csv written.
+     * @throws CsvException if fails to write the CSV.
+     */
+    public HttpServletResponse metricTableToCsv(MetricTable table, HttpServletResponse response) throws CsvException {
+        return csvGateway.metricTableToCsv(table, response);
     }
 }
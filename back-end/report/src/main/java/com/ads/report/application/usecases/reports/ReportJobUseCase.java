@@ -0,0 +1,247 @@
+package com.ads.report.application.usecases.reports;
+
+import com.ads.report.application.exception.ReportJobException;
+import com.ads.report.application.gateway.reports.ReportJobGateway;
+import com.ads.report.application.usecases.ads.ReportProgressListener;
+import com.ads.report.application.usecases.ads.UpdateAllReportsUseCase;
+import com.ads.report.domain.reports.ReportJob;
+import com.ads.report.domain.reports.ReportStatus;
+import com.ads.report.domain.reports.ReportTabResult;
+import com.ads.report.domain.reports.UpdateAllReports;
+import com.ads.report.domain.reports.UpdateAllReportsResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ *
+ * The use case of the asynchronous report generation jobs.
+ *
+ * <p>A job is submitted with the list of reports to update, and returns immediately with its id.
+ * The update runs on a background executor, and its progress is saved through the job gateway,
+ * so any replica can answer the status of the job.<p/>
+ *
+ * <p>A running job holds a lease, renewed by a heartbeat of the replica that runs it. When that replica
+ * dies the lease is not renewed, and the job is reported as failed once it expires, instead of running
+ * until the job itself expires.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class ReportJobUseCase implements AutoCloseable {
+
+    private final ReportJobGateway reportJobGateway;
+    private final UpdateAllReportsUseCase updateAllReportsUseCase;
+    private final Executor jobExecutor;
+    private final long leaseMillis;
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("report-job-heartbeat").daemon().factory()
+    );
+
+    /**
+     *
+     * Constructor of the report job use case class.
+     *
+     * @param reportJobGateway the storage of the jobs state.
+     * @param updateAllReportsUseCase the use case that updates the reports.
+     * @param jobExecutor the executor that runs the jobs in background.
+     * @param lease the time a running job stays running without a heartbeat of its replica.
+     */
+    public ReportJobUseCase(ReportJobGateway reportJobGateway,
+                            UpdateAllReportsUseCase updateAllReportsUseCase,
+                            Executor jobExecutor,
+                            Duration lease) {
+        this.reportJobGateway = reportJobGateway;
+        this.updateAllReportsUseCase = updateAllReportsUseCase;
+        this.jobExecutor = jobExecutor;
+        this.leaseMillis = lease.toMillis();
+    }
+
+    @Override
+    public void close() {
+        heartbeat.shutdownNow();
+    }
+
+    /**
+     *
+     * Submits a new job, that updates the given reports in background.
+     *
+     * @param updateAllReports the list of UpdateAllReports domain object.
+     * @param owner the name of the user that submitted the job.
+     *
+     * @return The job, as submitted.
+     * @throws ReportJobException If fails to save the job.
+     */
+    public ReportJob submit(List<UpdateAllReports> updateAllReports, String owner) throws ReportJobException {
+        final String id = UUID.randomUUID().toString();
+        final long submittedAt = System.currentTimeMillis();
+        final ReportJob submitted = newJob(id, owner, submittedAt, updateAllReports);
+        reportJobGateway.save(submitted);
+        // The background run works on its own copy, so the submitted one can be returned safely.
+        final JobRun jobRun = new JobRun(newJob(id, owner, submittedAt, updateAllReports), updateAllReports);
+        jobExecutor.execute(jobRun::run);
+        return submitted;
+    }
+
+    /**
+     *
+     * Gets the current state of a job.
+     *
+     * @param id the job id.
+     * @param owner the name of the user asking for the job.
+     *
+     * @return The job, failed if it is running with its lease expired.
+     * @throws ReportJobException If the job does not exist, or belongs to another user.
+     */
+    public ReportJob getJob(String id, String owner) throws ReportJobException {
+        final ReportJob reportJob = reportJobGateway.findById(id);
+        if (reportJob == null || !reportJob.getOwner().equals(owner)) {
+            throw new ReportJobException("Report job not found: " + id);
+        }
+        // The replica running the job stopped renewing its lease.
+        if (reportJob.getStatus() == ReportStatus.RUNNING
+            && reportJob.getLeaseUntil() > 0
+            && reportJob.getLeaseUntil() < System.currentTimeMillis()) {
+            reportJob.setStatus(ReportStatus.FAILED);
+            reportJob.setError("The job stopped without finishing.");
+            reportJob.setFinishedAt(reportJob.getLeaseUntil());
+        }
+        return reportJob;
+    }
+
+    /**
+     *
+     * Saves the progress of a running job.
+     *
+     * <p>Intermediate states are best effort: failing to save them must not fail the tab being written.<p/>
+     *
+     * @param reportJob the job to save.
+     */
+    private void saveProgress(ReportJob reportJob) {
+        reportJob.setLeaseUntil(System.currentTimeMillis() + leaseMillis);
+        try {
+            reportJobGateway.save(reportJob);
+        } catch (ReportJobException ignored) {
+            // The next save carries the full state again.
+        }
+    }
+
+    /**
+     *
+     * Creates a pending job with one pending entry per client.
+     *
+     * @param id the job id.
+     * @param owner the name of the user that submitted the job.
+     * @param submittedAt the submission time, in epoch milliseconds.
+     * @param updateAllReports the list of UpdateAllReports domain object.
+     *
+     * @return The new job.
+     */
+    private ReportJob newJob(String id, String owner, long submittedAt, List<UpdateAllReports> updateAllReports) {
+        final List<UpdateAllReportsResult> clients = new ArrayList<>();
+        for (UpdateAllReports r: updateAllReports) {
+            clients.add(new UpdateAllReportsResult(
+                r.getCustomerId(),
+                r.getClient(),
+                r.getSpreadsheetId(),
+                ReportStatus.PENDING,
+                new ArrayList<>()
+            ));
+        }
+        return new ReportJob(id, owner, ReportStatus.PENDING, submittedAt, clients);
+    }
+
+    /**
+     *
+     * The run of one job, that records the progress of each tab on the job.
+     *
+     * <p>The tabs finish on many threads at once, so every change to the job and its save happen under the lock.<p/>
+     *
+     */
+    private class JobRun implements ReportProgressListener {
+
+        private final ReportJob reportJob;
+        private final List<UpdateAllReports> updateAllReports;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private JobRun(ReportJob reportJob, List<UpdateAllReports> updateAllReports) {
+            this.reportJob = reportJob;
+            this.updateAllReports = updateAllReports;
+        }
+
+        /**
+         *
+         * Runs the job, saving its progress as each tab starts and finishes, and renewing its lease meanwhile.
+         *
+         */
+        private void run() {
+            locked(() -> {
+                reportJob.setStatus(ReportStatus.RUNNING);
+                reportJob.setStartedAt(System.currentTimeMillis());
+                reportJob.getClients().forEach(c -> c.setStatus(ReportStatus.RUNNING));
+                saveProgress(reportJob);
+            });
+            final long every = Math.max(1000L, leaseMillis / 3);
+            final ScheduledFuture<?> renewal = heartbeat.scheduleWithFixedDelay(
+                () -> locked(() -> saveProgress(reportJob)), every, every, TimeUnit.MILLISECONDS
+            );
+            try {
+                final List<UpdateAllReportsResult> results = updateAllReportsUseCase.updateReports(updateAllReports, this);
+                locked(() -> {
+                    reportJob.setClients(results);
+                    reportJob.setStatus(results.stream().allMatch(r -> r.getStatus() == ReportStatus.SUCCESS)
+                        ? ReportStatus.SUCCESS
+                        : ReportStatus.FAILED);
+                    reportJob.setFinishedAt(System.currentTimeMillis());
+                    reportJobGateway.save(reportJob);
+                });
+            } catch (Exception e) {
+                locked(() -> {
+                    reportJob.setStatus(ReportStatus.FAILED);
+                    reportJob.setError(e.getMessage());
+                    reportJob.setFinishedAt(System.currentTimeMillis());
+                    reportJobGateway.save(reportJob);
+                });
+            } finally {
+                renewal.cancel(false);
+            }
+        }
+
+        @Override
+        public void tabStarted(int clientIndex, String tab) {
+            locked(() -> {
+                reportJob.getClients().get(clientIndex).getTabs()
+                    .add(new ReportTabResult(tab, ReportStatus.RUNNING, System.currentTimeMillis(), 0L, null));
+                saveProgress(reportJob);
+            });
+        }
+
+        @Override
+        public void tabFinished(int clientIndex, ReportTabResult result) {
+            locked(() -> {
+                final List<ReportTabResult> tabs = reportJob.getClients().get(clientIndex).getTabs();
+                tabs.removeIf(t -> t.getTab().equals(result.getTab()));
+                tabs.add(result);
+                saveProgress(reportJob);
+            });
+        }
+
+        private void locked(Runnable change) {
+            lock.lock();
+            try {
+                change.run();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
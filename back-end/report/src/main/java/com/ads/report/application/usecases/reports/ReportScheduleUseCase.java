@@ -0,0 +1,175 @@
+package com.ads.report.application.usecases.reports;
+
+import com.ads.report.application.exception.ReportJobException;
+import com.ads.report.application.gateway.reports.ReportScheduleCalendar;
+import com.ads.report.application.gateway.reports.ReportScheduleGateway;
+import com.ads.report.domain.reports.ReportSchedule;
+import com.ads.report.domain.reports.UpdateAllReports;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ *
+ * The use case of the recurring report refreshes.
+ *
+ * <p>Each schedule runs at the times of its cron expression, shifted by an offset taken from its id, up to
+ * the spread window. So the schedules saved with the same expression, like every day at six, start spread
+ * over the window instead of all at once, and the quota of the Google APIs is used evenly.<p/>
+ *
+ * <p>Every replica looks for the schedules due, but each run is claimed on the gateway, so only one of
+ * them starts it. A replica that was down misses no schedule: the runs missed become a single run.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class ReportScheduleUseCase {
+
+    private final ReportScheduleGateway reportScheduleGateway;
+    private final ReportScheduleCalendar reportScheduleCalendar;
+    private final Clock clock;
+    private final long spreadMillis;
+
+    /**
+     *
+     * Constructor of the report schedule use case class.
+     *
+     * @param reportScheduleGateway the storage of the schedules.
+     * @param reportScheduleCalendar the calendar of the cron expressions.
+     * @param clock the clock that tells the schedules due.
+     * @param spread the window over which the runs of the same time are spread.
+     */
+    public ReportScheduleUseCase(ReportScheduleGateway reportScheduleGateway,
+                                 ReportScheduleCalendar reportScheduleCalendar,
+                                 Clock clock,
+                                 Duration spread) {
+        this.reportScheduleGateway = reportScheduleGateway;
+        this.reportScheduleCalendar = reportScheduleCalendar;
+        this.clock = clock;
+        this.spreadMillis = spread.toMillis();
+    }
+
+    /**
+     *
+     * Creates a schedule, that runs with the authorization of the user that created it.
+     *
+     * @param reportSchedule the schedule, with its cron expression and reports.
+     * @param owner the name of the user that created the schedule.
+     * @param registrationId the OAuth2 client registration of the user.
+     *
+     * @return The schedule, with its id and its first run.
+     * @throws IllegalArgumentException If the schedule has no reports, or its cron expression is not valid.
+     * @throws ReportJobException If fails to save the schedule.
+     */
+    public ReportSchedule create(ReportSchedule reportSchedule, String owner, String registrationId) {
+        if (reportSchedule.getReports() == null || reportSchedule.getReports().isEmpty()) {
+            throw new IllegalArgumentException("The schedule has no reports");
+        }
+        if (reportSchedule.getZone() == null) reportSchedule.setZone(clock.getZone().getId());
+        reportSchedule.setId(UUID.randomUUID().toString());
+        reportSchedule.setOwner(owner);
+        reportSchedule.setRegistrationId(registrationId);
+        reportSchedule.setLastRunAt(0L);
+        reportSchedule.setNextRunAt(nextRun(reportSchedule, clock.instant()));
+        reportScheduleGateway.save(reportSchedule);
+        return reportSchedule;
+    }
+
+    /**
+     *
+     * Gets the schedules of a user.
+     *
+     * @param owner the name of the user.
+     *
+     * @return The schedules of the user.
+     * @throws ReportJobException If fails to load the schedules.
+     */
+    public List<ReportSchedule> list(String owner) throws ReportJobException {
+        return reportScheduleGateway.findAll().stream().filter(s -> owner.equals(s.getOwner())).toList();
+    }
+
+    /**
+     *
+     * Deletes a schedule of a user.
+     *
+     * @param id the schedule id.
+     * @param owner the name of the user.
+     *
+     * @throws ReportJobException If the schedule does not exist, or belongs to another user.
+     */
+    public void delete(String id, String owner) throws ReportJobException {
+        final ReportSchedule reportSchedule = reportScheduleGateway.findById(id);
+        if (reportSchedule == null || !owner.equals(reportSchedule.getOwner())) {
+            throw new ReportJobException("Report schedule not found: " + id);
+        }
+        reportScheduleGateway.delete(id);
+    }
+
+    /**
+     *
+     * Claims the schedules due, and moves each one to its next run, unless it was deleted meanwhile.
+     *
+     * @return The schedules claimed by this call, that must be run now.
+     * @throws ReportJobException If fails to load the schedules.
+     */
+    public List<ReportSchedule> claimDue() throws ReportJobException {
+        final Instant now = clock.instant();
+        final List<ReportSchedule> due = new ArrayList<>();
+        for (ReportSchedule reportSchedule : reportScheduleGateway.findAll()) {
+            if (reportSchedule.getNextRunAt() > now.toEpochMilli()) continue;
+            // Another replica may have claimed this run already.
+            if (!reportScheduleGateway.claim(reportSchedule.getId(), reportSchedule.getNextRunAt())) continue;
+            reportSchedule.setLastRunAt(reportSchedule.getNextRunAt());
+            reportSchedule.setNextRunAt(nextRun(reportSchedule, now));
+            try {
+                // A schedule deleted since it was loaded is not saved back, nor run.
+                if (!reportScheduleGateway.reschedule(reportSchedule)) continue;
+            } catch (ReportJobException ignored) {
+                // The run is claimed anyway, so it is not started twice, and the next tick saves it again.
+            }
+            due.add(reportSchedule);
+        }
+        return due;
+    }
+
+    /**
+     *
+     * Gets the reports of a run of a schedule, with their dates rolled to today when it has a lookback.
+     *
+     * @param reportSchedule the schedule.
+     *
+     * @return The reports to update.
+     */
+    public List<UpdateAllReports> reportsOf(ReportSchedule reportSchedule) {
+        if (reportSchedule.getLookbackDays() <= 0) return reportSchedule.getReports();
+        final LocalDate today = LocalDate.now(clock.withZone(ZoneId.of(reportSchedule.getZone())));
+        final String startDate = today.minusDays(reportSchedule.getLookbackDays()).toString();
+        final String endDate = today.toString();
+        return reportSchedule.getReports().stream()
+            .map(r -> new UpdateAllReports(r.getCustomerId(), startDate, endDate, r.getSpreadsheetId(), r.getClient(), r.getActive()))
+            .toList();
+    }
+
+    /**
+     *
+     * Gets the next run of a schedule after a time, shifted by its offset in the spread window.
+     *
+     * @param reportSchedule the schedule.
+     * @param after the time after which to look.
+     *
+     * @return The next run, in epoch milliseconds, or Long.MAX_VALUE if it never runs again.
+     * @throws IllegalArgumentException If the cron expression or the zone are not valid.
+     */
+    private long nextRun(ReportSchedule reportSchedule, Instant after) {
+        final long offset = spreadMillis > 0 ? Math.floorMod(reportSchedule.getId().hashCode(), spreadMillis) : 0L;
+        final Instant fire = reportScheduleCalendar.next(reportSchedule.getCron(), reportSchedule.getZone(), after.minusMillis(offset));
+        return fire == null ? Long.MAX_VALUE : fire.toEpochMilli() + offset;
+    }
+}
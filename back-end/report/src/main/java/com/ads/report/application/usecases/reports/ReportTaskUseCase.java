@@ -0,0 +1,81 @@
+package com.ads.report.application.usecases.reports;
+
+import com.ads.report.application.gateway.reports.ReportTaskQueue;
+import com.ads.report.application.usecases.ads.UpdateAllReportsUseCase;
+import com.ads.report.domain.reports.ReportStatus;
+import com.ads.report.domain.reports.ReportTabResult;
+import com.ads.report.domain.reports.ReportTask;
+import com.ads.report.domain.reports.ReportTaskResult;
+
+/**
+ *
+ * The use case of running the report tasks claimed from the queue.
+ *
+ * <p>A task that fails goes back to the queue, until it fails 'maxAttempts' times. Then it is dead-lettered,
+ * and its update gets a failed result, so it does not wait for the task until its timeout.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class ReportTaskUseCase {
+
+    private final ReportTaskQueue reportTaskQueue;
+    private final UpdateAllReportsUseCase updateAllReportsUseCase;
+    private final int maxAttempts;
+
+    /**
+     *
+     * Constructor of the report task use case class.
+     *
+     * @param reportTaskQueue the queue of the tasks.
+     * @param updateAllReportsUseCase the use case that writes the reports.
+     * @param maxAttempts the attempts of a task before it is dead-lettered.
+     */
+    public ReportTaskUseCase(ReportTaskQueue reportTaskQueue, UpdateAllReportsUseCase updateAllReportsUseCase, int maxAttempts) {
+        this.reportTaskQueue = reportTaskQueue;
+        this.updateAllReportsUseCase = updateAllReportsUseCase;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     *
+     * Runs a task claimed from the queue, and completes, retries or dead-letters it.
+     *
+     * @param task the task, with its attempts counted.
+     */
+    public void handle(ReportTask task) {
+        final long start = System.currentTimeMillis();
+        // A task handed over past its attempts stopped every worker that ran it, so it is not run again.
+        if (task.getAttempts() > maxAttempts) {
+            fail(task, start, "The report task stopped its workers " + (task.getAttempts() - 1) + " times.");
+            return;
+        }
+        try {
+            reportTaskQueue.complete(task, new ReportTaskResult(task.getClientIndex(), updateAllReportsUseCase.runTask(task)));
+        } catch (RuntimeException e) {
+            if (task.getAttempts() < maxAttempts) reportTaskQueue.retry(task);
+            else fail(task, start, e.getMessage());
+        }
+    }
+
+    /**
+     *
+     * Dead-letters a task, and sends its failure to its update.
+     *
+     * @param task the task.
+     * @param start the start of the last attempt.
+     * @param error the last error.
+     */
+    private void fail(ReportTask task, long start, String error) {
+        reportTaskQueue.deadLetter(task, error);
+        final ReportTabResult result = new ReportTabResult(
+            task.getType().tab(task.getReport().getClient()),
+            ReportStatus.FAILED,
+            start,
+            System.currentTimeMillis() - start,
+            error
+        );
+        reportTaskQueue.complete(task, new ReportTaskResult(task.getClientIndex(), result));
+    }
+}
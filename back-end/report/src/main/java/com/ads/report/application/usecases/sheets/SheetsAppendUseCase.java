@@ -0,0 +1,141 @@
+package com.ads.report.application.usecases.sheets;
+
+import com.ads.report.application.exception.GoogleSheetsException;
+import com.ads.report.application.gateway.sheets.GoogleSheetsGateway;
+import com.ads.report.application.gateway.sheets.SheetsBatch;
+import com.ads.report.application.gateway.sheets.SheetsWatermarkGateway;
+import com.ads.report.application.usecases.ads.GoogleAdsUseCase;
+import com.ads.report.domain.sheets.SheetsAppendReport;
+import com.ads.report.domain.sheets.SheetsAppendResult;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ *
+ * The use case of appending the new days of a report to a sheets tab.
+ *
+ * <p>The last day written to each tab is kept by the watermark gateway. Each run fetches from Google Ads
+ * only the days after it, and appends their rows after the rows of the tab, so the time and the quota of
+ * both APIs follow the new days instead of the whole history. The first run of a tab, without a last day,
+ * writes the whole tab from the start date instead, with its headers.<p/>
+ *
+ * <p>Only closed days are written: today is left for the next run, since its metrics still change.<p/>
+ *
+ * <p>Each append claims its tab before reading its last day, so two appends of the same tab never
+ * write the same days.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class SheetsAppendUseCase {
+
+    private final GoogleAdsUseCase googleAdsUseCase;
+    private final GoogleSheetsGateway googleSheetsGateway;
+    private final SheetsWatermarkGateway sheetsWatermarkGateway;
+    private final Clock clock;
+
+    /**
+     *
+     * The constructor uses the Google Ads use case, and the Google Sheets and watermark gateway interfaces.
+     *
+     * @param googleAdsUseCase the Google Ads use case
+     * @param googleSheetsGateway the Google Sheets gateway
+     * @param sheetsWatermarkGateway the store of the last day of each tab
+     * @param clock the clock that tells the closed days
+     */
+    public SheetsAppendUseCase(GoogleAdsUseCase googleAdsUseCase,
+                               GoogleSheetsGateway googleSheetsGateway,
+                               SheetsWatermarkGateway sheetsWatermarkGateway,
+                               Clock clock) {
+        this.googleAdsUseCase = googleAdsUseCase;
+        this.googleSheetsGateway = googleSheetsGateway;
+        this.sheetsWatermarkGateway = sheetsWatermarkGateway;
+        this.clock = clock;
+    }
+
+    /**
+     *
+     * This method appends the days of a report not yet written to a tab.
+     *
+     * @param report The report of the tab.
+     * @param customerId The id of an adwords customer (client).
+     * @param spreadsheetId The spreadsheet id.
+     * @param tab The sheets tab.
+     * @param startDate The first day of the tab, used when it has no last day yet.
+     * @param endDate The last day to write, limited to yesterday.
+     * @param active Flag to only get the rows that had impressions, for the campaign and keyword reports.
+     *
+     * @return The days and the rows written, or no days when the tab is up to date.
+     * @throws IllegalArgumentException If the start date is after the end date.
+     * @throws GoogleSheetsException If another append of the tab is running.
+     */
+    public SheetsAppendResult append(SheetsAppendReport report,
+                                     String customerId,
+                                     String spreadsheetId,
+                                     String tab,
+                                     String startDate,
+                                     String endDate,
+                                     boolean active) {
+        // Check if the start date is after the end date.
+        if (LocalDate.parse(startDate).isAfter(LocalDate.parse(endDate))) {
+            throw new IllegalArgumentException("The start date is after the end date");
+        }
+        if (!sheetsWatermarkGateway.claim(spreadsheetId, tab)) {
+            throw new GoogleSheetsException("Another append of the tab is running.");
+        }
+        try {
+            return appendClaimed(report, customerId, spreadsheetId, tab, startDate, endDate, active);
+        } finally {
+            sheetsWatermarkGateway.release(spreadsheetId, tab);
+        }
+    }
+
+    private SheetsAppendResult appendClaimed(SheetsAppendReport report,
+                                             String customerId,
+                                             String spreadsheetId,
+                                             String tab,
+                                             String startDate,
+                                             String endDate,
+                                             boolean active) {
+        final String lastDate = sheetsWatermarkGateway.lastDate(spreadsheetId, tab);
+        // The days after the last one written, or from the start date, up to the last closed day.
+        LocalDate from = LocalDate.parse(startDate);
+        if (lastDate != null && !LocalDate.parse(lastDate).isBefore(from)) from = LocalDate.parse(lastDate).plusDays(1);
+        final LocalDate yesterday = LocalDate.now(clock).minusDays(1);
+        final LocalDate to = LocalDate.parse(endDate).isAfter(yesterday) ? yesterday : LocalDate.parse(endDate);
+        if (from.isAfter(to)) return new SheetsAppendResult(tab, null, null, 0, false);
+        final String fromDate = from.toString();
+        final String toDate = to.toString();
+        final SheetsBatch batch = lastDate == null
+            ? googleSheetsGateway.batch(spreadsheetId)
+            : googleSheetsGateway.appendBatch(spreadsheetId);
+        final int rows = switch (report) {
+            case CAMPAIGN -> add(batch,
+                () -> googleAdsUseCase.getCampaignMetrics(customerId, fromDate, toDate, active),
+                (b, data) -> b.campaignMetrics(tab, data));
+            case TOTAL_PER_DAY -> add(batch,
+                () -> googleAdsUseCase.getTotalPerDay(customerId, fromDate, toDate),
+                (b, data) -> b.totalPerDay(tab, data));
+            case KEYWORD -> add(batch,
+                () -> googleAdsUseCase.getKeywordMetrics(customerId, fromDate, toDate, active),
+                (b, data) -> b.keywordMetrics(tab, data));
+            case HEADLINES -> add(batch,
+                () -> googleAdsUseCase.getAdTitleAndDescriptions(customerId, fromDate, toDate),
+                (b, data) -> b.adTitleAndDescription(tab, data));
+        };
+        batch.execute();
+        sheetsWatermarkGateway.saveLastDate(spreadsheetId, tab, toDate);
+        return new SheetsAppendResult(tab, fromDate, toDate, rows, lastDate == null);
+    }
+
+    private static <T> int add(SheetsBatch batch, Supplier<List<T>> fetch, BiConsumer<SheetsBatch, List<T>> add) {
+        final List<T> data = fetch.get();
+        add.accept(batch, data);
+        return data.size();
+    }
+}
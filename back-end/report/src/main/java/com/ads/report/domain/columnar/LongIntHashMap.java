@@ -0,0 +1,75 @@
+package com.ads.report.domain.columnar;
+
+/**
+ *
+ * The open addressing hash map of long keys to int values.
+ *
+ * <p>The keys and values live in two primitive arrays, probed linearly, so a lookup of a row key never
+ * boxes it nor allocates an entry.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+final class LongIntHashMap {
+
+    private long[] keys;
+    // The values plus one, so a zero marks an empty slot.
+    private int[] values;
+    private int mask;
+    private int size;
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2) capacity <<= 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     *
+     * Gets the value of a key, adding the given value when the key is new.
+     *
+     * @param key The key.
+     * @param value The value of a new key, not negative.
+     *
+     * @return The value of the key.
+     */
+    int putIfAbsent(long key, int value) {
+        int slot = slot(key);
+        while (values[slot] != 0) {
+            if (keys[slot] == key) return values[slot] - 1;
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value + 1;
+        // Keeping at most half of the slots in use.
+        if (++size * 2 > keys.length) grow();
+        return value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        final long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void grow() {
+        final long[] oldKeys = keys;
+        final int[] oldValues = values;
+        keys = new long[oldKeys.length << 1];
+        values = new int[oldValues.length << 1];
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] == 0) continue;
+            int slot = slot(oldKeys[i]);
+            while (values[slot] != 0) slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+}
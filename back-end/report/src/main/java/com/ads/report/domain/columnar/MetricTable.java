@@ -0,0 +1,396 @@
+package com.ads.report.domain.columnar;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ *
+ * The columnar container of a metric result set.
+ *
+ * <p>Each column is one primitive array: the dates are epoch days in an int[], the metrics are long[]
+ * or double[], and the strings are int[] codes of a dictionary per column. A row is therefore a few
+ * bytes per column, instead of a domain object with boxed fields and repeated strings.<p/>
+ *
+ * <p>The rows are appended through the row writer, in the order of the columns, and read by column
+ * and row index, so the writers of CSV and Sheets never build the domain objects.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public final class MetricTable {
+
+    /**
+     *
+     * The kind of a column, and so of its storage.
+     *
+     * */
+    public enum Kind { DATE, STRING, LONG, DOUBLE }
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final String[] names;
+    private final Kind[] kinds;
+    // The epoch days of the date columns, and the codes of the string columns.
+    private final int[][] ints;
+    private final long[][] longs;
+    private final double[][] doubles;
+    private final StringDictionary[] dictionaries;
+    private final RowWriter writer = new RowWriter();
+    private int size;
+    private int capacity;
+    // The last date parsed and rendered, since the rows of a day come together.
+    private String lastDateText;
+    private int lastEpochDay;
+    private int lastRenderedDay = Integer.MIN_VALUE;
+    private String lastRenderedText;
+
+    private MetricTable(String[] names, Kind[] kinds, StringDictionary[] dictionaries, int capacity) {
+        this.names = names;
+        this.kinds = kinds;
+        this.dictionaries = dictionaries;
+        this.capacity = Math.max(capacity, 1);
+        this.ints = new int[names.length][];
+        this.longs = new long[names.length][];
+        this.doubles = new double[names.length][];
+        for (int c = 0; c < names.length; c++) {
+            switch (kinds[c]) {
+                case DATE, STRING -> ints[c] = new int[this.capacity];
+                case LONG -> longs[c] = new long[this.capacity];
+                case DOUBLE -> doubles[c] = new double[this.capacity];
+            }
+        }
+    }
+
+    /**
+     *
+     * Starts the schema of a new table.
+     *
+     * @return A builder of the table columns.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     *
+     * Creates an empty table with the same columns, sharing the string dictionaries.
+     *
+     * @param capacity The initial number of rows.
+     *
+     * @return The empty table.
+     */
+    public MetricTable emptyLike(int capacity) {
+        return new MetricTable(names, kinds, dictionaries, capacity);
+    }
+
+    /**
+     *
+     * Starts a new row, to be filled in the order of the columns.
+     *
+     * @return The writer of the row, reused by every row of the table.
+     */
+    public RowWriter appendRow() {
+        writer.start();
+        return writer;
+    }
+
+    /**
+     *
+     * @return The number of rows.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     *
+     * @return The number of columns.
+     */
+    public int columnCount() {
+        return names.length;
+    }
+
+    public String name(int column) {
+        return names[column];
+    }
+
+    public Kind kind(int column) {
+        return kinds[column];
+    }
+
+    /**
+     *
+     * Finds a column by name.
+     *
+     * @param name The name of the column.
+     *
+     * @return The index of the column, or -1 if the table has no such column.
+     */
+    public int column(String name) {
+        for (int c = 0; c < names.length; c++) {
+            if (names[c].equals(name)) return c;
+        }
+        return -1;
+    }
+
+    public int epochDay(int column, int row) {
+        return ints[column][row];
+    }
+
+    public String string(int column, int row) {
+        return dictionaries[column].decode(ints[column][row]);
+    }
+
+    /**
+     *
+     * Gets the dictionary code of a string cell, equal for the equal values of the column.
+     *
+     * @param column The column index.
+     * @param row The row index.
+     *
+     * @return The code of the cell.
+     */
+    int code(int column, int row) {
+        return ints[column][row];
+    }
+
+    public long longValue(int column, int row) {
+        return longs[column][row];
+    }
+
+    public double doubleValue(int column, int row) {
+        return doubles[column][row];
+    }
+
+    /**
+     *
+     * Renders a cell as text, with an empty text for null values.
+     *
+     * @param column The column index.
+     * @param row The row index.
+     *
+     * @return The text of the cell.
+     */
+    public String text(int column, int row) {
+        return switch (kinds[column]) {
+            case DATE -> dateText(ints[column][row]);
+            case STRING -> {
+                final String value = string(column, row);
+                yield value == null ? "" : value;
+            }
+            case LONG -> Long.toString(longs[column][row]);
+            case DOUBLE -> Double.isNaN(doubles[column][row]) ? "" : Double.toString(doubles[column][row]);
+        };
+    }
+
+    /**
+     *
+     * Gets a cell as an object, for the writers that need one, like Google Sheets.
+     *
+     * @param column The column index.
+     * @param row The row index.
+     *
+     * @return The value of the cell, with the dates as 'yyyy-MM-dd' text.
+     */
+    public Object value(int column, int row) {
+        return switch (kinds[column]) {
+            case DATE -> dateText(ints[column][row]);
+            case STRING -> string(column, row);
+            case LONG -> longs[column][row];
+            case DOUBLE -> doubles[column][row];
+        };
+    }
+
+    /**
+     *
+     * Gets the table with one filler row for each day of the period without rows.
+     *
+     * <p>The rows must be sorted by the first date column, and the rows out of the period are dropped,
+     * like the gap filling of the domain objects. The filler rows have the day in the date column, the
+     * name of the day in the 'dayOfWeek' column, "null" in the other string columns and zero in the
+     * metric columns.<p/>
+     *
+     * @param start The start date of the analysis period.
+     * @param end The end date of the analysis period.
+     *
+     * @return A new table with the gaps filled.
+     * @throws IllegalArgumentException If the start date is after the end date, or the table has no date.
+     */
+    public MetricTable withDayGapsFilled(LocalDate start, LocalDate end) {
+        // Check if the start date is after the end date.
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("The start date is after the end date");
+        }
+        final int dateColumn = Arrays.asList(kinds).indexOf(Kind.DATE);
+        if (dateColumn < 0) {
+            throw new IllegalArgumentException("The table has no date column");
+        }
+        final int first = (int) start.toEpochDay();
+        final int last = (int) end.toEpochDay();
+        final int dayOfWeekColumn = column("dayOfWeek");
+        final MetricTable filled = emptyLike(size + last - first + 1);
+        int next = first;
+        for (int row = 0; row < size; row++) {
+            final int day = ints[dateColumn][row];
+            // Drops the rows out of the period.
+            if (day < first || day > last) continue;
+            while (next < day) filled.addFiller(dateColumn, dayOfWeekColumn, next++);
+            filled.copyRow(this, row);
+            if (day >= next) next = day + 1;
+        }
+        while (next <= last) filled.addFiller(dateColumn, dayOfWeekColumn, next++);
+        return filled;
+    }
+
+    private void addFiller(int dateColumn, int dayOfWeekColumn, int epochDay) {
+        final int row = newRow();
+        for (int c = 0; c < names.length; c++) {
+            switch (kinds[c]) {
+                case DATE -> ints[c][row] = c == dateColumn ? epochDay : ints[c][row];
+                case STRING -> ints[c][row] = dictionaries[c].encode(
+                    c == dayOfWeekColumn ? DayOfWeek.from(LocalDate.ofEpochDay(epochDay)).name() : "null"
+                );
+                case LONG -> longs[c][row] = 0L;
+                case DOUBLE -> doubles[c][row] = 0d;
+            }
+        }
+    }
+
+    private void copyRow(MetricTable source, int sourceRow) {
+        final int row = newRow();
+        for (int c = 0; c < names.length; c++) {
+            switch (kinds[c]) {
+                case DATE, STRING -> ints[c][row] = source.ints[c][sourceRow];
+                case LONG -> longs[c][row] = source.longs[c][sourceRow];
+                case DOUBLE -> doubles[c][row] = source.doubles[c][sourceRow];
+            }
+        }
+    }
+
+    /**
+     *
+     * Adds an empty row, growing the columns when they are full.
+     *
+     * @return The index of the new row.
+     */
+    private int newRow() {
+        if (size == capacity) {
+            capacity = capacity + (capacity >> 1) + 1;
+            for (int c = 0; c < names.length; c++) {
+                if (ints[c] != null) ints[c] = Arrays.copyOf(ints[c], capacity);
+                if (longs[c] != null) longs[c] = Arrays.copyOf(longs[c], capacity);
+                if (doubles[c] != null) doubles[c] = Arrays.copyOf(doubles[c], capacity);
+            }
+        }
+        return size++;
+    }
+
+    private int parseDate(String date) {
+        if (!date.equals(lastDateText)) {
+            lastEpochDay = (int) LocalDate.parse(date).toEpochDay();
+            lastDateText = date;
+        }
+        return lastEpochDay;
+    }
+
+    private String dateText(int epochDay) {
+        if (epochDay != lastRenderedDay) {
+            lastRenderedText = LocalDate.ofEpochDay(epochDay).toString();
+            lastRenderedDay = epochDay;
+        }
+        return lastRenderedText;
+    }
+
+    /**
+     *
+     * The writer of one row, that fills the columns in order.
+     *
+     * */
+    public final class RowWriter {
+
+        private int row;
+        private int column;
+
+        private void start() {
+            row = newRow();
+            column = 0;
+        }
+
+        public RowWriter date(String date) {
+            ints[next(Kind.DATE)][row] = parseDate(date);
+            return this;
+        }
+
+        public RowWriter string(String value) {
+            final int c = next(Kind.STRING);
+            ints[c][row] = dictionaries[c].encode(value);
+            return this;
+        }
+
+        public RowWriter longValue(long value) {
+            longs[next(Kind.LONG)][row] = value;
+            return this;
+        }
+
+        public RowWriter doubleValue(double value) {
+            doubles[next(Kind.DOUBLE)][row] = value;
+            return this;
+        }
+
+        private int next(Kind kind) {
+            if (column >= names.length || kinds[column] != kind) {
+                throw new IllegalStateException("Column " + column + " of the table is not a " + kind);
+            }
+            return column++;
+        }
+    }
+
+    /**
+     *
+     * The builder of the table columns.
+     *
+     * */
+    public static final class Builder {
+
+        private final List<String> names = new ArrayList<>();
+        private final List<Kind> kinds = new ArrayList<>();
+
+        public Builder date(String name) {
+            return add(name, Kind.DATE);
+        }
+
+        public Builder string(String name) {
+            return add(name, Kind.STRING);
+        }
+
+        public Builder longValue(String name) {
+            return add(name, Kind.LONG);
+        }
+
+        public Builder doubleValue(String name) {
+            return add(name, Kind.DOUBLE);
+        }
+
+        /**
+         *
+         * @return An empty table with the added columns.
+         */
+        public MetricTable build() {
+            final StringDictionary[] dictionaries = new StringDictionary[names.size()];
+            for (int c = 0; c < dictionaries.length; c++) {
+                if (kinds.get(c) == Kind.STRING) dictionaries[c] = new StringDictionary();
+            }
+            return new MetricTable(names.toArray(String[]::new), kinds.toArray(Kind[]::new), dictionaries, INITIAL_CAPACITY);
+        }
+
+        private Builder add(String name, Kind kind) {
+            names.add(name);
+            kinds.add(kind);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.ads.report.domain.columnar;
+
+/**
+ *
+ * The columnar schemas of the metric result sets.
+ *
+ * <p>The columns follow the field order of each domain class, the same order of the exported files.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public final class MetricTables {
+
+    private MetricTables() {}
+
+    /**
+     *
+     * @return An empty table of campaign metrics, with the columns of CampaignMetrics.
+     */
+    public static MetricTable campaignMetrics() {
+        return MetricTable.builder()
+            .date("date")
+            .string("dayOfWeek")
+            .longValue("campaignId")
+            .string("campaignName")
+            .string("adGroupName")
+            .string("status")
+            .longValue("impressions")
+            .longValue("clicks")
+            .doubleValue("cost")
+            .doubleValue("conversions")
+            .doubleValue("ctr")
+            .doubleValue("averageCpc")
+            .doubleValue("averageCpa")
+            .build();
+    }
+
+    /**
+     *
+     * @return An empty table of keyword metrics, with the columns of CampaignKeywordMetrics.
+     */
+    public static MetricTable keywordMetrics() {
+        return MetricTable.builder()
+            .date("date")
+            .string("dayOfWeek")
+            .string("campaignName")
+            .string("advertisingChannelType")
+            .string("adGroupName")
+            .string("keywordText")
+            .string("matchType")
+            .longValue("impressions")
+            .longValue("clicks")
+            .doubleValue("cost")
+            .doubleValue("averageCpc")
+            .doubleValue("conversions")
+            .doubleValue("conversionRate")
+            .build();
+    }
+
+    /**
+     *
+     * @return An empty table of metrics per day and hour, with the columns of CampaignPerDay.
+     */
+    public static MetricTable totalPerDay() {
+        return MetricTable.builder()
+            .date("date")
+            .longValue("impressions")
+            .longValue("clicks")
+            .doubleValue("conversions")
+            .doubleValue("cost")
+            .longValue("hour")
+            .string("dayOfWeek")
+            .build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.ads.report.domain.columnar;
+
+/**
+ *
+ * The dimensions a metric table can be rolled up by.
+ *
+ * <p>The name dimensions group the rows by their string columns, from the campaign down to the keyword,
+ * and the period dimensions group them by the ISO week or the month of their date.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public enum RollupDimension {
+
+    CAMPAIGN(false, "campaignName"),
+    AD_GROUP(false, "campaignName", "adGroupName"),
+    KEYWORD(false, "campaignName", "adGroupName", "keywordText", "matchType"),
+    WEEK(true, "week"),
+    MONTH(true, "month");
+
+    private final boolean period;
+    private final String[] columns;
+
+    RollupDimension(boolean period, String... columns) {
+        this.period = period;
+        this.columns = columns;
+    }
+
+    /**
+     *
+     * @return If the rows are grouped by a period of their date, instead of by their names.
+     */
+    public boolean isPeriod() {
+        return period;
+    }
+
+    /**
+     *
+     * @return The group columns of the rollup, that are also the grouped columns of the source for the name dimensions.
+     */
+    public String[] columns() {
+        return columns.clone();
+    }
+}
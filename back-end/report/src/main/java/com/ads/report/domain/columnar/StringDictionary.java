@@ -0,0 +1,63 @@
+package com.ads.report.domain.columnar;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *
+ * The dictionary of a string column.
+ *
+ * <p>Each distinct value is kept once and the rows hold its code, so a campaign name repeated on
+ * thousands of rows costs one string and one int per row.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public final class StringDictionary {
+
+    // The code of a null value.
+    public static final int NULL = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    /**
+     *
+     * Gets the code of a value, adding it to the dictionary when new.
+     *
+     * @param value The value.
+     *
+     * @return The code of the value.
+     */
+    public int encode(String value) {
+        if (value == null) return NULL;
+        final Integer code = codes.get(value);
+        if (code != null) return code;
+        values.add(value);
+        codes.put(value, values.size() - 1);
+        return values.size() - 1;
+    }
+
+    /**
+     *
+     * Gets the value of a code.
+     *
+     * @param code The code.
+     *
+     * @return The value, or null for the null code.
+     */
+    public String decode(int code) {
+        return code == NULL ? null : values.get(code);
+    }
+
+    /**
+     *
+     * @return The number of distinct values.
+     */
+    public int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,55 @@
+package com.ads.report.domain.manager;
+
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ *
+ * The domain of a client account under a manager account (MCC).
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class ManagerClient implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private String customerId;
+    private String descriptiveName;
+    private long level;
+
+    public ManagerClient() {}
+
+    public ManagerClient(String customerId, String descriptiveName, long level) {
+        this.customerId = customerId;
+        this.descriptiveName = descriptiveName;
+        this.level = level;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
+
+    public String getDescriptiveName() {
+        return descriptiveName;
+    }
+
+    public void setDescriptiveName(String descriptiveName) {
+        this.descriptiveName = descriptiveName;
+    }
+
+    public long getLevel() {
+        return level;
+    }
+
+    public void setLevel(long level) {
+        this.level = level;
+    }
+}
@@ -0,0 +1,87 @@
+package com.ads.report.domain.manager;
+
+import com.ads.report.domain.account.AccountMetrics;
+import com.ads.report.domain.reports.ReportStatus;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ *
+ * The domain of the result of one client account, inside a fetch of a manager account portfolio.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class ManagerClientResult implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private String customerId;
+    private String descriptiveName;
+    private ReportStatus status;
+    private long durationMillis;
+    private String error;
+    private AccountMetrics metrics;
+
+    public ManagerClientResult() {}
+
+    public ManagerClientResult(String customerId, String descriptiveName, ReportStatus status, long durationMillis, String error, AccountMetrics metrics) {
+        this.customerId = customerId;
+        this.descriptiveName = descriptiveName;
+        this.status = status;
+        this.durationMillis = durationMillis;
+        this.error = error;
+        this.metrics = metrics;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
+
+    public String getDescriptiveName() {
+        return descriptiveName;
+    }
+
+    public void setDescriptiveName(String descriptiveName) {
+        this.descriptiveName = descriptiveName;
+    }
+
+    public ReportStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReportStatus status) {
+        this.status = status;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public AccountMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(AccountMetrics metrics) {
+        this.metrics = metrics;
+    }
+}
@@ -0,0 +1,86 @@
+package com.ads.report.domain.manager;
+
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ *
+ * The domain of the metrics of all the client accounts of a manager account (MCC), fetched in one pass.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class ManagerPortfolio implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private String managerAccountId;
+    private String startDate;
+    private String endDate;
+    private boolean complete;
+    private long elapsedMillis;
+    private List<ManagerClientResult> clients;
+
+    public ManagerPortfolio() {}
+
+    public ManagerPortfolio(String managerAccountId, String startDate, String endDate, boolean complete, long elapsedMillis, List<ManagerClientResult> clients) {
+        this.managerAccountId = managerAccountId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.complete = complete;
+        this.elapsedMillis = elapsedMillis;
+        this.clients = clients;
+    }
+
+    public String getManagerAccountId() {
+        return managerAccountId;
+    }
+
+    public void setManagerAccountId(String managerAccountId) {
+        this.managerAccountId = managerAccountId;
+    }
+
+    public String getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(String startDate) {
+        this.startDate = startDate;
+    }
+
+    public String getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(String endDate) {
+        this.endDate = endDate;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public List<ManagerClientResult> getClients() {
+        return clients;
+    }
+
+    public void setClients(List<ManagerClientResult> clients) {
+        this.clients = clients;
+    }
+}
@@ -0,0 +1,114 @@
+package com.ads.report.domain.reports;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ *
+ * The domain of a report generation job.
+ *
+ * <p>A job holds the progress of an update of various reports, with the status and timings
+ * of each client and each of its tabs.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class ReportJob implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private String id;
+    private String owner;
+    private ReportStatus status;
+    private long submittedAt;
+    private long startedAt;
+    private long finishedAt;
+    private long leaseUntil;
+    private String error;
+    private List<UpdateAllReportsResult> clients;
+
+    public ReportJob() {}
+
+    public ReportJob(String id, String owner, ReportStatus status, long submittedAt, List<UpdateAllReportsResult> clients) {
+        this.id = id;
+        this.owner = owner;
+        this.status = status;
+        this.submittedAt = submittedAt;
+        this.clients = clients;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public ReportStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReportStatus status) {
+        this.status = status;
+    }
+
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(long submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(long finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public long getLeaseUntil() {
+        return leaseUntil;
+    }
+
+    public void setLeaseUntil(long leaseUntil) {
+        this.leaseUntil = leaseUntil;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public List<UpdateAllReportsResult> getClients() {
+        return clients;
+    }
+
+    public void setClients(List<UpdateAllReportsResult> clients) {
+        this.clients = clients;
+    }
+}
@@ -0,0 +1,114 @@
+package com.ads.report.domain.reports;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ *
+ * The domain of a recurring report refresh.
+ *
+ * <p>A schedule holds the reports to update, the cron expression of its runs, and the user whose
+ * authorization runs them. With 'lookbackDays' above zero, the dates of the reports roll with each run,
+ * from that many days ago to today, instead of being the fixed dates given.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class ReportSchedule implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private String id;
+    private String owner;
+    private String registrationId;
+    private String cron;
+    private String zone;
+    private int lookbackDays;
+    private List<UpdateAllReports> reports;
+    private long nextRunAt;
+    private long lastRunAt;
+
+    public ReportSchedule() {}
+
+    public ReportSchedule(String cron, String zone, int lookbackDays, List<UpdateAllReports> reports) {
+        this.cron = cron;
+        this.zone = zone;
+        this.lookbackDays = lookbackDays;
+        this.reports = reports;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public String getRegistrationId() {
+        return registrationId;
+    }
+
+    public void setRegistrationId(String registrationId) {
+        this.registrationId = registrationId;
+    }
+
+    public String getCron() {
+        return cron;
+    }
+
+    public void setCron(String cron) {
+        this.cron = cron;
+    }
+
+    public String getZone() {
+        return zone;
+    }
+
+    public void setZone(String zone) {
+        this.zone = zone;
+    }
+
+    public int getLookbackDays() {
+        return lookbackDays;
+    }
+
+    public void setLookbackDays(int lookbackDays) {
+        this.lookbackDays = lookbackDays;
+    }
+
+    public List<UpdateAllReports> getReports() {
+        return reports;
+    }
+
+    public void setReports(List<UpdateAllReports> reports) {
+        this.reports = reports;
+    }
+
+    public long getNextRunAt() {
+        return nextRunAt;
+    }
+
+    public void setNextRunAt(long nextRunAt) {
+        this.nextRunAt = nextRunAt;
+    }
+
+    public long getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public void setLastRunAt(long lastRunAt) {
+        this.lastRunAt = lastRunAt;
+    }
+}
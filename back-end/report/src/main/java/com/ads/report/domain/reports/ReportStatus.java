@@ -0,0 +1,16 @@
+package com.ads.report.domain.reports;
+
+/**
+ *
+ * The status of a report job, of a client inside a job, or of a single tab.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public enum ReportStatus {
+    PENDING,
+    RUNNING,
+    SUCCESS,
+    FAILED
+}
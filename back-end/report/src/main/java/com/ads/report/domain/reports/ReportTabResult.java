@@ -0,0 +1,74 @@
+package com.ads.report.domain.reports;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ *
+ * The domain of the result of one report tab, inside an update of various reports.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class ReportTabResult implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private String tab;
+    private ReportStatus status;
+    private long startedAt;
+    private long durationMillis;
+    private String error;
+
+    public ReportTabResult() {}
+
+    public ReportTabResult(String tab, ReportStatus status, long startedAt, long durationMillis, String error) {
+        this.tab = tab;
+        this.status = status;
+        this.startedAt = startedAt;
+        this.durationMillis = durationMillis;
+        this.error = error;
+    }
+
+    public String getTab() {
+        return tab;
+    }
+
+    public void setTab(String tab) {
+        this.tab = tab;
+    }
+
+    public ReportStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReportStatus status) {
+        this.status = status;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,114 @@
+package com.ads.report.domain.reports;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ *
+ * The domain of one report of one client, inside an update of various reports shared between replicas.
+ *
+ * <p>The task carries the user whose authorization runs it, and the attempts already made, counting the
+ * deliveries to workers that stopped before finishing it. The receipt is the id of the delivery that
+ * handed it over, given by the queue.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class ReportTask implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private String id;
+    private String batchId;
+    private int clientIndex;
+    private ReportType type;
+    private UpdateAllReports report;
+    private String owner;
+    private String registrationId;
+    private int attempts;
+    private String receipt;
+
+    public ReportTask() {}
+
+    public ReportTask(String id, String batchId, int clientIndex, ReportType type, UpdateAllReports report) {
+        this.id = id;
+        this.batchId = batchId;
+        this.clientIndex = clientIndex;
+        this.type = type;
+        this.report = report;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+
+    public int getClientIndex() {
+        return clientIndex;
+    }
+
+    public void setClientIndex(int clientIndex) {
+        this.clientIndex = clientIndex;
+    }
+
+    public ReportType getType() {
+        return type;
+    }
+
+    public void setType(ReportType type) {
+        this.type = type;
+    }
+
+    public UpdateAllReports getReport() {
+        return report;
+    }
+
+    public void setReport(UpdateAllReports report) {
+        this.report = report;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public String getRegistrationId() {
+        return registrationId;
+    }
+
+    public void setRegistrationId(String registrationId) {
+        this.registrationId = registrationId;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getReceipt() {
+        return receipt;
+    }
+
+    public void setReceipt(String receipt) {
+        this.receipt = receipt;
+    }
+}
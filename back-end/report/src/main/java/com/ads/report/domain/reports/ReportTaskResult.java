@@ -0,0 +1,44 @@
+package com.ads.report.domain.reports;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ *
+ * The domain of the result of a report task, sent back to the replica that is running the update.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class ReportTaskResult implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private int clientIndex;
+    private ReportTabResult tab;
+
+    public ReportTaskResult() {}
+
+    public ReportTaskResult(int clientIndex, ReportTabResult tab) {
+        this.clientIndex = clientIndex;
+        this.tab = tab;
+    }
+
+    public int getClientIndex() {
+        return clientIndex;
+    }
+
+    public void setClientIndex(int clientIndex) {
+        this.clientIndex = clientIndex;
+    }
+
+    public ReportTabResult getTab() {
+        return tab;
+    }
+
+    public void setTab(ReportTabResult tab) {
+        this.tab = tab;
+    }
+}
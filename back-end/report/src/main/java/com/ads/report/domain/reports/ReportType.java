@@ -0,0 +1,33 @@
+package com.ads.report.domain.reports;
+
+/**
+ *
+ * The reports written for each client, one sheets tab each.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public enum ReportType {
+
+    CAMPAIGNS("campanhas"),
+    ADS("anuncios"),
+    KEYWORDS("keywords"),
+    PER_DAY("grafico");
+
+    private final String tabSuffix;
+
+    ReportType(String tabSuffix) {
+        this.tabSuffix = tabSuffix;
+    }
+
+    /**
+     *
+     * @param client The client name.
+     *
+     * @return The sheets tab of this report for the client.
+     */
+    public String tab(String client) {
+        return client + "-" + tabSuffix;
+    }
+}
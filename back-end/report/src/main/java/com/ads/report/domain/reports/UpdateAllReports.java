@@ -17,6 +17,8 @@ public class UpdateAllReports {
     private String client;
     private boolean active;
 
+    public UpdateAllReports() {}
+
     public UpdateAllReports(String customerId, String startDate, String endDate, String spreadsheetId, String client, boolean active) {
         this.customerId = customerId;
         this.startDate = startDate;
@@ -0,0 +1,75 @@
+package com.ads.report.domain.reports;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ *
+ * The domain of the result of updating the reports of one client.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class UpdateAllReportsResult implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private String customerId;
+    private String client;
+    private String spreadsheetId;
+    private ReportStatus status;
+    private List<ReportTabResult> tabs;
+
+    public UpdateAllReportsResult() {}
+
+    public UpdateAllReportsResult(String customerId, String client, String spreadsheetId, ReportStatus status, List<ReportTabResult> tabs) {
+        this.customerId = customerId;
+        this.client = client;
+        this.spreadsheetId = spreadsheetId;
+        this.status = status;
+        this.tabs = tabs;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
+
+    public String getClient() {
+        return client;
+    }
+
+    public void setClient(String client) {
+        this.client = client;
+    }
+
+    public String getSpreadsheetId() {
+        return spreadsheetId;
+    }
+
+    public void setSpreadsheetId(String spreadsheetId) {
+        this.spreadsheetId = spreadsheetId;
+    }
+
+    public ReportStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReportStatus status) {
+        this.status = status;
+    }
+
+    public List<ReportTabResult> getTabs() {
+        return tabs;
+    }
+
+    public void setTabs(List<ReportTabResult> tabs) {
+        this.tabs = tabs;
+    }
+}
@@ -0,0 +1,20 @@
+package com.ads.report.domain.sheets;
+
+/**
+ *
+ * The reports that can be appended to a sheets tab, a day at a time.
+ *
+ * <p>Only the reports with one row per day are appendable: their new days only add rows, and never
+ * change the rows of the days already written.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public enum SheetsAppendReport {
+
+    CAMPAIGN,
+    TOTAL_PER_DAY,
+    KEYWORD,
+    HEADLINES
+}
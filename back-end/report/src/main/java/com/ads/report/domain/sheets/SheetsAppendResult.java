@@ -0,0 +1,74 @@
+package com.ads.report.domain.sheets;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ *
+ * The domain of the result of appending the new days of a report to a sheets tab.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class SheetsAppendResult implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private String tab;
+    private String fromDate;
+    private String toDate;
+    private int rows;
+    private boolean replaced;
+
+    public SheetsAppendResult() {}
+
+    public SheetsAppendResult(String tab, String fromDate, String toDate, int rows, boolean replaced) {
+        this.tab = tab;
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.rows = rows;
+        this.replaced = replaced;
+    }
+
+    public String getTab() {
+        return tab;
+    }
+
+    public void setTab(String tab) {
+        this.tab = tab;
+    }
+
+    public String getFromDate() {
+        return fromDate;
+    }
+
+    public void setFromDate(String fromDate) {
+        this.fromDate = fromDate;
+    }
+
+    public String getToDate() {
+        return toDate;
+    }
+
+    public void setToDate(String toDate) {
+        this.toDate = toDate;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public void setRows(int rows) {
+        this.rows = rows;
+    }
+
+    public boolean isReplaced() {
+        return replaced;
+    }
+
+    public void setReplaced(boolean replaced) {
+        this.replaced = replaced;
+    }
+}
@@ -3,16 +3,28 @@ package com.ads.report.infrastructure.configuration.ads;
 import com.ads.report.adapters.mappers.GoogleAdsDtoMapper;
 import com.ads.report.application.gateway.ads.GoogleAdsGateway;
 import com.ads.report.application.usecases.ads.GoogleAdsUseCase;
+import com.ads.report.infrastructure.configuration.oauth.PrincipalClientCache;
 import com.ads.report.infrastructure.exception.ForbiddenException;
+import com.ads.report.infrastructure.gateway.ads.CachingGoogleAdsGateway;
+import com.ads.report.infrastructure.gateway.ads.GoogleAdsChannelPool;
+import com.ads.report.infrastructure.gateway.ads.GoogleAdsRateLimiter;
 import com.ads.report.infrastructure.gateway.ads.GoogleAdsRepoGateway;
+import com.ads.report.infrastructure.gateway.ads.SegmentedGoogleAdsGateway;
+import com.ads.report.infrastructure.gateway.ads.ShardedGoogleAdsGateway;
+import com.ads.report.infrastructure.gateway.ads.SingleFlightGoogleAdsGateway;
+import com.ads.report.infrastructure.gateway.redis.RedisDaySegmentStore;
 import com.ads.report.infrastructure.gateway.redis.RedisOAuth2AuthorizedClient;
+import com.ads.report.infrastructure.gateway.redis.RedisReportCache;
 import com.google.ads.googleads.lib.GoogleAdsClient;
 import com.google.auth.oauth2.AccessToken;
 import com.google.auth.oauth2.UserCredentials;
-import com.google.gson.Gson;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
@@ -20,9 +32,14 @@ import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.web.context.annotation.RequestScope;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
+import java.util.Optional;
 
 /**
  *
@@ -43,6 +60,58 @@ public class GoogleAdsConfiguration {
     private String clientSecret;
     @Value("${api.googleads.developerToken}")
     private String developerToken;
+    @Value("${api.googleads.endpoint:googleads.googleapis.com:443}")
+    private String endpoint;
+    @Value("${api.googleads.channelPool.size:4}")
+    private int channelPoolSize;
+    @Value("${api.googleads.channelPool.maxConcurrentStreams:100}")
+    private int maxConcurrentStreams;
+    @Value("${api.googleads.channelPool.keepAliveSeconds:60}")
+    private long keepAliveSeconds;
+    @Value("${api.googleads.channelPool.maxInboundMessageBytes:67108864}")
+    private int maxInboundMessageBytes;
+    @Value("${api.cache.enabled:true}")
+    private boolean cacheEnabled;
+    @Value("${spring.cache.redis.time-to-live:12h}")
+    private Duration closedTimeToLive;
+    @Value("${api.cache.mutableTtlMinutes:5}")
+    private long mutableTtlMinutes;
+    @Value("${api.cache.mutableDays:1}")
+    private int mutableDays;
+    @Value("${api.cache.maxStreamRows:100000}")
+    private int maxCachedStreamRows;
+    @Value("${api.cache.segmentTtlDays:35}")
+    private long segmentTtlDays;
+    @Value("${api.cache.segmentMaxGapDays:2}")
+    private int segmentMaxGapDays;
+    @Value("${api.googleads.shards.enabled:true}")
+    private boolean shardsEnabled;
+    @Value("${api.googleads.shards.concurrency:8}")
+    private int shardConcurrency;
+    @Value("${api.googleads.shards.days:31}")
+    private int shardDays;
+    @Value("${api.googleads.shards.minDays:7}")
+    private int minShardDays;
+    @Value("${api.googleads.shards.maxDays:92}")
+    private int maxShardDays;
+    @Value("${api.googleads.shards.targetRows:50000}")
+    private int targetRowsPerShard;
+    @Value("${api.googleads.limiter.developerRate:20}")
+    private double developerRate;
+    @Value("${api.googleads.limiter.customerRate:4}")
+    private double customerRate;
+    @Value("${api.googleads.limiter.minRate:0.2}")
+    private double minRate;
+    @Value("${api.googleads.limiter.maxRetries:4}")
+    private int maxRetries;
+    @Value("${api.googleads.limiter.baseBackoffMillis:500}")
+    private long baseBackoffMillis;
+    @Value("${api.googleads.limiter.maxBackoffMillis:30000}")
+    private long maxBackoffMillis;
+    @Value("${api.googleads.singleFlight.accessTtlSeconds:60}")
+    private long accessTtlSeconds;
+    @Value("${api.googleads.singleFlight.maxRows:100000}")
+    private int maxSharedRows;
 
     /**
      *
@@ -50,13 +119,15 @@ public class GoogleAdsConfiguration {
      *
      * @param authorizedClientService An implementations of OAuth2AuthorizedClientService for server states config.
      * @param authorizedClientManager An OAuth2AuthorizedClientManager to manage the client logged on.
+     * @param googleAdsClientCache The cache of the clients of each principal.
      *
-     * @return Return the adwords client based on the OAuth2.0 login.
+     * @return Return the adwords client based on the OAuth2.0 login, reused between the requests of the principal.
      */
     @Bean
     @RequestScope
     public GoogleAdsClient googleAdsClient(RedisOAuth2AuthorizedClient authorizedClientService,
-                                           OAuth2AuthorizedClientManager authorizedClientManager) {
+                                           OAuth2AuthorizedClientManager authorizedClientManager,
+                                           PrincipalClientCache<GoogleAdsClient> googleAdsClientCache) {
         // Getting authentication from session security context holder.
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         // Tests if the authentication granted is an OAuth2 instance, and associate it to oauthToken variable.
@@ -70,11 +141,38 @@ public class GoogleAdsConfiguration {
         if (client == null) {
             throw new ForbiddenException("OAuth2AuthorizedClient not found. The user may be not authenticated.");
         }
-        // Automatically renew token if expired.
-        client = authorizedClientManager.authorize(OAuth2AuthorizeRequest
-            .withClientRegistrationId(oauthToken.getAuthorizedClientRegistrationId())
-            .principal(oauthToken)
-            .build());
+        final String storedRefreshToken = (client.getRefreshToken() != null) ? client.getRefreshToken().getTokenValue() : "";
+        if (storedRefreshToken.isEmpty()) throw new ForbiddenException("refresh_token not found.");
+        // Reusing the client of this principal, while it was built with the same refresh_token.
+        final OAuth2AuthorizedClient storedClient = client;
+        return googleAdsClientCache.get(
+            oauthToken.getAuthorizedClientRegistrationId() + ":" + oauthToken.getName(),
+            storedRefreshToken,
+            () -> buildGoogleAdsClient(oauthToken, storedClient, authorizedClientManager)
+        );
+    }
+
+    /**
+     *
+     * Builds a new Google Ads client for the principal.
+     *
+     * @param oauthToken The OAuth2 authentication of the principal.
+     * @param client The authorized client stored for the principal.
+     * @param authorizedClientManager An OAuth2AuthorizedClientManager to manage the client logged on.
+     *
+     * @return A new client, with credentials that renew their own access_token.
+     */
+    private GoogleAdsClient buildGoogleAdsClient(OAuth2AuthenticationToken oauthToken,
+                                                 OAuth2AuthorizedClient client,
+                                                 OAuth2AuthorizedClientManager authorizedClientManager) {
+        // Automatically renew token if expired, when serving an http request. Background jobs have no
+        // servlet request to renew it, and rely on the refresh_token of the UserCredentials instead.
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes) {
+            client = authorizedClientManager.authorize(OAuth2AuthorizeRequest
+                .withClientRegistrationId(oauthToken.getAuthorizedClientRegistrationId())
+                .principal(oauthToken)
+                .build());
+        }
         if (client == null || client.getAccessToken() == null)
             throw new ForbiddenException("Failed to renew access_token. Logon again.");
         // Getting final access_token, expiration time and refresh_token.
@@ -82,8 +180,8 @@ public class GoogleAdsConfiguration {
         Instant expiresAt = client.getAccessToken().getExpiresAt();
         String refreshToken = (client.getRefreshToken() != null) ? client.getRefreshToken().getTokenValue() : "";
         if (refreshToken.isEmpty()) throw new ForbiddenException("refresh_token not found.");
-        Date date = new Date();
-        date.setTime(expiresAt.getEpochSecond());
+        // The expiration is in milliseconds, so the credentials do not renew a still valid access_token.
+        Date date = Date.from(expiresAt);
         // Creating OAuth2 credentials for GoogleAds.
         UserCredentials credentials = UserCredentials.newBuilder()
             .setClientId(clientId)
@@ -98,11 +196,138 @@ public class GoogleAdsConfiguration {
             .build();
     }
 
+    /**
+     *
+     * Bean of the shared gRPC channels to Google Ads, used by the service clients of all users.
+     *
+     * <p>It can be turned off with 'api.googleads.channelPool.enabled=false', and then each service
+     * client opens its own channel again.<p/>
+     *
+     * @return The channel pool.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "api.googleads.channelPool.enabled", havingValue = "true", matchIfMissing = true)
+    public GoogleAdsChannelPool googleAdsChannelPool() {
+        return new GoogleAdsChannelPool(
+            endpoint,
+            developerToken,
+            channelPoolSize,
+            maxConcurrentStreams,
+            keepAliveSeconds,
+            maxInboundMessageBytes
+        );
+    }
+
+    /**
+     *
+     * Bean of the adaptive rate limiter of the Google Ads queries, that also retries their quota and transient errors.
+     *
+     * <p>It can be turned off with 'api.googleads.limiter.enabled=false', and then the queries run as soon
+     * as they are made, and fail on their first error.<p/>
+     *
+     * @return The rate limiter.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "api.googleads.limiter.enabled", havingValue = "true", matchIfMissing = true)
+    public GoogleAdsRateLimiter googleAdsRateLimiter() {
+        return new GoogleAdsRateLimiter(
+            developerRate,
+            customerRate,
+            minRate,
+            maxRetries,
+            baseBackoffMillis,
+            maxBackoffMillis
+        );
+    }
+
     @Bean
-    public GoogleAdsGateway googleAdsGateway() {
+    public GoogleAdsRepoGateway googleAdsRepoGateway() {
         return new GoogleAdsRepoGateway();
     }
 
+    /**
+     *
+     * Bean of the single-flight gateway, that lets the concurrent identical queries share one call to Google Ads.
+     *
+     * <p>It sits below the shards, so the identical shards of different requests share their queries. A
+     * caller only shares the rows of another one after reading the customer with its own credentials, a
+     * check kept for 'api.googleads.singleFlight.accessTtlSeconds', and a query is only shared up to
+     * 'api.googleads.singleFlight.maxRows' rows. It can be turned off with
+     * 'api.googleads.singleFlight.enabled=false'.<p/>
+     *
+     * @param googleAdsRepoGateway The gateway that queries Google Ads.
+     *
+     * @return The single-flight gateway.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "api.googleads.singleFlight.enabled", havingValue = "true", matchIfMissing = true)
+    public SingleFlightGoogleAdsGateway singleFlightGoogleAdsGateway(GoogleAdsRepoGateway googleAdsRepoGateway) {
+        return new SingleFlightGoogleAdsGateway(
+            googleAdsRepoGateway,
+            customerId -> googleAdsRepoGateway.getManagerAccount(customerId) != null,
+            Duration.ofSeconds(accessTtlSeconds),
+            maxSharedRows,
+            Clock.systemDefaultZone()
+        );
+    }
+
+    /**
+     *
+     * Bean of the Google Ads gateway used by the application, that caches the results of the Ads queries.
+     *
+     * <p>The whole reports are cached by date range, and below them the closed days are kept as day
+     * segments, so an overlapping range only fetches the days it is missing. The long periods left to
+     * fetch are then split in date shards, queried concurrently, and the identical shards running at the
+     * same time share one query. The cache can be turned off with 'api.cache.enabled=false', and the
+     * sharding with 'api.googleads.shards.enabled=false'.<p/>
+     *
+     * @param googleAdsRepoGateway The gateway that queries Google Ads.
+     * @param singleFlightGoogleAdsGateway The single-flight gateway, if enabled.
+     * @param redisReportCache The Redis store of the results.
+     * @param redisDaySegmentStore The Redis store of the day segments.
+     * @param reportTaskExecutor The executor that runs the shards.
+     *
+     * @return The caching gateway.
+     */
+    @Bean
+    @Primary
+    public GoogleAdsGateway googleAdsGateway(GoogleAdsRepoGateway googleAdsRepoGateway,
+                                             Optional<SingleFlightGoogleAdsGateway> singleFlightGoogleAdsGateway,
+                                             RedisReportCache redisReportCache,
+                                             RedisDaySegmentStore redisDaySegmentStore,
+                                             @Qualifier("reportTaskExecutor") AsyncTaskExecutor reportTaskExecutor) {
+        final GoogleAdsGateway upstream = singleFlightGoogleAdsGateway.<GoogleAdsGateway>map(g -> g).orElse(googleAdsRepoGateway);
+        final GoogleAdsGateway sharded = !shardsEnabled ? upstream : new ShardedGoogleAdsGateway(
+            upstream,
+            reportTaskExecutor,
+            shardConcurrency,
+            shardDays,
+            minShardDays,
+            maxShardDays,
+            targetRowsPerShard
+        );
+        if (!cacheEnabled) return sharded;
+        final Clock clock = Clock.systemDefaultZone();
+        final GoogleAdsGateway segmented = new SegmentedGoogleAdsGateway(
+            sharded,
+            redisDaySegmentStore,
+            Duration.ofDays(segmentTtlDays),
+            mutableDays,
+            segmentMaxGapDays,
+            maxCachedStreamRows,
+            clock
+        );
+        return new CachingGoogleAdsGateway(
+            segmented,
+            redisReportCache,
+            closedTimeToLive,
+            Duration.ofMinutes(mutableTtlMinutes),
+            mutableDays,
+            maxCachedStreamRows,
+            clock
+        );
+    }
+
     @Bean
     public GoogleAdsUseCase googleAdsUseCase(GoogleAdsGateway googleAdsGateway) {
         return new GoogleAdsUseCase(googleAdsGateway);
@@ -112,9 +337,4 @@ public class GoogleAdsConfiguration {
     public GoogleAdsDtoMapper googleAdsDtoMapper() {
         return new GoogleAdsDtoMapper();
     }
-
-    @Bean
-    public Gson gson() {
-        return new Gson();
-    }
 }
@@ -1,11 +1,21 @@
 package com.ads.report.infrastructure.configuration.ads;
 
 import com.ads.report.application.gateway.ads.GoogleAdsGateway;
+import com.ads.report.application.gateway.reports.ReportJobGateway;
+import com.ads.report.application.gateway.reports.ReportTaskQueue;
 import com.ads.report.application.gateway.sheets.GoogleSheetsGateway;
 import com.ads.report.application.usecases.ads.GoogleAdsUseCase;
+import com.ads.report.application.usecases.ads.ManagerPortfolioUseCase;
 import com.ads.report.application.usecases.ads.UpdateAllReportsUseCase;
+import com.ads.report.application.usecases.reports.ReportJobUseCase;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.time.Duration;
+import java.util.Optional;
 
 /**
  *
@@ -20,8 +30,52 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class UpdateAllReportsConfiguration {
 
+    @Value("${api.reports.adsConcurrency:8}")
+    private int adsConcurrency;
+    @Value("${api.reports.sheetsConcurrency:4}")
+    private int sheetsConcurrency;
+    @Value("${api.reports.manager.concurrency:8}")
+    private int managerConcurrency;
+    @Value("${api.reports.manager.budgetSeconds:60}")
+    private long managerBudgetSeconds;
+    @Value("${api.reports.queue.resultTimeoutMinutes:60}")
+    private long queueResultTimeoutMinutes;
+    @Value("${api.reports.jobLeaseSeconds:120}")
+    private long jobLeaseSeconds;
+
+    @Bean
+    public UpdateAllReportsUseCase updateAllReportsUseCase(GoogleAdsGateway googleAdsGateway,
+                                                           GoogleSheetsGateway googleSheetsGateway,
+                                                           GoogleAdsUseCase googleAdsUseCase,
+                                                           @Qualifier("reportTaskExecutor") AsyncTaskExecutor reportTaskExecutor,
+                                                           Optional<ReportTaskQueue> reportTaskQueue) {
+        return new UpdateAllReportsUseCase(
+            googleAdsGateway,
+            googleSheetsGateway,
+            googleAdsUseCase,
+            reportTaskExecutor,
+            adsConcurrency,
+            sheetsConcurrency,
+            reportTaskQueue.orElse(null),
+            Duration.ofMinutes(queueResultTimeoutMinutes)
+        );
+    }
+
+    @Bean
+    public ManagerPortfolioUseCase managerPortfolioUseCase(GoogleAdsGateway googleAdsGateway,
+                                                           @Qualifier("reportTaskExecutor") AsyncTaskExecutor reportTaskExecutor) {
+        return new ManagerPortfolioUseCase(
+            googleAdsGateway,
+            reportTaskExecutor,
+            managerConcurrency,
+            Duration.ofSeconds(managerBudgetSeconds)
+        );
+    }
+
     @Bean
-    public UpdateAllReportsUseCase updateAllReportsUseCase(GoogleAdsGateway googleAdsGateway, GoogleSheetsGateway googleSheetsGateway, GoogleAdsUseCase googleAdsUseCase) {
-        return new UpdateAllReportsUseCase(googleAdsGateway, googleSheetsGateway, googleAdsUseCase);
+    public ReportJobUseCase reportJobUseCase(ReportJobGateway reportJobGateway,
+                                             UpdateAllReportsUseCase updateAllReportsUseCase,
+                                             @Qualifier("reportJobExecutor") AsyncTaskExecutor reportJobExecutor) {
+        return new ReportJobUseCase(reportJobGateway, updateAllReportsUseCase, reportJobExecutor, Duration.ofSeconds(jobLeaseSeconds));
     }
 }
@@ -0,0 +1,51 @@
+package com.ads.report.infrastructure.configuration.async;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+/**
+ *
+ * The configuration of the executors used to run reports in parallel.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+@Configuration
+public class AsyncConfiguration {
+
+    /**
+     *
+     * The executor of the report tasks.
+     *
+     * <p>Each task runs on its own virtual thread, so blocking on the Google APIs is cheap.
+     * The concurrency against each API is bounded by the use cases, not by the executor.<p/>
+     *
+     * @return An executor of virtual threads, that propagates the caller's context.
+     */
+    @Bean
+    public AsyncTaskExecutor reportTaskExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("report-");
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(new RequestContextTaskDecorator());
+        return executor;
+    }
+
+    /**
+     *
+     * The executor of the background report jobs.
+     *
+     * <p>Each job runs on its own virtual thread, with the security context of the user that submitted it.<p/>
+     *
+     * @return An executor of virtual threads, that gives each job its own request scope.
+     */
+    @Bean
+    public AsyncTaskExecutor reportJobExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("report-job-");
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(new JobContextTaskDecorator());
+        return executor;
+    }
+}
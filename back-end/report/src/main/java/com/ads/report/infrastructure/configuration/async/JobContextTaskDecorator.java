@@ -0,0 +1,47 @@
+package com.ads.report.infrastructure.configuration.async;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.UUID;
+
+/**
+ *
+ * The task decorator of the background jobs.
+ *
+ * <p>The job keeps the security context of the user that submitted it, but runs in its own request scope,
+ * because the submitting request ends before the job does.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class JobContextTaskDecorator implements TaskDecorator {
+
+    /**
+     *
+     * Decorates the job with the security context of the submitting thread and a new job scope.
+     *
+     * @param runnable The job to run.
+     *
+     * @return The job bound to the caller's security context and to its own request attributes.
+     */
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        final SecurityContext securityContext = SecurityContextHolder.getContext();
+        return () -> {
+            final JobRequestAttributes jobAttributes = new JobRequestAttributes(UUID.randomUUID().toString());
+            RequestContextHolder.setRequestAttributes(jobAttributes);
+            SecurityContextHolder.setContext(securityContext);
+            try {
+                runnable.run();
+            } finally {
+                jobAttributes.requestCompleted();
+                SecurityContextHolder.clearContext();
+                RequestContextHolder.resetRequestAttributes();
+            }
+        };
+    }
+}
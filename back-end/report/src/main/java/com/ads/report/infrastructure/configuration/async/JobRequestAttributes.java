@@ -0,0 +1,82 @@
+package com.ads.report.infrastructure.configuration.async;
+
+import org.springframework.web.context.request.RequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ *
+ * The request attributes of a background job.
+ *
+ * <p>A background job outlives the http request that submitted it, so it can not use the request's attributes.
+ * This class gives the job its own request scope: the request scoped beans, like the Google clients, are created
+ * once per job, and destroyed when the job completes.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class JobRequestAttributes implements RequestAttributes {
+
+    private final String jobId;
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private final List<Runnable> destructionCallbacks = new ArrayList<>();
+
+    public JobRequestAttributes(String jobId) {
+        this.jobId = jobId;
+    }
+
+    @Override
+    public Object getAttribute(String name, int scope) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value, int scope) {
+        attributes.put(name, value);
+    }
+
+    @Override
+    public void removeAttribute(String name, int scope) {
+        attributes.remove(name);
+    }
+
+    @Override
+    public String[] getAttributeNames(int scope) {
+        return attributes.keySet().toArray(new String[0]);
+    }
+
+    @Override
+    public synchronized void registerDestructionCallback(String name, Runnable callback, int scope) {
+        destructionCallbacks.add(callback);
+    }
+
+    @Override
+    public Object resolveReference(String key) {
+        return null;
+    }
+
+    @Override
+    public String getSessionId() {
+        return jobId;
+    }
+
+    @Override
+    public Object getSessionMutex() {
+        return this;
+    }
+
+    /**
+     *
+     * Marks the job as completed, destroying the beans created in its scope.
+     *
+     */
+    public synchronized void requestCompleted() {
+        destructionCallbacks.forEach(Runnable::run);
+        destructionCallbacks.clear();
+        attributes.clear();
+    }
+}
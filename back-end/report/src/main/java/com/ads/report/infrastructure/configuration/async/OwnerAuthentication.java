@@ -0,0 +1,49 @@
+package com.ads.report.infrastructure.configuration.async;
+
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+
+import java.util.Map;
+
+/**
+ *
+ * The authentication of a user that is not logged in, for the work run on its behalf.
+ *
+ * <p>The schedules and the queued report tasks run without the http session of their user. With this
+ * authentication, the Google clients load the authorization stored at the user's login, and renew the
+ * access_token with its offline refresh_token.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public final class OwnerAuthentication {
+
+    // The user name attribute of the Google client registration.
+    private static final String USER_NAME_ATTRIBUTE = "name";
+
+    private OwnerAuthentication() {}
+
+    /**
+     *
+     * Builds a security context with the authentication of a user.
+     *
+     * @param owner The name of the user.
+     * @param registrationId The OAuth2 client registration of the user.
+     *
+     * @return The security context.
+     */
+    public static SecurityContext of(String owner, String registrationId) {
+        final DefaultOAuth2User user = new DefaultOAuth2User(
+            AuthorityUtils.createAuthorityList("OAUTH2_USER"),
+            Map.of(USER_NAME_ATTRIBUTE, owner),
+            USER_NAME_ATTRIBUTE
+        );
+        final SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(new OAuth2AuthenticationToken(user, user.getAuthorities(), registrationId));
+        return securityContext;
+    }
+}
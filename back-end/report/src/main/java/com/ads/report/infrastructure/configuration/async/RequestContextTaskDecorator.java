@@ -0,0 +1,46 @@
+package com.ads.report.infrastructure.configuration.async;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ *
+ * The task decorator that carries the caller's context to the worker threads.
+ *
+ * <p>The Google clients are request scoped beans, built from the logged user. This decorator copies
+ * the request attributes and the security context of the submitting thread to the worker thread,
+ * so the tasks resolve the same clients as the request that created them.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class RequestContextTaskDecorator implements TaskDecorator {
+
+    /**
+     *
+     * Decorates the task with the context of the submitting thread.
+     *
+     * @param runnable The task to run.
+     *
+     * @return The task bound to the caller's request attributes and security context.
+     */
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        final RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        final SecurityContext securityContext = SecurityContextHolder.getContext();
+        return () -> {
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            SecurityContextHolder.setContext(securityContext);
+            try {
+                runnable.run();
+            } finally {
+                SecurityContextHolder.clearContext();
+                RequestContextHolder.resetRequestAttributes();
+            }
+        };
+    }
+}
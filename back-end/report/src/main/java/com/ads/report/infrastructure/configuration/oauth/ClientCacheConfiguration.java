@@ -0,0 +1,37 @@
+package com.ads.report.infrastructure.configuration.oauth;
+
+import com.google.ads.googleads.lib.GoogleAdsClient;
+import com.google.api.services.sheets.v4.Sheets;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ *
+ * The configuration of the Google client caches.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+@Configuration
+public class ClientCacheConfiguration {
+
+    @Value("${api.clients.idleMinutes:30}")
+    private long idleMinutes;
+    @Value("${api.clients.maxSize:500}")
+    private int maxSize;
+
+    @Bean
+    public PrincipalClientCache<GoogleAdsClient> googleAdsClientCache() {
+        return new PrincipalClientCache<>(Duration.ofMinutes(idleMinutes), maxSize, Clock.systemUTC());
+    }
+
+    @Bean
+    public PrincipalClientCache<Sheets> googleSheetsClientCache() {
+        return new PrincipalClientCache<>(Duration.ofMinutes(idleMinutes), maxSize, Clock.systemUTC());
+    }
+}
@@ -0,0 +1,141 @@
+package com.ads.report.infrastructure.configuration.oauth;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ *
+ * The cache of Google clients per principal.
+ *
+ * <p>Building a Google Ads or Sheets client opens new channels and transports, so each principal keeps
+ * its client between requests. The client credentials renew their own access_token with the refresh_token,
+ * so an entry stays valid while the stored refresh_token is the same one it was built with. A new login
+ * or a revoked consent changes the refresh_token and rebuilds the client.<p/>
+ *
+ * <p>Entries idle for longer than the idle time to live are evicted, and the least recently used entry is
+ * evicted when the cache grows past its maximum size.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class PrincipalClientCache<T> {
+
+    private final Map<String, Entry<T>> entries = new ConcurrentHashMap<>();
+    private final Duration idleTimeToLive;
+    private final int maxSize;
+    private final Clock clock;
+
+    /**
+     *
+     * The constructor receives the eviction limits of the cache.
+     *
+     * @param idleTimeToLive How long an entry lives without being used.
+     * @param maxSize The maximum number of principals cached.
+     * @param clock The clock of the cache.
+     */
+    public PrincipalClientCache(Duration idleTimeToLive, int maxSize, Clock clock) {
+        this.idleTimeToLive = idleTimeToLive;
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    /**
+     *
+     * Gets the client of a principal, building it when missing, idle for too long or built with another refresh_token.
+     *
+     * @param key The key of the principal, made of the client registration and the principal name.
+     * @param refreshToken The refresh_token currently stored for the principal.
+     * @param factory The factory of a new client.
+     *
+     * @return The client of the principal.
+     */
+    public T get(String key, String refreshToken, Supplier<T> factory) {
+        final Instant now = clock.instant();
+        final Entry<T> entry = entries.compute(key, (k, current) -> {
+            if (current != null && current.refreshToken().equals(refreshToken) && !current.isIdle(now, idleTimeToLive)) {
+                current.touch(now);
+                return current;
+            }
+            return new Entry<>(factory.get(), refreshToken, now);
+        });
+        if (entries.size() > maxSize) evict(now);
+        return entry.client();
+    }
+
+    /**
+     *
+     * Removes the client of a principal.
+     *
+     * @param key The key of the principal.
+     */
+    public void invalidate(String key) {
+        entries.remove(key);
+    }
+
+    /**
+     *
+     * @return The number of principals cached.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     *
+     * Evicts the idle entries and, if still too big, the least recently used ones.
+     *
+     * @param now The current instant.
+     */
+    private void evict(Instant now) {
+        entries.values().removeIf(e -> e.isIdle(now, idleTimeToLive));
+        while (entries.size() > maxSize) {
+            entries.entrySet().stream()
+                .min((a, b) -> a.getValue().lastAccess().compareTo(b.getValue().lastAccess()))
+                .ifPresent(oldest -> entries.remove(oldest.getKey(), oldest.getValue()));
+        }
+    }
+
+    /**
+     *
+     * A cached client, with the refresh_token it was built with and its last access.
+     *
+     * */
+    private static final class Entry<T> {
+
+        private final T client;
+        private final String refreshToken;
+        private volatile Instant lastAccess;
+
+        Entry(T client, String refreshToken, Instant lastAccess) {
+            this.client = Objects.requireNonNull(client);
+            this.refreshToken = refreshToken;
+            this.lastAccess = lastAccess;
+        }
+
+        T client() {
+            return client;
+        }
+
+        String refreshToken() {
+            return refreshToken;
+        }
+
+        Instant lastAccess() {
+            return lastAccess;
+        }
+
+        void touch(Instant now) {
+            lastAccess = now;
+        }
+
+        boolean isIdle(Instant now, Duration idleTimeToLive) {
+            return lastAccess.plus(idleTimeToLive).isBefore(now);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.ads.report.infrastructure.configuration.queue;
+
+import com.ads.report.application.gateway.reports.ReportTaskQueue;
+import com.ads.report.application.usecases.ads.UpdateAllReportsUseCase;
+import com.ads.report.application.usecases.reports.ReportTaskUseCase;
+import com.ads.report.infrastructure.gateway.redis.RedisReportTaskQueue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+/**
+ *
+ * The configuration of the report task queue, that shares the updates of various reports between replicas.
+ *
+ * <p>It is turned on with 'api.reports.queue.enabled=true', for the deployments with more than one replica.
+ * Each task writes its tab in a batch of its own, so a single replica is better off without the queue, running
+ * each update where it was received, with the tabs of a spreadsheet written in one batch. With
+ * 'api.reports.queue.workers=0' a replica queues its updates, but leaves the tasks to the other replicas.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+@Configuration
+@ConditionalOnProperty(name = "api.reports.queue.enabled", havingValue = "true")
+public class ReportQueueConfiguration {
+
+    @Value("${api.reports.queue.workers:4}")
+    private int workers;
+    @Value("${api.reports.queue.visibilityTimeoutSeconds:300}")
+    private long visibilityTimeoutSeconds;
+    @Value("${api.reports.queue.maxAttempts:3}")
+    private int maxAttempts;
+
+    @Bean
+    public StringRedisTemplate reportQueueRedisTemplate(RedisConnectionFactory factory) {
+        return new StringRedisTemplate(factory);
+    }
+
+    @Bean
+    public RedisReportTaskQueue reportTaskQueue(StringRedisTemplate reportQueueRedisTemplate) {
+        return new RedisReportTaskQueue(reportQueueRedisTemplate, Duration.ofSeconds(visibilityTimeoutSeconds));
+    }
+
+    @Bean
+    public ReportTaskUseCase reportTaskUseCase(ReportTaskQueue reportTaskQueue, UpdateAllReportsUseCase updateAllReportsUseCase) {
+        return new ReportTaskUseCase(reportTaskQueue, updateAllReportsUseCase, maxAttempts);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ReportTaskWorker reportTaskWorker(ReportTaskQueue reportTaskQueue, ReportTaskUseCase reportTaskUseCase) {
+        return new ReportTaskWorker(reportTaskQueue, reportTaskUseCase, workers, Duration.ofSeconds(visibilityTimeoutSeconds));
+    }
+}
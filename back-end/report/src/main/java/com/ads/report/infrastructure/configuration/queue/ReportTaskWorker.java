@@ -0,0 +1,133 @@
+package com.ads.report.infrastructure.configuration.queue;
+
+import com.ads.report.application.gateway.reports.ReportTaskQueue;
+import com.ads.report.application.usecases.reports.ReportTaskUseCase;
+import com.ads.report.domain.reports.ReportTask;
+import com.ads.report.infrastructure.configuration.async.JobContextTaskDecorator;
+import com.ads.report.infrastructure.configuration.async.OwnerAuthentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * The workers of the report task queue, on this replica.
+ *
+ * <p>Each worker claims one task at a time, and runs it with the authentication of the user that queued it,
+ * in its own job scope, like a background job. While a task runs, its visibility timeout is extended, so a
+ * slow task is not handed over to another worker, but the tasks of a replica that stops are.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class ReportTaskWorker implements AutoCloseable {
+
+    // The longest wait for a new task, so a closing worker stops soon.
+    private static final Duration POLL = Duration.ofSeconds(5);
+
+    private final ReportTaskQueue reportTaskQueue;
+    private final ReportTaskUseCase reportTaskUseCase;
+    private final int workers;
+    private final Duration visibilityTimeout;
+    private final String consumer = "report-worker-" + UUID.randomUUID();
+    private final Set<ReportTask> running = ConcurrentHashMap.newKeySet();
+    private final JobContextTaskDecorator jobContext = new JobContextTaskDecorator();
+    private final ExecutorService loops = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("report-worker-heartbeat").daemon().factory()
+    );
+    private volatile boolean open = true;
+
+    /**
+     *
+     * @param reportTaskQueue The queue of the tasks.
+     * @param reportTaskUseCase The use case that runs the tasks.
+     * @param workers The tasks run at once by this replica.
+     * @param visibilityTimeout The time a claimed task stays with its worker without being extended.
+     */
+    public ReportTaskWorker(ReportTaskQueue reportTaskQueue, ReportTaskUseCase reportTaskUseCase, int workers, Duration visibilityTimeout) {
+        this.reportTaskQueue = reportTaskQueue;
+        this.reportTaskUseCase = reportTaskUseCase;
+        this.workers = workers;
+        this.visibilityTimeout = visibilityTimeout;
+    }
+
+    /**
+     *
+     * Starts the workers, and the extension of the tasks they run.
+     *
+     */
+    public void start() {
+        for (int i = 0; i < workers; i++) loops.execute(this::work);
+        final long every = Math.max(1000L, visibilityTimeout.toMillis() / 3);
+        heartbeat.scheduleWithFixedDelay(this::extend, every, every, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        open = false;
+        heartbeat.shutdownNow();
+        loops.shutdownNow();
+    }
+
+    /**
+     *
+     * Claims and runs tasks until the worker closes. A failure to claim waits a moment, and tries again.
+     *
+     */
+    private void work() {
+        while (open) {
+            try {
+                final ReportTask task = reportTaskQueue.claim(consumer, POLL);
+                if (task != null) run(task);
+            } catch (RuntimeException e) {
+                if (!open) return;
+                try {
+                    Thread.sleep(POLL.toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     *
+     * Runs a task as its user, in a job scope of its own.
+     *
+     * @param task The task.
+     */
+    private void run(ReportTask task) {
+        running.add(task);
+        try {
+            // The decorator takes the security context of this thread, so the user's is set while decorating.
+            SecurityContextHolder.setContext(OwnerAuthentication.of(task.getOwner(), task.getRegistrationId()));
+            final Runnable job;
+            try {
+                job = jobContext.decorate(() -> reportTaskUseCase.handle(task));
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+            job.run();
+        } finally {
+            running.remove(task);
+        }
+    }
+
+    private void extend() {
+        try {
+            reportTaskQueue.extend(List.copyOf(running), consumer);
+        } catch (RuntimeException ignored) {
+            // The next beat extends them again, well before the visibility timeout ends.
+        }
+    }
+}
@@ -1,7 +1,18 @@
 package com.ads.report.infrastructure.configuration.redis;
 
+import com.ads.report.application.gateway.reports.ReportJobGateway;
+import com.ads.report.application.gateway.reports.ReportScheduleGateway;
+import com.ads.report.application.gateway.sheets.SheetsWatermarkGateway;
+import com.ads.report.domain.reports.ReportJob;
+import com.ads.report.domain.reports.ReportSchedule;
 import com.ads.report.infrastructure.entity.OAuth2AuthorizedClientDto;
+import com.ads.report.infrastructure.gateway.redis.RedisDaySegmentStore;
 import com.ads.report.infrastructure.gateway.redis.RedisOAuth2AuthorizedClient;
+import com.ads.report.infrastructure.gateway.redis.RedisReportCache;
+import com.ads.report.infrastructure.gateway.redis.RedisReportJobGateway;
+import com.ads.report.infrastructure.gateway.redis.RedisReportScheduleGateway;
+import com.ads.report.infrastructure.gateway.redis.RedisSheetFingerprintStore;
+import com.ads.report.infrastructure.gateway.redis.RedisSheetWatermarkGateway;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,9 +23,12 @@ import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 
+import java.time.Duration;
+
 /**
  * The Redis configuration.
  *
@@ -31,6 +45,10 @@ public class RedisConfiguration {
     private String hostName;
     @Value("${spring.redis.port}")
     private int port;
+    @Value("${api.reports.jobTtlHours:24}")
+    private long jobTtlHours;
+    @Value("${api.sheets.incremental.fingerprintTtlDays:7}")
+    private long fingerprintTtlDays;
 
     /**
      * The redis template config.
@@ -60,6 +78,64 @@ public class RedisConfiguration {
         return template;
     }
 
+    /**
+     * The redis template of the report jobs.
+     *
+     * <p>This method configures a Redis template to save the report jobs state as JSON.<p/>
+     *
+     * @param factory The redis connection factory base object.
+     *
+     * @return Return a template to represent the saving of a String as key, and ReportJob as value.
+     */
+    @Bean
+    public RedisTemplate<String, ReportJob> reportJobRedisTemplate(RedisConnectionFactory factory) {
+        RedisTemplate<String, ReportJob> template = new RedisTemplate<>();
+        template.setConnectionFactory(factory);
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(new Jackson2JsonRedisSerializer<>(objectMapper, ReportJob.class));
+        return template;
+    }
+
+    /**
+     * The redis template of the report schedules.
+     *
+     * <p>This method configures a Redis template to save the report schedules as JSON.<p/>
+     *
+     * @param factory The redis connection factory base object.
+     *
+     * @return Return a template to represent the saving of a String as key, and ReportSchedule as value.
+     */
+    @Bean
+    public RedisTemplate<String, ReportSchedule> reportScheduleRedisTemplate(RedisConnectionFactory factory) {
+        RedisTemplate<String, ReportSchedule> template = new RedisTemplate<>();
+        template.setConnectionFactory(factory);
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(new Jackson2JsonRedisSerializer<>(objectMapper, ReportSchedule.class));
+        return template;
+    }
+
+    /**
+     * The redis template of the cached report results.
+     *
+     * <p>This method configures a Redis template to save the reports as raw bytes, already encoded by ReportCodecs.<p/>
+     *
+     * @param factory The redis connection factory base object.
+     *
+     * @return Return a template to represent the saving of a String as key, and bytes as value.
+     */
+    @Bean
+    public RedisTemplate<String, byte[]> reportCacheRedisTemplate(RedisConnectionFactory factory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(factory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        return template;
+    }
+
     /**
      * The explicit configuration to Redis connection.
      *
@@ -80,4 +156,35 @@ public class RedisConfiguration {
                                                                    ClientRegistrationRepository clientRegistrationRepository) {
         return new RedisOAuth2AuthorizedClient(redisTemplate, clientRegistrationRepository);
     }
+
+    @Bean
+    public RedisReportCache redisReportCache(RedisTemplate<String, byte[]> reportCacheRedisTemplate) {
+        return new RedisReportCache(reportCacheRedisTemplate);
+    }
+
+    @Bean
+    public RedisDaySegmentStore redisDaySegmentStore(RedisTemplate<String, byte[]> reportCacheRedisTemplate) {
+        return new RedisDaySegmentStore(reportCacheRedisTemplate);
+    }
+
+    @Bean
+    public RedisSheetFingerprintStore redisSheetFingerprintStore(RedisTemplate<String, byte[]> reportCacheRedisTemplate) {
+        return new RedisSheetFingerprintStore(reportCacheRedisTemplate, Duration.ofDays(fingerprintTtlDays));
+    }
+
+    @Bean
+    public SheetsWatermarkGateway sheetsWatermarkGateway(RedisTemplate<String, byte[]> reportCacheRedisTemplate) {
+        return new RedisSheetWatermarkGateway(reportCacheRedisTemplate);
+    }
+
+    @Bean
+    public ReportJobGateway reportJobGateway(RedisTemplate<String, ReportJob> reportJobRedisTemplate) {
+        return new RedisReportJobGateway(reportJobRedisTemplate, Duration.ofHours(jobTtlHours));
+    }
+
+    @Bean
+    public ReportScheduleGateway reportScheduleGateway(RedisTemplate<String, ReportSchedule> reportScheduleRedisTemplate,
+                                                       RedisTemplate<String, byte[]> reportCacheRedisTemplate) {
+        return new RedisReportScheduleGateway(reportScheduleRedisTemplate, reportCacheRedisTemplate);
+    }
 }
@@ -0,0 +1,65 @@
+package com.ads.report.infrastructure.configuration.schedule;
+
+import com.ads.report.application.gateway.reports.ReportScheduleCalendar;
+import com.ads.report.application.gateway.reports.ReportScheduleGateway;
+import com.ads.report.application.usecases.reports.ReportJobUseCase;
+import com.ads.report.application.usecases.reports.ReportScheduleUseCase;
+import com.ads.report.infrastructure.gateway.schedule.CronReportScheduleCalendar;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ *
+ * The configuration of the recurring report refreshes.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+@Configuration
+public class ReportScheduleConfiguration {
+
+    @Value("${api.reports.schedule.spreadMinutes:60}")
+    private long spreadMinutes;
+    @Value("${api.reports.schedule.tickSeconds:60}")
+    private long tickSeconds;
+
+    @Bean
+    public ReportScheduleCalendar reportScheduleCalendar() {
+        return new CronReportScheduleCalendar();
+    }
+
+    @Bean
+    public ReportScheduleUseCase reportScheduleUseCase(ReportScheduleGateway reportScheduleGateway,
+                                                       ReportScheduleCalendar reportScheduleCalendar) {
+        return new ReportScheduleUseCase(
+            reportScheduleGateway,
+            reportScheduleCalendar,
+            Clock.systemDefaultZone(),
+            Duration.ofMinutes(spreadMinutes)
+        );
+    }
+
+    /**
+     *
+     * Bean of the runner of the schedules.
+     *
+     * <p>It can be turned off with 'api.reports.schedule.enabled=false', on the replicas that must not
+     * run the schedules. The schedules can still be saved on them.<p/>
+     *
+     * @param reportScheduleUseCase The use case of the schedules.
+     * @param reportJobUseCase The use case that runs the report jobs.
+     *
+     * @return The runner, started.
+     */
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(name = "api.reports.schedule.enabled", havingValue = "true", matchIfMissing = true)
+    public ReportScheduler reportScheduler(ReportScheduleUseCase reportScheduleUseCase, ReportJobUseCase reportJobUseCase) {
+        return new ReportScheduler(reportScheduleUseCase, reportJobUseCase, Duration.ofSeconds(tickSeconds));
+    }
+}
@@ -0,0 +1,98 @@
+package com.ads.report.infrastructure.configuration.schedule;
+
+import com.ads.report.application.usecases.reports.ReportJobUseCase;
+import com.ads.report.application.usecases.reports.ReportScheduleUseCase;
+import com.ads.report.domain.reports.ReportSchedule;
+import com.ads.report.infrastructure.configuration.async.OwnerAuthentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * The runner of the report schedules.
+ *
+ * <p>Every tick it claims the schedules due and submits each one as a report job, the same jobs of the route
+ * /v2/reports/generate. A schedule runs without a logged user, so its job is submitted with an authentication
+ * of the schedule owner: the Google clients then load the authorization stored at the owner's login, and renew
+ * the access_token with its offline refresh_token.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class ReportScheduler implements AutoCloseable {
+
+    private final ReportScheduleUseCase reportScheduleUseCase;
+    private final ReportJobUseCase reportJobUseCase;
+    private final Duration tick;
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("report-scheduler").daemon().factory()
+    );
+
+    /**
+     *
+     * @param reportScheduleUseCase The use case of the schedules.
+     * @param reportJobUseCase The use case that runs the report jobs.
+     * @param tick The time between two looks for the schedules due.
+     */
+    public ReportScheduler(ReportScheduleUseCase reportScheduleUseCase, ReportJobUseCase reportJobUseCase, Duration tick) {
+        this.reportScheduleUseCase = reportScheduleUseCase;
+        this.reportJobUseCase = reportJobUseCase;
+        this.tick = tick;
+    }
+
+    /**
+     *
+     * Starts looking for the schedules due.
+     *
+     */
+    public void start() {
+        ticker.scheduleWithFixedDelay(this::tick, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+
+    /**
+     *
+     * Submits the schedules due. A failure is left for the next tick, so the ticker never stops.
+     *
+     */
+    private void tick() {
+        try {
+            for (ReportSchedule reportSchedule : reportScheduleUseCase.claimDue()) {
+                try {
+                    submit(reportSchedule);
+                } catch (RuntimeException ignored) {
+                    // The run is lost, but the other schedules and the next runs are not.
+                }
+            }
+        } catch (RuntimeException ignored) {
+            // Redis may be unavailable, and the schedules due are claimed on a later tick.
+        }
+    }
+
+    /**
+     *
+     * Submits a schedule as a job of its owner.
+     *
+     * <p>The job executor keeps the security context of the submitting thread, so the owner's
+     * authentication is set only while submitting.<p/>
+     *
+     * @param reportSchedule The schedule to run.
+     */
+    private void submit(ReportSchedule reportSchedule) {
+        SecurityContextHolder.setContext(OwnerAuthentication.of(reportSchedule.getOwner(), reportSchedule.getRegistrationId()));
+        try {
+            reportJobUseCase.submit(reportScheduleUseCase.reportsOf(reportSchedule), reportSchedule.getOwner());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
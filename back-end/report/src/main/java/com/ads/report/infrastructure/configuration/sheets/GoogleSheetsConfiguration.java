@@ -1,9 +1,17 @@
 package com.ads.report.infrastructure.configuration.sheets;
 
 import com.ads.report.application.gateway.sheets.GoogleSheetsGateway;
+import com.ads.report.application.gateway.sheets.SheetsWatermarkGateway;
+import com.ads.report.application.usecases.ads.GoogleAdsUseCase;
 import com.ads.report.application.usecases.sheets.GoogleSheetsUseCase;
+import com.ads.report.application.usecases.sheets.SheetsAppendUseCase;
+import com.ads.report.infrastructure.configuration.oauth.PrincipalClientCache;
 import com.ads.report.infrastructure.exception.ForbiddenException;
+import com.ads.report.infrastructure.gateway.redis.RedisSheetFingerprintStore;
+import com.ads.report.infrastructure.gateway.sheets.GoogleSheetsChunkedWriter;
+import com.ads.report.infrastructure.gateway.sheets.GoogleSheetsDispatcher;
 import com.ads.report.infrastructure.gateway.sheets.GoogleSheetsRepoGateway;
+import com.ads.report.infrastructure.gateway.sheets.GoogleSheetsTabSync;
 import com.ads.report.infrastructure.gateway.redis.RedisOAuth2AuthorizedClient;
 import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.api.client.json.gson.GsonFactory;
@@ -12,6 +20,7 @@ import com.google.auth.http.HttpCredentialsAdapter;
 import com.google.auth.oauth2.AccessToken;
 import com.google.auth.oauth2.UserCredentials;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.core.Authentication;
@@ -21,9 +30,13 @@ import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.web.context.annotation.RequestScope;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.time.Clock;
 import java.time.Instant;
 import java.util.Date;
+import java.util.Optional;
 
 /**
  *
@@ -36,23 +49,41 @@ import java.util.Date;
 @Configuration
 public class GoogleSheetsConfiguration {
 
+    // The transport is thread safe, so all Sheets clients share its connection pool.
+    private static final NetHttpTransport HTTP_TRANSPORT = new NetHttpTransport();
+
     @Value("${api.googleads.clientId}")
     private String clientId;
     @Value("${api.googleads.clientSecret}")
     private String clientSecret;
     @Value("${api.googleads.developerToken}")
     private String developerToken;
+    @Value("${api.sheets.dispatcher.requestsPerMinute:60}")
+    private int requestsPerMinute;
+    @Value("${api.sheets.dispatcher.maxRetries:5}")
+    private int maxRetries;
+    @Value("${api.sheets.dispatcher.baseBackoffMillis:1000}")
+    private long baseBackoffMillis;
+    @Value("${api.sheets.dispatcher.maxBackoffMillis:64000}")
+    private long maxBackoffMillis;
+    @Value("${api.sheets.chunk.rowsPerRequest:5000}")
+    private int rowsPerRequest;
+    @Value("${api.sheets.chunk.maxInFlight:4}")
+    private int maxChunksInFlight;
 
     /**
      *
      * <p>Google Sheets client bean using OAuth2 dynamic authentication.<p/>
      *
+     * <p>The client of each principal is cached between requests, see PrincipalClientCache.<p/>
+     *
      * @return A dynamically authenticated Sheets client.
      */
     @Bean
     @RequestScope
     public Sheets googleSheetsService(RedisOAuth2AuthorizedClient authorizedClientService,
-                                      OAuth2AuthorizedClientManager authorizedClientManager) {
+                                      OAuth2AuthorizedClientManager authorizedClientManager,
+                                      PrincipalClientCache<Sheets> googleSheetsClientCache) {
         // Getting authentication from session security context holder.
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         // Tests if the authentication granted is an OAuth2 instance, and associate it to oauthToken variable.
@@ -67,11 +98,38 @@ public class GoogleSheetsConfiguration {
         if (client == null) {
             throw new ForbiddenException("OAuth2AuthorizedClient not found. The user may be not authenticated.");
         }
-        // Automatically renew token if expired.
-        client = authorizedClientManager.authorize(OAuth2AuthorizeRequest
-            .withClientRegistrationId(oauthToken.getAuthorizedClientRegistrationId())
-            .principal(oauthToken)
-            .build());
+        final String storedRefreshToken = (client.getRefreshToken() != null) ? client.getRefreshToken().getTokenValue() : "";
+        if (storedRefreshToken.isEmpty()) throw new ForbiddenException("refresh_token not found.");
+        // Reusing the client of this principal, while it was built with the same refresh_token.
+        final OAuth2AuthorizedClient storedClient = client;
+        return googleSheetsClientCache.get(
+            oauthToken.getAuthorizedClientRegistrationId() + ":" + oauthToken.getName(),
+            storedRefreshToken,
+            () -> buildSheets(oauthToken, storedClient, authorizedClientManager)
+        );
+    }
+
+    /**
+     *
+     * Builds a new Google Sheets client for the principal.
+     *
+     * @param oauthToken The OAuth2 authentication of the principal.
+     * @param client The authorized client stored for the principal.
+     * @param authorizedClientManager An OAuth2AuthorizedClientManager to manage the client logged on.
+     *
+     * @return A new client, with credentials that renew their own access_token.
+     */
+    private Sheets buildSheets(OAuth2AuthenticationToken oauthToken,
+                               OAuth2AuthorizedClient client,
+                               OAuth2AuthorizedClientManager authorizedClientManager) {
+        // Automatically renew token if expired, when serving an http request. Background jobs have no
+        // servlet request to renew it, and rely on the refresh_token of the UserCredentials instead.
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes) {
+            client = authorizedClientManager.authorize(OAuth2AuthorizeRequest
+                .withClientRegistrationId(oauthToken.getAuthorizedClientRegistrationId())
+                .principal(oauthToken)
+                .build());
+        }
         if (client == null || client.getAccessToken() == null) {
             throw new ForbiddenException("Failed to renew access_token. Logon again.");
         }
@@ -80,8 +138,8 @@ public class GoogleSheetsConfiguration {
         Instant expiresAt = client.getAccessToken().getExpiresAt();
         String refreshToken = (client.getRefreshToken() != null) ? client.getRefreshToken().getTokenValue() : "";
         if (refreshToken.isEmpty()) throw new ForbiddenException("refresh_token not found.");
-        Date date = new Date();
-        date.setTime(expiresAt.getEpochSecond());
+        // The expiration is in milliseconds, so the credentials do not renew a still valid access_token.
+        Date date = Date.from(expiresAt);
         // Using UserCredentials to support the token's automatic renew.
         UserCredentials credentials = UserCredentials.newBuilder()
             .setClientId(clientId)
@@ -91,12 +149,72 @@ public class GoogleSheetsConfiguration {
             .build();
         // Creating Google Sheets client.
         return new Sheets.Builder(
-            new NetHttpTransport(),
-            new GsonFactory(),
+            HTTP_TRANSPORT,
+            GsonFactory.getDefaultInstance(),
             new HttpCredentialsAdapter(credentials)
         ).setApplicationName("Ads Report").build();
     }
 
+    /**
+     *
+     * Bean of the dispatcher that queues the writes of each spreadsheet, merges them and keeps them within the quota.
+     *
+     * <p>It can be turned off with 'api.sheets.dispatcher.enabled=false', and then each batch is sent on its own.<p/>
+     *
+     * @param googleSheetsTabSync The incremental sync of the tabs, when enabled.
+     * @param googleSheetsChunkedWriter The writer of the rows in blocks, used when the incremental sync is not.
+     *
+     * @return The dispatcher of the Sheets writes.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "api.sheets.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+    public GoogleSheetsDispatcher googleSheetsDispatcher(Optional<GoogleSheetsTabSync> googleSheetsTabSync,
+                                                         GoogleSheetsChunkedWriter googleSheetsChunkedWriter) {
+        final GoogleSheetsDispatcher.Sender sender = googleSheetsTabSync.isPresent()
+            ? googleSheetsTabSync.get()
+            : googleSheetsChunkedWriter;
+        return new GoogleSheetsDispatcher(
+            sender,
+            requestsPerMinute,
+            maxRetries,
+            baseBackoffMillis,
+            maxBackoffMillis
+        );
+    }
+
+    /**
+     *
+     * Bean of the incremental sync of the tabs, that writes only the rows changed since the last write.
+     *
+     * <p>It can be turned off with 'api.sheets.incremental.enabled=false', and then every tab is cleared
+     * and rewritten whole.<p/>
+     *
+     * @param redisSheetFingerprintStore The Redis store of the fingerprints of the tabs.
+     * @param googleSheetsChunkedWriter The writer of the changed rows.
+     *
+     * @return The incremental sync.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "api.sheets.incremental.enabled", havingValue = "true", matchIfMissing = true)
+    public GoogleSheetsTabSync googleSheetsTabSync(RedisSheetFingerprintStore redisSheetFingerprintStore,
+                                                   GoogleSheetsChunkedWriter googleSheetsChunkedWriter) {
+        return new GoogleSheetsTabSync(redisSheetFingerprintStore, googleSheetsChunkedWriter);
+    }
+
+    /**
+     *
+     * Bean of the writer of the rows of the tabs in blocks of bounded size, a few blocks in flight at once.
+     *
+     * <p>The rows of each call are set by 'api.sheets.chunk.rowsPerRequest', and the calls in flight by
+     * 'api.sheets.chunk.maxInFlight'.<p/>
+     *
+     * @return The chunked writer.
+     */
+    @Bean(destroyMethod = "close")
+    public GoogleSheetsChunkedWriter googleSheetsChunkedWriter() {
+        return new GoogleSheetsChunkedWriter(rowsPerRequest, maxChunksInFlight);
+    }
+
     @Bean
     public GoogleSheetsRepoGateway googleSheetsRepoGateway() {
         return new GoogleSheetsRepoGateway();
@@ -106,4 +224,11 @@ public class GoogleSheetsConfiguration {
     public GoogleSheetsUseCase googleSheetsUseCase(GoogleSheetsGateway googleSheetsGateway) {
         return new GoogleSheetsUseCase(googleSheetsGateway);
     }
+
+    @Bean
+    public SheetsAppendUseCase sheetsAppendUseCase(GoogleAdsUseCase googleAdsUseCase,
+                                                   GoogleSheetsGateway googleSheetsGateway,
+                                                   SheetsWatermarkGateway sheetsWatermarkGateway) {
+        return new SheetsAppendUseCase(googleAdsUseCase, googleSheetsGateway, sheetsWatermarkGateway, Clock.systemDefaultZone());
+    }
 }
@@ -0,0 +1,263 @@
+package com.ads.report.infrastructure.gateway.ads;
+
+import com.ads.report.application.exception.GoogleAdsException;
+import com.ads.report.application.gateway.ads.GoogleAdsGateway;
+import com.ads.report.domain.account.AccountMetrics;
+import com.ads.report.domain.campaign.CampaignKeywordMetrics;
+import com.ads.report.domain.campaign.CampaignMetrics;
+import com.ads.report.domain.campaign.CampaignPerDay;
+import com.ads.report.domain.campaign.CampaignTitleAndDescription;
+import com.ads.report.domain.columnar.MetricTable;
+import com.ads.report.domain.columnar.RollupDimension;
+import com.ads.report.domain.manager.ManagerAccountInfo;
+import com.ads.report.domain.manager.ManagerClient;
+import com.ads.report.infrastructure.gateway.redis.RedisReportCache;
+import com.ads.report.infrastructure.gateway.redis.ReportCodecs;
+import com.ads.report.infrastructure.gateway.redis.ReportRowCodec;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ *
+ * The caching decorator of the Google Ads gateway.
+ *
+ * <p>The report results are cached in Redis by principal, report type, customer id, date range and
+ * active flag. The principal is part of the key, so a user is never served data fetched with the access
+ * of another user. A range that only has closed days is cached for the long time to live, and a range
+ * that reaches the still mutable days is cached for the short one.<p/>
+ *
+ * <p>The streamed reports are served from the cache on a hit. On a miss, the rows flow to the consumer
+ * while a copy is kept, up to a maximum of rows, so a very large report is streamed but not cached.
+ * The columnar tables are meant for those large reports, so they are not cached either.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class CachingGoogleAdsGateway implements GoogleAdsGateway {
+
+    private final GoogleAdsGateway delegate;
+    private final RedisReportCache cache;
+    private final Duration closedTimeToLive;
+    private final Duration mutableTimeToLive;
+    private final int mutableDays;
+    private final int maxStreamedRows;
+    private final Clock clock;
+
+    /**
+     *
+     * The constructor receives the gateway to decorate and the cache policy.
+     *
+     * @param delegate The gateway that queries Google Ads.
+     * @param cache The Redis store of the results.
+     * @param closedTimeToLive The time to live of a range of closed days.
+     * @param mutableTimeToLive The time to live of a range that reaches the mutable days.
+     * @param mutableDays How many days, counting today, Google Ads may still change.
+     * @param maxStreamedRows The maximum of rows of a streamed report that is cached.
+     * @param clock The clock that tells today.
+     */
+    public CachingGoogleAdsGateway(GoogleAdsGateway delegate,
+                                   RedisReportCache cache,
+                                   Duration closedTimeToLive,
+                                   Duration mutableTimeToLive,
+                                   int mutableDays,
+                                   int maxStreamedRows,
+                                   Clock clock) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.closedTimeToLive = closedTimeToLive;
+        this.mutableTimeToLive = mutableTimeToLive;
+        this.mutableDays = mutableDays;
+        this.maxStreamedRows = maxStreamedRows;
+        this.clock = clock;
+    }
+
+    @Override
+    public List<String> testConnection() throws GoogleAdsException {
+        return delegate.testConnection();
+    }
+
+    @Override
+    public ManagerAccountInfo getManagerAccount(String managerAccountId) throws GoogleAdsException {
+        return delegate.getManagerAccount(managerAccountId);
+    }
+
+    @Override
+    public List<ManagerClient> getManagerClients(String managerAccountId) {
+        return delegate.getManagerClients(managerAccountId);
+    }
+
+    @Override
+    public <T> T throughManager(String managerAccountId, Supplier<T> calls) {
+        return delegate.throughManager(managerAccountId, calls);
+    }
+
+    @Override
+    public List<CampaignMetrics> getCampaignMetrics(String customerId, String startDate, String endDate, boolean active) {
+        return cached(key("campaign", customerId, startDate, endDate, active), endDate, ReportCodecs.CAMPAIGN_METRICS,
+            () -> delegate.getCampaignMetrics(customerId, startDate, endDate, active));
+    }
+
+    @Override
+    public List<AccountMetrics> getAccountMetrics(String customerId, String startDate, String endDate) {
+        return cached(key("account", customerId, startDate, endDate, false), endDate, ReportCodecs.ACCOUNT_METRICS,
+            () -> delegate.getAccountMetrics(customerId, startDate, endDate));
+    }
+
+    @Override
+    public List<CampaignPerDay> getTotalPerDay(String customerId, String startDate, String endDate) {
+        return cached(key("perDay", customerId, startDate, endDate, false), endDate, ReportCodecs.TOTAL_PER_DAY,
+            () -> delegate.getTotalPerDay(customerId, startDate, endDate));
+    }
+
+    @Override
+    public List<CampaignKeywordMetrics> getKeywordMetrics(String customerId, String startDate, String endDate, boolean active) {
+        return cached(key("keyword", customerId, startDate, endDate, active), endDate, ReportCodecs.KEYWORD_METRICS,
+            () -> delegate.getKeywordMetrics(customerId, startDate, endDate, active));
+    }
+
+    @Override
+    public List<CampaignTitleAndDescription> getAdTitleAndDescriptions(String customerId, String startDate, String endDate) {
+        return cached(key("ad", customerId, startDate, endDate, false), endDate, ReportCodecs.TITLE_AND_DESCRIPTION,
+            () -> delegate.getAdTitleAndDescriptions(customerId, startDate, endDate));
+    }
+
+    @Override
+    public void streamCampaignMetrics(String customerId, String startDate, String endDate, boolean active, Consumer<CampaignMetrics> consumer) {
+        streamCached(key("campaign", customerId, startDate, endDate, active), endDate, ReportCodecs.CAMPAIGN_METRICS, consumer,
+            c -> delegate.streamCampaignMetrics(customerId, startDate, endDate, active, c));
+    }
+
+    @Override
+    public void streamTotalPerDay(String customerId, String startDate, String endDate, Consumer<CampaignPerDay> consumer) {
+        streamCached(key("perDay", customerId, startDate, endDate, false), endDate, ReportCodecs.TOTAL_PER_DAY, consumer,
+            c -> delegate.streamTotalPerDay(customerId, startDate, endDate, c));
+    }
+
+    @Override
+    public void streamKeywordMetrics(String customerId, String startDate, String endDate, boolean active, Consumer<CampaignKeywordMetrics> consumer) {
+        streamCached(key("keyword", customerId, startDate, endDate, active), endDate, ReportCodecs.KEYWORD_METRICS, consumer,
+            c -> delegate.streamKeywordMetrics(customerId, startDate, endDate, active, c));
+    }
+
+    @Override
+    public void streamAdTitleAndDescriptions(String customerId, String startDate, String endDate, Consumer<CampaignTitleAndDescription> consumer) {
+        streamCached(key("ad", customerId, startDate, endDate, false), endDate, ReportCodecs.TITLE_AND_DESCRIPTION, consumer,
+            c -> delegate.streamAdTitleAndDescriptions(customerId, startDate, endDate, c));
+    }
+
+    @Override
+    public MetricTable getCampaignMetricsTable(String customerId, String startDate, String endDate, boolean active) {
+        return delegate.getCampaignMetricsTable(customerId, startDate, endDate, active);
+    }
+
+    @Override
+    public MetricTable getTotalPerDayTable(String customerId, String startDate, String endDate) {
+        return delegate.getTotalPerDayTable(customerId, startDate, endDate);
+    }
+
+    @Override
+    public MetricTable getKeywordMetricsTable(String customerId, String startDate, String endDate, boolean active) {
+        return delegate.getKeywordMetricsTable(customerId, startDate, endDate, active);
+    }
+
+    @Override
+    public MetricTable getCampaignRollupTable(String customerId, String startDate, String endDate, boolean active, RollupDimension groupBy) {
+        return delegate.getCampaignRollupTable(customerId, startDate, endDate, active, groupBy);
+    }
+
+    @Override
+    public MetricTable getKeywordRollupTable(String customerId, String startDate, String endDate, boolean active, RollupDimension groupBy) {
+        return delegate.getKeywordRollupTable(customerId, startDate, endDate, active, groupBy);
+    }
+
+    /**
+     *
+     * Gets a report from the cache, or fetches and caches it.
+     *
+     * @param key The cache key, or null when there is no principal.
+     * @param endDate The end date of the analysis period.
+     * @param codec The codec of the row type.
+     * @param fetch The fetch from Google Ads.
+     *
+     * @return The report rows.
+     */
+    private <T> List<T> cached(String key, String endDate, ReportRowCodec<T> codec, Supplier<List<T>> fetch) {
+        if (key == null) return fetch.get();
+        final List<T> hit = cache.get(key, codec);
+        if (hit != null) return hit;
+        final List<T> rows = fetch.get();
+        cache.put(key, rows, codec, timeToLive(endDate));
+        return rows;
+    }
+
+    /**
+     *
+     * Streams a report from the cache, or streams it from Google Ads while keeping a bounded copy to cache.
+     *
+     * @param key The cache key, or null when there is no principal.
+     * @param endDate The end date of the analysis period.
+     * @param codec The codec of the row type.
+     * @param consumer The consumer of the rows.
+     * @param stream The stream from Google Ads.
+     */
+    private <T> void streamCached(String key, String endDate, ReportRowCodec<T> codec, Consumer<T> consumer, Consumer<Consumer<T>> stream) {
+        if (key == null) {
+            stream.accept(consumer);
+            return;
+        }
+        final List<T> hit = cache.get(key, codec);
+        if (hit != null) {
+            hit.forEach(consumer);
+            return;
+        }
+        final List<T> copy = new ArrayList<>();
+        final boolean[] overflow = {false};
+        stream.accept(row -> {
+            if (!overflow[0]) {
+                if (copy.size() < maxStreamedRows) {
+                    copy.add(row);
+                } else {
+                    // Too big to cache, so the copy is dropped and the stream goes on alone.
+                    overflow[0] = true;
+                    copy.clear();
+                }
+            }
+            consumer.accept(row);
+        });
+        if (!overflow[0]) cache.put(key, copy, codec, timeToLive(endDate));
+    }
+
+    /**
+     *
+     * Builds the cache key of a report, in the namespace of the current principal.
+     *
+     * @return The key, or null when there is no authenticated principal.
+     */
+    private String key(String type, String customerId, String startDate, String endDate, boolean active) {
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication.getName() == null) return null;
+        return authentication.getName() + ":" + type + ":" + customerId + ":" + startDate + ":" + endDate + ":" + active;
+    }
+
+    /**
+     *
+     * Chooses the time to live of a range, by whether it reaches the days Google Ads may still change.
+     *
+     * @param endDate The end date of the analysis period.
+     *
+     * @return The time to live.
+     */
+    private Duration timeToLive(String endDate) {
+        final LocalDate firstMutableDay = LocalDate.now(clock).minusDays(mutableDays - 1L);
+        return LocalDate.parse(endDate).isBefore(firstMutableDay) ? closedTimeToLive : mutableTimeToLive;
+    }
+}
@@ -0,0 +1,148 @@
+package com.ads.report.infrastructure.gateway.ads;
+
+import com.ads.report.domain.columnar.MetricTable;
+import com.ads.report.domain.columnar.RollupDimension;
+import com.google.ads.googleads.v17.services.GoogleAdsRow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ *
+ * The builder of the GAQL queries that let Google Ads aggregate a rollup.
+ *
+ * <p>A report query selects 'segments.date' and every name of its rows, so Google Ads returns one row per
+ * resource and day. A rollup query selects only the fields of its dimension, and 'segments.week' or
+ * 'segments.month' instead of the date, so Google Ads sums the days and returns one row per resource
+ * and period, or per resource for the name dimensions.<p/>
+ *
+ * <p>The resource of the report is kept, so the rollup sums the same rows as the report. The rows of the
+ * resources that share a group, like the ad groups of a campaign, are still merged by the caller.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public final class GaqlRollupQuery {
+
+    /**
+     *
+     * A selected field, with the table column it fills and its value on each row.
+     *
+     * */
+    private record Field(String column, String gaql, Function<GoogleAdsRow, String> value) {}
+
+    private static final Map<String, Field> NAME_FIELDS = Map.of(
+        "campaignName", new Field("campaignName", "campaign.name", r -> r.getCampaign().getName()),
+        "adGroupName", new Field("adGroupName", "ad_group.name", r -> r.getAdGroup().getName()),
+        "keywordText", new Field("keywordText", "ad_group_criterion.keyword.text", r -> r.getAdGroupCriterion().getKeyword().getText()),
+        "matchType", new Field("matchType", "ad_group_criterion.keyword.match_type", r -> r.getAdGroupCriterion().getKeyword().getMatchType().name())
+    );
+    private static final Field WEEK = new Field("date", "segments.week", r -> r.getSegments().getWeek());
+    private static final Field MONTH = new Field("date", "segments.month", r -> r.getSegments().getMonth());
+    // The name fields each resource can select.
+    private static final Map<String, Set<String>> RESOURCE_FIELDS = Map.of(
+        "ad_group", Set.of("campaignName", "adGroupName"),
+        "keyword_view", Set.of("campaignName", "adGroupName", "keywordText", "matchType")
+    );
+
+    private final String resource;
+    private final List<Field> fields;
+    private final List<String> conditions = new ArrayList<>();
+
+    private GaqlRollupQuery(String resource, List<Field> fields) {
+        this.resource = resource;
+        this.fields = fields;
+    }
+
+    /**
+     *
+     * Starts the rollup query of a report resource.
+     *
+     * @param resource The resource of the report, like 'ad_group' or 'keyword_view'.
+     * @param groupBy The dimension of the rollup.
+     *
+     * @return The query, or empty when the resource has no field of the dimension and the report rows must be summed instead.
+     */
+    public static Optional<GaqlRollupQuery> of(String resource, RollupDimension groupBy) {
+        final List<Field> fields = new ArrayList<>();
+        if (groupBy == RollupDimension.WEEK) fields.add(WEEK);
+        else if (groupBy == RollupDimension.MONTH) fields.add(MONTH);
+        else {
+            final Set<String> selectable = RESOURCE_FIELDS.getOrDefault(resource, Set.of());
+            for (String column : groupBy.columns()) {
+                if (!selectable.contains(column)) return Optional.empty();
+                fields.add(NAME_FIELDS.get(column));
+            }
+        }
+        return Optional.of(new GaqlRollupQuery(resource, fields));
+    }
+
+    /**
+     *
+     * Adds a condition to the WHERE clause.
+     *
+     * @param condition The GAQL condition.
+     *
+     * @return This query.
+     */
+    public GaqlRollupQuery where(String condition) {
+        conditions.add(condition);
+        return this;
+    }
+
+    /**
+     *
+     * @return The GAQL text, with the periods in date order.
+     */
+    public String build() {
+        final StringBuilder query = new StringBuilder("SELECT ");
+        for (Field field : fields) query.append(field.gaql()).append(", ");
+        query.append("metrics.impressions, metrics.clicks, metrics.cost_micros, metrics.conversions FROM ").append(resource);
+        if (!conditions.isEmpty()) query.append(" WHERE ").append(String.join(" AND ", conditions));
+        if (fields.getFirst().column().equals("date")) query.append(" ORDER BY ").append(fields.getFirst().gaql()).append(" ASC");
+        return query.toString();
+    }
+
+    /**
+     *
+     * @return An empty table with the selected fields, followed by the summed metrics.
+     */
+    public MetricTable table() {
+        final MetricTable.Builder builder = MetricTable.builder();
+        for (Field field : fields) {
+            if (field.column().equals("date")) builder.date(field.column());
+            else builder.string(field.column());
+        }
+        return builder
+            .longValue("impressions")
+            .longValue("clicks")
+            .doubleValue("cost")
+            .doubleValue("conversions")
+            .build();
+    }
+
+    /**
+     *
+     * Appends a Google Ads row of this query to its table.
+     *
+     * @param table The table built by this query.
+     * @param r The Google Ads row.
+     */
+    public void append(MetricTable table, GoogleAdsRow r) {
+        final MetricTable.RowWriter writer = table.appendRow();
+        for (Field field : fields) {
+            if (field.column().equals("date")) writer.date(field.value().apply(r));
+            else writer.string(field.value().apply(r));
+        }
+        writer
+            .longValue(r.getMetrics().getImpressions())
+            .longValue(r.getMetrics().getClicks())
+            .doubleValue(r.getMetrics().getCostMicros() / 1_000_000.0)
+            .doubleValue(r.getMetrics().getConversions());
+    }
+}
@@ -0,0 +1,200 @@
+package com.ads.report.infrastructure.gateway.ads;
+
+import com.ads.report.application.gateway.metrics.MetricsSource;
+import com.google.ads.googleads.v17.services.GoogleAdsServiceClient;
+import com.google.ads.googleads.v17.services.GoogleAdsServiceSettings;
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.api.gax.grpc.GrpcTransportChannel;
+import com.google.api.gax.rpc.FixedTransportChannelProvider;
+import com.google.auth.Credentials;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Metadata;
+import io.grpc.stub.MetadataUtils;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *
+ * The pool of long-lived gRPC channels to the Google Ads API.
+ *
+ * <p>The channels are opened once and shared by the service clients of all users. Only the
+ * credentials change from one call to another, and they travel as call credentials, while the
+ * developer token is attached by the channels themselves.<p/>
+ *
+ * <p>Each lease takes the channel with the fewest calls in flight, and the number of calls in flight
+ * per channel is bounded by the maximum of concurrent streams, so no channel goes over the HTTP/2
+ * stream limit of its connection.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class GoogleAdsChannelPool implements MetricsSource, AutoCloseable {
+
+    private static final Metadata.Key<String> DEVELOPER_TOKEN =
+        Metadata.Key.of("developer-token", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final ManagedChannel[] channels;
+    private final AtomicInteger[] inFlight;
+    private final Semaphore streams;
+    private final AtomicLong leases = new AtomicLong();
+    private final AtomicLong waits = new AtomicLong();
+
+    /**
+     *
+     * The constructor opens all the channels of the pool.
+     *
+     * @param endpoint The Google Ads API endpoint, as host:port.
+     * @param developerToken The developer token, sent on every call.
+     * @param size The number of channels.
+     * @param maxConcurrentStreams The maximum of calls in flight per channel.
+     * @param keepAliveSeconds The interval of the keepalive pings.
+     * @param maxInboundMessageBytes The maximum size of a response message.
+     */
+    public GoogleAdsChannelPool(String endpoint,
+                                String developerToken,
+                                int size,
+                                int maxConcurrentStreams,
+                                long keepAliveSeconds,
+                                int maxInboundMessageBytes) {
+        final Metadata headers = new Metadata();
+        headers.put(DEVELOPER_TOKEN, developerToken);
+        this.channels = new ManagedChannel[size];
+        this.inFlight = new AtomicInteger[size];
+        for (int i = 0; i < size; i++) {
+            channels[i] = ManagedChannelBuilder.forTarget(endpoint)
+                .useTransportSecurity()
+                .keepAliveTime(keepAliveSeconds, TimeUnit.SECONDS)
+                .keepAliveWithoutCalls(true)
+                .maxInboundMessageSize(maxInboundMessageBytes)
+                .intercept(MetadataUtils.newAttachHeadersInterceptor(headers))
+                .build();
+            inFlight[i] = new AtomicInteger();
+        }
+        this.streams = new Semaphore(size * maxConcurrentStreams, true);
+    }
+
+    /**
+     *
+     * Leases a service client on the least busy channel, with the given user credentials.
+     *
+     * @param credentials The credentials of the user.
+     *
+     * @return The lease, that must be closed to give the channel back.
+     * @throws IOException If fails to create the service client.
+     */
+    public Lease lease(Credentials credentials) throws IOException {
+        if (!streams.tryAcquire()) {
+            waits.incrementAndGet();
+            streams.acquireUninterruptibly();
+        }
+        final int index = leastBusy();
+        inFlight[index].incrementAndGet();
+        try {
+            final GoogleAdsServiceSettings settings = GoogleAdsServiceSettings.newBuilder()
+                .setTransportChannelProvider(FixedTransportChannelProvider.create(GrpcTransportChannel.create(channels[index])))
+                .setCredentialsProvider(FixedCredentialsProvider.create(credentials))
+                .build();
+            leases.incrementAndGet();
+            return new Lease(GoogleAdsServiceClient.create(settings), () -> release(index));
+        } catch (IOException | RuntimeException e) {
+            release(index);
+            throw e;
+        }
+    }
+
+    @Override
+    public String metricsName() {
+        return "googleAdsChannelPool";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        final Map<String, Object> metrics = new LinkedHashMap<>();
+        final int[] perChannel = new int[channels.length];
+        for (int i = 0; i < channels.length; i++) perChannel[i] = inFlight[i].get();
+        metrics.put("channels", channels.length);
+        metrics.put("leases", leases.get());
+        // Every lease after the first one of each channel reused an open channel.
+        metrics.put("channelReuses", Math.max(0, leases.get() - channels.length));
+        metrics.put("leasesThatWaited", waits.get());
+        metrics.put("inFlightPerChannel", perChannel);
+        metrics.put("availableStreams", streams.availablePermits());
+        return metrics;
+    }
+
+    /**
+     *
+     * Shuts down all the channels of the pool.
+     *
+     */
+    @Override
+    public void close() {
+        for (ManagedChannel channel : channels) {
+            channel.shutdown();
+        }
+    }
+
+    private int leastBusy() {
+        int best = 0;
+        for (int i = 1; i < inFlight.length; i++) {
+            if (inFlight[i].get() < inFlight[best].get()) best = i;
+        }
+        return best;
+    }
+
+    private void release(int index) {
+        inFlight[index].decrementAndGet();
+        streams.release();
+    }
+
+    /**
+     *
+     * A service client leased from the pool, or owned by the caller when no pool is used.
+     *
+     * <p>Closing the lease closes the service client, but not the pooled channel.<p/>
+     *
+     * */
+    public static final class Lease implements AutoCloseable {
+
+        private final GoogleAdsServiceClient client;
+        private final Runnable release;
+
+        private Lease(GoogleAdsServiceClient client, Runnable release) {
+            this.client = client;
+            this.release = release;
+        }
+
+        /**
+         *
+         * Wraps a service client that owns its own channel.
+         *
+         * @param client The service client.
+         *
+         * @return A lease that only closes the client.
+         */
+        public static Lease unpooled(GoogleAdsServiceClient client) {
+            return new Lease(client, () -> {});
+        }
+
+        public GoogleAdsServiceClient client() {
+            return client;
+        }
+
+        @Override
+        public void close() {
+            try {
+                client.close();
+            } finally {
+                release.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.ads.report.infrastructure.gateway.ads;
+
+import com.ads.report.application.gateway.metrics.MetricsSource;
+import com.google.ads.googleads.v17.errors.GoogleAdsError;
+import com.google.ads.googleads.v17.errors.GoogleAdsException;
+import com.google.ads.googleads.v17.errors.QuotaErrorDetails;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ *
+ * The adaptive rate limiter and retry policy of the Google Ads queries.
+ *
+ * <p>Each query takes a token of the bucket of the developer token, shared by every query of the
+ * application, and one of the bucket of its customer. The rate of a bucket grows a little after each
+ * query that succeeds, and halves after each quota error, down to a minimum, so the queries run as
+ * fast as the quota allows. The retry delay sent with a quota error blocks the bucket of its scope
+ * until it passes.<p/>
+ *
+ * <p>The quota errors and the transient errors are retried with a jittered exponential backoff, only
+ * while no row of the query has been handed out, so a retried stream never repeats rows.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class GoogleAdsRateLimiter implements MetricsSource {
+
+    private static final Set<StatusCode.Code> TRANSIENT = Set.of(
+        StatusCode.Code.UNAVAILABLE,
+        StatusCode.Code.DEADLINE_EXCEEDED,
+        StatusCode.Code.ABORTED
+    );
+    // The share of the maximum rate added back after each successful query.
+    private static final double INCREASE = 0.05;
+    // Past this many customers, the buckets of the idle ones are forgotten.
+    private static final int MAX_CUSTOMERS = 10_000;
+
+    private final Bucket developer;
+    private final Map<String, Bucket> customers = new ConcurrentHashMap<>();
+    private final double customerRate;
+    private final double minRate;
+    private final int maxRetries;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong throttledCalls = new AtomicLong();
+    private final AtomicLong quotaErrors = new AtomicLong();
+    private final AtomicLong transientErrors = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong exhaustedRetries = new AtomicLong();
+
+    /**
+     *
+     * The constructor receives the rates and the retry policy.
+     *
+     * @param developerRate The maximum queries per second of the developer token.
+     * @param customerRate The maximum queries per second of each customer.
+     * @param minRate The minimum queries per second a bucket slows down to.
+     * @param maxRetries The retries of a query, after its first attempt.
+     * @param baseBackoffMillis The backoff of the first retry, doubled on each retry.
+     * @param maxBackoffMillis The maximum backoff of a retry.
+     */
+    public GoogleAdsRateLimiter(double developerRate,
+                                double customerRate,
+                                double minRate,
+                                int maxRetries,
+                                long baseBackoffMillis,
+                                long maxBackoffMillis) {
+        this.developer = new Bucket(developerRate);
+        this.customerRate = customerRate;
+        this.minRate = minRate;
+        this.maxRetries = maxRetries;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    /**
+     *
+     * Runs a query within the rates of the developer token and of the customer, retrying its failures.
+     *
+     * @param customerId The id of the customer queried.
+     * @param query The query.
+     * @param retryable If the query can still be retried, like while it has not handed out any row.
+     *
+     * @throws ApiException If the query fails with an error that is not retried, or after the last retry.
+     */
+    public void run(String customerId, Runnable query, BooleanSupplier retryable) {
+        final Bucket customer = customer(customerId);
+        for (int attempt = 0; ; attempt++) {
+            acquire(customer);
+            try {
+                query.run();
+                developer.succeeded();
+                customer.succeeded();
+                return;
+            } catch (ApiException e) {
+                final long delayMillis = failed(customer, e, attempt);
+                if (delayMillis < 0 || !retryable.getAsBoolean()) throw e;
+                if (attempt >= maxRetries) {
+                    exhaustedRetries.incrementAndGet();
+                    throw e;
+                }
+                retries.incrementAndGet();
+                sleep(delayMillis);
+            }
+        }
+    }
+
+    @Override
+    public String metricsName() {
+        return "googleAdsRateLimiter";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        final Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("developerRate", developer.rate());
+        metrics.put("developerBlockedMillis", developer.blockedMillis());
+        metrics.put("customers", customers.size());
+        metrics.put("minCustomerRate", customers.values().stream().mapToDouble(Bucket::rate).min().orElse(customerRate));
+        metrics.put("calls", calls.get());
+        metrics.put("throttledCalls", throttledCalls.get());
+        metrics.put("quotaErrors", quotaErrors.get());
+        metrics.put("transientErrors", transientErrors.get());
+        metrics.put("retries", retries.get());
+        metrics.put("exhaustedRetries", exhaustedRetries.get());
+        return metrics;
+    }
+
+    private Bucket customer(String customerId) {
+        if (customers.size() >= MAX_CUSTOMERS && !customers.containsKey(customerId)) customers.clear();
+        return customers.computeIfAbsent(customerId, id -> new Bucket(customerRate));
+    }
+
+    /**
+     *
+     * Takes a token of the developer bucket and of the customer bucket, waiting for the slower one.
+     *
+     * @param customer The bucket of the customer.
+     */
+    private void acquire(Bucket customer) {
+        calls.incrementAndGet();
+        final long waitNanos = Math.max(developer.reserve(), customer.reserve());
+        if (waitNanos > 0) {
+            throttledCalls.incrementAndGet();
+            sleep(waitNanos / 1_000_000);
+        }
+    }
+
+    /**
+     *
+     * Adapts the buckets to a failed query, and chooses its retry delay.
+     *
+     * @param customer The bucket of the customer.
+     * @param e The failure of the query.
+     * @param attempt The attempt that failed, from zero.
+     *
+     * @return The delay before the retry, in milliseconds, or -1 if the failure is not retried.
+     */
+    private long failed(Bucket customer, ApiException e, int attempt) {
+        final StatusCode.Code code = e.getStatusCode().getCode();
+        final long backoff = backoffMillis(attempt);
+        if (code == StatusCode.Code.RESOURCE_EXHAUSTED) {
+            quotaErrors.incrementAndGet();
+            final QuotaErrorDetails details = quotaDetails(e);
+            // The developer quota is shared by every customer, so only that scope slows all of them down.
+            final Bucket bucket = details != null && details.getRateScope() == QuotaErrorDetails.QuotaRateScope.DEVELOPER
+                ? developer
+                : customer;
+            final long hintMillis = details == null ? 0 : details.getRetryDelay().getSeconds() * 1000 + details.getRetryDelay().getNanos() / 1_000_000;
+            bucket.throttled(hintMillis);
+            return Math.max(backoff, hintMillis);
+        }
+        if (TRANSIENT.contains(code)) {
+            transientErrors.incrementAndGet();
+            return backoff;
+        }
+        return -1;
+    }
+
+    /**
+     *
+     * Chooses a backoff with full jitter: a random delay up to the exponential limit of the attempt.
+     *
+     * @param attempt The attempt that failed, from zero.
+     *
+     * @return The backoff in milliseconds.
+     */
+    private long backoffMillis(int attempt) {
+        final long limit = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(limit / 2, limit + 1);
+    }
+
+    private static QuotaErrorDetails quotaDetails(ApiException e) {
+        if (!(e instanceof GoogleAdsException adsException)) return null;
+        for (GoogleAdsError error : adsException.getGoogleAdsFailure().getErrorsList()) {
+            if (error.getDetails().hasQuotaErrorDetails()) return error.getDetails().getQuotaErrorDetails();
+        }
+        return null;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new com.ads.report.application.exception.GoogleAdsException("Interrupted while waiting for the Google Ads quota.");
+        }
+    }
+
+    /**
+     *
+     * The token bucket of one quota, with an adaptive rate.
+     *
+     * */
+    private final class Bucket {
+
+        private final double maxRate;
+        private double rate;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+        private long blockedUntil;
+
+        private Bucket(double maxRate) {
+            this.maxRate = maxRate;
+            this.rate = maxRate;
+            this.tokens = maxRate;
+        }
+
+        /**
+         *
+         * Reserves a token, that may only be available in the future.
+         *
+         * @return The nanoseconds to wait for the token.
+         */
+        private synchronized long reserve() {
+            final long now = System.nanoTime();
+            // The bucket holds at most one second of tokens.
+            tokens = Math.min(rate, tokens + (now - refilledAt) / 1e9 * rate);
+            refilledAt = now;
+            tokens -= 1;
+            final long refill = tokens >= 0 ? 0 : (long) (-tokens / rate * 1e9);
+            return Math.max(refill, blockedUntil - now);
+        }
+
+        private synchronized void succeeded() {
+            rate = Math.min(maxRate, rate + maxRate * INCREASE);
+        }
+
+        private synchronized void throttled(long retryDelayMillis) {
+            rate = Math.max(minRate, rate / 2);
+            blockedUntil = Math.max(blockedUntil, System.nanoTime() + retryDelayMillis * 1_000_000);
+        }
+
+        private synchronized double rate() {
+            return rate;
+        }
+
+        private synchronized long blockedMillis() {
+            return Math.max(0, (blockedUntil - System.nanoTime()) / 1_000_000);
+        }
+    }
+}
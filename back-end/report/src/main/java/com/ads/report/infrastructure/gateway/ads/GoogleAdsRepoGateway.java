@@ -7,14 +7,27 @@ import com.ads.report.domain.campaign.CampaignKeywordMetrics;
 import com.ads.report.domain.campaign.CampaignMetrics;
 import com.ads.report.domain.campaign.CampaignTitleAndDescription;
 import com.ads.report.domain.campaign.CampaignPerDay;
+import com.ads.report.domain.columnar.MetricTable;
+import com.ads.report.domain.columnar.MetricTables;
+import com.ads.report.domain.columnar.RollupDimension;
 import com.ads.report.domain.manager.ManagerAccountInfo;
+import com.ads.report.domain.manager.ManagerClient;
 import com.google.ads.googleads.lib.GoogleAdsClient;
-import com.google.ads.googleads.v17.common.AdTextAsset;
 import com.google.ads.googleads.v17.services.*;
+import com.google.api.gax.grpc.GrpcCallContext;
+import com.google.api.gax.rpc.ApiCallContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  *
@@ -29,8 +42,115 @@ import java.util.List;
  * */
 public class GoogleAdsRepoGateway implements GoogleAdsGateway {
 
+    // The request attribute with the manager account the queries of the request log in through.
+    private static final String LOGIN_CUSTOMER_ATTRIBUTE = GoogleAdsRepoGateway.class.getName() + ".loginCustomerId";
+
     @Autowired
     private GoogleAdsClient googleAdsClient;
+    @Autowired(required = false)
+    private GoogleAdsChannelPool channelPool;
+    @Autowired(required = false)
+    private GoogleAdsRateLimiter rateLimiter;
+    @Value("${api.googleads.searchStream:true}")
+    private boolean searchStream;
+    @Value("${api.googleads.internMaxEntries:4096}")
+    private int internMaxEntries;
+    @Value("${api.googleads.rollupInQuery:true}")
+    private boolean rollupInQuery;
+
+    /**
+     *
+     * Opens a Google Ads service client for the current user.
+     *
+     * <p>When the channel pool is enabled, the client runs on one of the shared channels, with the user credentials.
+     * Otherwise it opens its own channel, that is closed with the client.<p/>
+     *
+     * @return The lease of the service client, to close after the calls.
+     * @throws IOException If fails to create the service client.
+     */
+    private GoogleAdsChannelPool.Lease openServiceClient() throws IOException {
+        if (channelPool == null) {
+            return GoogleAdsChannelPool.Lease.unpooled(googleAdsClient.getLatestVersion().createGoogleAdsServiceClient());
+        }
+        return channelPool.lease(googleAdsClient.getCredentials());
+    }
+
+    /**
+     *
+     * Fetches all the rows of a report query, handing each row to the consumer.
+     *
+     * <p>By default, this uses the searchStream rpc, that emits the rows as the server produces them,
+     * instead of walking the paged search with one round trip per page token. The paged search
+     * is kept as a fallback, through the 'api.googleads.searchStream' property.<p/>
+     *
+     * <p>When the rate limiter is enabled, the query waits for the quota of the developer token and of the
+     * customer, and its quota and transient errors are retried while no row was handed to the consumer.<p/>
+     *
+     * @param client The Google Ads service client.
+     * @param customerId The id of an adwords customer (client).
+     * @param query The GAQL query.
+     * @param consumer The consumer that receives each row.
+     */
+    private void fetchRows(GoogleAdsServiceClient client, String customerId, String query, Consumer<GoogleAdsRow> consumer) {
+        if (rateLimiter == null) {
+            fetchRowsOnce(client, customerId, query, consumer);
+            return;
+        }
+        // A retry after the first row would hand the same rows to the consumer again.
+        final boolean[] delivered = {false};
+        rateLimiter.run(
+            customerId,
+            () -> fetchRowsOnce(client, customerId, query, r -> {
+                delivered[0] = true;
+                consumer.accept(r);
+            }),
+            () -> !delivered[0]
+        );
+    }
+
+    /**
+     *
+     * Runs a report query once, handing each row to the consumer.
+     *
+     * @param client The Google Ads service client.
+     * @param customerId The id of an adwords customer (client).
+     * @param query The GAQL query.
+     * @param consumer The consumer that receives each row.
+     */
+    private void fetchRowsOnce(GoogleAdsServiceClient client, String customerId, String query, Consumer<GoogleAdsRow> consumer) {
+        final ApiCallContext context = loginContext();
+        if (!searchStream) {
+            // Build a new paged request with the customerId and query.
+            final SearchGoogleAdsRequest request = SearchGoogleAdsRequest.newBuilder()
+                .setCustomerId(customerId)
+                .setQuery(query)
+                .build();
+            client.searchPagedCallable().call(request, context).iterateAll().forEach(consumer);
+            return;
+        }
+        // Build a new stream request with the customerId and query.
+        final SearchGoogleAdsStreamRequest request = SearchGoogleAdsStreamRequest.newBuilder()
+            .setCustomerId(customerId)
+            .setQuery(query)
+            .build();
+        // Each response carries a batch of rows, delivered as soon as it is ready.
+        for (SearchGoogleAdsStreamResponse response: client.searchStreamCallable().call(request, context)) {
+            response.getResultsList().forEach(consumer);
+        }
+    }
+
+    /**
+     *
+     * Gets the call context with the manager account the current request logs in through.
+     *
+     * @return The call context with the 'login-customer-id' header, or null to use the default one.
+     */
+    private static ApiCallContext loginContext() {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        final Object loginCustomerId = attributes == null ? null : attributes.getAttribute(LOGIN_CUSTOMER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (loginCustomerId == null) return null;
+        return GrpcCallContext.createDefault().withExtraHeaders(Map.of("login-customer-id", List.of((String) loginCustomerId)));
+    }
 
     /**
      *
@@ -68,7 +188,8 @@ public class GoogleAdsRepoGateway implements GoogleAdsGateway {
     @Override
     public ManagerAccountInfo getManagerAccount(String managerAccountId) {
         // Connect to Google Ads service client.
-        try (GoogleAdsServiceClient client = googleAdsClient.getLatestVersion().createGoogleAdsServiceClient()) {
+        try (GoogleAdsChannelPool.Lease lease = openServiceClient()) {
+            final GoogleAdsServiceClient client = lease.client();
             final String query = """
                 SELECT
                     customer.id,
@@ -111,6 +232,68 @@ public class GoogleAdsRepoGateway implements GoogleAdsGateway {
         }
     }
 
+    /**
+     *
+     * Get the enabled client accounts under a manager account, through the customer_client resource.
+     *
+     * <p>The customer_client resource lists every account of the hierarchy, so the sub-manager accounts
+     * are left out, and their clients are listed by their own rows.<p/>
+     *
+     * @param managerAccountId The id of the manager account (MCC).
+     *
+     * @return The list of ManagerClient objects.
+     * @throws GoogleAdsException If fails to request the data.
+     */
+    @Override
+    public List<ManagerClient> getManagerClients(String managerAccountId) {
+        final String query = """
+            SELECT
+                customer_client.id,
+                customer_client.descriptive_name,
+                customer_client.level
+            FROM customer_client
+            WHERE customer_client.manager = FALSE
+            AND customer_client.status = 'ENABLED'
+        """;
+        final List<ManagerClient> clients = new ArrayList<>();
+        try (GoogleAdsChannelPool.Lease lease = openServiceClient()) {
+            fetchRows(lease.client(), managerAccountId, query, r -> clients.add(new ManagerClient(
+                String.valueOf(r.getCustomerClient().getId()),
+                r.getCustomerClient().getDescriptiveName(),
+                r.getCustomerClient().getLevel()
+            )));
+            return clients;
+        } catch (Exception e) {
+            throw new GoogleAdsException("Error searching the manager clients: " + e.getMessage());
+        }
+    }
+
+    /**
+     *
+     * Runs the calls of the current request through a manager account.
+     *
+     * <p>The manager account is kept on the request attributes, that the report tasks share with the request,
+     * so every query of the calls sends it as the 'login-customer-id' header.<p/>
+     *
+     * @param managerAccountId The id of the manager account (MCC).
+     * @param calls The calls to the gateway.
+     *
+     * @return The result of the calls.
+     */
+    @Override
+    public <T> T throughManager(String managerAccountId, Supplier<T> calls) {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            throw new GoogleAdsException("There is no request to log in through the manager account.");
+        }
+        attributes.setAttribute(LOGIN_CUSTOMER_ATTRIBUTE, managerAccountId.replace("-", ""), RequestAttributes.SCOPE_REQUEST);
+        try {
+            return calls.get();
+        } finally {
+            attributes.removeAttribute(LOGIN_CUSTOMER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
     /**
      *
      * Get campaigns and it's metrics.
@@ -121,44 +304,40 @@ public class GoogleAdsRepoGateway implements GoogleAdsGateway {
      */
     @Override
     public List<CampaignMetrics> getCampaignMetrics(String customerId, String startDate, String endDate, boolean active) {
+        final List<CampaignMetrics> campaignMetricsList = new ArrayList<>();
+        streamCampaignMetrics(customerId, startDate, endDate, active, campaignMetricsList::add);
+        return campaignMetricsList;
+    }
+
+    /**
+     *
+     * Streams campaigns and it's metrics.
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param active Select if the campaign have had any impressions.
+     * @param consumer The consumer that receives each CampaignMetrics object.
+     *
+     * @throws GoogleAdsException If fails to request the data.
+     */
+    @Override
+    public void streamCampaignMetrics(String customerId, String startDate, String endDate, boolean active, Consumer<CampaignMetrics> consumer) {
         // Connect to google ads service client.
-        try (GoogleAdsServiceClient client = googleAdsClient.getLatestVersion().createGoogleAdsServiceClient()) {
-            final String isActive = active ? "metrics.impressions > '0'" : "metrics.impressions >= '0'";
-            final List<CampaignMetrics> campaignMetricsList = new ArrayList<>();
-            final String query = String.format("""
-                SELECT
-                    segments.date,
-                    segments.day_of_week,
-                    campaign.id,
-                    campaign.name,
-                    ad_group.name,
-                    campaign.status,
-                    metrics.impressions,
-                    metrics.clicks,
-                    metrics.cost_micros,
-                    metrics.conversions,
-                    metrics.ctr,
-                    metrics.average_cpc,
-                    metrics.cost_per_conversion
-                FROM ad_group
-                WHERE %s
-                AND segments.date BETWEEN '%s' AND '%s'
-                ORDER BY segments.date ASC, metrics.conversions DESC
-            """, isActive, startDate, endDate);
-            // Build a new request with the customerId and query.
-            final SearchGoogleAdsRequest request = SearchGoogleAdsRequest.newBuilder()
-                .setCustomerId(customerId)
-                .setQuery(query)
-                .build();
-            // Iterating GoogleAdsRow objects to convert to CampaignMetrics.
-            for (GoogleAdsRow r: client.search(request).iterateAll()) {
+        try (GoogleAdsChannelPool.Lease lease = openServiceClient()) {
+            final GoogleAdsServiceClient client = lease.client();
+            final String query = campaignMetricsQuery(startDate, endDate, active);
+            // The repeated texts of the rows are shared by the objects of this fetch.
+            final StringInterner strings = new StringInterner(internMaxEntries);
+            // Streaming GoogleAdsRow objects to convert to CampaignMetrics.
+            fetchRows(client, customerId, query, r -> {
                 final CampaignMetrics campaignMetrics = new CampaignMetrics(
-                    r.getSegments().getDate(),
+                    strings.intern(r.getSegments().getDate()),
                     r.getSegments().getDayOfWeek().name(),
                     r.getCampaign().getId(),
-                    r.getCampaign().getName(),
-                    r.getAdGroup().getName(),
-                    r.getCampaign().getStatus().toString(),
+                    strings.intern(r.getCampaign().getName()),
+                    strings.intern(r.getAdGroup().getName()),
+                    r.getCampaign().getStatus().name(),
                     r.getMetrics().getImpressions(),
                     r.getMetrics().getClicks(),
                     r.getMetrics().getCostMicros() / 1_000_000.0,       // Converts micros to monetary units
@@ -167,9 +346,8 @@ public class GoogleAdsRepoGateway implements GoogleAdsGateway {
                     r.getMetrics().getAverageCpc() / 1_000_000.0,       // CPC (convert to monetary units)
                     r.getMetrics().getCostPerConversion() / 1_000_000.0 // CPC (convert to monetary units)
                 );
-                campaignMetricsList.add(campaignMetrics);
-            }
-            return campaignMetricsList;
+                consumer.accept(campaignMetrics);
+            });
         } catch (Exception e) {
             throw new GoogleAdsException("Error searching metrics: " + e.getMessage());
         }
@@ -203,14 +381,10 @@ public class GoogleAdsRepoGateway implements GoogleAdsGateway {
             FROM customer
             WHERE segments.date BETWEEN '%s' AND '%s'
         """, startDate, endDate);
-        try (GoogleAdsServiceClient client = googleAdsClient.getLatestVersion().createGoogleAdsServiceClient()) {
-            // Build a new request with the customerId and query.
-            final SearchGoogleAdsRequest request = SearchGoogleAdsRequest.newBuilder()
-                .setCustomerId(customerId)
-                .setQuery(query)
-                .build();
-            // Iterating GoogleAdsRow objects to convert to CampaignMetrics.
-            for (GoogleAdsRow r: client.search(request).iterateAll()) {
+        try (GoogleAdsChannelPool.Lease lease = openServiceClient()) {
+            final GoogleAdsServiceClient client = lease.client();
+            // Streaming GoogleAdsRow objects to convert to AccountMetrics.
+            fetchRows(client, customerId, query, r -> {
                 final AccountMetrics accountMetrics = new AccountMetrics(
                     r.getCustomer().getId(),
                     r.getCustomer().getDescriptiveName(),
@@ -223,7 +397,7 @@ public class GoogleAdsRepoGateway implements GoogleAdsGateway {
                     r.getMetrics().getCostPerConversion() / 1_000_000.0
                 );
                 accountMetricsList.add(accountMetrics);
-            }
+            });
             return accountMetricsList;
         } catch (Exception e) {
             throw new GoogleAdsException("Error searching account metrics: " + e.getMessage());
@@ -249,29 +423,31 @@ public class GoogleAdsRepoGateway implements GoogleAdsGateway {
     @Override
     public List<CampaignPerDay> getTotalPerDay(String customerId, String startDate, String endDate) {
         final List<CampaignPerDay> campaignPerDays = new ArrayList<>();
-        final String query = String.format("""
-            SELECT
-              segments.date,
-              metrics.impressions,
-              metrics.clicks,
-              metrics.conversions,
-              metrics.cost_micros,
-              segments.hour,
-              segments.day_of_week
-            FROM customer
-            WHERE segments.date BETWEEN '%s' AND '%s'
-            ORDER BY segments.date ASC, metrics.conversions DESC
-        """, startDate, endDate);
-        try (GoogleAdsServiceClient client = googleAdsClient.getLatestVersion().createGoogleAdsServiceClient()) {
-            // Build a new request with the customerId and query.
-            final SearchGoogleAdsRequest request = SearchGoogleAdsRequest.newBuilder()
-                .setCustomerId(customerId)
-                .setQuery(query)
-                .build();
-            // Iterating GoogleAdsRow objects to convert to TotalPerDay.
-            for (GoogleAdsRow r: client.search(request).iterateAll()) {
+        streamTotalPerDay(customerId, startDate, endDate, campaignPerDays::add);
+        return campaignPerDays;
+    }
+
+    /**
+     *
+     * Streams the client account metrics, separated per days and hours.
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param consumer The consumer that receives each TotalPerDay object.
+     *
+     * @throws GoogleAdsException If fails to request the data.
+     */
+    @Override
+    public void streamTotalPerDay(String customerId, String startDate, String endDate, Consumer<CampaignPerDay> consumer) {
+        final String query = totalPerDayQuery(startDate, endDate);
+        try (GoogleAdsChannelPool.Lease lease = openServiceClient()) {
+            final GoogleAdsServiceClient client = lease.client();
+            final StringInterner strings = new StringInterner(internMaxEntries);
+            // Streaming GoogleAdsRow objects to convert to TotalPerDay.
+            fetchRows(client, customerId, query, r -> {
                 final CampaignPerDay campaignPerDay = new CampaignPerDay(
-                    r.getSegments().getDate(),
+                    strings.intern(r.getSegments().getDate()),
                     r.getMetrics().getImpressions(),
                     r.getMetrics().getClicks(),
                     r.getMetrics().getConversions(),
@@ -279,9 +455,8 @@ public class GoogleAdsRepoGateway implements GoogleAdsGateway {
                     r.getSegments().getHour(),
                     r.getSegments().getDayOfWeek().name()
                 );
-                campaignPerDays.add(campaignPerDay);
-            }
-            return campaignPerDays;
+                consumer.accept(campaignPerDay);
+            });
         } catch (Exception e) {
             throw new GoogleAdsException("Error searching per day metrics: " + e.getMessage());
         }
@@ -300,37 +475,31 @@ public class GoogleAdsRepoGateway implements GoogleAdsGateway {
      */
     @Override
     public List<CampaignKeywordMetrics> getKeywordMetrics(String customerId, String startDate, String endDate, boolean active) {
-        final String isActive = active ? "metrics.impressions > '0'" : "metrics.impressions >= '0'";
         final List<CampaignKeywordMetrics> campaignKeywordMetrics = new ArrayList<>();
-        final String query = String.format("""
-           SELECT
-               segments.date,
-               segments.day_of_week,
-               campaign.name,
-               ad_group.name,
-               campaign.advertising_channel_type,
-               ad_group_criterion.keyword.text,
-               ad_group_criterion.keyword.match_type,
-               metrics.impressions,
-               metrics.clicks,
-               metrics.cost_micros,
-               metrics.average_cpc,
-               metrics.conversions,
-               metrics.conversions_from_interactions_rate
-           FROM keyword_view
-           WHERE segments.date >= '%s' AND segments.date <= '%s'
-           AND %s
-           AND ad_group_criterion.status != 'REMOVED'
-           ORDER BY segments.date ASC, metrics.conversions DESC
-        """, startDate, endDate, isActive);
-        try (GoogleAdsServiceClient client = googleAdsClient.getLatestVersion().createGoogleAdsServiceClient()) {
-            // Build a new request with the customerId and query.
-            final SearchGoogleAdsRequest request = SearchGoogleAdsRequest.newBuilder()
-                .setCustomerId(customerId)
-                .setQuery(query)
-                .build();
-            // Iterating GoogleAdsRow objects to convert to TotalPerDay.
-            for (GoogleAdsRow r: client.search(request).iterateAll()) {
+        streamKeywordMetrics(customerId, startDate, endDate, active, campaignKeywordMetrics::add);
+        return campaignKeywordMetrics;
+    }
+
+    /**
+     *
+     * Implementation to stream all keyword metrics from an account.
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param active Select if the keyword have had any impressions or cost.
+     * @param consumer The consumer that receives each KeywordMetrics object.
+     *
+     * @throws GoogleAdsException If fails to request the data.
+     */
+    @Override
+    public void streamKeywordMetrics(String customerId, String startDate, String endDate, boolean active, Consumer<CampaignKeywordMetrics> consumer) {
+        final String query = keywordMetricsQuery(startDate, endDate, active);
+        try (GoogleAdsChannelPool.Lease lease = openServiceClient()) {
+            final GoogleAdsServiceClient client = lease.client();
+            final StringInterner strings = new StringInterner(internMaxEntries);
+            // Streaming GoogleAdsRow objects to convert to KeywordMetrics.
+            fetchRows(client, customerId, query, r -> {
                 // Calculates conversion rate.
 //                BigDecimal conversionRate = BigDecimal.ZERO;
 //                if (r.getMetrics().getClicks() > 0) {
@@ -340,13 +509,13 @@ public class GoogleAdsRepoGateway implements GoogleAdsGateway {
 //                }
                 // Create KeywordMetrics object.
                 final CampaignKeywordMetrics keywordMetric = new CampaignKeywordMetrics(
-                    r.getSegments().getDate(),
+                    strings.intern(r.getSegments().getDate()),
                     r.getSegments().getDayOfWeek().name(),
-                    r.getCampaign().getName(),
+                    strings.intern(r.getCampaign().getName()),
                     r.getCampaign().getAdvertisingChannelType().name(),
-                    r.getAdGroup().getName(),
-                    r.getAdGroupCriterion().getKeyword().getText(),
-                    r.getAdGroupCriterion().getKeyword().getMatchType().toString(),
+                    strings.intern(r.getAdGroup().getName()),
+                    strings.intern(r.getAdGroupCriterion().getKeyword().getText()),
+                    r.getAdGroupCriterion().getKeyword().getMatchType().name(),
                     r.getMetrics().getImpressions(),
                     r.getMetrics().getClicks(),
                     r.getMetrics().getCostMicros() / 1_000_000.0,
@@ -354,10 +523,8 @@ public class GoogleAdsRepoGateway implements GoogleAdsGateway {
                     r.getMetrics().getConversions(),
                     r.getMetrics().getConversionsFromInteractionsRate()
                 );
-                campaignKeywordMetrics.add(keywordMetric);
-            }
-
-            return campaignKeywordMetrics;
+                consumer.accept(keywordMetric);
+            });
         } catch (Exception e) {
             throw new GoogleAdsException("Error searching keyword metrics: " + e.getMessage());
         }
@@ -377,6 +544,23 @@ public class GoogleAdsRepoGateway implements GoogleAdsGateway {
     @Override
     public List<CampaignTitleAndDescription> getAdTitleAndDescriptions(String customerId, String startDate, String endDate) {
         final List<CampaignTitleAndDescription> campaignTitleAndDescriptions = new ArrayList<>();
+        streamAdTitleAndDescriptions(customerId, startDate, endDate, campaignTitleAndDescriptions::add);
+        return campaignTitleAndDescriptions;
+    }
+
+    /**
+     *
+     * Implementation to stream all campaigns, ad groups, titles and descriptions, and its metrics.
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param consumer The consumer that receives each AdTitleAndDescriptionInfo object.
+     *
+     * @throws GoogleAdsException If fails to request the data.
+     */
+    @Override
+    public void streamAdTitleAndDescriptions(String customerId, String startDate, String endDate, Consumer<CampaignTitleAndDescription> consumer) {
         final String query = String.format("""
             SELECT
                 segments.date,
@@ -394,14 +578,11 @@ public class GoogleAdsRepoGateway implements GoogleAdsGateway {
             WHERE segments.date >= '%s' AND segments.date <= '%s' AND ad_group_ad.status != 'REMOVED'
             ORDER BY segments.date ASC, metrics.conversions DESC
         """, startDate, endDate);
-        try (GoogleAdsServiceClient client = googleAdsClient.getLatestVersion().createGoogleAdsServiceClient()) {
-            // Build a new request with the customerId and query.
-            final SearchGoogleAdsRequest request = SearchGoogleAdsRequest.newBuilder()
-                .setCustomerId(customerId)
-                .setQuery(query)
-                .build();
-            // Iterating GoogleAdsRow objects to convert to TotalPerDay.
-            for (GoogleAdsRow r : client.search(request).iterateAll()) {
+        try (GoogleAdsChannelPool.Lease lease = openServiceClient()) {
+            final GoogleAdsServiceClient client = lease.client();
+            final StringInterner strings = new StringInterner(internMaxEntries);
+            // Streaming GoogleAdsRow objects to convert to AdTitleAndDescriptionInfo.
+            fetchRows(client, customerId, query, r -> {
                 List<String> responsiveHeadlines = new ArrayList<>();
                 List<String> responsiveDescriptions = new ArrayList<>();
                 // Verifies ad type.
@@ -412,32 +593,257 @@ public class GoogleAdsRepoGateway implements GoogleAdsGateway {
                         .getResponsiveSearchAd()
                         .getHeadlinesList()
                         .stream()
-                        .map(AdTextAsset::getText)
+                        .map(a -> strings.intern(a.getText()))
                         .toList();
                     responsiveDescriptions = r.getAdGroupAd()
                         .getAd()
                         .getResponsiveSearchAd()
                         .getDescriptionsList()
                         .stream()
-                        .map(AdTextAsset::getText)
+                        .map(a -> strings.intern(a.getText()))
                         .toList();
                 }
                 // Build domain object.
                 final CampaignTitleAndDescription adInfo = new CampaignTitleAndDescription(
-                    r.getSegments().getDate(),
-                    r.getCampaign().getName(),
-                    r.getAdGroup().getName(),
+                    strings.intern(r.getSegments().getDate()),
+                    strings.intern(r.getCampaign().getName()),
+                    strings.intern(r.getAdGroup().getName()),
                     responsiveHeadlines,
                     responsiveDescriptions,
                     r.getMetrics().getClicks(),
                     r.getMetrics().getImpressions(),
                     r.getMetrics().getConversions()
                 );
-                campaignTitleAndDescriptions.add(adInfo);
-            }
-            return campaignTitleAndDescriptions;
+                consumer.accept(adInfo);
+            });
         } catch (Exception e) {
             throw new GoogleAdsException("Error searching Ad metrics: " + e.getMessage());
         }
     }
+
+    /**
+     *
+     * Fills a columnar table of campaign metrics directly from the Google Ads rows.
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param active Select if the campaign have had any impressions.
+     *
+     * @return The table of campaign metrics.
+     * @throws GoogleAdsException If fails to request the data.
+     */
+    @Override
+    public MetricTable getCampaignMetricsTable(String customerId, String startDate, String endDate, boolean active) {
+        final MetricTable table = MetricTables.campaignMetrics();
+        try (GoogleAdsChannelPool.Lease lease = openServiceClient()) {
+            fetchRows(lease.client(), customerId, campaignMetricsQuery(startDate, endDate, active), r -> table.appendRow()
+                .date(r.getSegments().getDate())
+                .string(r.getSegments().getDayOfWeek().name())
+                .longValue(r.getCampaign().getId())
+                .string(r.getCampaign().getName())
+                .string(r.getAdGroup().getName())
+                .string(r.getCampaign().getStatus().name())
+                .longValue(r.getMetrics().getImpressions())
+                .longValue(r.getMetrics().getClicks())
+                .doubleValue(r.getMetrics().getCostMicros() / 1_000_000.0)
+                .doubleValue(r.getMetrics().getConversions())
+                .doubleValue(r.getMetrics().getCtr())
+                .doubleValue(r.getMetrics().getAverageCpc() / 1_000_000.0)
+                .doubleValue(r.getMetrics().getCostPerConversion() / 1_000_000.0));
+            return table;
+        } catch (Exception e) {
+            throw new GoogleAdsException("Error searching metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     *
+     * Fills a columnar table of metrics per day and hour directly from the Google Ads rows.
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     *
+     * @return The table of metrics per day and hour.
+     * @throws GoogleAdsException If fails to request the data.
+     */
+    @Override
+    public MetricTable getTotalPerDayTable(String customerId, String startDate, String endDate) {
+        final MetricTable table = MetricTables.totalPerDay();
+        try (GoogleAdsChannelPool.Lease lease = openServiceClient()) {
+            fetchRows(lease.client(), customerId, totalPerDayQuery(startDate, endDate), r -> table.appendRow()
+                .date(r.getSegments().getDate())
+                .longValue(r.getMetrics().getImpressions())
+                .longValue(r.getMetrics().getClicks())
+                .doubleValue(r.getMetrics().getConversions())
+                .doubleValue(r.getMetrics().getCostMicros() / 1_000_000.0)
+                .longValue(r.getSegments().getHour())
+                .string(r.getSegments().getDayOfWeek().name()));
+            return table;
+        } catch (Exception e) {
+            throw new GoogleAdsException("Error searching per day metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     *
+     * Fills a columnar table of keyword metrics directly from the Google Ads rows.
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param active Select if the keyword have had any impressions or cost.
+     *
+     * @return The table of keyword metrics.
+     * @throws GoogleAdsException If fails to request the data.
+     */
+    @Override
+    public MetricTable getKeywordMetricsTable(String customerId, String startDate, String endDate, boolean active) {
+        final MetricTable table = MetricTables.keywordMetrics();
+        try (GoogleAdsChannelPool.Lease lease = openServiceClient()) {
+            fetchRows(lease.client(), customerId, keywordMetricsQuery(startDate, endDate, active), r -> table.appendRow()
+                .date(r.getSegments().getDate())
+                .string(r.getSegments().getDayOfWeek().name())
+                .string(r.getCampaign().getName())
+                .string(r.getCampaign().getAdvertisingChannelType().name())
+                .string(r.getAdGroup().getName())
+                .string(r.getAdGroupCriterion().getKeyword().getText())
+                .string(r.getAdGroupCriterion().getKeyword().getMatchType().name())
+                .longValue(r.getMetrics().getImpressions())
+                .longValue(r.getMetrics().getClicks())
+                .doubleValue(r.getMetrics().getCostMicros() / 1_000_000.0)
+                .doubleValue(r.getMetrics().getAverageCpc() / 1_000_000.0)
+                .doubleValue(r.getMetrics().getConversions())
+                .doubleValue(r.getMetrics().getConversionsFromInteractionsRate()));
+            return table;
+        } catch (Exception e) {
+            throw new GoogleAdsException("Error searching keyword metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     *
+     * Gets the campaign metrics summed by Google Ads, through a query with only the fields of the dimension.
+     *
+     * <p>Without such a query, or with 'api.googleads.rollupInQuery=false', the daily rows are returned,
+     * to be summed by the caller.<p/>
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param active Select if the campaign have had any impressions.
+     * @param groupBy The dimension of the rollup.
+     *
+     * @return The table of the summed metrics.
+     * @throws GoogleAdsException If fails to request the data.
+     */
+    @Override
+    public MetricTable getCampaignRollupTable(String customerId, String startDate, String endDate, boolean active, RollupDimension groupBy) {
+        final Optional<GaqlRollupQuery> rollup = rollupInQuery ? GaqlRollupQuery.of("ad_group", groupBy) : Optional.empty();
+        if (rollup.isEmpty()) return getCampaignMetricsTable(customerId, startDate, endDate, active);
+        return rollupTable(customerId, rollup.get()
+            .where(active ? "metrics.impressions > '0'" : "metrics.impressions >= '0'")
+            .where(String.format("segments.date BETWEEN '%s' AND '%s'", startDate, endDate)));
+    }
+
+    /**
+     *
+     * Gets the keyword metrics summed by Google Ads, through a query with only the fields of the dimension.
+     *
+     * @param customerId The id of an adwords customer (client).
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param active Select if the keyword have had any impressions or cost.
+     * @param groupBy The dimension of the rollup.
+     *
+     * @return The table of the summed metrics.
+     * @throws GoogleAdsException If fails to request the data.
+     */
+    @Override
+    public MetricTable getKeywordRollupTable(String customerId, String startDate, String endDate, boolean active, RollupDimension groupBy) {
+        final Optional<GaqlRollupQuery> rollup = rollupInQuery ? GaqlRollupQuery.of("keyword_view", groupBy) : Optional.empty();
+        if (rollup.isEmpty()) return getKeywordMetricsTable(customerId, startDate, endDate, active);
+        return rollupTable(customerId, rollup.get()
+            .where(String.format("segments.date >= '%s' AND segments.date <= '%s'", startDate, endDate))
+            .where(active ? "metrics.impressions > '0'" : "metrics.impressions >= '0'")
+            .where("ad_group_criterion.status != 'REMOVED'"));
+    }
+
+    private MetricTable rollupTable(String customerId, GaqlRollupQuery query) {
+        final MetricTable table = query.table();
+        try (GoogleAdsChannelPool.Lease lease = openServiceClient()) {
+            fetchRows(lease.client(), customerId, query.build(), r -> query.append(table, r));
+            return table;
+        } catch (Exception e) {
+            throw new GoogleAdsException("Error searching rollup metrics: " + e.getMessage());
+        }
+    }
+
+    // The report queries, shared by the object and the columnar results.
+
+    private static String campaignMetricsQuery(String startDate, String endDate, boolean active) {
+        final String isActive = active ? "metrics.impressions > '0'" : "metrics.impressions >= '0'";
+        return String.format("""
+            SELECT
+                segments.date,
+                segments.day_of_week,
+                campaign.id,
+                campaign.name,
+                ad_group.name,
+                campaign.status,
+                metrics.impressions,
+                metrics.clicks,
+                metrics.cost_micros,
+                metrics.conversions,
+                metrics.ctr,
+                metrics.average_cpc,
+                metrics.cost_per_conversion
+            FROM ad_group
+            WHERE %s
+            AND segments.date BETWEEN '%s' AND '%s'
+            ORDER BY segments.date ASC, metrics.conversions DESC
+        """, isActive, startDate, endDate);
+    }
+
+    private static String totalPerDayQuery(String startDate, String endDate) {
+        return String.format("""
+            SELECT
+              segments.date,
+              metrics.impressions,
+              metrics.clicks,
+              metrics.conversions,
+              metrics.cost_micros,
+              segments.hour,
+              segments.day_of_week
+            FROM customer
+            WHERE segments.date BETWEEN '%s' AND '%s'
+            ORDER BY segments.date ASC, metrics.conversions DESC
+        """, startDate, endDate);
+    }
+
+    private static String keywordMetricsQuery(String startDate, String endDate, boolean active) {
+        final String isActive = active ? "metrics.impressions > '0'" : "metrics.impressions >= '0'";
+        return String.format("""
+           SELECT
+               segments.date,
+               segments.day_of_week,
+               campaign.name,
+               ad_group.name,
+               campaign.advertising_channel_type,
+               ad_group_criterion.keyword.text,
+               ad_group_criterion.keyword.match_type,
+               metrics.impressions,
+               metrics.clicks,
+               metrics.cost_micros,
+               metrics.average_cpc,
+               metrics.conversions,
+               metrics.conversions_from_interactions_rate
+           FROM keyword_view
+           WHERE segments.date >= '%s' AND segments.date <= '%s'
+           AND %s
+           AND ad_group_criterion.status != 'REMOVED'
+           ORDER BY segments.date ASC, metrics.conversions DESC
+        """, startDate, endDate, isActive);
+    }
 }
@@ -0,0 +1,445 @@
+package com.ads.report.infrastructure.gateway.ads;
+
+import com.ads.report.application.exception.GoogleAdsException;
+import com.ads.report.application.gateway.ads.GoogleAdsGateway;
+import com.ads.report.domain.account.AccountMetrics;
+import com.ads.report.domain.campaign.CampaignKeywordMetrics;
+import com.ads.report.domain.campaign.CampaignMetrics;
+import com.ads.report.domain.campaign.CampaignPerDay;
+import com.ads.report.domain.campaign.CampaignTitleAndDescription;
+import com.ads.report.domain.columnar.MetricTable;
+import com.ads.report.domain.columnar.RollupDimension;
+import com.ads.report.domain.manager.ManagerAccountInfo;
+import com.ads.report.domain.manager.ManagerClient;
+import com.ads.report.infrastructure.gateway.redis.RedisDaySegmentStore;
+import com.ads.report.infrastructure.gateway.redis.ReportCodecs;
+import com.ads.report.infrastructure.gateway.redis.ReportRowCodec;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ *
+ * The day segmented decorator of the Google Ads gateway.
+ *
+ * <p>The rows of the closed days, the ones Google Ads does not change anymore, are kept in Redis as one
+ * segment per principal, report type, customer id, active flag and day. A report is then served from the
+ * segments it already has, and Google Ads is only queried for the missing days and the still mutable ones.
+ * Those days are coalesced into contiguous ranges, and two ranges separated by only a few cached days
+ * are fetched as one, so a 'last 30 days' report asked on the next day costs a single query of the
+ * mutable days.<p/>
+ *
+ * <p>The account metrics are aggregated over the whole period, so they are not segmented and go straight
+ * to the delegate, like the columnar tables. The rows are kept in date order, as the delegate returns them.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class SegmentedGoogleAdsGateway implements GoogleAdsGateway {
+
+    private final GoogleAdsGateway delegate;
+    private final RedisDaySegmentStore store;
+    private final Duration segmentTimeToLive;
+    private final int mutableDays;
+    private final int maxGapDays;
+    private final int maxRowsPerDay;
+    private final Clock clock;
+
+    /**
+     *
+     * The constructor receives the gateway to decorate and the segment policy.
+     *
+     * @param delegate The gateway that queries Google Ads.
+     * @param store The Redis store of the day segments.
+     * @param segmentTimeToLive The time to live of a segment.
+     * @param mutableDays How many days, counting today, Google Ads may still change.
+     * @param maxGapDays The most cached days between two missing ranges that are still fetched as one.
+     * @param maxRowsPerDay The maximum of rows of a day that is kept as a segment.
+     * @param clock The clock that tells today.
+     */
+    public SegmentedGoogleAdsGateway(GoogleAdsGateway delegate,
+                                     RedisDaySegmentStore store,
+                                     Duration segmentTimeToLive,
+                                     int mutableDays,
+                                     int maxGapDays,
+                                     int maxRowsPerDay,
+                                     Clock clock) {
+        this.delegate = delegate;
+        this.store = store;
+        this.segmentTimeToLive = segmentTimeToLive;
+        this.mutableDays = mutableDays;
+        this.maxGapDays = maxGapDays;
+        this.maxRowsPerDay = maxRowsPerDay;
+        this.clock = clock;
+    }
+
+    @Override
+    public List<String> testConnection() throws GoogleAdsException {
+        return delegate.testConnection();
+    }
+
+    @Override
+    public ManagerAccountInfo getManagerAccount(String managerAccountId) throws GoogleAdsException {
+        return delegate.getManagerAccount(managerAccountId);
+    }
+
+    @Override
+    public List<ManagerClient> getManagerClients(String managerAccountId) {
+        return delegate.getManagerClients(managerAccountId);
+    }
+
+    @Override
+    public <T> T throughManager(String managerAccountId, Supplier<T> calls) {
+        return delegate.throughManager(managerAccountId, calls);
+    }
+
+    @Override
+    public List<AccountMetrics> getAccountMetrics(String customerId, String startDate, String endDate) {
+        return delegate.getAccountMetrics(customerId, startDate, endDate);
+    }
+
+    @Override
+    public List<CampaignMetrics> getCampaignMetrics(String customerId, String startDate, String endDate, boolean active) {
+        final List<CampaignMetrics> rows = new ArrayList<>();
+        streamCampaignMetrics(customerId, startDate, endDate, active, rows::add);
+        return rows;
+    }
+
+    @Override
+    public List<CampaignPerDay> getTotalPerDay(String customerId, String startDate, String endDate) {
+        final List<CampaignPerDay> rows = new ArrayList<>();
+        streamTotalPerDay(customerId, startDate, endDate, rows::add);
+        return rows;
+    }
+
+    @Override
+    public List<CampaignKeywordMetrics> getKeywordMetrics(String customerId, String startDate, String endDate, boolean active) {
+        final List<CampaignKeywordMetrics> rows = new ArrayList<>();
+        streamKeywordMetrics(customerId, startDate, endDate, active, rows::add);
+        return rows;
+    }
+
+    @Override
+    public List<CampaignTitleAndDescription> getAdTitleAndDescriptions(String customerId, String startDate, String endDate) {
+        final List<CampaignTitleAndDescription> rows = new ArrayList<>();
+        streamAdTitleAndDescriptions(customerId, startDate, endDate, rows::add);
+        return rows;
+    }
+
+    @Override
+    public void streamCampaignMetrics(String customerId, String startDate, String endDate, boolean active, Consumer<CampaignMetrics> consumer) {
+        segmented("campaign:" + customerId + ":" + active, startDate, endDate, ReportCodecs.CAMPAIGN_METRICS,
+            CampaignMetrics::getDate, (s, e, c) -> delegate.streamCampaignMetrics(customerId, s, e, active, c), consumer);
+    }
+
+    @Override
+    public void streamTotalPerDay(String customerId, String startDate, String endDate, Consumer<CampaignPerDay> consumer) {
+        segmented("perDay:" + customerId + ":false", startDate, endDate, ReportCodecs.TOTAL_PER_DAY,
+            CampaignPerDay::getDate, (s, e, c) -> delegate.streamTotalPerDay(customerId, s, e, c), consumer);
+    }
+
+    @Override
+    public void streamKeywordMetrics(String customerId, String startDate, String endDate, boolean active, Consumer<CampaignKeywordMetrics> consumer) {
+        segmented("keyword:" + customerId + ":" + active, startDate, endDate, ReportCodecs.KEYWORD_METRICS,
+            CampaignKeywordMetrics::getDate, (s, e, c) -> delegate.streamKeywordMetrics(customerId, s, e, active, c), consumer);
+    }
+
+    @Override
+    public void streamAdTitleAndDescriptions(String customerId, String startDate, String endDate, Consumer<CampaignTitleAndDescription> consumer) {
+        segmented("ad:" + customerId + ":false", startDate, endDate, ReportCodecs.TITLE_AND_DESCRIPTION,
+            CampaignTitleAndDescription::getDate, (s, e, c) -> delegate.streamAdTitleAndDescriptions(customerId, s, e, c), consumer);
+    }
+
+    @Override
+    public MetricTable getCampaignMetricsTable(String customerId, String startDate, String endDate, boolean active) {
+        return delegate.getCampaignMetricsTable(customerId, startDate, endDate, active);
+    }
+
+    @Override
+    public MetricTable getTotalPerDayTable(String customerId, String startDate, String endDate) {
+        return delegate.getTotalPerDayTable(customerId, startDate, endDate);
+    }
+
+    @Override
+    public MetricTable getKeywordMetricsTable(String customerId, String startDate, String endDate, boolean active) {
+        return delegate.getKeywordMetricsTable(customerId, startDate, endDate, active);
+    }
+
+    @Override
+    public MetricTable getCampaignRollupTable(String customerId, String startDate, String endDate, boolean active, RollupDimension groupBy) {
+        return delegate.getCampaignRollupTable(customerId, startDate, endDate, active, groupBy);
+    }
+
+    @Override
+    public MetricTable getKeywordRollupTable(String customerId, String startDate, String endDate, boolean active, RollupDimension groupBy) {
+        return delegate.getKeywordRollupTable(customerId, startDate, endDate, active, groupBy);
+    }
+
+    /**
+     *
+     * Streams a report from the cached day segments, and from Google Ads for the other days.
+     *
+     * @param report The report type, customer id and active flag part of the segment keys.
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param codec The codec of the row type.
+     * @param dateOf The date of a row.
+     * @param fetch The stream of a range of days from Google Ads.
+     * @param consumer The consumer of the rows.
+     */
+    private <T> void segmented(String report,
+                               String startDate,
+                               String endDate,
+                               ReportRowCodec<T> codec,
+                               Function<T, String> dateOf,
+                               RangeStream<T> fetch,
+                               Consumer<T> consumer) {
+        final String principal = principal();
+        final LocalDate start;
+        final LocalDate end;
+        try {
+            start = LocalDate.parse(startDate);
+            end = LocalDate.parse(endDate);
+        } catch (DateTimeParseException e) {
+            // The delegate reports the invalid period.
+            fetch.stream(startDate, endDate, consumer);
+            return;
+        }
+        final LocalDate lastClosedDay = LocalDate.now(clock).minusDays(mutableDays);
+        final LocalDate closedEnd = end.isBefore(lastClosedDay) ? end : lastClosedDay;
+        if (principal == null || closedEnd.isBefore(start)) {
+            fetch.stream(startDate, endDate, consumer);
+            return;
+        }
+        // Reading every closed day of the period at once.
+        final String prefix = principal + ":" + report + ":";
+        final int closedCount = (int) ChronoUnit.DAYS.between(start, closedEnd) + 1;
+        final List<String> keys = new ArrayList<>(closedCount);
+        for (int i = 0; i < closedCount; i++) keys.add(prefix + start.plusDays(i));
+        final List<byte[]> payloads = store.getAll(keys);
+        final List<List<T>> cached = new ArrayList<>(closedCount);
+        for (byte[] payload : payloads) cached.add(decode(payload, codec));
+        // Serving each cached day, and fetching each coalesced range of the other days.
+        for (DayRange range : plan(start, end, cached)) {
+            if (range.cached()) {
+                for (int i = range.fromIndex(start); i <= range.toIndex(start); i++) cached.get(i).forEach(consumer);
+            } else {
+                final SegmentTee<T> tee = new SegmentTee<>(prefix, range.from(), closedEnd, codec, dateOf);
+                fetch.stream(range.from().toString(), range.to().toString(), row -> {
+                    tee.accept(row);
+                    consumer.accept(row);
+                });
+                store.putAll(tee.segments(range.to()));
+            }
+        }
+    }
+
+    /**
+     *
+     * Splits the period in the ranges served from the segments and the ranges fetched from Google Ads.
+     *
+     * <p>The missing days are grouped into contiguous ranges, and two of them are merged when only a few
+     * cached days lie in between, since one query costs more than fetching a couple of days again.<p/>
+     *
+     * @param start The start date of the analysis period.
+     * @param end The end date of the analysis period.
+     * @param cached The cached rows of each closed day, or null when missing.
+     *
+     * @return The ranges, in date order.
+     */
+    private <T> List<DayRange> plan(LocalDate start, LocalDate end, List<List<T>> cached) {
+        // Grouping the missing days, the mutable ones included, into contiguous ranges.
+        final List<DayRange> missing = new ArrayList<>();
+        final int days = (int) ChronoUnit.DAYS.between(start, end) + 1;
+        for (int i = 0; i < days; i++) {
+            if (i < cached.size() && cached.get(i) != null) continue;
+            final LocalDate day = start.plusDays(i);
+            final DayRange last = missing.isEmpty() ? null : missing.getLast();
+            if (last != null && ChronoUnit.DAYS.between(last.to(), day) - 1 <= maxGapDays) {
+                missing.set(missing.size() - 1, new DayRange(last.from(), day, false));
+            } else {
+                missing.add(new DayRange(day, day, false));
+            }
+        }
+        // Filling the holes between the fetched ranges with the cached ones.
+        final List<DayRange> plan = new ArrayList<>();
+        LocalDate next = start;
+        for (DayRange range : missing) {
+            if (next.isBefore(range.from())) plan.add(new DayRange(next, range.from().minusDays(1), true));
+            plan.add(range);
+            next = range.to().plusDays(1);
+        }
+        if (!next.isAfter(end)) plan.add(new DayRange(next, end, true));
+        return plan;
+    }
+
+    /**
+     *
+     * Decodes a segment payload.
+     *
+     * @return The rows, or null when the segment is missing or cannot be decoded.
+     */
+    private static <T> List<T> decode(byte[] payload, ReportRowCodec<T> codec) {
+        if (payload == null) return null;
+        try {
+            return ReportCodecs.decode(payload, codec);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     *
+     * Gets the name of the current principal, the namespace of the segments.
+     *
+     * @return The name, or null when there is no authenticated principal.
+     */
+    private static String principal() {
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? null : authentication.getName();
+    }
+
+    /**
+     *
+     * The stream of a range of days from Google Ads.
+     *
+     */
+    @FunctionalInterface
+    private interface RangeStream<T> {
+        void stream(String startDate, String endDate, Consumer<T> consumer);
+    }
+
+    /**
+     *
+     * A range of days of the period, either served from the segments or fetched from Google Ads.
+     *
+     * @param from The first day of the range.
+     * @param to The last day of the range.
+     * @param cached Whether every day of the range has a segment.
+     */
+    private record DayRange(LocalDate from, LocalDate to, boolean cached) {
+
+        int fromIndex(LocalDate start) {
+            return (int) ChronoUnit.DAYS.between(start, from);
+        }
+
+        int toIndex(LocalDate start) {
+            return (int) ChronoUnit.DAYS.between(start, to);
+        }
+    }
+
+    /**
+     *
+     * The copy of the fetched rows that becomes the segments of the closed days.
+     *
+     * <p>Only one day of rows is held at a time: when the date changes, the finished day is encoded.
+     * A day seen again after another one, or with too many rows, is not kept as a segment, and a
+     * closed day without rows is kept as an empty segment, so it is not fetched again.<p/>
+     *
+     */
+    private final class SegmentTee<T> implements Consumer<T> {
+
+        private final String prefix;
+        private final LocalDate from;
+        private final LocalDate closedEnd;
+        private final ReportRowCodec<T> codec;
+        private final Function<T, String> dateOf;
+        private final Map<LocalDate, byte[]> encoded = new LinkedHashMap<>();
+        private final Set<LocalDate> skipped = new HashSet<>();
+        private List<T> current = new ArrayList<>();
+        private String currentDate;
+        private LocalDate currentDay;
+
+        SegmentTee(String prefix, LocalDate from, LocalDate closedEnd, ReportRowCodec<T> codec, Function<T, String> dateOf) {
+            this.prefix = prefix;
+            this.from = from;
+            this.closedEnd = closedEnd;
+            this.codec = codec;
+            this.dateOf = dateOf;
+        }
+
+        @Override
+        public void accept(T row) {
+            final String date = dateOf.apply(row);
+            if (!Objects.equals(date, currentDate)) {
+                finishDay();
+                currentDate = date;
+                currentDay = parse(date);
+                // A day seen before is out of order, so its segment would be incomplete.
+                if (currentDay != null && (encoded.remove(currentDay) != null || !keepable(currentDay))) skipped.add(currentDay);
+            }
+            if (currentDay == null || skipped.contains(currentDay)) return;
+            if (current.size() < maxRowsPerDay) {
+                current.add(row);
+            } else {
+                skipped.add(currentDay);
+                current = new ArrayList<>();
+            }
+        }
+
+        /**
+         *
+         * Builds the segments of the closed days of the fetched range.
+         *
+         * @param to The last day of the fetched range.
+         *
+         * @return The segments to store.
+         */
+        List<RedisDaySegmentStore.Segment> segments(LocalDate to) {
+            finishDay();
+            final LocalDate last = to.isBefore(closedEnd) ? to : closedEnd;
+            final List<RedisDaySegmentStore.Segment> segments = new ArrayList<>();
+            for (LocalDate day = from; !day.isAfter(last); day = day.plusDays(1)) {
+                if (skipped.contains(day)) continue;
+                final byte[] payload = encoded.containsKey(day) ? encoded.get(day) : encode(List.of());
+                if (payload != null) segments.add(new RedisDaySegmentStore.Segment(prefix + day, payload, segmentTimeToLive));
+            }
+            return segments;
+        }
+
+        private void finishDay() {
+            if (currentDay != null && !skipped.contains(currentDay)) {
+                final byte[] payload = encode(current);
+                if (payload != null) encoded.put(currentDay, payload); else skipped.add(currentDay);
+            }
+            current = new ArrayList<>();
+        }
+
+        private boolean keepable(LocalDate day) {
+            return !day.isBefore(from) && !day.isAfter(closedEnd);
+        }
+
+        private byte[] encode(List<T> rows) {
+            try {
+                return ReportCodecs.encode(rows, codec);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+
+        private static LocalDate parse(String date) {
+            if (date == null) return null;
+            try {
+                return LocalDate.parse(date);
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.ads.report.infrastructure.gateway.ads;
+
+import com.ads.report.application.exception.GoogleAdsException;
+import com.ads.report.application.gateway.ads.GoogleAdsGateway;
+import com.ads.report.domain.account.AccountMetrics;
+import com.ads.report.domain.campaign.CampaignKeywordMetrics;
+import com.ads.report.domain.campaign.CampaignMetrics;
+import com.ads.report.domain.campaign.CampaignPerDay;
+import com.ads.report.domain.campaign.CampaignTitleAndDescription;
+import com.ads.report.domain.columnar.MetricTable;
+import com.ads.report.domain.columnar.RollupDimension;
+import com.ads.report.domain.manager.ManagerAccountInfo;
+import com.ads.report.domain.manager.ManagerClient;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ *
+ * The date sharding decorator of the Google Ads gateway.
+ *
+ * <p>A long period is split into shards of consecutive days, that are queried concurrently on the given
+ * executor and merged back in date order, so a one year report is not a single query running for minutes.
+ * Every query to the delegate holds a permit of a global limit, shared by all the requests. The shards
+ * fetched run at most that many ahead of the consumer, so a long period streamed to a slow consumer is
+ * not held whole in memory.<p/>
+ *
+ * <p>The shard size adapts to each customer and report: the rows per day seen in the previous queries
+ * give the days that fit the target rows of a shard, within the minimum and maximum shard sizes. A
+ * customer not seen yet gets the default shard size.<p/>
+ *
+ * <p>The account metrics are aggregated over the whole period, so they are never sharded.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class ShardedGoogleAdsGateway implements GoogleAdsGateway {
+
+    // The weight of the last query in the rows per day estimate.
+    private static final double SMOOTHING = 0.5;
+    // Past this many estimates, the oldest customers are forgotten.
+    private static final int MAX_ESTIMATES = 10_000;
+
+    private final GoogleAdsGateway delegate;
+    private final Executor executor;
+    private final Semaphore permits;
+    private final int concurrency;
+    private final int defaultShardDays;
+    private final int minShardDays;
+    private final int maxShardDays;
+    private final int targetRowsPerShard;
+    private final Map<String, Double> rowsPerDay = new ConcurrentHashMap<>();
+
+    /**
+     *
+     * The constructor receives the gateway to decorate and the sharding policy.
+     *
+     * @param delegate The gateway that queries Google Ads.
+     * @param executor The executor that runs the shards, propagating the caller's context.
+     * @param concurrency The maximum of simultaneous queries to Google Ads, across all requests.
+     * @param defaultShardDays The shard size of a customer not seen yet, like 7 for weeks or 31 for months.
+     * @param minShardDays The minimum shard size.
+     * @param maxShardDays The maximum shard size.
+     * @param targetRowsPerShard The rows a shard should have.
+     */
+    public ShardedGoogleAdsGateway(GoogleAdsGateway delegate,
+                                   Executor executor,
+                                   int concurrency,
+                                   int defaultShardDays,
+                                   int minShardDays,
+                                   int maxShardDays,
+                                   int targetRowsPerShard) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.permits = new Semaphore(concurrency, true);
+        this.concurrency = concurrency;
+        this.defaultShardDays = defaultShardDays;
+        this.minShardDays = minShardDays;
+        this.maxShardDays = maxShardDays;
+        this.targetRowsPerShard = targetRowsPerShard;
+    }
+
+    @Override
+    public List<String> testConnection() throws GoogleAdsException {
+        return delegate.testConnection();
+    }
+
+    @Override
+    public ManagerAccountInfo getManagerAccount(String managerAccountId) throws GoogleAdsException {
+        return delegate.getManagerAccount(managerAccountId);
+    }
+
+    @Override
+    public List<ManagerClient> getManagerClients(String managerAccountId) {
+        final List<ManagerClient> clients = new ArrayList<>();
+        withPermit(() -> clients.addAll(delegate.getManagerClients(managerAccountId)));
+        return clients;
+    }
+
+    @Override
+    public <T> T throughManager(String managerAccountId, Supplier<T> calls) {
+        return delegate.throughManager(managerAccountId, calls);
+    }
+
+    @Override
+    public List<AccountMetrics> getAccountMetrics(String customerId, String startDate, String endDate) {
+        final List<AccountMetrics> rows = new ArrayList<>();
+        withPermit(() -> rows.addAll(delegate.getAccountMetrics(customerId, startDate, endDate)));
+        return rows;
+    }
+
+    @Override
+    public List<CampaignMetrics> getCampaignMetrics(String customerId, String startDate, String endDate, boolean active) {
+        final List<CampaignMetrics> rows = new ArrayList<>();
+        streamCampaignMetrics(customerId, startDate, endDate, active, rows::add);
+        return rows;
+    }
+
+    @Override
+    public List<CampaignPerDay> getTotalPerDay(String customerId, String startDate, String endDate) {
+        final List<CampaignPerDay> rows = new ArrayList<>();
+        streamTotalPerDay(customerId, startDate, endDate, rows::add);
+        return rows;
+    }
+
+    @Override
+    public List<CampaignKeywordMetrics> getKeywordMetrics(String customerId, String startDate, String endDate, boolean active) {
+        final List<CampaignKeywordMetrics> rows = new ArrayList<>();
+        streamKeywordMetrics(customerId, startDate, endDate, active, rows::add);
+        return rows;
+    }
+
+    @Override
+    public List<CampaignTitleAndDescription> getAdTitleAndDescriptions(String customerId, String startDate, String endDate) {
+        final List<CampaignTitleAndDescription> rows = new ArrayList<>();
+        streamAdTitleAndDescriptions(customerId, startDate, endDate, rows::add);
+        return rows;
+    }
+
+    @Override
+    public void streamCampaignMetrics(String customerId, String startDate, String endDate, boolean active, Consumer<CampaignMetrics> consumer) {
+        sharded("campaign:" + customerId, startDate, endDate,
+            (s, e, c) -> delegate.streamCampaignMetrics(customerId, s, e, active, c), consumer);
+    }
+
+    @Override
+    public void streamTotalPerDay(String customerId, String startDate, String endDate, Consumer<CampaignPerDay> consumer) {
+        sharded("perDay:" + customerId, startDate, endDate,
+            (s, e, c) -> delegate.streamTotalPerDay(customerId, s, e, c), consumer);
+    }
+
+    @Override
+    public void streamKeywordMetrics(String customerId, String startDate, String endDate, boolean active, Consumer<CampaignKeywordMetrics> consumer) {
+        sharded("keyword:" + customerId, startDate, endDate,
+            (s, e, c) -> delegate.streamKeywordMetrics(customerId, s, e, active, c), consumer);
+    }
+
+    @Override
+    public void streamAdTitleAndDescriptions(String customerId, String startDate, String endDate, Consumer<CampaignTitleAndDescription> consumer) {
+        sharded("ad:" + customerId, startDate, endDate,
+            (s, e, c) -> delegate.streamAdTitleAndDescriptions(customerId, s, e, c), consumer);
+    }
+
+    @Override
+    public MetricTable getCampaignMetricsTable(String customerId, String startDate, String endDate, boolean active) {
+        final MetricTable[] table = new MetricTable[1];
+        withPermit(() -> table[0] = delegate.getCampaignMetricsTable(customerId, startDate, endDate, active));
+        return table[0];
+    }
+
+    @Override
+    public MetricTable getTotalPerDayTable(String customerId, String startDate, String endDate) {
+        final MetricTable[] table = new MetricTable[1];
+        withPermit(() -> table[0] = delegate.getTotalPerDayTable(customerId, startDate, endDate));
+        return table[0];
+    }
+
+    @Override
+    public MetricTable getKeywordMetricsTable(String customerId, String startDate, String endDate, boolean active) {
+        final MetricTable[] table = new MetricTable[1];
+        withPermit(() -> table[0] = delegate.getKeywordMetricsTable(customerId, startDate, endDate, active));
+        return table[0];
+    }
+
+    @Override
+    public MetricTable getCampaignRollupTable(String customerId, String startDate, String endDate, boolean active, RollupDimension groupBy) {
+        final MetricTable[] table = new MetricTable[1];
+        withPermit(() -> table[0] = delegate.getCampaignRollupTable(customerId, startDate, endDate, active, groupBy));
+        return table[0];
+    }
+
+    @Override
+    public MetricTable getKeywordRollupTable(String customerId, String startDate, String endDate, boolean active, RollupDimension groupBy) {
+        final MetricTable[] table = new MetricTable[1];
+        withPermit(() -> table[0] = delegate.getKeywordRollupTable(customerId, startDate, endDate, active, groupBy));
+        return table[0];
+    }
+
+    /**
+     *
+     * Streams a report, splitting its period in shards queried concurrently when it is long enough.
+     *
+     * @param estimateKey The report type and customer id of the rows per day estimate.
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     * @param fetch The stream of a range of days from Google Ads.
+     * @param consumer The consumer of the rows, in date order.
+     */
+    private <T> void sharded(String estimateKey,
+                             String startDate,
+                             String endDate,
+                             RangeStream<T> fetch,
+                             Consumer<T> consumer) {
+        final List<LocalDate[]> shards = plan(estimateKey, startDate, endDate);
+        if (shards.size() <= 1) {
+            // Too short to split, so it is queried on the caller's thread.
+            final long[] count = {0};
+            withPermit(() -> fetch.stream(startDate, endDate, row -> {
+                count[0]++;
+                consumer.accept(row);
+            }));
+            if (shards.size() == 1) observe(estimateKey, shards.getFirst(), count[0]);
+            return;
+        }
+        // Submitting the first shards, each one waiting for its own permit.
+        final List<CompletableFuture<List<T>>> results = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) results.add(null);
+        for (int i = 0; i < Math.min(concurrency, shards.size()); i++) results.set(i, fetchShard(estimateKey, shards.get(i), fetch));
+        // Merging the shards in date order, releasing each one once it is consumed, and only then fetching the next one.
+        for (int i = 0; i < results.size(); i++) {
+            final List<T> rows;
+            try {
+                rows = results.get(i).join();
+            } catch (CompletionException e) {
+                results.stream().filter(Objects::nonNull).forEach(r -> r.cancel(false));
+                if (e.getCause() instanceof RuntimeException cause) throw cause;
+                throw new GoogleAdsException("Error searching a shard of the period: " + e.getMessage());
+            }
+            results.set(i, null);
+            rows.forEach(consumer);
+            final int next = i + concurrency;
+            if (next < shards.size()) results.set(next, fetchShard(estimateKey, shards.get(next), fetch));
+        }
+    }
+
+    /**
+     *
+     * Fetches the rows of one shard on the executor, holding a permit while it queries.
+     *
+     * @param estimateKey The report type and customer id of the rows per day estimate.
+     * @param shard The first and last day of the shard.
+     * @param fetch The stream of a range of days from Google Ads.
+     *
+     * @return The future of the rows of the shard.
+     */
+    private <T> CompletableFuture<List<T>> fetchShard(String estimateKey, LocalDate[] shard, RangeStream<T> fetch) {
+        return CompletableFuture.supplyAsync(() -> {
+            final List<T> rows = new ArrayList<>();
+            withPermit(() -> fetch.stream(shard[0].toString(), shard[1].toString(), rows::add));
+            observe(estimateKey, shard, rows.size());
+            return rows;
+        }, executor);
+    }
+
+    /**
+     *
+     * Splits a period in shards of the size that fits the estimated rows per day.
+     *
+     * @param estimateKey The report type and customer id of the rows per day estimate.
+     * @param startDate The start date of the analysis period.
+     * @param endDate The end date of the analysis period.
+     *
+     * @return The first and last day of each shard, in date order, or no shard when the period is invalid.
+     */
+    private List<LocalDate[]> plan(String estimateKey, String startDate, String endDate) {
+        final LocalDate start;
+        final LocalDate end;
+        try {
+            start = LocalDate.parse(startDate);
+            end = LocalDate.parse(endDate);
+        } catch (DateTimeParseException e) {
+            return List.of();
+        }
+        final List<LocalDate[]> shards = new ArrayList<>();
+        final int shardDays = shardDays(estimateKey);
+        for (LocalDate from = start; !from.isAfter(end); from = from.plusDays(shardDays)) {
+            final LocalDate to = from.plusDays(shardDays - 1L);
+            shards.add(new LocalDate[]{from, to.isAfter(end) ? end : to});
+        }
+        return shards;
+    }
+
+    /**
+     *
+     * Chooses the shard size of a customer report, from its estimated rows per day.
+     *
+     * @param estimateKey The report type and customer id of the estimate.
+     *
+     * @return The days of each shard.
+     */
+    private int shardDays(String estimateKey) {
+        final Double estimate = rowsPerDay.get(estimateKey);
+        if (estimate == null) return defaultShardDays;
+        final long days = estimate <= 0 ? maxShardDays : Math.round(targetRowsPerShard / estimate);
+        return (int) Math.max(minShardDays, Math.min(maxShardDays, days));
+    }
+
+    /**
+     *
+     * Updates the rows per day estimate of a customer report with the rows of a query.
+     *
+     * @param estimateKey The report type and customer id of the estimate.
+     * @param shard The first and last day queried.
+     * @param rows The rows the query returned.
+     */
+    private void observe(String estimateKey, LocalDate[] shard, long rows) {
+        if (rowsPerDay.size() >= MAX_ESTIMATES && !rowsPerDay.containsKey(estimateKey)) rowsPerDay.clear();
+        final double observed = (double) rows / (ChronoUnit.DAYS.between(shard[0], shard[1]) + 1);
+        rowsPerDay.merge(estimateKey, observed, (previous, last) -> SMOOTHING * last + (1 - SMOOTHING) * previous);
+    }
+
+    /**
+     *
+     * Runs a query to the delegate while holding a permit of the global limit.
+     *
+     * @param query The query to run.
+     */
+    private void withPermit(Runnable query) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GoogleAdsException("Interrupted while waiting for a Google Ads permit.");
+        }
+        try {
+            query.run();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     *
+     * The stream of a range of days from Google Ads.
+     *
+     */
+    @FunctionalInterface
+    private interface RangeStream<T> {
+        void stream(String startDate, String endDate, Consumer<T> consumer);
+    }
+}
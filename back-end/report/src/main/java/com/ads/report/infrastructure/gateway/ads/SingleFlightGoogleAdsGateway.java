@@ -0,0 +1,338 @@
+package com.ads.report.infrastructure.gateway.ads;
+
+import com.ads.report.application.exception.GoogleAdsException;
+import com.ads.report.application.gateway.ads.GoogleAdsGateway;
+import com.ads.report.application.gateway.metrics.MetricsSource;
+import com.ads.report.domain.account.AccountMetrics;
+import com.ads.report.domain.campaign.CampaignKeywordMetrics;
+import com.ads.report.domain.campaign.CampaignMetrics;
+import com.ads.report.domain.campaign.CampaignPerDay;
+import com.ads.report.domain.campaign.CampaignTitleAndDescription;
+import com.ads.report.domain.columnar.MetricTable;
+import com.ads.report.domain.columnar.RollupDimension;
+import com.ads.report.domain.manager.ManagerAccountInfo;
+import com.ads.report.domain.manager.ManagerClient;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ *
+ * The single-flight decorator of the Google Ads gateway.
+ *
+ * <p>Concurrent calls of the same report, customer id, date range and active flag share one query to
+ * Google Ads: the first call runs it with its own credentials, streaming its rows while a copy is kept,
+ * and the calls that arrive while it runs wait for that copy and replay it instead of querying again.
+ * Below the sharded gateway the date range is the one of a shard, so the identical shards of different
+ * requests share their queries too. The rows are the same for every user that can read the
+ * customer, so the key has no principal, but a waiting call only takes the shared rows after the access
+ * check of its own principal passes. The check runs with the credentials of the caller, and its answer
+ * is kept for a short time by principal and customer.<p/>
+ *
+ * <p>A call that fails the check, or waits for a query that fails, runs its own query, so an error is
+ * never shared. So does a call that waits for a query with more rows than the copy keeps. The columnar
+ * tables and the manager calls are passed through.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class SingleFlightGoogleAdsGateway implements GoogleAdsGateway, MetricsSource {
+
+    // Past this many principals and customers, the kept access checks are forgotten.
+    private static final int MAX_ACCESS = 10_000;
+
+    private final GoogleAdsGateway delegate;
+    private final Predicate<String> accessCheck;
+    private final Duration accessTimeToLive;
+    private final int maxSharedRows;
+    private final Clock clock;
+    private final Map<String, CompletableFuture<List<?>>> flights = new ConcurrentHashMap<>();
+    private final Map<String, Long> access = new ConcurrentHashMap<>();
+    private final AtomicLong leaders = new AtomicLong();
+    private final AtomicLong sharedCalls = new AtomicLong();
+    private final AtomicLong accessChecks = new AtomicLong();
+    private final AtomicLong deniedCalls = new AtomicLong();
+    private final AtomicLong ownCalls = new AtomicLong();
+
+    /**
+     *
+     * The constructor receives the gateway to decorate and the access check of the callers.
+     *
+     * @param delegate The gateway that queries Google Ads.
+     * @param accessCheck Tells if the current caller can read a customer id, with its own credentials.
+     * @param accessTimeToLive How long a passed access check is kept.
+     * @param maxSharedRows The maximum of rows of a query that is kept to share.
+     * @param clock The clock of the kept access checks.
+     */
+    public SingleFlightGoogleAdsGateway(GoogleAdsGateway delegate,
+                                        Predicate<String> accessCheck,
+                                        Duration accessTimeToLive,
+                                        int maxSharedRows,
+                                        Clock clock) {
+        this.delegate = delegate;
+        this.accessCheck = accessCheck;
+        this.accessTimeToLive = accessTimeToLive;
+        this.maxSharedRows = maxSharedRows;
+        this.clock = clock;
+    }
+
+    @Override
+    public List<String> testConnection() throws GoogleAdsException {
+        return delegate.testConnection();
+    }
+
+    @Override
+    public ManagerAccountInfo getManagerAccount(String managerAccountId) throws GoogleAdsException {
+        return delegate.getManagerAccount(managerAccountId);
+    }
+
+    @Override
+    public List<ManagerClient> getManagerClients(String managerAccountId) {
+        return delegate.getManagerClients(managerAccountId);
+    }
+
+    @Override
+    public <T> T throughManager(String managerAccountId, Supplier<T> calls) {
+        return delegate.throughManager(managerAccountId, calls);
+    }
+
+    @Override
+    public List<CampaignMetrics> getCampaignMetrics(String customerId, String startDate, String endDate, boolean active) {
+        return listed(key("campaign", customerId, startDate, endDate, active), customerId,
+            c -> delegate.getCampaignMetrics(customerId, startDate, endDate, active).forEach(c));
+    }
+
+    @Override
+    public List<AccountMetrics> getAccountMetrics(String customerId, String startDate, String endDate) {
+        return listed(key("account", customerId, startDate, endDate, false), customerId,
+            c -> delegate.getAccountMetrics(customerId, startDate, endDate).forEach(c));
+    }
+
+    @Override
+    public List<CampaignPerDay> getTotalPerDay(String customerId, String startDate, String endDate) {
+        return listed(key("perDay", customerId, startDate, endDate, false), customerId,
+            c -> delegate.getTotalPerDay(customerId, startDate, endDate).forEach(c));
+    }
+
+    @Override
+    public List<CampaignKeywordMetrics> getKeywordMetrics(String customerId, String startDate, String endDate, boolean active) {
+        return listed(key("keyword", customerId, startDate, endDate, active), customerId,
+            c -> delegate.getKeywordMetrics(customerId, startDate, endDate, active).forEach(c));
+    }
+
+    @Override
+    public List<CampaignTitleAndDescription> getAdTitleAndDescriptions(String customerId, String startDate, String endDate) {
+        return listed(key("ad", customerId, startDate, endDate, false), customerId,
+            c -> delegate.getAdTitleAndDescriptions(customerId, startDate, endDate).forEach(c));
+    }
+
+    @Override
+    public void streamCampaignMetrics(String customerId, String startDate, String endDate, boolean active, Consumer<CampaignMetrics> consumer) {
+        flown(key("campaign", customerId, startDate, endDate, active), customerId, consumer,
+            c -> delegate.streamCampaignMetrics(customerId, startDate, endDate, active, c));
+    }
+
+    @Override
+    public void streamTotalPerDay(String customerId, String startDate, String endDate, Consumer<CampaignPerDay> consumer) {
+        flown(key("perDay", customerId, startDate, endDate, false), customerId, consumer,
+            c -> delegate.streamTotalPerDay(customerId, startDate, endDate, c));
+    }
+
+    @Override
+    public void streamKeywordMetrics(String customerId, String startDate, String endDate, boolean active, Consumer<CampaignKeywordMetrics> consumer) {
+        flown(key("keyword", customerId, startDate, endDate, active), customerId, consumer,
+            c -> delegate.streamKeywordMetrics(customerId, startDate, endDate, active, c));
+    }
+
+    @Override
+    public void streamAdTitleAndDescriptions(String customerId, String startDate, String endDate, Consumer<CampaignTitleAndDescription> consumer) {
+        flown(key("ad", customerId, startDate, endDate, false), customerId, consumer,
+            c -> delegate.streamAdTitleAndDescriptions(customerId, startDate, endDate, c));
+    }
+
+    @Override
+    public MetricTable getCampaignMetricsTable(String customerId, String startDate, String endDate, boolean active) {
+        return delegate.getCampaignMetricsTable(customerId, startDate, endDate, active);
+    }
+
+    @Override
+    public MetricTable getTotalPerDayTable(String customerId, String startDate, String endDate) {
+        return delegate.getTotalPerDayTable(customerId, startDate, endDate);
+    }
+
+    @Override
+    public MetricTable getKeywordMetricsTable(String customerId, String startDate, String endDate, boolean active) {
+        return delegate.getKeywordMetricsTable(customerId, startDate, endDate, active);
+    }
+
+    @Override
+    public MetricTable getCampaignRollupTable(String customerId, String startDate, String endDate, boolean active, RollupDimension groupBy) {
+        return delegate.getCampaignRollupTable(customerId, startDate, endDate, active, groupBy);
+    }
+
+    @Override
+    public MetricTable getKeywordRollupTable(String customerId, String startDate, String endDate, boolean active, RollupDimension groupBy) {
+        return delegate.getKeywordRollupTable(customerId, startDate, endDate, active, groupBy);
+    }
+
+    @Override
+    public String metricsName() {
+        return "googleAdsSingleFlight";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        final Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("inFlight", flights.size());
+        metrics.put("leaders", leaders.get());
+        metrics.put("sharedCalls", sharedCalls.get());
+        metrics.put("accessChecks", accessChecks.get());
+        metrics.put("deniedCalls", deniedCalls.get());
+        metrics.put("ownCalls", ownCalls.get());
+        return metrics;
+    }
+
+    /**
+     *
+     * Gets a report as a list, from a query of its own or shared with the same query already running.
+     *
+     * @return The report rows, in a list of the caller.
+     */
+    private <T> List<T> listed(String key, String customerId, Consumer<Consumer<T>> fetch) {
+        final List<T> rows = new ArrayList<>();
+        flown(key, customerId, rows::add, fetch);
+        return rows;
+    }
+
+    /**
+     *
+     * Runs a query, or waits for the same query already running and replays its rows.
+     *
+     * @param key The key of the query.
+     * @param customerId The id of the customer queried.
+     * @param consumer The consumer of the rows.
+     * @param fetch The query to Google Ads, streaming to the consumer it receives.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> void flown(String key, String customerId, Consumer<T> consumer, Consumer<Consumer<T>> fetch) {
+        final String principal = principal();
+        // Without a principal there is no access to check, so nothing is shared.
+        if (principal == null) {
+            fetch.accept(consumer);
+            return;
+        }
+        final CompletableFuture<List<?>> flight = new CompletableFuture<>();
+        final CompletableFuture<List<?>> running = flights.putIfAbsent(key, flight);
+        if (running == null) {
+            lead(key, flight, principal, customerId, consumer, fetch);
+            return;
+        }
+        if (!allowed(principal, customerId)) {
+            deniedCalls.incrementAndGet();
+            fetch.accept(consumer);
+            return;
+        }
+        final List<T> rows;
+        try {
+            rows = (List<T>) running.join();
+        } catch (CompletionException | CancellationException e) {
+            // The query failed, or was too big to keep, so this call runs its own.
+            ownCalls.incrementAndGet();
+            fetch.accept(consumer);
+            return;
+        }
+        sharedCalls.incrementAndGet();
+        rows.forEach(consumer);
+    }
+
+    /**
+     *
+     * Runs the query of a flight, streaming its rows, and hands a copy of them to the calls waiting for it.
+     */
+    private <T> void lead(String key,
+                          CompletableFuture<List<?>> flight,
+                          String principal,
+                          String customerId,
+                          Consumer<T> consumer,
+                          Consumer<Consumer<T>> fetch) {
+        leaders.incrementAndGet();
+        final List<T> copy = new ArrayList<>();
+        final boolean[] overflow = {false};
+        try {
+            fetch.accept(row -> {
+                if (!overflow[0]) {
+                    if (copy.size() < maxSharedRows) {
+                        copy.add(row);
+                    } else {
+                        // Too big to keep, so the waiting calls run their own queries.
+                        overflow[0] = true;
+                        copy.clear();
+                    }
+                }
+                consumer.accept(row);
+            });
+            // The query itself proves the access of the caller.
+            grant(principal, customerId);
+            if (overflow[0]) {
+                flight.completeExceptionally(new GoogleAdsException("Too many rows to share the query."));
+            } else {
+                flight.complete(Collections.unmodifiableList(copy));
+            }
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    /**
+     *
+     * Tells if the principal can read the customer, from a kept check or from a new one.
+     *
+     * @return If the principal can read the customer.
+     */
+    private boolean allowed(String principal, String customerId) {
+        final Long expiresAt = access.get(principal + ":" + customerId);
+        if (expiresAt != null && expiresAt > clock.millis()) return true;
+        accessChecks.incrementAndGet();
+        final boolean allowed;
+        try {
+            allowed = accessCheck.test(customerId);
+        } catch (RuntimeException e) {
+            return false;
+        }
+        if (allowed) grant(principal, customerId);
+        return allowed;
+    }
+
+    private void grant(String principal, String customerId) {
+        if (access.size() >= MAX_ACCESS) access.clear();
+        access.put(principal + ":" + customerId, clock.millis() + accessTimeToLive.toMillis());
+    }
+
+    private static String key(String type, String customerId, String startDate, String endDate, boolean active) {
+        return type + ":" + customerId + ":" + startDate + ":" + endDate + ":" + active;
+    }
+
+    private static String principal() {
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? null : authentication.getName();
+    }
+}
@@ -0,0 +1,60 @@
+package com.ads.report.infrastructure.gateway.ads;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ *
+ * The LRU bounded string interner of a Google Ads fetch.
+ *
+ * <p>Each Google Ads row decodes its own copy of the date, campaign name and ad group name, that are
+ * the same few hundred values across millions of rows. Mapping the rows through the interner makes
+ * every domain object share one instance of each value, so the copies die young instead of being
+ * kept by the result lists until the report is written.<p/>
+ *
+ * <p>It is meant for one fetch, on one thread, and keeps the most recently used values only, so a
+ * column of high cardinality, like the keyword texts, does not grow it without limit.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public final class StringInterner {
+
+    private final Map<String, String> values;
+
+    /**
+     *
+     * @param maxEntries The maximum of distinct values kept, evicting the least recently used.
+     */
+    public StringInterner(int maxEntries) {
+        this.values = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     *
+     * Gets the shared instance of a value, keeping the given one when the value is new.
+     *
+     * @param value The value.
+     *
+     * @return The shared instance, or null for a null value.
+     */
+    public String intern(String value) {
+        if (value == null) return null;
+        final String shared = values.putIfAbsent(value, value);
+        return shared == null ? value : shared;
+    }
+
+    /**
+     *
+     * @return The number of values kept.
+     */
+    public int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,99 @@
+package com.ads.report.infrastructure.gateway.csv;
+
+import com.ads.report.domain.account.AccountMetrics;
+import com.ads.report.domain.campaign.CampaignKeywordMetrics;
+import com.ads.report.domain.campaign.CampaignMetrics;
+import com.ads.report.domain.campaign.CampaignPerDay;
+import com.ads.report.domain.campaign.CampaignTitleAndDescription;
+
+import java.util.List;
+
+/**
+ *
+ * The CSV column mappings of each domain type.
+ *
+ * <p>The columns follow the field order of each domain class, which is the order
+ * the exported files always had.<p/>
+ *
+ * <p>The whole numbers, like the ids, clicks and impressions, are written as integers, such as "10",
+ * where the files exported before had "10.0", or E-notation for the ids. The lists keep their former
+ * rendering, such as "[h1, h2]", and a missing value is an empty cell.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public final class CsvMappings {
+
+    public static final CsvColumns<AccountMetrics> ACCOUNT_METRICS = CsvColumns.<AccountMetrics>builder()
+        .column("customerId", AccountMetrics::getCustomerId)
+        .column("descriptiveName", AccountMetrics::getDescriptiveName)
+        .column("impressions", AccountMetrics::getImpressions)
+        .column("clicks", AccountMetrics::getClicks)
+        .column("cost", AccountMetrics::getCost)
+        .column("conversions", AccountMetrics::getConversions)
+        .column("ctr", AccountMetrics::getCtr)
+        .column("averageCpc", AccountMetrics::getAverageCpc)
+        .column("averageCpa", AccountMetrics::getAverageCpa)
+        .build();
+
+    public static final CsvColumns<CampaignMetrics> CAMPAIGN_METRICS = CsvColumns.<CampaignMetrics>builder()
+        .column("date", CampaignMetrics::getDate)
+        .column("dayOfWeek", CampaignMetrics::getDayOfWeek)
+        .column("campaignId", CampaignMetrics::getCampaignId)
+        .column("campaignName", CampaignMetrics::getCampaignName)
+        .column("adGroupName", CampaignMetrics::getAdGroupName)
+        .column("status", CampaignMetrics::getStatus)
+        .column("impressions", CampaignMetrics::getImpressions)
+        .column("clicks", CampaignMetrics::getClicks)
+        .column("cost", CampaignMetrics::getCost)
+        .column("conversions", CampaignMetrics::getConversions)
+        .column("ctr", CampaignMetrics::getCtr)
+        .column("averageCpc", CampaignMetrics::getAverageCpc)
+        .column("averageCpa", CampaignMetrics::getAverageCpa)
+        .build();
+
+    public static final CsvColumns<CampaignKeywordMetrics> KEYWORD_METRICS = CsvColumns.<CampaignKeywordMetrics>builder()
+        .column("date", CampaignKeywordMetrics::getDate)
+        .column("dayOfWeek", CampaignKeywordMetrics::getDayOfWeek)
+        .column("campaignName", CampaignKeywordMetrics::getCampaignName)
+        .column("advertisingChannelType", CampaignKeywordMetrics::getAdvertisingChannelType)
+        .column("adGroupName", CampaignKeywordMetrics::getAdGroupName)
+        .column("keywordText", CampaignKeywordMetrics::getKeywordText)
+        .column("matchType", CampaignKeywordMetrics::getMatchType)
+        .column("impressions", CampaignKeywordMetrics::getImpressions)
+        .column("clicks", CampaignKeywordMetrics::getClicks)
+        .column("cost", CampaignKeywordMetrics::getCost)
+        .column("averageCpc", CampaignKeywordMetrics::getAverageCpc)
+        .column("conversions", CampaignKeywordMetrics::getConversions)
+        .column("conversionRate", CampaignKeywordMetrics::getConversionRate)
+        .build();
+
+    public static final CsvColumns<CampaignPerDay> TOTAL_PER_DAY = CsvColumns.<CampaignPerDay>builder()
+        .column("date", CampaignPerDay::getDate)
+        .column("impressions", CampaignPerDay::getImpressions)
+        .column("clicks", CampaignPerDay::getClicks)
+        .column("conversions", CampaignPerDay::getConversions)
+        .column("cost", CampaignPerDay::getCost)
+        .column("hour", CampaignPerDay::getHour)
+        .column("dayOfWeek", CampaignPerDay::getDayOfWeek)
+        .build();
+
+    public static final CsvColumns<CampaignTitleAndDescription> TITLE_AND_DESCRIPTION = CsvColumns.<CampaignTitleAndDescription>builder()
+        .column("date", CampaignTitleAndDescription::getDate)
+        .column("campaignName", CampaignTitleAndDescription::getCampaignName)
+        .column("adName", CampaignTitleAndDescription::getAdName)
+        .column("responsiveHeadlines", t -> list(t.getResponsiveHeadlines()))
+        .column("responsiveDescriptions", t -> list(t.getResponsiveDescriptions()))
+        .column("clicks", CampaignTitleAndDescription::getClicks)
+        .column("impressions", CampaignTitleAndDescription::getImpressions)
+        .column("conversions", CampaignTitleAndDescription::getConversions)
+        .build();
+
+    private CsvMappings() {}
+
+    // The list as the exports always rendered it, like "[h1, h2]".
+    private static String list(List<String> values) {
+        return values != null ? values.toString() : "";
+    }
+}
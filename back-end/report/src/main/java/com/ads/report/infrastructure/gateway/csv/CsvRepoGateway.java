@@ -1,12 +1,19 @@
 package com.ads.report.infrastructure.gateway.csv;
 
 import com.ads.report.application.exception.CsvException;
+import com.ads.report.application.exception.GoogleAdsException;
 import com.ads.report.application.gateway.csv.CsvGateway;
+import com.ads.report.application.gateway.csv.RowSource;
+import com.ads.report.domain.account.AccountMetrics;
+import com.ads.report.domain.campaign.CampaignKeywordMetrics;
+import com.ads.report.domain.campaign.CampaignMetrics;
+import com.ads.report.domain.campaign.CampaignPerDay;
+import com.ads.report.domain.campaign.CampaignTitleAndDescription;
+import com.ads.report.domain.columnar.MetricTable;
 import com.opencsv.CSVWriter;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  *
@@ -18,31 +25,104 @@ import java.util.Map;
  * */
 public class CsvRepoGateway implements CsvGateway {
 
+    @Override
+    public HttpServletResponse accountMetricsToCsv(List<AccountMetrics> accountMetrics, HttpServletResponse response) throws CsvException {
+        return write(accountMetrics::forEach, CsvMappings.ACCOUNT_METRICS, response);
+    }
+
+    @Override
+    public HttpServletResponse campaignMetricsToCsv(List<CampaignMetrics> campaignMetrics, HttpServletResponse response) throws CsvException {
+        return write(campaignMetrics::forEach, CsvMappings.CAMPAIGN_METRICS, response);
+    }
+
+    @Override
+    public HttpServletResponse keywordMetricsToCsv(List<CampaignKeywordMetrics> campaignKeywordMetrics, HttpServletResponse response) throws CsvException {
+        return write(campaignKeywordMetrics::forEach, CsvMappings.KEYWORD_METRICS, response);
+    }
+
+    @Override
+    public HttpServletResponse totalPerDayToCsv(List<CampaignPerDay> campaignPerDays, HttpServletResponse response) throws CsvException {
+        return write(campaignPerDays::forEach, CsvMappings.TOTAL_PER_DAY, response);
+    }
+
+    @Override
+    public HttpServletResponse adTitleAndDescriptionToCsv(List<CampaignTitleAndDescription> campaignTitleAndDescriptions, HttpServletResponse response) throws CsvException {
+        return write(campaignTitleAndDescriptions::forEach, CsvMappings.TITLE_AND_DESCRIPTION, response);
+    }
+
+    @Override
+    public HttpServletResponse streamCampaignMetricsToCsv(RowSource<CampaignMetrics> campaignMetrics, HttpServletResponse response) throws CsvException {
+        return write(campaignMetrics, CsvMappings.CAMPAIGN_METRICS, response);
+    }
+
+    @Override
+    public HttpServletResponse streamKeywordMetricsToCsv(RowSource<CampaignKeywordMetrics> campaignKeywordMetrics, HttpServletResponse response) throws CsvException {
+        return write(campaignKeywordMetrics, CsvMappings.KEYWORD_METRICS, response);
+    }
+
+    @Override
+    public HttpServletResponse streamTotalPerDayToCsv(RowSource<CampaignPerDay> campaignPerDays, HttpServletResponse response) throws CsvException {
+        return write(campaignPerDays, CsvMappings.TOTAL_PER_DAY, response);
+    }
+
+    @Override
+    public HttpServletResponse streamAdTitleAndDescriptionToCsv(RowSource<CampaignTitleAndDescription> campaignTitleAndDescriptions, HttpServletResponse response) throws CsvException {
+        return write(campaignTitleAndDescriptions, CsvMappings.TITLE_AND_DESCRIPTION, response);
+    }
+
     /**
      *
-     * Method to convert from json to csv.
+     * Method to write a columnar table to csv.
      *
-     * <p>This method uses an algorithm and the CSVWriter library to convert from JSON to CSV, and write into response.<p/>
+     * <p>The cells are read straight from the primitive columns into the same row buffer, so no row object
+     * is built for the whole table.<p/>
      *
-     * @param records  The json object converte to raw type.
+     * @param table The table of metrics.
      * @param response The response object.
      *
-     * @throws CsvException if fails to parse Json to CSV.
+     * @throws CsvException if fails to write the CSV.
      */
     @Override
-    public HttpServletResponse fromJson(List<Map<String, Object>> records, HttpServletResponse response) throws CsvException {
+    public HttpServletResponse metricTableToCsv(MetricTable table, HttpServletResponse response) throws CsvException {
         try (CSVWriter writer = new CSVWriter(response.getWriter())) {
-            if (!records.isEmpty()) {
-                final String[] headers = records.getFirst().keySet().toArray(new String[0]);
-                writer.writeNext(headers);
-            }
-            for (Map<String, Object> record: records) {
-                final String[] data = record.values().stream().map(String::valueOf).toArray(String[]::new);
-                writer.writeNext(data);
+            final String[] row = new String[table.columnCount()];
+            for (int c = 0; c < row.length; c++) row[c] = table.name(c);
+            writer.writeNext(row);
+            for (int r = 0; r < table.size(); r++) {
+                for (int c = 0; c < row.length; c++) row[c] = table.text(c, r);
+                writer.writeNext(row);
             }
             return response;
         } catch (Exception e) {
             throw new CsvException("Error parsing to CSV: " + e.getMessage());
         }
     }
+
+    /**
+     *
+     * Method to write typed rows to csv.
+     *
+     * <p>Each row is written straight to the response writer through the precompiled column mapping
+     * of its type, reusing the same row buffer, with no intermediate representation. When the source
+     * is a stream, the rows reach the client while the source is still producing them.<p/>
+     *
+     * @param rows The source of the domain objects.
+     * @param columns The column mapping of the domain type.
+     * @param response The response object.
+     *
+     * @throws CsvException if fails to write the CSV.
+     */
+    private <T> HttpServletResponse write(RowSource<T> rows, CsvColumns<T> columns, HttpServletResponse response) throws CsvException {
+        try (CSVWriter writer = new CSVWriter(response.getWriter())) {
+            writer.writeNext(columns.headers());
+            final String[] row = new String[columns.size()];
+            rows.forEach(obj -> writer.writeNext(columns.row(obj, row)));
+            return response;
+        } catch (GoogleAdsException e) {
+            // The failures of the source are not csv failures.
+            throw e;
+        } catch (Exception e) {
+            throw new CsvException("Error parsing to CSV: " + e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,90 @@
+package com.ads.report.infrastructure.gateway.redis;
+
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ *
+ * The Redis store of the report day segments.
+ *
+ * <p>Each segment holds the rows of one report of one customer on one day, already encoded by
+ * ReportCodecs. The segments are read with one 'MGET' and written with one pipeline, whatever the
+ * number of days.<p/>
+ *
+ * <p>Like the report cache, the store is best effort: a failure to read is a miss, and a failure
+ * to write is ignored.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class RedisDaySegmentStore {
+
+    private static final String KEY_PREFIX = "report:day:";
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+
+    public RedisDaySegmentStore(RedisTemplate<String, byte[]> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     *
+     * Gets the payloads of the given segments.
+     *
+     * @param keys The keys of the segments.
+     *
+     * @return The payload of each key, in the same order, with null for the missing ones.
+     */
+    public List<byte[]> getAll(List<String> keys) {
+        if (keys.isEmpty()) return List.of();
+        try {
+            final List<byte[]> payloads = redisTemplate.opsForValue().multiGet(keys.stream().map(k -> KEY_PREFIX + k).toList());
+            if (payloads != null && payloads.size() == keys.size()) return payloads;
+        } catch (Exception e) {
+            // A store that cannot be read is a miss of every segment.
+        }
+        return new ArrayList<>(Collections.nCopies(keys.size(), null));
+    }
+
+    /**
+     *
+     * Writes the given segments, in a single pipeline.
+     *
+     * @param segments The segments.
+     */
+    public void putAll(List<Segment> segments) {
+        if (segments.isEmpty()) return;
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    final RedisOperations<String, byte[]> ops = (RedisOperations<String, byte[]>) operations;
+                    for (Segment segment : segments) {
+                        ops.opsForValue().set(KEY_PREFIX + segment.key(), segment.payload(), segment.timeToLive());
+                    }
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            // A segment that cannot be written is only fetched again.
+        }
+    }
+
+    /**
+     *
+     * One encoded day segment, with its time to live.
+     *
+     * @param key The key of the segment.
+     * @param payload The encoded rows.
+     * @param timeToLive How long the segment lives.
+     */
+    public record Segment(String key, byte[] payload, Duration timeToLive) {}
+}
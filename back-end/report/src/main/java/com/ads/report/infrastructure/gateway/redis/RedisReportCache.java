@@ -0,0 +1,64 @@
+package com.ads.report.infrastructure.gateway.redis;
+
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ *
+ * The Redis store of the cached report results.
+ *
+ * <p>The cache is best effort: a Redis failure, or a payload that cannot be decoded, is a cache
+ * miss, and never fails the report that is being served.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class RedisReportCache {
+
+    private static final String KEY_PREFIX = "report:cache:";
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+
+    public RedisReportCache(RedisTemplate<String, byte[]> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     *
+     * Gets the cached rows of a key.
+     *
+     * @param key The key of the report.
+     * @param codec The codec of the row type.
+     *
+     * @return The rows, or null on a miss.
+     */
+    public <T> List<T> get(String key, ReportRowCodec<T> codec) {
+        try {
+            final byte[] payload = redisTemplate.opsForValue().get(KEY_PREFIX + key);
+            return payload == null ? null : ReportCodecs.decode(payload, codec);
+        } catch (Exception e) {
+            // A cache that cannot be read is a miss.
+            return null;
+        }
+    }
+
+    /**
+     *
+     * Caches the rows of a key.
+     *
+     * @param key The key of the report.
+     * @param rows The rows.
+     * @param codec The codec of the row type.
+     * @param timeToLive How long the rows stay cached.
+     */
+    public <T> void put(String key, List<T> rows, ReportRowCodec<T> codec, Duration timeToLive) {
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + key, ReportCodecs.encode(rows, codec), timeToLive);
+        } catch (Exception e) {
+            // A cache that cannot be written only costs the next request a fetch.
+        }
+    }
+}
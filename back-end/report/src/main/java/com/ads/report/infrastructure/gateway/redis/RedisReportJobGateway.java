@@ -0,0 +1,63 @@
+package com.ads.report.infrastructure.gateway.redis;
+
+import com.ads.report.application.exception.ReportJobException;
+import com.ads.report.application.gateway.reports.ReportJobGateway;
+import com.ads.report.domain.reports.ReportJob;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * The Redis implementation of the report jobs storage.
+ *
+ * <p>This class saves each job as a Redis key with a time to live, so the job state is shared by
+ * all the application replicas, and expires by itself.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+public class RedisReportJobGateway implements ReportJobGateway {
+
+    private final RedisTemplate<String, ReportJob> redisTemplate;
+    private final Duration timeToLive;
+    private static final String REDIS_KEY_PREFIX = "report:job:";
+
+    public RedisReportJobGateway(RedisTemplate<String, ReportJob> redisTemplate, Duration timeToLive) {
+        this.redisTemplate = redisTemplate;
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * <p>Saves the job state on Redis, renewing its time to live.<p/>
+     *
+     * @param reportJob The job to save.
+     *
+     * @throws ReportJobException If fails to save the job.
+     */
+    @Override
+    public void save(ReportJob reportJob) throws ReportJobException {
+        try {
+            redisTemplate.opsForValue().set(REDIS_KEY_PREFIX + reportJob.getId(), reportJob, timeToLive);
+        } catch (Exception e) {
+            throw new ReportJobException("Could not save the report job: " + e.getMessage());
+        }
+    }
+
+    /**
+     * <p>Loads the job state from Redis.<p/>
+     *
+     * @param id The job id.
+     *
+     * @return The job, or null if it does not exist or has expired.
+     * @throws ReportJobException If fails to load the job.
+     */
+    @Override
+    public ReportJob findById(String id) throws ReportJobException {
+        try {
+            return redisTemplate.opsForValue().get(REDIS_KEY_PREFIX + id);
+        } catch (Exception e) {
+            throw new ReportJobException("Could not load the report job: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.ads.report.infrastructure.gateway.redis;
+
+import com.ads.report.application.exception.ReportJobException;
+import com.ads.report.application.gateway.reports.ReportScheduleGateway;
+import com.ads.report.domain.reports.ReportSchedule;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The Redis implementation of the report schedules storage.
+ *
+ * <p>Each schedule is a Redis key, listed by a set of their ids. The run of a schedule is claimed by
+ * setting a key of the schedule and the time of the run only if it is missing, so the first replica
+ * that claims it is the only one to run it. The runs are saved only while the key exists, so a schedule
+ * deleted during a run is not saved back.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+public class RedisReportScheduleGateway implements ReportScheduleGateway {
+
+    private final RedisTemplate<String, ReportSchedule> redisTemplate;
+    private final RedisTemplate<String, byte[]> claimTemplate;
+    private static final String REDIS_KEY_PREFIX = "report:schedule:";
+    private static final String REDIS_IDS_KEY = "report:schedules";
+    private static final String REDIS_CLAIM_PREFIX = "report:schedule:claim:";
+    // Long enough for every replica to have moved past the run claimed.
+    private static final Duration CLAIM_TTL = Duration.ofDays(1);
+    private static final byte[] CLAIMED = new byte[] {1};
+
+    public RedisReportScheduleGateway(RedisTemplate<String, ReportSchedule> redisTemplate,
+                                      RedisTemplate<String, byte[]> claimTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.claimTemplate = claimTemplate;
+    }
+
+    @Override
+    public void save(ReportSchedule reportSchedule) throws ReportJobException {
+        try {
+            redisTemplate.opsForValue().set(REDIS_KEY_PREFIX + reportSchedule.getId(), reportSchedule);
+            claimTemplate.opsForSet().add(REDIS_IDS_KEY, reportSchedule.getId().getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new ReportJobException("Could not save the report schedule: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean reschedule(ReportSchedule reportSchedule) throws ReportJobException {
+        try {
+            // SET XX, without adding the id to the set again.
+            final Boolean saved = redisTemplate.opsForValue().setIfPresent(REDIS_KEY_PREFIX + reportSchedule.getId(), reportSchedule);
+            return Boolean.TRUE.equals(saved);
+        } catch (Exception e) {
+            throw new ReportJobException("Could not save the report schedule: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public ReportSchedule findById(String id) throws ReportJobException {
+        try {
+            return redisTemplate.opsForValue().get(REDIS_KEY_PREFIX + id);
+        } catch (Exception e) {
+            throw new ReportJobException("Could not load the report schedule: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public List<ReportSchedule> findAll() throws ReportJobException {
+        try {
+            final Set<byte[]> ids = claimTemplate.opsForSet().members(REDIS_IDS_KEY);
+            if (ids == null || ids.isEmpty()) return List.of();
+            final List<String> keys = new ArrayList<>(ids.size());
+            for (byte[] id : ids) keys.add(REDIS_KEY_PREFIX + new String(id, StandardCharsets.UTF_8));
+            final List<ReportSchedule> schedules = redisTemplate.opsForValue().multiGet(keys);
+            return schedules == null ? List.of() : schedules.stream().filter(Objects::nonNull).toList();
+        } catch (Exception e) {
+            throw new ReportJobException("Could not load the report schedules: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void delete(String id) throws ReportJobException {
+        try {
+            claimTemplate.opsForSet().remove(REDIS_IDS_KEY, (Object) id.getBytes(StandardCharsets.UTF_8));
+            redisTemplate.delete(REDIS_KEY_PREFIX + id);
+        } catch (Exception e) {
+            throw new ReportJobException("Could not delete the report schedule: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean claim(String id, long runAt) {
+        try {
+            final Boolean claimed = claimTemplate.opsForValue()
+                .setIfAbsent(REDIS_CLAIM_PREFIX + id + ":" + runAt, CLAIMED, CLAIM_TTL);
+            return Boolean.TRUE.equals(claimed);
+        } catch (Exception e) {
+            // Without the claim the run waits for the next tick, instead of risking two replicas running it.
+            return false;
+        }
+    }
+}
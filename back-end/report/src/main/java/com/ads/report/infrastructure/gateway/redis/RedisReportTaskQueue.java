@@ -0,0 +1,314 @@
+package com.ads.report.infrastructure.gateway.redis;
+
+import com.ads.report.application.gateway.metrics.MetricsSource;
+import com.ads.report.application.gateway.reports.ReportTaskQueue;
+import com.ads.report.domain.reports.ReportTask;
+import com.ads.report.domain.reports.ReportTaskResult;
+import com.ads.report.infrastructure.exception.ForbiddenException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The Redis implementation of the queue of report tasks, on a stream with a consumer group.
+ *
+ * <p>Each task is an entry of the stream, read by the workers of every replica through the same group,
+ * so each new entry goes to one worker. An entry read and not acknowledged within the visibility timeout
+ * is claimed by the next worker that looks for tasks, and its deliveries count as attempts. The timed out
+ * entries are found with 'XAUTOCLAIM', whose cursor walks the whole pending list across the claims, so
+ * an entry behind many live ones is still reclaimed. A task that
+ * fails is added again to the end of the stream, and one that fails all of its attempts goes to the
+ * dead letter stream, trimmed to its last entries. The results go to a list per update, that the replica
+ * running the update pops.<p/>
+ *
+ * <p>An entry is deleted once it is acknowledged, so the stream only holds the tasks still to run, and
+ * not the owners of every task ever queued.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+public class RedisReportTaskQueue implements ReportTaskQueue, MetricsSource {
+
+    private static final String STREAM_KEY = "report:queue:tasks";
+    private static final String DEAD_LETTER_KEY = "report:queue:dead";
+    private static final String RESULT_KEY_PREFIX = "report:queue:result:";
+    private static final String GROUP = "report-workers";
+    private static final String TASK_FIELD = "task";
+    private static final Duration RESULT_TTL = Duration.ofDays(1);
+    private static final long DEAD_LETTER_MAX_LENGTH = 10_000;
+    // Claims the next entry idle past the timeout from the cursor, and reads its deliveries, this one included.
+    // The reply is the next cursor, then the id, the deliveries and the fields of the entry claimed, if any.
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> AUTO_CLAIM = new DefaultRedisScript<>("""
+        local claimed = redis.call('XAUTOCLAIM', KEYS[1], ARGV[1], ARGV[2], ARGV[3], ARGV[4], 'COUNT', 1)
+        local reply = {claimed[1]}
+        local entry = claimed[2][1]
+        if entry and entry[2] then
+            local pending = redis.call('XPENDING', KEYS[1], ARGV[1], entry[1], entry[1], 1)
+            table.insert(reply, entry[1])
+            table.insert(reply, pending[1][4])
+            for _, value in ipairs(entry[2]) do table.insert(reply, value) end
+        end
+        return reply
+        """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Duration visibilityTimeout;
+    private volatile boolean groupCreated;
+    private volatile String claimCursor = "0-0";
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong reclaimed = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+
+    public RedisReportTaskQueue(StringRedisTemplate redisTemplate, Duration visibilityTimeout) {
+        this.redisTemplate = redisTemplate;
+        this.visibilityTimeout = visibilityTimeout;
+    }
+
+    /**
+     * <p>Adds the tasks to the stream, each one with the authentication of the current user.<p/>
+     *
+     * @param tasks The tasks.
+     *
+     * @throws ForbiddenException If the current user is not authenticated on Google OAuth2.
+     */
+    @Override
+    public void enqueue(List<ReportTask> tasks) {
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!(authentication instanceof OAuth2AuthenticationToken oauthToken))
+            throw new ForbiddenException("User is not authenticated on Google OAuth2.");
+        createGroup();
+        for (ReportTask task : tasks) {
+            task.setOwner(oauthToken.getName());
+            task.setRegistrationId(oauthToken.getAuthorizedClientRegistrationId());
+            add(task);
+        }
+        enqueued.addAndGet(tasks.size());
+    }
+
+    @Override
+    public ReportTaskResult awaitResult(String batchId, Duration timeout) {
+        // A blocking pop of zero seconds waits forever, and shorter ones are rounded to it.
+        final Duration wait = timeout.compareTo(Duration.ofSeconds(1)) < 0 ? Duration.ofSeconds(1) : timeout;
+        final String result = redisTemplate.opsForList().leftPop(RESULT_KEY_PREFIX + batchId, wait);
+        if (result == null) return null;
+        try {
+            return objectMapper.readValue(result, ReportTaskResult.class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public ReportTask claim(String consumer, Duration block) {
+        createGroup();
+        try {
+            final ReportTask timedOut = claimTimedOut(consumer);
+            if (timedOut != null) return timedOut;
+            final List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(
+                Consumer.from(GROUP, consumer),
+                StreamReadOptions.empty().count(1).block(block),
+                StreamOffset.create(STREAM_KEY, ReadOffset.lastConsumed())
+            );
+            if (records == null || records.isEmpty()) return null;
+            return task(records.getFirst(), 1);
+        } catch (RuntimeException e) {
+            // A Redis that lost its data lost the group too, so it is created again on the next claim.
+            if (causedBy(e, "NOGROUP")) groupCreated = false;
+            throw e;
+        }
+    }
+
+    @Override
+    public void extend(List<ReportTask> tasks, String consumer) {
+        if (tasks.isEmpty()) return;
+        // Claiming the entries again, by their own worker, restarts their idle time.
+        final RecordId[] ids = tasks.stream().map(t -> RecordId.of(t.getReceipt())).toArray(RecordId[]::new);
+        redisTemplate.opsForStream().claim(STREAM_KEY, GROUP, consumer, Duration.ZERO, ids);
+    }
+
+    @Override
+    public void complete(ReportTask task, ReportTaskResult result) {
+        final String key = RESULT_KEY_PREFIX + task.getBatchId();
+        redisTemplate.opsForList().rightPush(key, json(result));
+        redisTemplate.expire(key, RESULT_TTL);
+        remove(task.getReceipt());
+        completed.incrementAndGet();
+    }
+
+    @Override
+    public void retry(ReportTask task) {
+        // Adding the task again before acknowledging it, so a failure between both repeats it instead of losing it.
+        add(task);
+        remove(task.getReceipt());
+        retried.incrementAndGet();
+    }
+
+    @Override
+    public void deadLetter(ReportTask task, String error) {
+        final Map<String, String> fields = new LinkedHashMap<>();
+        fields.put(TASK_FIELD, json(task));
+        fields.put("error", String.valueOf(error));
+        fields.put("failedAt", String.valueOf(System.currentTimeMillis()));
+        redisTemplate.opsForStream().add(
+            MapRecord.create(DEAD_LETTER_KEY, fields),
+            RedisStreamCommands.XAddOptions.maxlen(DEAD_LETTER_MAX_LENGTH).approximateTrimming(true)
+        );
+        deadLettered.incrementAndGet();
+    }
+
+    @Override
+    public String metricsName() {
+        return "reportTaskQueue";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        final Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enqueued", enqueued.get());
+        metrics.put("completed", completed.get());
+        metrics.put("retried", retried.get());
+        metrics.put("reclaimed", reclaimed.get());
+        metrics.put("deadLettered", deadLettered.get());
+        return metrics;
+    }
+
+    /**
+     *
+     * Claims the next entry read by a worker and left idle past the visibility timeout, from the cursor of the replica.
+     *
+     * @param consumer The name of the worker claiming it.
+     *
+     * @return The task, with the deliveries of the entry counted as attempts, or null if there is none.
+     */
+    private ReportTask claimTimedOut(String consumer) {
+        final List<?> reply = redisTemplate.execute(AUTO_CLAIM, List.of(STREAM_KEY),
+            GROUP, consumer, String.valueOf(visibilityTimeout.toMillis()), claimCursor);
+        if (reply == null || reply.isEmpty()) return null;
+        // Back at '0-0', the next claim scans the pending list from its start again.
+        claimCursor = String.valueOf(reply.getFirst());
+        if (reply.size() < 3) return null;
+        final Map<Object, Object> fields = new HashMap<>();
+        for (int i = 3; i + 1 < reply.size(); i += 2) fields.put(reply.get(i), reply.get(i + 1));
+        final MapRecord<String, Object, Object> record = MapRecord.create(STREAM_KEY, fields).withId(RecordId.of(String.valueOf(reply.get(1))));
+        reclaimed.incrementAndGet();
+        return task(record, ((Number) reply.get(2)).longValue());
+    }
+
+    /**
+     *
+     * Acknowledges an entry and deletes it from the stream, since its task is done or added again.
+     *
+     * @param receipt The id of the entry.
+     */
+    private void remove(String receipt) {
+        redisTemplate.opsForStream().acknowledge(STREAM_KEY, GROUP, receipt);
+        redisTemplate.opsForStream().delete(STREAM_KEY, receipt);
+    }
+
+    /**
+     *
+     * Reads the task of an entry, counting the deliveries of the entry as attempts.
+     *
+     * <p>An entry that can not be read is dead-lettered, so it is not delivered forever.<p/>
+     *
+     * @param record The entry.
+     * @param deliveries The deliveries of the entry, this one included.
+     *
+     * @return The task, or null if the entry could not be read.
+     */
+    private ReportTask task(MapRecord<String, Object, Object> record, long deliveries) {
+        final Object payload = record.getValue().get(TASK_FIELD);
+        try {
+            final ReportTask task = objectMapper.readValue(String.valueOf(payload), ReportTask.class);
+            task.setReceipt(record.getId().getValue());
+            task.setAttempts(task.getAttempts() + (int) deliveries);
+            return task;
+        } catch (JsonProcessingException e) {
+            final Map<String, String> fields = new LinkedHashMap<>();
+            fields.put(TASK_FIELD, String.valueOf(payload));
+            fields.put("error", "Malformed report task: " + e.getOriginalMessage());
+            fields.put("failedAt", String.valueOf(System.currentTimeMillis()));
+            redisTemplate.opsForStream().add(
+                MapRecord.create(DEAD_LETTER_KEY, fields),
+                RedisStreamCommands.XAddOptions.maxlen(DEAD_LETTER_MAX_LENGTH).approximateTrimming(true)
+            );
+            remove(record.getId().getValue());
+            deadLettered.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     *
+     * Adds a task to the end of the stream, keeping the attempts it already made.
+     *
+     * @param task The task.
+     */
+    private void add(ReportTask task) {
+        final String receipt = task.getReceipt();
+        task.setReceipt(null);
+        try {
+            redisTemplate.opsForStream().add(MapRecord.create(STREAM_KEY, Map.of(TASK_FIELD, json(task))));
+        } finally {
+            task.setReceipt(receipt);
+        }
+    }
+
+    /**
+     *
+     * Creates the stream and its consumer group, once per replica.
+     *
+     */
+    private void createGroup() {
+        if (groupCreated) return;
+        try {
+            redisTemplate.execute(connection -> connection.streamCommands().xGroupCreate(
+                STREAM_KEY.getBytes(StandardCharsets.UTF_8), GROUP, ReadOffset.from("0"), true
+            ), true);
+        } catch (RuntimeException e) {
+            // The group created by another replica, or by an earlier start, is the one to use.
+            if (!causedBy(e, "BUSYGROUP")) throw e;
+        }
+        groupCreated = true;
+    }
+
+    private static boolean causedBy(Throwable e, String error) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (String.valueOf(cause.getMessage()).contains(error)) return true;
+        }
+        return false;
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not write the report task: " + e.getOriginalMessage());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.ads.report.infrastructure.gateway.redis;
+
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *
+ * The Redis store of the fingerprints of the rows last written to each sheets tab.
+ *
+ * <p>The fingerprints are read with one 'MGET' and written with one pipeline, whatever the number of tabs.
+ * They expire after a time to live, so a tab edited by hand is rewritten whole at least that often.<p/>
+ *
+ * <p>The store is best effort: a failure to read is a miss, that rewrites the whole tab, and a failure to
+ * write is ignored.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class RedisSheetFingerprintStore {
+
+    private static final String KEY_PREFIX = "sheet:fingerprint:";
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final Duration timeToLive;
+
+    public RedisSheetFingerprintStore(RedisTemplate<String, byte[]> redisTemplate, Duration timeToLive) {
+        this.redisTemplate = redisTemplate;
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     *
+     * Gets the fingerprints of the given tabs of a spreadsheet.
+     *
+     * @param spreadsheetId The spreadsheet id.
+     * @param tabs The sheets tabs.
+     *
+     * @return The fingerprint of each tab, in the same order, with null for the missing ones.
+     */
+    public List<byte[]> getAll(String spreadsheetId, List<String> tabs) {
+        if (tabs.isEmpty()) return List.of();
+        try {
+            final List<byte[]> payloads = redisTemplate.opsForValue().multiGet(keys(spreadsheetId, tabs));
+            if (payloads != null && payloads.size() == tabs.size()) return payloads;
+        } catch (Exception e) {
+            // A store that cannot be read is a miss of every tab.
+        }
+        return new ArrayList<>(Collections.nCopies(tabs.size(), null));
+    }
+
+    /**
+     *
+     * Writes the fingerprints of some tabs of a spreadsheet, in a single pipeline.
+     *
+     * @param spreadsheetId The spreadsheet id.
+     * @param fingerprints The fingerprint of each tab.
+     */
+    public void putAll(String spreadsheetId, Map<String, byte[]> fingerprints) {
+        if (fingerprints.isEmpty()) return;
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    final RedisOperations<String, byte[]> ops = (RedisOperations<String, byte[]>) operations;
+                    fingerprints.forEach((tab, payload) -> ops.opsForValue().set(key(spreadsheetId, tab), payload, timeToLive));
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            // A fingerprint that cannot be written only rewrites the whole tab next time.
+        }
+    }
+
+    /**
+     *
+     * Deletes the fingerprints of some tabs, before they are written or after they are cleared.
+     *
+     * @param spreadsheetId The spreadsheet id.
+     * @param tabs The sheets tabs.
+     *
+     * @return If the fingerprints were deleted, so the tabs can be written without leaving a stale one.
+     */
+    public boolean deleteAll(String spreadsheetId, List<String> tabs) {
+        if (tabs.isEmpty()) return true;
+        try {
+            redisTemplate.delete(keys(spreadsheetId, tabs));
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static List<String> keys(String spreadsheetId, List<String> tabs) {
+        return tabs.stream().map(tab -> key(spreadsheetId, tab)).toList();
+    }
+
+    private static String key(String spreadsheetId, String tab) {
+        return KEY_PREFIX + spreadsheetId + ":" + tab;
+    }
+}
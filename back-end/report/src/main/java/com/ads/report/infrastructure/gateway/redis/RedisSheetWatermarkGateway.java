@@ -0,0 +1,90 @@
+package com.ads.report.infrastructure.gateway.redis;
+
+import com.ads.report.application.exception.GoogleSheetsException;
+import com.ads.report.application.gateway.sheets.SheetsWatermarkGateway;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ *
+ * The Redis store of the last day appended to each sheets tab.
+ *
+ * <p>The days are kept without a time to live, since the rows they mark stay in the tabs. A day that
+ * cannot be read is a miss, that rewrites the whole tab, but a day that cannot be saved fails the
+ * append, so the rows just written are not appended again.<p/>
+ *
+ * <p>An append claims its tab with a key set only if absent, that expires on its own if the replica
+ * holding it dies, and the whole writes of a tab delete its day.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class RedisSheetWatermarkGateway implements SheetsWatermarkGateway {
+
+    private static final String KEY_PREFIX = "sheet:watermark:";
+    private static final String CLAIM_PREFIX = "sheet:watermark:claim:";
+    // Longer than an append takes, so a claim only expires when its holder is gone.
+    private static final Duration CLAIM_TIME_TO_LIVE = Duration.ofMinutes(10);
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+
+    public RedisSheetWatermarkGateway(RedisTemplate<String, byte[]> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public String lastDate(String spreadsheetId, String tab) {
+        try {
+            final byte[] date = redisTemplate.opsForValue().get(key(spreadsheetId, tab));
+            return date == null ? null : new String(date, StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            // Without the day, the tab is rewritten from the start date, that is always correct.
+            return null;
+        }
+    }
+
+    @Override
+    public void saveLastDate(String spreadsheetId, String tab, String date) {
+        try {
+            redisTemplate.opsForValue().set(key(spreadsheetId, tab), date.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new GoogleSheetsException("The rows were written, but the last day of the tab could not be saved: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void forget(String spreadsheetId, List<String> tabs) {
+        try {
+            redisTemplate.delete(tabs.stream().map(tab -> key(spreadsheetId, tab)).toList());
+        } catch (Exception e) {
+            throw new GoogleSheetsException("The last day of the tabs could not be forgotten: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean claim(String spreadsheetId, String tab) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue()
+                .setIfAbsent(CLAIM_PREFIX + spreadsheetId + ":" + tab, new byte[] {1}, CLAIM_TIME_TO_LIVE));
+        } catch (Exception e) {
+            throw new GoogleSheetsException("Could not claim the tab to append: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void release(String spreadsheetId, String tab) {
+        try {
+            redisTemplate.delete(CLAIM_PREFIX + spreadsheetId + ":" + tab);
+        } catch (Exception ignored) {
+            // The claim expires on its own.
+        }
+    }
+
+    private static String key(String spreadsheetId, String tab) {
+        return KEY_PREFIX + spreadsheetId + ":" + tab;
+    }
+}
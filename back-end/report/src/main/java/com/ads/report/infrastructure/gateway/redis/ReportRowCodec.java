@@ -0,0 +1,38 @@
+package com.ads.report.infrastructure.gateway.redis;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ *
+ * The binary codec of one report row type.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public interface ReportRowCodec<T> {
+
+    /**
+     *
+     * Writes one row.
+     *
+     * @param out The output.
+     * @param row The row.
+     *
+     * @throws IOException If fails to write.
+     */
+    void write(DataOutput out, T row) throws IOException;
+
+    /**
+     *
+     * Reads one row.
+     *
+     * @param in The input.
+     *
+     * @return The row.
+     * @throws IOException If fails to read.
+     */
+    T read(DataInput in) throws IOException;
+}
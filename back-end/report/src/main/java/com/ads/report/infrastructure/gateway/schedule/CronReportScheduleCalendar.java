@@ -0,0 +1,34 @@
+package com.ads.report.infrastructure.gateway.schedule;
+
+import com.ads.report.application.gateway.reports.ReportScheduleCalendar;
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ *
+ * The calendar of the schedules, on the Spring cron expressions.
+ *
+ * <p>The expressions have six fields, from the seconds, like "0 0 6 * * *" for every day at six.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class CronReportScheduleCalendar implements ReportScheduleCalendar {
+
+    @Override
+    public Instant next(String cron, String zone, Instant after) throws IllegalArgumentException {
+        final ZoneId zoneId;
+        try {
+            zoneId = ZoneId.of(zone);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid time zone: " + zone);
+        }
+        final ZonedDateTime next = CronExpression.parse(cron).next(after.atZone(zoneId));
+        return next == null ? null : next.toInstant();
+    }
+}
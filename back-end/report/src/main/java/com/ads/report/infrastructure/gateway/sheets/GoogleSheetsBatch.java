@@ -0,0 +1,386 @@
+package com.ads.report.infrastructure.gateway.sheets;
+
+import com.ads.report.application.exception.GoogleSheetsException;
+import com.ads.report.application.gateway.sheets.SheetsBatch;
+import com.ads.report.application.gateway.sheets.SheetsWatermarkGateway;
+import com.ads.report.domain.account.AccountMetrics;
+import com.ads.report.domain.campaign.CampaignKeywordMetrics;
+import com.ads.report.domain.campaign.CampaignMetrics;
+import com.ads.report.domain.campaign.CampaignPerDay;
+import com.ads.report.domain.campaign.CampaignTitleAndDescription;
+import com.ads.report.domain.columnar.MetricTable;
+import com.google.api.services.sheets.v4.Sheets;
+import com.google.api.services.sheets.v4.model.BatchClearValuesRequest;
+import com.google.api.services.sheets.v4.model.BatchUpdateValuesRequest;
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ *
+ * The implementation of a batch of writes to one spreadsheet.
+ *
+ * <p>The rows of each tab are views of its objects, built when they are sent, and the whole batch is
+ * sent by its sender, by default with one 'batchClear' and one 'batchUpdate' call, whatever the number
+ * of tabs.<p/>
+ *
+ * <p>When a dispatcher is given, the batch is queued on the spreadsheet instead, and may be sent
+ * merged with the batches of the other clients that write to the same spreadsheet.<p/>
+ *
+ * <p>An appending batch keeps the rows already in its tabs: it adds its rows, without the headers,
+ * after them, with one 'append' call per tab, queued on the dispatcher like the other writes.<p/>
+ *
+ * <p>A whole write of the tabs forgets their last appended day first, so their next append starts over
+ * instead of skipping or repeating days.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class GoogleSheetsBatch implements SheetsBatch {
+
+    private final Sheets sheetsClient;
+    private final String spreadsheetId;
+    private final GoogleSheetsDispatcher dispatcher;
+    private final GoogleSheetsDispatcher.Sender sender;
+    private final Map<String, List<List<Object>>> tabs = new LinkedHashMap<>();
+    private boolean append;
+    private GoogleSheetsTabSync appendedTabSync;
+    private SheetsWatermarkGateway watermarks;
+
+    /**
+     *
+     * The constructor receives the sheets client and the spreadsheet written by this batch.
+     *
+     * @param sheetsClient The Google Sheets client.
+     * @param spreadsheetId The spreadsheet id.
+     */
+    public GoogleSheetsBatch(Sheets sheetsClient, String spreadsheetId) {
+        this(sheetsClient, spreadsheetId, null);
+    }
+
+    /**
+     *
+     * The constructor receives the sheets client, the spreadsheet written by this batch and the dispatcher that sends it.
+     *
+     * @param sheetsClient The Google Sheets client.
+     * @param spreadsheetId The spreadsheet id.
+     * @param dispatcher The dispatcher of the writes of the spreadsheet, or null to send the batch directly.
+     */
+    public GoogleSheetsBatch(Sheets sheetsClient, String spreadsheetId, GoogleSheetsDispatcher dispatcher) {
+        this(sheetsClient, spreadsheetId, dispatcher, GoogleSheetsBatch::send);
+    }
+
+    /**
+     *
+     * The constructor receives the sheets client, the spreadsheet written by this batch, the dispatcher and the sender.
+     *
+     * @param sheetsClient The Google Sheets client.
+     * @param spreadsheetId The spreadsheet id.
+     * @param dispatcher The dispatcher of the writes of the spreadsheet, or null to send the batch directly.
+     * @param sender The sender of the batch when there is no dispatcher, like the incremental sync of the tabs.
+     */
+    public GoogleSheetsBatch(Sheets sheetsClient,
+                             String spreadsheetId,
+                             GoogleSheetsDispatcher dispatcher,
+                             GoogleSheetsDispatcher.Sender sender) {
+        this.sheetsClient = sheetsClient;
+        this.spreadsheetId = spreadsheetId;
+        this.dispatcher = dispatcher;
+        this.sender = sender;
+    }
+
+    @Override
+    public SheetsBatch accountMetrics(String tab, List<AccountMetrics> accountMetrics) {
+        // added sheets headers, and a row per account metrics object.
+        tabs.put(tab, rows(
+            List.of("customerId", "descriptiveName", "impressions", "clicks", "cost", "conversions", "averageCpa", "ctr", "averageCpc"),
+            accountMetrics,
+            obj -> List.of(
+                obj.getCustomerId(),
+                obj.getDescriptiveName(),
+                obj.getImpressions(),
+                obj.getClicks(),
+                obj.getCost(),
+                obj.getConversions(),
+                obj.getAverageCpa(),
+                obj.getCtr(),
+                obj.getAverageCpc()
+            )
+        ));
+        return this;
+    }
+
+    @Override
+    public SheetsBatch campaignMetrics(String tab, List<CampaignMetrics> campaignMetrics) {
+        // added sheets headers, and a row per campaign metrics object.
+        tabs.put(tab, rows(
+            List.of("date", "dayOfWeek", "campaignId", "campaignName", "adGroupName", "status", "impressions", "clicks", "cost", "conversions", "averageCpa", "ctr", "averageCpc"),
+            campaignMetrics,
+            obj -> List.of(
+                obj.getDate(),
+                obj.getDayOfWeek(),
+                obj.getCampaignId(),
+                obj.getCampaignName(),
+                obj.getAdGroupName(),
+                obj.getStatus(),
+                obj.getImpressions(),
+                obj.getClicks(),
+                obj.getCost(),
+                obj.getConversions(),
+                obj.getAverageCpa(),
+                obj.getCtr(),
+                obj.getAverageCpc()
+            )
+        ));
+        return this;
+    }
+
+    @Override
+    public SheetsBatch totalPerDay(String tab, List<CampaignPerDay> campaignPerDays) {
+        tabs.put(tab, rows(
+            List.of("date", "impressions", "clicks", "conversions", "cost", "hour", "dayOfWeek"),
+            campaignPerDays,
+            obj -> List.of(
+                obj.getDate(),
+                obj.getImpressions(),
+                obj.getClicks(),
+                obj.getConversions(),
+                obj.getCost(),
+                obj.getHour(),
+                obj.getDayOfWeek()
+            )
+        ));
+        return this;
+    }
+
+    @Override
+    public SheetsBatch keywordMetrics(String tab, List<CampaignKeywordMetrics> campaignKeywordMetrics) {
+        tabs.put(tab, rows(
+            List.of("date", "campaignName", "adGroupName", "keywordText", "matchType", "impressions", "clicks", "cost", "averageCpc", "conversions", "conversionRate", "dayOfWeek", "chanel"),
+            campaignKeywordMetrics,
+            obj -> List.of(
+                obj.getDate(),
+                obj.getCampaignName(),
+                obj.getAdGroupName(),
+                obj.getKeywordText(),
+                obj.getMatchType(),
+                obj.getImpressions(),
+                obj.getClicks(),
+                obj.getCost(),
+                obj.getAverageCpc(),
+                obj.getConversions(),
+                obj.getConversionRate(),
+                obj.getDayOfWeek()
+            )
+        ));
+        return this;
+    }
+
+    @Override
+    public SheetsBatch adTitleAndDescription(String tab, List<CampaignTitleAndDescription> campaignTitleAndDescriptions) {
+        tabs.put(tab, rows(
+            List.of("date", "campaignName", "adGroupName", "responsiveHeadlines", "responsiveDescriptions", "clicks", "impressions", "conversions"),
+            campaignTitleAndDescriptions,
+            obj -> List.of(
+                obj.getDate(),
+                obj.getCampaignName(),
+                obj.getAdName(),
+                obj.getResponsiveHeadlines() != null ? String.join(", ", obj.getResponsiveHeadlines()) : "",
+                obj.getResponsiveDescriptions() != null ? String.join(", ", obj.getResponsiveDescriptions()) : "",
+                obj.getClicks(),
+                obj.getImpressions(),
+                obj.getConversions()
+            )
+        ));
+        return this;
+    }
+
+    @Override
+    public SheetsBatch metricTable(String tab, MetricTable table) {
+        final int columns = table.columnCount();
+        // added sheets headers, from the table columns.
+        final Object[] headers = new Object[columns];
+        for (int c = 0; c < columns; c++) headers[c] = table.name(c);
+        final List<Object> header = Arrays.asList(headers);
+        // reads each row straight from the table columns.
+        tabs.put(tab, new AbstractList<>() {
+            @Override
+            public List<Object> get(int index) {
+                if (index == 0) return header;
+                final Object[] row = new Object[columns];
+                for (int c = 0; c < columns; c++) {
+                    final Object value = table.value(c, index - 1);
+                    row[c] = value != null ? value : "";
+                }
+                return Arrays.asList(row);
+            }
+
+            @Override
+            public int size() {
+                return table.size() + 1;
+            }
+        });
+        return this;
+    }
+
+    /**
+     *
+     * Turns this batch into an appending one, that adds its rows after the rows of each tab.
+     *
+     * @param tabSync The incremental sync, that forgets the fingerprints of the tabs appended to, or null.
+     *
+     * @return This batch.
+     */
+    public GoogleSheetsBatch appending(GoogleSheetsTabSync tabSync) {
+        this.append = true;
+        this.appendedTabSync = tabSync;
+        return this;
+    }
+
+    /**
+     *
+     * Makes the whole writes of this batch forget the last appended day of their tabs.
+     *
+     * @param watermarks The store of the last day of each tab, or null.
+     *
+     * @return This batch.
+     */
+    public GoogleSheetsBatch forgetting(SheetsWatermarkGateway watermarks) {
+        this.watermarks = watermarks;
+        return this;
+    }
+
+    /**
+     *
+     * Views the objects of a tab as its rows, building each row only when it is read.
+     *
+     * <p>So the rows of a large tab are not all held at once: the sender reads them a block at a time,
+     * and each block is dropped once it is sent.<p/>
+     *
+     * @param header The headers of the tab.
+     * @param objects The objects of the tab, one per row.
+     * @param row The cells of the row of an object.
+     *
+     * @return The rows of the tab, with the headers first.
+     */
+    private static <T> List<List<Object>> rows(List<Object> header, List<T> objects, Function<T, List<Object>> row) {
+        return new AbstractList<>() {
+            @Override
+            public List<Object> get(int index) {
+                return index == 0 ? header : row.apply(objects.get(index - 1));
+            }
+
+            @Override
+            public int size() {
+                return objects.size() + 1;
+            }
+        };
+    }
+
+    /**
+     *
+     * Clears all the tabs of the batch in one call, then writes all of them in another call.
+     *
+     * @throws GoogleSheetsException If any of the two calls fails.
+     */
+    @Override
+    public void execute() throws GoogleSheetsException {
+        if (tabs.isEmpty()) return;
+        if (append) {
+            append();
+            return;
+        }
+        // Forgotten before the tabs are written, so a failed write can not leave a stale day behind.
+        if (watermarks != null) watermarks.forget(spreadsheetId, new ArrayList<>(tabs.keySet()));
+        if (dispatcher != null) {
+            dispatcher.write(sheetsClient, spreadsheetId, tabs);
+            return;
+        }
+        try {
+            // Without a dispatcher there is no budget to take.
+            sender.send(sheetsClient, spreadsheetId, tabs, () -> {});
+        } catch (Exception e) {
+            throw new GoogleSheetsException("Could not send the batch to spreadsheet: " + e.getMessage());
+        }
+    }
+
+    /**
+     *
+     * Adds the rows of each tab after the rows already in it, leaving out the headers.
+     *
+     * @throws GoogleSheetsException If any of the calls fails.
+     */
+    private void append() throws GoogleSheetsException {
+        if (appendedTabSync != null) tabs.keySet().forEach(tab -> appendedTabSync.forget(spreadsheetId, tab));
+        if (dispatcher != null) {
+            dispatcher.append(sheetsClient, spreadsheetId, tabs);
+            return;
+        }
+        try {
+            appendRows(sheetsClient, spreadsheetId, tabs, () -> {});
+        } catch (Exception e) {
+            throw new GoogleSheetsException("Could not append the batch to spreadsheet: " + e.getMessage());
+        }
+    }
+
+    /**
+     *
+     * Adds the rows of each tab after the rows already in it, leaving out the headers, with one call per tab.
+     *
+     * @param sheetsClient The Google Sheets client.
+     * @param spreadsheetId The spreadsheet id.
+     * @param tabs The rows of each tab, with the headers.
+     * @param acquire Waits for the budget of one call.
+     *
+     * @throws IOException If any of the calls fails.
+     */
+    public static void appendRows(Sheets sheetsClient, String spreadsheetId, Map<String, List<List<Object>>> tabs, Runnable acquire) throws IOException {
+        for (Map.Entry<String, List<List<Object>>> tab : tabs.entrySet()) {
+            final List<List<Object>> rows = tab.getValue();
+            if (rows.size() <= 1) continue;
+            acquire.run();
+            sheetsClient.spreadsheets().values()
+                .append(spreadsheetId, tab.getKey() + "!A:Z", new ValueRange().setValues(new ArrayList<>(rows.subList(1, rows.size()))))
+                .setValueInputOption("RAW")
+                .setInsertDataOption("INSERT_ROWS")
+                .execute();
+        }
+    }
+
+    /**
+     *
+     * Clears the given tabs of a spreadsheet in one call, then writes all of them in another call.
+     *
+     * @param sheetsClient The Google Sheets client.
+     * @param spreadsheetId The spreadsheet id.
+     * @param tabs The rows of each tab.
+     * @param acquire Waits for the budget of one call.
+     *
+     * @throws IOException If any of the two calls fails.
+     */
+    public static void send(Sheets sheetsClient, String spreadsheetId, Map<String, List<List<Object>>> tabs, Runnable acquire) throws IOException {
+        // sets tab and interval of each tab.
+        final List<String> ranges = tabs.keySet().stream().map(tab -> tab + "!A:Z").toList();
+        acquire.run();
+        sheetsClient.spreadsheets().values()
+            .batchClear(spreadsheetId, new BatchClearValuesRequest().setRanges(ranges))
+            .execute();
+        final List<ValueRange> data = new ArrayList<>(tabs.size());
+        int i = 0;
+        for (List<List<Object>> values : tabs.values()) {
+            data.add(new ValueRange().setRange(ranges.get(i++)).setValues(values));
+        }
+        acquire.run();
+        sheetsClient.spreadsheets().values()
+            .batchUpdate(spreadsheetId, new BatchUpdateValuesRequest().setValueInputOption("RAW").setData(data))
+            .execute();
+    }
+}
@@ -0,0 +1,228 @@
+package com.ads.report.infrastructure.gateway.sheets;
+
+import com.ads.report.application.exception.GoogleSheetsException;
+import com.ads.report.application.gateway.metrics.MetricsSource;
+import com.google.api.services.sheets.v4.Sheets;
+import com.google.api.services.sheets.v4.model.BatchClearValuesRequest;
+import com.google.api.services.sheets.v4.model.BatchUpdateValuesRequest;
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *
+ * The writer of the rows of a spreadsheet in blocks of bounded size.
+ *
+ * <p>The rows are cut in blocks of at most 'rowsPerRequest' rows, each one written to its own consecutive
+ * ranges by its own 'batchUpdate' call, so no request grows past the size limit of Google Sheets. The rows
+ * of a block are only built when the block is sent, and a few blocks are in flight at once, so the rows
+ * held by the writer are bounded by the block size and the blocks in flight, whatever the tab size.<p/>
+ *
+ * <p>The blocks write disjoint ranges, so they can be sent in any order, but every clear is sent before them.
+ * The budget of each call, the clear and every block, is taken before it is sent.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class GoogleSheetsChunkedWriter implements GoogleSheetsDispatcher.Sender, MetricsSource, AutoCloseable {
+
+    private final int rowsPerRequest;
+    private final Semaphore inFlight;
+    // The calls are blocking http calls, so each block waits on a virtual thread.
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong blocksThatWaited = new AtomicLong();
+
+    /**
+     *
+     * @param rowsPerRequest The maximum of rows written by one call.
+     * @param maxInFlight The maximum of calls in flight for all the writes.
+     */
+    public GoogleSheetsChunkedWriter(int rowsPerRequest, int maxInFlight) {
+        this.rowsPerRequest = rowsPerRequest;
+        this.inFlight = new Semaphore(maxInFlight, true);
+    }
+
+    /**
+     *
+     * Clears the given tabs of a spreadsheet in one call, then writes all of their rows in blocks.
+     *
+     * @param sheetsClient The Google Sheets client.
+     * @param spreadsheetId The spreadsheet id.
+     * @param tabs The rows of each tab.
+     * @param acquire Waits for the budget of one call.
+     *
+     * @throws IOException If any of the calls fails.
+     */
+    @Override
+    public void send(Sheets sheetsClient, String spreadsheetId, Map<String, List<List<Object>>> tabs, Runnable acquire) throws IOException {
+        final List<String> clears = new ArrayList<>(tabs.size());
+        final List<SheetTabDiff.Rows> runs = new ArrayList<>(tabs.size());
+        tabs.forEach((tab, rows) -> {
+            final SheetTabDiff.Plan plan = SheetTabDiff.full(tab, rows);
+            clears.addAll(plan.clears());
+            runs.addAll(plan.updates());
+        });
+        write(sheetsClient, spreadsheetId, clears, runs, acquire);
+    }
+
+    /**
+     *
+     * Clears the given ranges of a spreadsheet in one call, then writes the runs of rows in blocks.
+     *
+     * @param sheetsClient The Google Sheets client.
+     * @param spreadsheetId The spreadsheet id.
+     * @param clears The ranges to clear.
+     * @param runs The runs of rows to write.
+     * @param acquire Waits for the budget of one call.
+     *
+     * @throws IOException If any of the calls fails, after the blocks in flight finish.
+     */
+    public void write(Sheets sheetsClient,
+                      String spreadsheetId,
+                      List<String> clears,
+                      List<SheetTabDiff.Rows> runs,
+                      Runnable acquire) throws IOException {
+        if (!clears.isEmpty()) {
+            acquire.run();
+            sheetsClient.spreadsheets().values()
+                .batchClear(spreadsheetId, new BatchClearValuesRequest().setRanges(clears))
+                .execute();
+        }
+        final List<Future<?>> blocks = new ArrayList<>();
+        List<ValueRange> block = new ArrayList<>();
+        int blockRows = 0;
+        try {
+            sending:
+            for (SheetTabDiff.Rows run : runs) {
+                int offset = 0;
+                while (offset < run.values().size()) {
+                    // Filling the block with the next rows of the run, that become one range of the block.
+                    final int rows = Math.min(rowsPerRequest - blockRows, run.values().size() - offset);
+                    block.add(new ValueRange()
+                        .setRange(run.tab() + "!A" + (run.firstRow() + offset))
+                        .setValues(new ArrayList<>(run.values().subList(offset, offset + rows))));
+                    offset += rows;
+                    blockRows += rows;
+                    if (blockRows == rowsPerRequest) {
+                        // After a failure the write fails anyway, so the rows left are not built.
+                        if (anyFailed(blocks)) break sending;
+                        blocks.add(submit(sheetsClient, spreadsheetId, block, blockRows, acquire));
+                        block = new ArrayList<>();
+                        blockRows = 0;
+                    }
+                }
+            }
+            if (!block.isEmpty() && !anyFailed(blocks)) blocks.add(submit(sheetsClient, spreadsheetId, block, blockRows, acquire));
+        } finally {
+            await(blocks);
+        }
+    }
+
+    @Override
+    public String metricsName() {
+        return "googleSheetsChunkedWriter";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        final Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("rowsPerRequest", rowsPerRequest);
+        metrics.put("requests", requests.get());
+        metrics.put("rowsWritten", rowsWritten.get());
+        metrics.put("blocksThatWaited", blocksThatWaited.get());
+        metrics.put("availableInFlight", inFlight.availablePermits());
+        return metrics;
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    /**
+     *
+     * Sends a block once its budget is taken and a call can be in flight, so the blocks built never outrun the ones sent.
+     *
+     * @param sheetsClient The Google Sheets client.
+     * @param spreadsheetId The spreadsheet id.
+     * @param block The ranges of the block.
+     * @param rows The rows of the block.
+     * @param acquire Waits for the budget of one call.
+     *
+     * @return The call in flight.
+     */
+    private Future<?> submit(Sheets sheetsClient, String spreadsheetId, List<ValueRange> block, int rows, Runnable acquire) {
+        acquire.run();
+        if (!inFlight.tryAcquire()) {
+            blocksThatWaited.incrementAndGet();
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new GoogleSheetsException("Interrupted while waiting to send the rows to spreadsheet.");
+            }
+        }
+        try {
+            return executor.submit(() -> {
+                try {
+                    requests.incrementAndGet();
+                    sheetsClient.spreadsheets().values()
+                        .batchUpdate(spreadsheetId, new BatchUpdateValuesRequest().setValueInputOption("RAW").setData(block))
+                        .execute();
+                    rowsWritten.addAndGet(rows);
+                    return null;
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    private static boolean anyFailed(List<Future<?>> blocks) {
+        for (Future<?> block : blocks) {
+            if (block.state() == Future.State.FAILED) return true;
+        }
+        return false;
+    }
+
+    /**
+     *
+     * Waits for every block, then throws the first failure.
+     *
+     * @param blocks The calls in flight.
+     *
+     * @throws IOException If a block failed to be written.
+     */
+    private static void await(List<Future<?>> blocks) throws IOException {
+        Throwable failure = null;
+        for (Future<?> block : blocks) {
+            try {
+                block.get();
+            } catch (ExecutionException e) {
+                if (failure == null) failure = e.getCause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (failure == null) failure = new GoogleSheetsException("Interrupted while sending the rows to spreadsheet.");
+            }
+        }
+        if (failure instanceof IOException io) throw io;
+        if (failure instanceof RuntimeException runtime) throw runtime;
+        if (failure != null) throw new GoogleSheetsException(failure.getMessage());
+    }
+}
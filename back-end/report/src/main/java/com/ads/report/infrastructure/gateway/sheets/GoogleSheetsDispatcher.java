@@ -0,0 +1,381 @@
+package com.ads.report.infrastructure.gateway.sheets;
+
+import com.ads.report.application.exception.GoogleSheetsException;
+import com.ads.report.application.gateway.metrics.MetricsSource;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.services.sheets.v4.Sheets;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *
+ * The dispatcher of the writes to Google Sheets, that queues them per spreadsheet and merges the queued ones.
+ *
+ * <p>The writes of a spreadsheet wait in its own lane. The first writer that finds the lane idle drains it:
+ * it sends every write queued, merged in one send per Sheets client, and keeps sending while more writes
+ * arrive. So the clients of an update that share a spreadsheet are written with the calls of one send
+ * instead of the calls of one send each, and never at the same time.<p/>
+ *
+ * <p>The calls are kept within a budget of requests per minute. A send may make many calls, like one
+ * 'batchClear' and a 'batchUpdate' per block of rows, so the sender takes the budget of each call right
+ * before making it. The sends rejected by the Sheets quota,
+ * with a 429, or failed by a transient error, are retried with a jittered exponential backoff. A retried
+ * send writes the same cells again, so it is safe to repeat.<p/>
+ *
+ * <p>The appends wait in the same lane, in order with the writes, but each one is sent on its own, since
+ * their rows add up instead of replacing each other. An append that failed may have added its rows, so
+ * it is only retried when the quota rejected it.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class GoogleSheetsDispatcher implements MetricsSource {
+
+    /**
+     *
+     * The sending of the merged tabs of a spreadsheet.
+     *
+     * <p>The sender runs the 'acquire' hook before each call to Google Sheets, that waits for the budget
+     * of one call.<p/>
+     *
+     * */
+    @FunctionalInterface
+    public interface Sender {
+
+        void send(Sheets sheetsClient, String spreadsheetId, Map<String, List<List<Object>>> tabs, Runnable acquire) throws IOException;
+    }
+
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final Sender sender;
+    private final Sender appender;
+    private final double requestsPerSecond;
+    private final double burst;
+    private final int maxRetries;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Object budgetLock = new Object();
+    private double tokens;
+    private long refilledAt = System.nanoTime();
+    private long blockedUntil;
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong queuedWrites = new AtomicLong();
+    private final AtomicLong sends = new AtomicLong();
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong mergedWrites = new AtomicLong();
+    private final AtomicLong throttledCalls = new AtomicLong();
+    private final AtomicLong quotaErrors = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+
+    /**
+     *
+     * The constructor receives the budget and the retry policy, sending the tabs with the Sheets client.
+     *
+     * @param requestsPerMinute The maximum of calls to Google Sheets per minute.
+     * @param maxRetries The retries of a send, after its first attempt.
+     * @param baseBackoffMillis The backoff of the first retry, doubled on each retry.
+     * @param maxBackoffMillis The maximum backoff of a retry.
+     */
+    public GoogleSheetsDispatcher(int requestsPerMinute, int maxRetries, long baseBackoffMillis, long maxBackoffMillis) {
+        this(GoogleSheetsBatch::send, requestsPerMinute, maxRetries, baseBackoffMillis, maxBackoffMillis);
+    }
+
+    /**
+     *
+     * The constructor receives the sender of the tabs, the budget and the retry policy, appending with the Sheets client.
+     *
+     * @param sender The sender of the merged tabs.
+     * @param requestsPerMinute The maximum of calls to Google Sheets per minute.
+     * @param maxRetries The retries of a send, after its first attempt.
+     * @param baseBackoffMillis The backoff of the first retry, doubled on each retry.
+     * @param maxBackoffMillis The maximum backoff of a retry.
+     */
+    public GoogleSheetsDispatcher(Sender sender, int requestsPerMinute, int maxRetries, long baseBackoffMillis, long maxBackoffMillis) {
+        this(sender, GoogleSheetsBatch::appendRows, requestsPerMinute, maxRetries, baseBackoffMillis, maxBackoffMillis);
+    }
+
+    /**
+     *
+     * The constructor receives the senders of the tabs and of the appends, the budget and the retry policy.
+     *
+     * @param sender The sender of the merged tabs.
+     * @param appender The sender of the appends, that adds the rows after the rows of each tab.
+     * @param requestsPerMinute The maximum of calls to Google Sheets per minute.
+     * @param maxRetries The retries of a send, after its first attempt.
+     * @param baseBackoffMillis The backoff of the first retry, doubled on each retry.
+     * @param maxBackoffMillis The maximum backoff of a retry.
+     */
+    public GoogleSheetsDispatcher(Sender sender,
+                                  Sender appender,
+                                  int requestsPerMinute,
+                                  int maxRetries,
+                                  long baseBackoffMillis,
+                                  long maxBackoffMillis) {
+        this.sender = sender;
+        this.appender = appender;
+        this.requestsPerSecond = requestsPerMinute / 60.0;
+        // Up to ten seconds of the budget can be spent at once.
+        this.burst = Math.max(1, requestsPerMinute / 6.0);
+        this.tokens = burst;
+        this.maxRetries = maxRetries;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    /**
+     *
+     * Writes the tabs to a spreadsheet, queued with the other writes of the spreadsheet.
+     *
+     * @param sheetsClient The Google Sheets client of the writer.
+     * @param spreadsheetId The spreadsheet id.
+     * @param tabs The rows of each tab, cleared before they are written.
+     *
+     * @throws GoogleSheetsException If fails to send the write.
+     */
+    public void write(Sheets sheetsClient, String spreadsheetId, Map<String, List<List<Object>>> tabs) throws GoogleSheetsException {
+        dispatch(spreadsheetId, new Write(sheetsClient, new LinkedHashMap<>(tabs), false, new CompletableFuture<>()));
+    }
+
+    /**
+     *
+     * Appends the rows of the tabs of a spreadsheet, queued with the other writes of the spreadsheet.
+     *
+     * @param sheetsClient The Google Sheets client of the writer.
+     * @param spreadsheetId The spreadsheet id.
+     * @param tabs The rows of each tab, with the headers, that are left out.
+     *
+     * @throws GoogleSheetsException If fails to send the append.
+     */
+    public void append(Sheets sheetsClient, String spreadsheetId, Map<String, List<List<Object>>> tabs) throws GoogleSheetsException {
+        dispatch(spreadsheetId, new Write(sheetsClient, new LinkedHashMap<>(tabs), true, new CompletableFuture<>()));
+    }
+
+    private void dispatch(String spreadsheetId, Write write) {
+        final boolean[] leader = {false};
+        writes.incrementAndGet();
+        queuedWrites.incrementAndGet();
+        lanes.compute(spreadsheetId, (id, lane) -> {
+            if (lane == null) lane = new Lane();
+            lane.pending.add(write);
+            leader[0] = !lane.draining;
+            lane.draining = true;
+            return lane;
+        });
+        if (leader[0]) drain(spreadsheetId);
+        try {
+            write.done().join();
+        } catch (CompletionException e) {
+            throw (GoogleSheetsException) e.getCause();
+        }
+    }
+
+    @Override
+    public String metricsName() {
+        return "googleSheetsDispatcher";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        final Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("spreadsheetsInFlight", lanes.size());
+        metrics.put("queuedWrites", queuedWrites.get());
+        metrics.put("writes", writes.get());
+        metrics.put("sends", sends.get());
+        metrics.put("calls", calls.get());
+        metrics.put("mergedWrites", mergedWrites.get());
+        metrics.put("throttledCalls", throttledCalls.get());
+        metrics.put("quotaErrors", quotaErrors.get());
+        metrics.put("retries", retries.get());
+        return metrics;
+    }
+
+    /**
+     *
+     * Sends the queued writes of a spreadsheet until its lane is empty, and then leaves the lane idle.
+     *
+     * @param spreadsheetId The spreadsheet id.
+     */
+    private void drain(String spreadsheetId) {
+        while (true) {
+            final List<Write> taken = new ArrayList<>();
+            lanes.compute(spreadsheetId, (id, lane) -> {
+                if (lane.pending.isEmpty()) return null;
+                taken.addAll(lane.pending);
+                lane.pending.clear();
+                return lane;
+            });
+            if (taken.isEmpty()) return;
+            queuedWrites.addAndGet(-taken.size());
+            // The writes of each user are merged, since each one is sent with its own credentials.
+            final Map<Sheets, List<Write>> perClient = new LinkedHashMap<>();
+            for (Write write : taken) perClient.computeIfAbsent(write.sheetsClient(), c -> new ArrayList<>()).add(write);
+            perClient.forEach((client, clientWrites) -> sendInOrder(client, spreadsheetId, clientWrites));
+        }
+    }
+
+    /**
+     *
+     * Sends the writes of one client in order, merging the consecutive whole writes and each append on its own.
+     *
+     * @param sheetsClient The Google Sheets client.
+     * @param spreadsheetId The spreadsheet id.
+     * @param writes The writes of the client, in the order they were queued.
+     */
+    private void sendInOrder(Sheets sheetsClient, String spreadsheetId, List<Write> writes) {
+        final List<Write> merged = new ArrayList<>();
+        for (Write write : writes) {
+            if (!write.append()) {
+                merged.add(write);
+                continue;
+            }
+            if (!merged.isEmpty()) send(sheetsClient, spreadsheetId, new ArrayList<>(merged));
+            merged.clear();
+            try {
+                sendWithRetries(appender, false, sheetsClient, spreadsheetId, write.tabs());
+                write.done().complete(null);
+            } catch (Exception e) {
+                write.done().completeExceptionally(new GoogleSheetsException("Could not append the batch to spreadsheet: " + e.getMessage()));
+            }
+        }
+        if (!merged.isEmpty()) send(sheetsClient, spreadsheetId, merged);
+    }
+
+    /**
+     *
+     * Sends the merged tabs of some writes of one client, completing each write.
+     *
+     * <p>A tab written by more than one write gets the rows of the last one.<p/>
+     *
+     * @param sheetsClient The Google Sheets client.
+     * @param spreadsheetId The spreadsheet id.
+     * @param merged The writes merged in this send.
+     */
+    private void send(Sheets sheetsClient, String spreadsheetId, List<Write> merged) {
+        final Map<String, List<List<Object>>> tabs = new LinkedHashMap<>();
+        for (Write write : merged) tabs.putAll(write.tabs());
+        mergedWrites.addAndGet(merged.size() - 1);
+        try {
+            sendWithRetries(sender, true, sheetsClient, spreadsheetId, tabs);
+            merged.forEach(w -> w.done().complete(null));
+        } catch (Exception e) {
+            final GoogleSheetsException error = new GoogleSheetsException("Could not send the batch to spreadsheet: " + e.getMessage());
+            merged.forEach(w -> w.done().completeExceptionally(error));
+        }
+    }
+
+    /**
+     *
+     * Sends the tabs, retrying the quota errors, and the transient errors of a send that is safe to repeat.
+     *
+     * @param send The sender of the tabs.
+     * @param repeatable If a send that failed midway can be sent again.
+     * @param sheetsClient The Google Sheets client.
+     * @param spreadsheetId The spreadsheet id.
+     * @param tabs The rows of each tab.
+     *
+     * @throws IOException If the send fails with an error that is not retried, or after the last retry.
+     */
+    private void sendWithRetries(Sender send,
+                                 boolean repeatable,
+                                 Sheets sheetsClient,
+                                 String spreadsheetId,
+                                 Map<String, List<List<Object>>> tabs) throws IOException {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                sends.incrementAndGet();
+                send.send(sheetsClient, spreadsheetId, tabs, this::acquire);
+                return;
+            } catch (HttpResponseException e) {
+                final int status = e.getStatusCode();
+                final boolean retryable = status == 429 || status >= 500 && repeatable;
+                if (!retryable || attempt >= maxRetries) throw e;
+                long delayMillis = backoffMillis(attempt);
+                if (status == 429) {
+                    quotaErrors.incrementAndGet();
+                    delayMillis = Math.max(delayMillis, retryAfterMillis(e));
+                    // The quota is shared, so every spreadsheet waits for it.
+                    synchronized (budgetLock) {
+                        blockedUntil = Math.max(blockedUntil, System.nanoTime() + delayMillis * 1_000_000);
+                    }
+                }
+                retries.incrementAndGet();
+                sleep(delayMillis);
+            }
+        }
+    }
+
+    /**
+     *
+     * Takes the token of one call from the budget, waiting for it when the budget is spent.
+     *
+     */
+    private void acquire() {
+        final long waitNanos;
+        calls.incrementAndGet();
+        synchronized (budgetLock) {
+            final long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (now - refilledAt) / 1e9 * requestsPerSecond);
+            refilledAt = now;
+            tokens -= 1;
+            waitNanos = Math.max(tokens >= 0 ? 0 : (long) (-tokens / requestsPerSecond * 1e9), blockedUntil - now);
+        }
+        if (waitNanos > 0) {
+            throttledCalls.incrementAndGet();
+            sleep(waitNanos / 1_000_000);
+        }
+    }
+
+    private long backoffMillis(int attempt) {
+        final long limit = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(limit / 2, limit + 1);
+    }
+
+    private static long retryAfterMillis(HttpResponseException e) {
+        final String retryAfter = e.getHeaders() == null ? null : e.getHeaders().getFirstHeaderStringValue("Retry-After");
+        try {
+            return retryAfter == null ? 0 : Long.parseLong(retryAfter.trim()) * 1000;
+        } catch (NumberFormatException ignored) {
+            return 0;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GoogleSheetsException("Interrupted while waiting for the Google Sheets quota.");
+        }
+    }
+
+    /**
+     *
+     * A write waiting in the lane of its spreadsheet.
+     *
+     * @param sheetsClient The Google Sheets client of the writer.
+     * @param tabs The rows of each tab.
+     * @param append If the rows are added after the rows of the tabs, instead of replacing them.
+     * @param done Completed when the write is sent.
+     */
+    private record Write(Sheets sheetsClient, Map<String, List<List<Object>>> tabs, boolean append, CompletableFuture<Void> done) {}
+
+    /**
+     *
+     * The queue of the writes of one spreadsheet, changed only inside the compute of the lanes map.
+     *
+     * */
+    private static final class Lane {
+
+        private final List<Write> pending = new ArrayList<>();
+        private boolean draining;
+    }
+}
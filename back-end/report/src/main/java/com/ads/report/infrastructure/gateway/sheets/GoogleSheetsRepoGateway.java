@@ -2,6 +2,8 @@ package com.ads.report.infrastructure.gateway.sheets;
 
 import com.ads.report.application.exception.GoogleSheetsException;
 import com.ads.report.application.gateway.sheets.GoogleSheetsGateway;
+import com.ads.report.application.gateway.sheets.SheetsBatch;
+import com.ads.report.application.gateway.sheets.SheetsWatermarkGateway;
 import com.ads.report.domain.account.AccountMetrics;
 import com.ads.report.domain.campaign.CampaignKeywordMetrics;
 import com.ads.report.domain.campaign.CampaignMetrics;
@@ -9,10 +11,8 @@ import com.ads.report.domain.campaign.CampaignTitleAndDescription;
 import com.ads.report.domain.campaign.CampaignPerDay;
 import com.google.api.services.sheets.v4.Sheets;
 import com.google.api.services.sheets.v4.model.ClearValuesRequest;
-import com.google.api.services.sheets.v4.model.ValueRange;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -27,6 +27,14 @@ public class GoogleSheetsRepoGateway implements GoogleSheetsGateway {
 
     @Autowired
     private Sheets sheetsClient;
+    @Autowired(required = false)
+    private GoogleSheetsDispatcher dispatcher;
+    @Autowired(required = false)
+    private GoogleSheetsTabSync tabSync;
+    @Autowired(required = false)
+    private GoogleSheetsChunkedWriter chunkedWriter;
+    @Autowired(required = false)
+    private SheetsWatermarkGateway watermarks;
 
     /**
      *
@@ -40,6 +48,9 @@ public class GoogleSheetsRepoGateway implements GoogleSheetsGateway {
     @Override
     public void clearSheetTab(String spreadsheetId, String tab) throws GoogleSheetsException {
         try {
+            // The next write of the tab must be whole, since its rows are gone.
+            if (tabSync != null) tabSync.forget(spreadsheetId, tab);
+            if (watermarks != null) watermarks.forget(spreadsheetId, List.of(tab));
             final String range = tab + "!A:Z";
             sheetsClient.spreadsheets().values().clear(spreadsheetId, range, new ClearValuesRequest()).execute();
         } catch (Exception e) {
@@ -67,31 +78,7 @@ public class GoogleSheetsRepoGateway implements GoogleSheetsGateway {
             String tab,
             List<AccountMetrics> accountMetrics) throws GoogleSheetsException {
         try {
-            clearSheetTab(spreadsheetId, tab);
-            final List<List<Object>> sheetData = new ArrayList<>();
-            // added sheets headers.
-            sheetData.add(List.of("customerId", "descriptiveName", "impressions", "clicks", "cost", "conversions", "averageCpa", "ctr",	"averageCpc"));
-            // iterates in all account metrics objects, and add as a row on sheetData list.
-            for (AccountMetrics obj : accountMetrics) {
-                final List<Object> row = List.of(
-                    obj.getCustomerId(),
-                    obj.getDescriptiveName(),
-                    obj.getImpressions(),
-                    obj.getClicks(),
-                    obj.getCost(),
-                    obj.getConversions(),
-                    obj.getAverageCpa(),
-                    obj.getCtr(),
-                    obj.getAverageCpc()
-                );
-                sheetData.add(row);
-            }
-            final ValueRange body = new ValueRange().setValues(sheetData);
-            tab = tab + "!A:Z"; // sets tab and interval.
-            sheetsClient.spreadsheets().values()
-                .update(spreadsheetId, tab, body)
-                .setValueInputOption("RAW")
-                .execute();
+            batch(spreadsheetId).accountMetrics(tab, accountMetrics).execute();
         } catch (Exception e) {
             throw new GoogleSheetsException("Could not send account metrics: " + e.getMessage());
         }
@@ -116,35 +103,7 @@ public class GoogleSheetsRepoGateway implements GoogleSheetsGateway {
             String tab,
             List<CampaignMetrics> campaignMetrics) throws GoogleSheetsException {
         try {
-            clearSheetTab(spreadsheetId, tab);
-            final List<List<Object>> sheetData = new ArrayList<>();
-            // added sheets headers.
-            sheetData.add(List.of("date", "dayOfWeek", "campaignId", "campaignName", "adGroupName", "status", "impressions", "clicks", "cost", "conversions", "averageCpa", "ctr", "averageCpc"));
-            // iterates in all campaign metrics objects, and add as a row on sheetData list.
-            for (CampaignMetrics obj : campaignMetrics) {
-                final List<Object> row = List.of(
-                    obj.getDate(),
-                    obj.getDayOfWeek(),
-                    obj.getCampaignId(),
-                    obj.getCampaignName(),
-                    obj.getAdGroupName(),
-                    obj.getStatus(),
-                    obj.getImpressions(),
-                    obj.getClicks(),
-                    obj.getCost(),
-                    obj.getConversions(),
-                    obj.getAverageCpa(),
-                    obj.getCtr(),
-                    obj.getAverageCpc()
-                );
-                sheetData.add(row);
-            }
-            final ValueRange body = new ValueRange().setValues(sheetData);
-            tab = tab + "!A:Z"; // sets tab and interval.
-            sheetsClient.spreadsheets().values()
-                .update(spreadsheetId, tab, body)
-                .setValueInputOption("RAW")
-                .execute();
+            batch(spreadsheetId).campaignMetrics(tab, campaignMetrics).execute();
         } catch (Exception e) {
             throw new GoogleSheetsException("Could not send campaign metrics: " + e.getMessage());
         }
@@ -171,27 +130,7 @@ public class GoogleSheetsRepoGateway implements GoogleSheetsGateway {
             String tab,
             List<CampaignPerDay> campaignPerDays) throws GoogleSheetsException {
         try {
-            clearSheetTab(spreadsheetId, tab);
-            final List<List<Object>> sheetData = new ArrayList<>();
-            sheetData.add(List.of("date", "impressions", "clicks", "conversions", "cost", "hour", "dayOfWeek"));
-            for (CampaignPerDay obj : campaignPerDays) {
-                final List<Object> row = List.of(
-                    obj.getDate(),
-                    obj.getImpressions(),
-                    obj.getClicks(),
-                    obj.getConversions(),
-                    obj.getCost(),
-                    obj.getHour(),
-                    obj.getDayOfWeek()
-                );
-                sheetData.add(row);
-            }
-            final ValueRange body = new ValueRange().setValues(sheetData);
-            tab = tab + "!A:Z"; // sets tab and interval.
-            sheetsClient.spreadsheets().values()
-                .update(spreadsheetId, tab, body)
-                .setValueInputOption("RAW")
-                .execute();
+            batch(spreadsheetId).totalPerDay(tab, campaignPerDays).execute();
         } catch (Exception e) {
             throw new GoogleSheetsException("Could not send total data per days: " + e.getMessage());
         }
@@ -213,32 +152,7 @@ public class GoogleSheetsRepoGateway implements GoogleSheetsGateway {
             String tab,
             List<CampaignKeywordMetrics> campaignKeywordMetrics) throws GoogleSheetsException {
         try {
-            clearSheetTab(spreadsheetId, tab);
-            final List<List<Object>> sheetData = new ArrayList<>();
-            sheetData.add(List.of("date", "campaignName", "adGroupName", "keywordText", "matchType", "impressions", "clicks", "cost", "averageCpc", "conversions", "conversionRate", "dayOfWeek", "chanel"));
-            for (CampaignKeywordMetrics obj : campaignKeywordMetrics) {
-                final List<Object> row = List.of(
-                    obj.getDate(),
-                    obj.getCampaignName(),
-                    obj.getAdGroupName(),
-                    obj.getKeywordText(),
-                    obj.getMatchType(),
-                    obj.getImpressions(),
-                    obj.getClicks(),
-                    obj.getCost(),
-                    obj.getAverageCpc(),
-                    obj.getConversions(),
-                    obj.getConversionRate(),
-                    obj.getDayOfWeek()
-                );
-                sheetData.add(row);
-            }
-            final ValueRange body = new ValueRange().setValues(sheetData);
-            tab = tab + "!A:Z"; // sets tab and interval.
-            sheetsClient.spreadsheets().values()
-                .update(spreadsheetId, tab, body)
-                .setValueInputOption("RAW")
-                .execute();
+            batch(spreadsheetId).keywordMetrics(tab, campaignKeywordMetrics).execute();
         } catch (Exception e) {
             throw new GoogleSheetsException("Could not send keyword metrics: " + e.getMessage());
         }
@@ -260,30 +174,52 @@ public class GoogleSheetsRepoGateway implements GoogleSheetsGateway {
             String tab,
             List<CampaignTitleAndDescription> campaignTitleAndDescriptions) throws GoogleSheetsException {
         try {
-            clearSheetTab(spreadsheetId, tab);
-            final List<List<Object>> sheetData = new ArrayList<>();
-            sheetData.add(List.of("date", "campaignName", "adGroupName", "responsiveHeadlines", "responsiveDescriptions", "clicks", "impressions", "conversions"));
-            for (CampaignTitleAndDescription obj : campaignTitleAndDescriptions) {
-                final List<Object> row = List.of(
-                    obj.getDate(),
-                    obj.getCampaignName(),
-                    obj.getAdName(),
-                    obj.getResponsiveHeadlines() != null ? String.join(", ", obj.getResponsiveHeadlines()) : "",
-                    obj.getResponsiveDescriptions() != null ? String.join(", ", obj.getResponsiveDescriptions()) : "",
-                    obj.getClicks(),
-                    obj.getImpressions(),
-                    obj.getConversions()
-                );
-                sheetData.add(row);
-            }
-            final ValueRange body = new ValueRange().setValues(sheetData);
-            tab = tab + "!A:Z"; // sets tab and interval.
-            sheetsClient.spreadsheets().values()
-                .update(spreadsheetId, tab, body)
-                .setValueInputOption("RAW")
-                .execute();
+            batch(spreadsheetId).adTitleAndDescription(tab, campaignTitleAndDescriptions).execute();
         } catch (Exception e) {
             throw new GoogleSheetsException("Could not send title and descriptions to spreadsheet: " + e.getMessage());
         }
     }
+
+    /**
+     *
+     * This method starts a batch of writes to the tabs of one spreadsheet.
+     *
+     * <p>All the tabs added to the batch are cleared with a single 'batchClear' call and written with
+     * 'batchUpdate' calls of bounded size, instead of one clear and one update per tab. When the dispatcher is enabled,
+     * the batch is queued with the other writes of the spreadsheet, and may be merged with them. When the
+     * incremental sync is enabled, only the rows changed since the last write of each tab are sent. The rows
+     * are sent in blocks of bounded size by the chunked writer. The last appended day of the tabs is
+     * forgotten, since they are rewritten whole.<p/>
+     *
+     * @param spreadsheetId The spreadsheet id.
+     *
+     * @return An empty batch of the spreadsheet.
+     */
+    @Override
+    public SheetsBatch batch(String spreadsheetId) {
+        return new GoogleSheetsBatch(
+            sheetsClient,
+            spreadsheetId,
+            dispatcher,
+            tabSync != null ? tabSync : chunkedWriter != null ? chunkedWriter : GoogleSheetsBatch::send
+        ).forgetting(watermarks);
+    }
+
+    /**
+     *
+     * This method starts a batch of appends to the tabs of one spreadsheet.
+     *
+     * <p>The rows appended are not in the fingerprints of the incremental sync, so the fingerprints of the
+     * tabs are forgotten when the batch is executed, and their next whole write is not a diff. When the
+     * dispatcher is enabled, the appends are queued with the other writes of the spreadsheet, within its
+     * budget.<p/>
+     *
+     * @param spreadsheetId The spreadsheet id.
+     *
+     * @return An empty appending batch of the spreadsheet.
+     */
+    @Override
+    public SheetsBatch appendBatch(String spreadsheetId) {
+        return new GoogleSheetsBatch(sheetsClient, spreadsheetId, dispatcher).appending(tabSync);
+    }
 }
@@ -0,0 +1,117 @@
+package com.ads.report.infrastructure.gateway.sheets;
+
+import com.ads.report.application.gateway.metrics.MetricsSource;
+import com.ads.report.infrastructure.gateway.redis.RedisSheetFingerprintStore;
+import com.google.api.services.sheets.v4.Sheets;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *
+ * The incremental sending of the tabs of a spreadsheet, that writes only the rows changed since the last write.
+ *
+ * <p>The fingerprint of the rows last written to each tab is kept in Redis. A tab with a fingerprint gets only
+ * the runs of rows that differ from it, and a tab without one, or with one that cannot be trusted, is cleared
+ * and rewritten whole, like before. All the tabs still go in one 'batchClear' call, and their rows in the
+ * blocks of the chunked writer, and a tab that did not change sends nothing.<p/>
+ *
+ * <p>The fingerprints of the tabs are deleted before they are written, and saved again only after the write
+ * succeeds, so a failed write is followed by a whole rewrite instead of a diff against rows never written.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public class GoogleSheetsTabSync implements GoogleSheetsDispatcher.Sender, MetricsSource {
+
+    private final RedisSheetFingerprintStore fingerprintStore;
+    private final GoogleSheetsChunkedWriter writer;
+    private final AtomicLong fullTabs = new AtomicLong();
+    private final AtomicLong diffTabs = new AtomicLong();
+    private final AtomicLong unchangedTabs = new AtomicLong();
+    private final AtomicLong rowsSent = new AtomicLong();
+    private final AtomicLong rowsSkipped = new AtomicLong();
+
+    /**
+     *
+     * @param fingerprintStore The Redis store of the fingerprints of the tabs.
+     * @param writer The writer of the changed rows, in blocks of bounded size.
+     */
+    public GoogleSheetsTabSync(RedisSheetFingerprintStore fingerprintStore, GoogleSheetsChunkedWriter writer) {
+        this.fingerprintStore = fingerprintStore;
+        this.writer = writer;
+    }
+
+    /**
+     *
+     * Sends the rows of the tabs that changed since they were last written.
+     *
+     * @param sheetsClient The Google Sheets client.
+     * @param spreadsheetId The spreadsheet id.
+     * @param tabs The rows of each tab, with the headers.
+     * @param acquire Waits for the budget of one call.
+     *
+     * @throws IOException If any of the calls fails.
+     */
+    @Override
+    public void send(Sheets sheetsClient, String spreadsheetId, Map<String, List<List<Object>>> tabs, Runnable acquire) throws IOException {
+        final List<String> names = new ArrayList<>(tabs.keySet());
+        final List<byte[]> stored = fingerprintStore.getAll(spreadsheetId, names);
+        // Without deleting the old fingerprints, a failed write would leave them behind, so every tab is rewritten.
+        final boolean trusted = fingerprintStore.deleteAll(spreadsheetId, names);
+        final List<String> clears = new ArrayList<>();
+        final List<SheetTabDiff.Rows> updates = new ArrayList<>();
+        final Map<String, byte[]> fingerprints = new LinkedHashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            final String tab = names.get(i);
+            final List<List<Object>> rows = tabs.get(tab);
+            final SheetTabDiff.Fingerprint fingerprint = SheetTabDiff.fingerprint(rows);
+            final SheetTabDiff.Fingerprint old = trusted ? SheetTabDiff.Fingerprint.decode(stored.get(i)) : null;
+            final SheetTabDiff.Plan plan = old == null
+                ? SheetTabDiff.full(tab, rows)
+                : SheetTabDiff.diff(tab, old, rows, fingerprint);
+            if (old == null) fullTabs.incrementAndGet();
+            else if (plan.updates().isEmpty() && plan.clears().isEmpty()) unchangedTabs.incrementAndGet();
+            else diffTabs.incrementAndGet();
+            rowsSent.addAndGet(plan.rowsSent());
+            rowsSkipped.addAndGet(rows.size() - plan.rowsSent());
+            clears.addAll(plan.clears());
+            updates.addAll(plan.updates());
+            fingerprints.put(tab, fingerprint.encode());
+        }
+        writer.write(sheetsClient, spreadsheetId, clears, updates, acquire);
+        fingerprintStore.putAll(spreadsheetId, fingerprints);
+    }
+
+    /**
+     *
+     * Forgets the fingerprint of a tab cleared outside of the sync, so its next write is whole.
+     *
+     * @param spreadsheetId The spreadsheet id.
+     * @param tab The sheets tab.
+     */
+    public void forget(String spreadsheetId, String tab) {
+        fingerprintStore.deleteAll(spreadsheetId, List.of(tab));
+    }
+
+    @Override
+    public String metricsName() {
+        return "googleSheetsTabSync";
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        final Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("fullTabs", fullTabs.get());
+        metrics.put("diffTabs", diffTabs.get());
+        metrics.put("unchangedTabs", unchangedTabs.get());
+        metrics.put("rowsSent", rowsSent.get());
+        metrics.put("rowsSkipped", rowsSkipped.get());
+        return metrics;
+    }
+}
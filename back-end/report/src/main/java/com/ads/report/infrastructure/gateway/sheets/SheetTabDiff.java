@@ -0,0 +1,211 @@
+package com.ads.report.infrastructure.gateway.sheets;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ *
+ * The fingerprint of the rows written to a sheets tab, and the diff of new rows against it.
+ *
+ * <p>The fingerprint keeps a 64 bit hash of each row and the width of the widest row, so comparing it with
+ * the new rows tells which rows changed without reading the tab back. The diff then writes only the runs
+ * of changed rows, and the rows appended past the old ones, and clears the old rows past the new ones.<p/>
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.1
+ * @since 2025
+ * */
+public final class SheetTabDiff {
+
+    // Unchanged rows between two runs of changed ones, up to this many, are written again to send one range.
+    private static final int MERGE_GAP = 3;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private SheetTabDiff() {}
+
+    /**
+     *
+     * The fingerprint of the rows of a tab.
+     *
+     * @param rows The hash of each row.
+     * @param width The cells of the widest row.
+     */
+    public record Fingerprint(long[] rows, int width) {
+
+        /**
+         *
+         * @return The fingerprint encoded as the width followed by the hash of each row.
+         */
+        public byte[] encode() {
+            final ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + rows.length * Long.BYTES);
+            buffer.putInt(width);
+            for (long row : rows) buffer.putLong(row);
+            return buffer.array();
+        }
+
+        /**
+         *
+         * @param payload A fingerprint encoded by 'encode'.
+         *
+         * @return The fingerprint, or null when the payload is missing or malformed.
+         */
+        public static Fingerprint decode(byte[] payload) {
+            if (payload == null || payload.length < Integer.BYTES || (payload.length - Integer.BYTES) % Long.BYTES != 0) return null;
+            final ByteBuffer buffer = ByteBuffer.wrap(payload);
+            final int width = buffer.getInt();
+            final long[] rows = new long[buffer.remaining() / Long.BYTES];
+            for (int i = 0; i < rows.length; i++) rows[i] = buffer.getLong();
+            return new Fingerprint(rows, width);
+        }
+    }
+
+    /**
+     *
+     * A run of consecutive rows to write to a tab.
+     *
+     * @param tab The sheets tab.
+     * @param firstRow The number of the first row in the tab, from one.
+     * @param values The rows.
+     */
+    public record Rows(String tab, int firstRow, List<List<Object>> values) {}
+
+    /**
+     *
+     * The requests that bring a tab from its old rows to the new ones.
+     *
+     * @param clears The ranges to clear, before the updates.
+     * @param updates The runs of rows to write.
+     * @param rowsSent The rows written by the updates.
+     */
+    public record Plan(List<String> clears, List<Rows> updates, int rowsSent) {}
+
+    /**
+     *
+     * Takes the fingerprint of the rows of a tab.
+     *
+     * @param rows The rows, with the headers.
+     *
+     * @return The fingerprint.
+     */
+    public static Fingerprint fingerprint(List<List<Object>> rows) {
+        final long[] hashes = new long[rows.size()];
+        int width = 0;
+        for (int i = 0; i < hashes.length; i++) {
+            final List<Object> row = rows.get(i);
+            hashes[i] = hash(row);
+            width = Math.max(width, row.size());
+        }
+        return new Fingerprint(hashes, width);
+    }
+
+    /**
+     *
+     * Plans the rewrite of a whole tab: clearing it, and writing every row.
+     *
+     * @param tab The sheets tab.
+     * @param rows The rows, with the headers.
+     *
+     * @return The plan.
+     */
+    public static Plan full(String tab, List<List<Object>> rows) {
+        return new Plan(List.of(tab + "!A:Z"), List.of(new Rows(tab, 1, rows)), rows.size());
+    }
+
+    /**
+     *
+     * Plans the write of the rows of a tab that differ from the ones last written.
+     *
+     * @param tab The sheets tab.
+     * @param old The fingerprint of the rows last written.
+     * @param rows The new rows, with the headers.
+     * @param fingerprint The fingerprint of the new rows.
+     *
+     * @return The plan, with no requests when nothing changed.
+     */
+    public static Plan diff(String tab, Fingerprint old, List<List<Object>> rows, Fingerprint fingerprint) {
+        final long[] before = old.rows();
+        final long[] after = fingerprint.rows();
+        final List<Rows> updates = new ArrayList<>();
+        int rowsSent = 0;
+        int i = 0;
+        while (i < after.length) {
+            if (i < before.length && before[i] == after[i]) {
+                i++;
+                continue;
+            }
+            // Extending the run over the changed rows, and over the short gaps between them.
+            final int start = i;
+            int end = i + 1;
+            for (int next = end; next < after.length && next - end <= MERGE_GAP; next++) {
+                if (next >= before.length || before[next] != after[next]) end = next + 1;
+            }
+            updates.add(new Rows(tab, start + 1, run(rows, start, end, before.length, old.width())));
+            rowsSent += end - start;
+            i = end;
+        }
+        final List<String> clears = after.length < before.length
+            ? List.of(tab + "!A" + (after.length + 1) + ":Z" + before.length)
+            : List.of();
+        return new Plan(clears, updates, rowsSent);
+    }
+
+    /**
+     *
+     * Views a run of the new rows, built only when they are read, like the rows themselves.
+     *
+     * @param rows The new rows.
+     * @param start The first row of the run.
+     * @param end The row after the last of the run.
+     * @param oldRows The number of old rows.
+     * @param oldWidth The cells of the widest old row.
+     *
+     * @return The rows of the run.
+     */
+    private static List<List<Object>> run(List<List<Object>> rows, int start, int end, int oldRows, int oldWidth) {
+        return new AbstractList<>() {
+            @Override
+            public List<Object> get(int index) {
+                final int r = start + index;
+                // The cells an old row had past the new one are blanked.
+                return r < oldRows ? padded(rows.get(r), oldWidth) : rows.get(r);
+            }
+
+            @Override
+            public int size() {
+                return end - start;
+            }
+        };
+    }
+
+    private static List<Object> padded(List<Object> row, int width) {
+        if (row.size() >= width) return row;
+        final List<Object> cells = new ArrayList<>(width);
+        cells.addAll(row);
+        cells.addAll(Collections.nCopies(width - row.size(), ""));
+        return cells;
+    }
+
+    /**
+     *
+     * Hashes the text of the cells of a row, with FNV-1a, separating the cells.
+     *
+     * @param row The row.
+     *
+     * @return The hash.
+     */
+    private static long hash(List<Object> row) {
+        long hash = FNV_OFFSET;
+        for (Object cell : row) {
+            final String text = String.valueOf(cell);
+            for (int c = 0; c < text.length(); c++) {
+                hash = (hash ^ text.charAt(c)) * FNV_PRIME;
+            }
+            hash = (hash ^ 0x1f) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
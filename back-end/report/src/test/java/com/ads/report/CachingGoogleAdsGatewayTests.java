@@ -0,0 +1,137 @@
+package com.ads.report;
+
+import com.ads.report.application.gateway.ads.GoogleAdsGateway;
+import com.ads.report.domain.campaign.CampaignMetrics;
+import com.ads.report.domain.campaign.CampaignTitleAndDescription;
+import com.ads.report.infrastructure.gateway.ads.CachingGoogleAdsGateway;
+import com.ads.report.infrastructure.gateway.redis.RedisReportCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The caching Google Ads gateway tests.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+@ExtendWith(MockitoExtension.class)
+public class CachingGoogleAdsGatewayTests {
+
+    @Mock
+    private GoogleAdsGateway delegate;
+    @Mock
+    private RedisTemplate<String, byte[]> redisTemplate;
+    @Mock
+    private ValueOperations<String, byte[]> valueOperations;
+
+    // The Redis values and their time to live, kept in memory.
+    private final Map<String, byte[]> values = new HashMap<>();
+    private final Map<String, Duration> timesToLive = new HashMap<>();
+    private CachingGoogleAdsGateway gateway;
+
+    CampaignMetrics campaignMetrics = new CampaignMetrics("2025-01-10", "FRIDAY", 1L, "campaign", "adGroup", "ENABLED", 10L, 2L, 1.5, null, 0.2, 0.75, 0d);
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(valueOperations.get(anyString())).thenAnswer(i -> values.get(i.<String>getArgument(0)));
+        lenient().doAnswer(i -> {
+            values.put(i.getArgument(0), i.getArgument(1));
+            timesToLive.put(i.getArgument(0), i.getArgument(2));
+            return null;
+        }).when(valueOperations).set(anyString(), any(byte[].class), any(Duration.class));
+        final Clock clock = Clock.fixed(Instant.parse("2025-01-20T12:00:00Z"), ZoneOffset.UTC);
+        gateway = new CachingGoogleAdsGateway(
+            delegate, new RedisReportCache(redisTemplate), Duration.ofHours(12), Duration.ofMinutes(5), 1, 100, clock
+        );
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("user-1", null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     *
+     * Testing 'getCampaignMetrics' is fetched once, then served from the cache with the long time to live.
+     *
+     */
+    @Test
+    void getCampaignMetrics() {
+        when(delegate.getCampaignMetrics("111", "2025-01-01", "2025-01-10", true)).thenReturn(List.of(campaignMetrics));
+
+        gateway.getCampaignMetrics("111", "2025-01-01", "2025-01-10", true);
+        final List<CampaignMetrics> cached = gateway.getCampaignMetrics("111", "2025-01-01", "2025-01-10", true);
+
+        // Tests if the decoded row keeps every field, including the null ones.
+        assertEquals("campaign", cached.getFirst().getCampaignName());
+        assertEquals(0.75, cached.getFirst().getAverageCpc());
+        assertNull(cached.getFirst().getConversions());
+        assertEquals(Duration.ofHours(12), timesToLive.get("report:cache:user-1:campaign:111:2025-01-01:2025-01-10:true"));
+        verify(delegate, times(1)).getCampaignMetrics(anyString(), anyString(), anyString(), anyBoolean());
+    }
+
+    /**
+     *
+     * Testing a range that reaches today gets the short time to live, and another principal does not share the cache.
+     *
+     */
+    @Test
+    void getAdTitleAndDescriptions() {
+        final CampaignTitleAndDescription ad = new CampaignTitleAndDescription("2025-01-20", "campaign", "ad", List.of("h1", "h2"), null, 1L, 2L, 0);
+        when(delegate.getAdTitleAndDescriptions("111", "2025-01-01", "2025-01-20")).thenReturn(List.of(ad));
+
+        assertEquals(List.of("h1", "h2"), gateway.getAdTitleAndDescriptions("111", "2025-01-01", "2025-01-20").getFirst().getResponsiveHeadlines());
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("user-2", null));
+        gateway.getAdTitleAndDescriptions("111", "2025-01-01", "2025-01-20");
+
+        assertEquals(Duration.ofMinutes(5), timesToLive.get("report:cache:user-1:ad:111:2025-01-01:2025-01-20:false"));
+        verify(delegate, times(2)).getAdTitleAndDescriptions(anyString(), anyString(), anyString());
+    }
+
+    /**
+     *
+     * Testing 'streamCampaignMetrics' caches the streamed rows, and replays them on the next call.
+     *
+     */
+    @Test
+    void streamCampaignMetrics() {
+        doAnswer(i -> {
+            i.<Consumer<CampaignMetrics>>getArgument(4).accept(campaignMetrics);
+            return null;
+        }).when(delegate).streamCampaignMetrics(anyString(), anyString(), anyString(), anyBoolean(), any());
+
+        final List<CampaignMetrics> first = new ArrayList<>();
+        final List<CampaignMetrics> second = new ArrayList<>();
+        gateway.streamCampaignMetrics("111", "2025-01-01", "2025-01-10", true, first::add);
+        gateway.streamCampaignMetrics("111", "2025-01-01", "2025-01-10", true, second::add);
+
+        assertEquals(1, first.size());
+        assertEquals("adGroup", second.getFirst().getAdGroupName());
+        verify(delegate, times(1)).streamCampaignMetrics(anyString(), anyString(), anyString(), anyBoolean(), any());
+    }
+}
@@ -0,0 +1,88 @@
+package com.ads.report;
+
+import com.ads.report.domain.account.AccountMetrics;
+import com.ads.report.domain.campaign.CampaignMetrics;
+import com.ads.report.domain.campaign.CampaignTitleAndDescription;
+import com.ads.report.infrastructure.gateway.csv.CsvRepoGateway;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The typed CSV writer tests.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+@ExtendWith(MockitoExtension.class)
+public class CsvTests {
+
+    @Mock
+    private HttpServletResponse response;
+
+    private final CsvRepoGateway csvRepoGateway = new CsvRepoGateway();
+
+    /**
+     *
+     * Testing 'campaignMetricsToCsv' writes the columns in the field order, with null cells empty.
+     *
+     */
+    @Test
+    void campaignMetricsToCsv() throws Exception {
+        final StringWriter out = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(out));
+        final CampaignMetrics metrics = new CampaignMetrics("2025-01-01", "MONDAY", null, null, null, null, 10L, 2L, 1.5, 0d, 0.2, 0.75, 0d);
+
+        csvRepoGateway.campaignMetricsToCsv(List.of(metrics), response);
+
+        final String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("\"date\",\"dayOfWeek\",\"campaignId\",\"campaignName\",\"adGroupName\",\"status\",\"impressions\",\"clicks\",\"cost\",\"conversions\",\"ctr\",\"averageCpc\",\"averageCpa\"", lines[0]);
+        assertEquals("\"2025-01-01\",\"MONDAY\",\"\",\"\",\"\",\"\",\"10\",\"2\",\"1.5\",\"0.0\",\"0.2\",\"0.75\",\"0.0\"", lines[1]);
+    }
+
+    /**
+     *
+     * Testing 'adTitleAndDescriptionToCsv' writes the headlines and descriptions in one cell, as the lists were rendered before.
+     *
+     */
+    @Test
+    void adTitleAndDescriptionToCsv() throws Exception {
+        final StringWriter out = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(out));
+        final CampaignTitleAndDescription ad = new CampaignTitleAndDescription("2025-01-01", "campaign", "ad", List.of("h1", "h2"), null, 1L, 2L, 0);
+
+        csvRepoGateway.adTitleAndDescriptionToCsv(List.of(ad), response);
+
+        final String[] lines = out.toString().split("\n");
+        assertEquals("\"2025-01-01\",\"campaign\",\"ad\",\"[h1, h2]\",\"\",\"1\",\"2\",\"0.0\"", lines[1]);
+    }
+
+    /**
+     *
+     * Testing the long columns, like the ids, are written as integers, without a decimal part or an exponent.
+     *
+     */
+    @Test
+    void accountMetricsToCsv() throws Exception {
+        final StringWriter out = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(out));
+        final AccountMetrics metrics = new AccountMetrics(4232301839L, "client1", 10L, 2L, 1.5, 0d, 0.2, 0.75, 0d);
+
+        csvRepoGateway.accountMetricsToCsv(List.of(metrics), response);
+
+        final String[] lines = out.toString().split("\n");
+        assertEquals("\"4232301839\",\"client1\",\"10\",\"2\",\"1.5\",\"0.0\",\"0.2\",\"0.75\",\"0.0\"", lines[1]);
+    }
+}
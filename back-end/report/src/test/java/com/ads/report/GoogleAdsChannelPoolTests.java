@@ -0,0 +1,53 @@
+package com.ads.report;
+
+import com.ads.report.infrastructure.gateway.ads.GoogleAdsChannelPool;
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The Google Ads channel pool tests.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+public class GoogleAdsChannelPoolTests {
+
+    // The channels connect lazily, so no call leaves the test.
+    private final GoogleAdsChannelPool pool = new GoogleAdsChannelPool("localhost:443", "token", 2, 1, 60, 1024);
+    private final GoogleCredentials credentials = GoogleCredentials.create(new AccessToken("access", null));
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    /**
+     *
+     * Testing 'lease' spreads the leases over the channels, and gives them back on close.
+     *
+     */
+    @Test
+    void lease() throws Exception {
+        try (GoogleAdsChannelPool.Lease first = pool.lease(credentials);
+             GoogleAdsChannelPool.Lease second = pool.lease(credentials)) {
+            assertNotNull(first.client());
+            assertNotSame(first.client(), second.client());
+            assertArrayEquals(new int[] {1, 1}, (int[]) pool.metrics().get("inFlightPerChannel"));
+            assertEquals(0, pool.metrics().get("availableStreams"));
+        }
+        try (GoogleAdsChannelPool.Lease third = pool.lease(credentials)) {
+            assertNotNull(third.client());
+        }
+
+        // Tests if the channels were given back and reused.
+        assertArrayEquals(new int[] {0, 0}, (int[]) pool.metrics().get("inFlightPerChannel"));
+        assertEquals(3L, pool.metrics().get("leases"));
+        assertEquals(1L, pool.metrics().get("channelReuses"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.ads.report;
+
+import com.ads.report.infrastructure.gateway.ads.GoogleAdsRateLimiter;
+import com.google.api.gax.grpc.GrpcStatusCode;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.ApiExceptionFactory;
+import io.grpc.Status;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The Google Ads rate limiter tests.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+public class GoogleAdsRateLimiterTests {
+
+    private static ApiException error(Status.Code code) {
+        return ApiExceptionFactory.createException(new RuntimeException(code.name()), GrpcStatusCode.of(code), false);
+    }
+
+    /**
+     *
+     * Testing the transient and quota errors are retried, and the quota errors slow the customer down.
+     *
+     */
+    @Test
+    void runRetries() {
+        final GoogleAdsRateLimiter limiter = new GoogleAdsRateLimiter(100, 100, 1, 4, 1, 4);
+        final AtomicInteger attempts = new AtomicInteger();
+
+        limiter.run("1234567890", () -> {
+            if (attempts.incrementAndGet() == 1) throw error(Status.Code.UNAVAILABLE);
+            if (attempts.get() == 2) throw error(Status.Code.RESOURCE_EXHAUSTED);
+        }, () -> true);
+
+        // Tests if the query succeeded on its third attempt, with the customer rate halved once.
+        assertEquals(3, attempts.get());
+        assertEquals(2L, limiter.metrics().get("retries"));
+        assertEquals(1L, limiter.metrics().get("quotaErrors"));
+        assertEquals(1L, limiter.metrics().get("transientErrors"));
+        assertTrue((double) limiter.metrics().get("minCustomerRate") < 100);
+    }
+
+    /**
+     *
+     * Testing the errors are not retried when they are permanent, when rows were delivered, or past the last retry.
+     *
+     */
+    @Test
+    void runFails() {
+        final GoogleAdsRateLimiter limiter = new GoogleAdsRateLimiter(100, 100, 1, 2, 1, 4);
+        final AtomicInteger attempts = new AtomicInteger();
+
+        // Tests if a permanent error fails on its first attempt.
+        assertThrows(ApiException.class, () -> limiter.run("1", () -> {
+            attempts.incrementAndGet();
+            throw error(Status.Code.INVALID_ARGUMENT);
+        }, () -> true));
+        assertEquals(1, attempts.get());
+
+        // Tests if a query that delivered rows is not retried.
+        attempts.set(0);
+        assertThrows(ApiException.class, () -> limiter.run("1", () -> {
+            attempts.incrementAndGet();
+            throw error(Status.Code.UNAVAILABLE);
+        }, () -> false));
+        assertEquals(1, attempts.get());
+
+        // Tests if the retries stop after the maximum.
+        attempts.set(0);
+        assertThrows(ApiException.class, () -> limiter.run("1", () -> {
+            attempts.incrementAndGet();
+            throw error(Status.Code.UNAVAILABLE);
+        }, () -> true));
+        assertEquals(3, attempts.get());
+        assertEquals(1L, limiter.metrics().get("exhaustedRetries"));
+    }
+}
@@ -0,0 +1,153 @@
+package com.ads.report;
+
+import com.ads.report.domain.campaign.CampaignPerDay;
+import com.ads.report.infrastructure.gateway.ads.GoogleAdsChannelPool;
+import com.ads.report.infrastructure.gateway.ads.GoogleAdsRepoGateway;
+import com.google.ads.googleads.lib.GoogleAdsClient;
+import com.google.ads.googleads.v17.common.Metrics;
+import com.google.ads.googleads.v17.common.Segments;
+import com.google.ads.googleads.v17.enums.DayOfWeekEnum;
+import com.google.ads.googleads.v17.services.GoogleAdsRow;
+import com.google.ads.googleads.v17.services.GoogleAdsServiceClient;
+import com.google.ads.googleads.v17.services.SearchGoogleAdsRequest;
+import com.google.ads.googleads.v17.services.SearchGoogleAdsStreamRequest;
+import com.google.ads.googleads.v17.services.SearchGoogleAdsStreamResponse;
+import com.google.api.gax.grpc.GrpcCallContext;
+import com.google.api.gax.rpc.ApiCallContext;
+import com.google.api.gax.rpc.ServerStream;
+import com.google.api.gax.rpc.ServerStreamingCallable;
+import com.google.api.gax.rpc.UnaryCallable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ *
+ * The Google Ads repository gateway tests, on the queries it sends to the service client.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+@ExtendWith(MockitoExtension.class)
+public class GoogleAdsRepoGatewayTests {
+
+    @Mock
+    private GoogleAdsClient googleAdsClient;
+    @Mock
+    private GoogleAdsChannelPool channelPool;
+    @Mock
+    private GoogleAdsServiceClient serviceClient;
+    @Mock
+    private ServerStreamingCallable<SearchGoogleAdsStreamRequest, SearchGoogleAdsStreamResponse> streamCallable;
+    @Mock
+    private ServerStream<SearchGoogleAdsStreamResponse> stream;
+    @Mock
+    private UnaryCallable<SearchGoogleAdsRequest, GoogleAdsServiceClient.SearchPagedResponse> pagedCallable;
+    @Mock
+    private GoogleAdsServiceClient.SearchPagedResponse pagedResponse;
+    @Captor
+    private ArgumentCaptor<SearchGoogleAdsStreamRequest> streamRequest;
+    @Captor
+    private ArgumentCaptor<SearchGoogleAdsRequest> pagedRequest;
+    @Captor
+    private ArgumentCaptor<ApiCallContext> context;
+
+    private GoogleAdsRepoGateway googleAdsRepoGateway;
+
+    private final GoogleAdsRow monday = row("2025-01-13", DayOfWeekEnum.DayOfWeek.MONDAY, 100L);
+    private final GoogleAdsRow tuesday = row("2025-01-14", DayOfWeekEnum.DayOfWeek.TUESDAY, 200L);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // The service client is leased from the channel pool, with the defaults of the properties.
+        googleAdsRepoGateway = new GoogleAdsRepoGateway();
+        ReflectionTestUtils.setField(googleAdsRepoGateway, "googleAdsClient", googleAdsClient);
+        ReflectionTestUtils.setField(googleAdsRepoGateway, "channelPool", channelPool);
+        ReflectionTestUtils.setField(googleAdsRepoGateway, "searchStream", true);
+        ReflectionTestUtils.setField(googleAdsRepoGateway, "internMaxEntries", 4096);
+        when(channelPool.lease(any())).thenReturn(GoogleAdsChannelPool.Lease.unpooled(serviceClient));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    /**
+     *
+     * Testing the rows of every response of the searchStream rpc are handed on, logged in through the manager account.
+     *
+     */
+    @Test
+    void searchStream() {
+        when(serviceClient.searchStreamCallable()).thenReturn(streamCallable);
+        when(streamCallable.call(streamRequest.capture(), context.capture())).thenReturn(stream);
+        // Two responses, each one with a batch of rows.
+        when(stream.iterator()).thenReturn(List.of(
+            SearchGoogleAdsStreamResponse.newBuilder().addResults(monday).build(),
+            SearchGoogleAdsStreamResponse.newBuilder().addResults(tuesday).build()
+        ).iterator());
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        final List<CampaignPerDay> days = new ArrayList<>();
+        googleAdsRepoGateway.throughManager("999-000-1111", () -> {
+            googleAdsRepoGateway.streamTotalPerDay("111", "2025-01-13", "2025-01-14", days::add);
+            return null;
+        });
+
+        assertEquals(List.of("2025-01-13", "2025-01-14"), days.stream().map(CampaignPerDay::getDate).toList());
+        assertEquals(200L, days.get(1).getImpressions());
+        assertEquals("111", streamRequest.getValue().getCustomerId());
+        assertTrue(streamRequest.getValue().getQuery().contains("2025-01-13"));
+        // Tests if the query carries the manager account as the 'login-customer-id' header.
+        final GrpcCallContext grpcContext = (GrpcCallContext) context.getValue();
+        assertEquals(List.of("9990001111"), grpcContext.getExtraHeaders().get("login-customer-id"));
+        verify(serviceClient, never()).searchPagedCallable();
+    }
+
+    /**
+     *
+     * Testing the paged search is used instead of the stream when 'api.googleads.searchStream' is false.
+     *
+     */
+    @Test
+    void searchPaged() {
+        ReflectionTestUtils.setField(googleAdsRepoGateway, "searchStream", false);
+        when(serviceClient.searchPagedCallable()).thenReturn(pagedCallable);
+        when(pagedCallable.call(pagedRequest.capture(), context.capture())).thenReturn(pagedResponse);
+        when(pagedResponse.iterateAll()).thenReturn(List.of(monday, tuesday));
+
+        final List<CampaignPerDay> days = new ArrayList<>();
+        googleAdsRepoGateway.streamTotalPerDay("111", "2025-01-13", "2025-01-14", days::add);
+
+        assertEquals(List.of("2025-01-13", "2025-01-14"), days.stream().map(CampaignPerDay::getDate).toList());
+        assertEquals("TUESDAY", days.get(1).getDayOfWeek());
+        assertEquals("111", pagedRequest.getValue().getCustomerId());
+        // Tests if, out of a request through a manager account, the default call context is used.
+        assertNull(context.getValue());
+        verify(serviceClient, never()).searchStreamCallable();
+    }
+
+    private static GoogleAdsRow row(String date, DayOfWeekEnum.DayOfWeek dayOfWeek, long impressions) {
+        return GoogleAdsRow.newBuilder()
+            .setSegments(Segments.newBuilder().setDate(date).setHour(10).setDayOfWeek(dayOfWeek))
+            .setMetrics(Metrics.newBuilder().setImpressions(impressions).setClicks(10L).setCostMicros(2_000_000L))
+            .build();
+    }
+}
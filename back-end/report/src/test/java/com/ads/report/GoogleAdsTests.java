@@ -5,7 +5,10 @@ import com.ads.report.domain.account.AccountMetrics;
 import com.ads.report.domain.campaign.CampaignKeywordMetrics;
 import com.ads.report.domain.campaign.CampaignMetrics;
 import com.ads.report.domain.campaign.CampaignTitleAndDescription;
+import com.ads.report.domain.columnar.MetricTable;
+import com.ads.report.domain.columnar.RollupDimension;
 import com.ads.report.domain.manager.ManagerAccountInfo;
+import com.ads.report.infrastructure.gateway.ads.GaqlRollupQuery;
 import com.ads.report.infrastructure.gateway.ads.GoogleAdsRepoGateway;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,6 +19,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -271,4 +275,76 @@ public class GoogleAdsTests {
         // Verifies how many times 'getAdTitleAndDescriptions' was called.
         verify(googleAdsRepoGateway, times(3)).getAdTitleAndDescriptions(anyString(), anyString(), anyString());
     }
+
+    /**
+     *
+     * Testing 'streamCampaignMetrics' method, filling the days without metrics while streaming.
+     *
+     */
+    @Test
+    void streamCampaignMetrics() {
+        // Mocking interface's method 'streamCampaignMetrics' to push two days and one row out of the period.
+        doAnswer(invocation -> {
+            final Consumer<CampaignMetrics> consumer = invocation.getArgument(4);
+            consumer.accept(campaignMetrics1);
+            consumer.accept(campaignMetrics2);
+            consumer.accept(new CampaignMetrics("2025-02-01", "SATURDAY", 0L, "", "", "", 0L, 0L, 0d, 0d, 0d, 0d, 0d));
+            return null;
+        }).when(googleAdsRepoGateway).streamCampaignMetrics(anyString(), anyString(), anyString(), anyBoolean(), any());
+
+        final List<CampaignMetrics> streamed = new ArrayList<>();
+        googleAdsUseCase.streamCampaignMetrics("1231212", "2025-01-11", "2025-01-14", true, streamed::add);
+
+        // Tests if the rows are in date order, with one filler for each empty day, and the out of period row dropped.
+        assertEquals(
+            List.of("2025-01-11", "2025-01-12", "2025-01-13", "2025-01-14"),
+            streamed.stream().map(CampaignMetrics::getDate).toList()
+        );
+        assertEquals("campaignName", streamed.get(1).getCampaignName());
+        assertEquals("null", streamed.getFirst().getCampaignName());
+    }
+
+    /**
+     *
+     * Testing an invalid period fails before querying Google Ads.
+     *
+     */
+    @Test
+    void getCampaignMetricsInvalidPeriod() {
+        // Tests if the start date after the end date throws an exception.
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> googleAdsUseCase.getCampaignMetrics("1234", "2025-01-31", "2025-01-01", true)
+        );
+
+        // Verifies 'getCampaignMetrics' was never called.
+        verify(googleAdsRepoGateway, never()).getCampaignMetrics(anyString(), anyString(), anyString(), anyBoolean());
+    }
+
+    /**
+     *
+     * Testing 'getCampaignRollup' queries only the month segment, and merges the rows of each month.
+     *
+     */
+    @Test
+    void getCampaignRollup() {
+        final GaqlRollupQuery query = GaqlRollupQuery.of("ad_group", RollupDimension.MONTH).orElseThrow();
+        // The rows of two ad groups in january, as returned by the rollup query.
+        final MetricTable rows = query.table();
+        rows.appendRow().date("2025-01-01").longValue(100L).longValue(10L).doubleValue(5d).doubleValue(1d);
+        rows.appendRow().date("2025-01-01").longValue(300L).longValue(30L).doubleValue(15d).doubleValue(3d);
+
+        when(googleAdsRepoGateway.getCampaignRollupTable("1234", "2025-01-01", "2025-01-31", true, RollupDimension.MONTH)).thenReturn(rows);
+
+        final MetricTable rollup = googleAdsUseCase.getCampaignRollup("1234", "2025-01-01", "2025-01-31", true, RollupDimension.MONTH);
+
+        // Tests if the query has no date segment, and the month was summed.
+        assertTrue(query.build().startsWith("SELECT segments.month, metrics.impressions"));
+        assertFalse(query.build().contains("segments.date,"));
+        assertEquals(1, rollup.size());
+        assertEquals("2025-01", rollup.string(0, 0));
+        assertEquals(400L, rollup.longValue(1, 0));
+        assertEquals(0.5, rollup.doubleValue(rollup.column("averageCpc"), 0), 1e-9);
+        assertTrue(GaqlRollupQuery.of("ad_group", RollupDimension.KEYWORD).isEmpty());
+    }
 }
@@ -0,0 +1,132 @@
+package com.ads.report;
+
+import com.ads.report.application.gateway.sheets.SheetsWatermarkGateway;
+import com.ads.report.domain.account.AccountMetrics;
+import com.ads.report.domain.campaign.CampaignPerDay;
+import com.ads.report.infrastructure.gateway.sheets.GoogleSheetsBatch;
+import com.google.api.services.sheets.v4.Sheets;
+import com.google.api.services.sheets.v4.model.BatchClearValuesRequest;
+import com.google.api.services.sheets.v4.model.BatchUpdateValuesRequest;
+import com.google.api.services.sheets.v4.model.ValueRange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ *
+ * The Google Sheets batch tests, on the requests it sends to the spreadsheet.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+@ExtendWith(MockitoExtension.class)
+public class GoogleSheetsBatchTests {
+
+    @Mock
+    private Sheets sheetsClient;
+    @Mock
+    private Sheets.Spreadsheets spreadsheets;
+    @Mock
+    private Sheets.Spreadsheets.Values values;
+    @Mock
+    private Sheets.Spreadsheets.Values.BatchClear batchClear;
+    @Mock
+    private Sheets.Spreadsheets.Values.BatchUpdate batchUpdate;
+    @Mock
+    private Sheets.Spreadsheets.Values.Append append;
+    @Mock
+    private SheetsWatermarkGateway watermarks;
+    @Captor
+    private ArgumentCaptor<BatchClearValuesRequest> cleared;
+    @Captor
+    private ArgumentCaptor<BatchUpdateValuesRequest> updated;
+    @Captor
+    private ArgumentCaptor<String> appendedRanges;
+    @Captor
+    private ArgumentCaptor<ValueRange> appended;
+
+    private final List<AccountMetrics> accountMetrics = List.of(new AccountMetrics(111L, "client1", 10L, 2L, 1.5, 0d, 0.2, 0.75, 0d));
+    private final List<CampaignPerDay> campaignPerDays = List.of(
+        new CampaignPerDay("2025-01-01", 10L, 1L, 0d, 1.0, 0, "WEDNESDAY"),
+        new CampaignPerDay("2025-01-02", 20L, 2L, 0d, 2.0, 0, "THURSDAY")
+    );
+
+    @BeforeEach
+    void setUp() {
+        when(sheetsClient.spreadsheets()).thenReturn(spreadsheets);
+        when(spreadsheets.values()).thenReturn(values);
+    }
+
+    /**
+     *
+     * Testing a batch of many tabs is sent as one 'batchClear' and one 'batchUpdate', with RAW input and a range per tab.
+     *
+     */
+    @Test
+    void execute() throws Exception {
+        when(values.batchClear(eq("sheet"), cleared.capture())).thenReturn(batchClear);
+        when(values.batchUpdate(eq("sheet"), updated.capture())).thenReturn(batchUpdate);
+
+        new GoogleSheetsBatch(sheetsClient, "sheet")
+            .forgetting(watermarks)
+            .accountMetrics("client1-conta", accountMetrics)
+            .totalPerDay("client1-grafico", campaignPerDays)
+            .execute();
+
+        verify(values, times(1)).batchClear(anyString(), any());
+        verify(values, times(1)).batchUpdate(anyString(), any());
+        verify(values, never()).append(anyString(), anyString(), any());
+        verify(batchClear).execute();
+        verify(batchUpdate).execute();
+        assertEquals(List.of("client1-conta!A:Z", "client1-grafico!A:Z"), cleared.getValue().getRanges());
+
+        // Tests if each tab is written to its own range, from its headers.
+        final BatchUpdateValuesRequest update = updated.getValue();
+        assertEquals("RAW", update.getValueInputOption());
+        assertEquals(List.of("client1-conta!A:Z", "client1-grafico!A:Z"), update.getData().stream().map(ValueRange::getRange).toList());
+        assertEquals(2, update.getData().getFirst().getValues().size());
+        assertEquals(3, update.getData().get(1).getValues().size());
+        assertEquals("date", update.getData().get(1).getValues().getFirst().getFirst());
+        assertEquals("2025-01-02", update.getData().get(1).getValues().get(2).getFirst());
+        verify(watermarks).forget("sheet", List.of("client1-conta", "client1-grafico"));
+    }
+
+    /**
+     *
+     * Testing an appending batch adds the rows of each tab after its rows, without the headers and without clearing it.
+     *
+     */
+    @Test
+    void append() throws Exception {
+        when(values.append(eq("sheet"), appendedRanges.capture(), appended.capture())).thenReturn(append);
+        when(append.setValueInputOption(anyString())).thenReturn(append);
+        when(append.setInsertDataOption(anyString())).thenReturn(append);
+
+        new GoogleSheetsBatch(sheetsClient, "sheet")
+            .appending(null)
+            .totalPerDay("client1-grafico", campaignPerDays)
+            // A tab with no rows has nothing to append.
+            .accountMetrics("client1-conta", List.of())
+            .execute();
+
+        verify(values, never()).batchClear(anyString(), any());
+        verify(values, never()).batchUpdate(anyString(), any());
+        verify(values, times(1)).append(anyString(), anyString(), any());
+        verify(append).setValueInputOption("RAW");
+        verify(append).setInsertDataOption("INSERT_ROWS");
+        verify(append).execute();
+        assertEquals("client1-grafico!A:Z", appendedRanges.getValue());
+        assertEquals(2, appended.getValue().getValues().size());
+        assertEquals("2025-01-01", appended.getValue().getValues().getFirst().getFirst());
+    }
+}
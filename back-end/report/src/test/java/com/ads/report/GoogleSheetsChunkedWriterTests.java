@@ -0,0 +1,72 @@
+package com.ads.report;
+
+import com.ads.report.infrastructure.gateway.sheets.GoogleSheetsChunkedWriter;
+import com.google.api.services.sheets.v4.Sheets;
+import com.google.api.services.sheets.v4.model.BatchClearValuesRequest;
+import com.google.api.services.sheets.v4.model.BatchUpdateValuesRequest;
+import com.google.api.services.sheets.v4.model.ValueRange;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ *
+ * The Google Sheets chunked writer tests.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+public class GoogleSheetsChunkedWriterTests {
+
+    /**
+     *
+     * Testing the tabs are cleared once, and their rows written in blocks to consecutive ranges, each call taking its budget.
+     *
+     */
+    @Test
+    void send() throws Exception {
+        final Sheets sheetsClient = mock(Sheets.class, RETURNS_DEEP_STUBS);
+        final Sheets.Spreadsheets.Values values = sheetsClient.spreadsheets().values();
+        final List<List<Object>> perDay = new ArrayList<>();
+        for (int i = 0; i < 25; i++) perDay.add(List.of("2025-01-" + i, i));
+        final List<List<Object>> campaigns = new ArrayList<>();
+        for (int i = 0; i < 3; i++) campaigns.add(List.of("campaign " + i));
+
+        try (GoogleSheetsChunkedWriter writer = new GoogleSheetsChunkedWriter(10, 1)) {
+            final Map<String, List<List<Object>>> tabs = new LinkedHashMap<>();
+            tabs.put("a-grafico", perDay);
+            tabs.put("a-campanhas", campaigns);
+            final AtomicInteger acquired = new AtomicInteger();
+            writer.send(sheetsClient, "sheet", tabs, acquired::incrementAndGet);
+            final ArgumentCaptor<BatchUpdateValuesRequest> updates = ArgumentCaptor.forClass(BatchUpdateValuesRequest.class);
+            verify(values, times(1)).batchClear(eq("sheet"), any(BatchClearValuesRequest.class));
+            verify(values, times(3)).batchUpdate(eq("sheet"), updates.capture());
+
+            // Tests if every block holds at most 10 rows, and the ranges cover each tab from its first row.
+            final List<ValueRange> ranges = updates.getAllValues().stream().flatMap(u -> u.getData().stream()).toList();
+            for (BatchUpdateValuesRequest update : updates.getAllValues()) {
+                assertTrue(update.getData().stream().mapToInt(r -> r.getValues().size()).sum() <= 10);
+            }
+            assertEquals(28, ranges.stream().mapToInt(r -> r.getValues().size()).sum());
+            assertEquals(
+                Set.of("a-grafico!A1", "a-grafico!A11", "a-grafico!A21"),
+                ranges.stream().map(ValueRange::getRange).filter(r -> r.startsWith("a-grafico")).collect(Collectors.toSet())
+            );
+            assertEquals(28L, writer.metrics().get("rowsWritten"));
+            assertEquals(4, acquired.get());
+        }
+    }
+}
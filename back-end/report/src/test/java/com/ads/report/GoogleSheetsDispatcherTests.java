@@ -0,0 +1,123 @@
+package com.ads.report;
+
+import com.ads.report.application.exception.GoogleSheetsException;
+import com.ads.report.infrastructure.gateway.sheets.GoogleSheetsDispatcher;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.services.sheets.v4.Sheets;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ *
+ * The Google Sheets dispatcher tests.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+public class GoogleSheetsDispatcherTests {
+
+    private final Sheets sheetsClient = mock(Sheets.class);
+
+    private static Map<String, List<List<Object>>> tab(String name) {
+        return Map.of(name, List.of(List.of("date"), List.of("2025-01-10")));
+    }
+
+    /**
+     *
+     * Testing the writes queued while a spreadsheet is being written are merged in one send.
+     *
+     */
+    @Test
+    void writeMerges() throws Exception {
+        final CountDownLatch firstSent = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<Set<String>> sent = Collections.synchronizedList(new ArrayList<>());
+        final GoogleSheetsDispatcher dispatcher = new GoogleSheetsDispatcher((client, id, tabs, acquire) -> {
+            sent.add(tabs.keySet());
+            firstSent.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 6000, 0, 1, 1);
+
+        final CompletableFuture<Void> first = CompletableFuture.runAsync(() -> dispatcher.write(sheetsClient, "sheet", tab("a-campanhas")));
+        assertTrue(firstSent.await(5, TimeUnit.SECONDS));
+        final List<CompletableFuture<Void>> queued = new ArrayList<>();
+        for (String name : List.of("b-campanhas", "c-campanhas", "d-campanhas")) {
+            queued.add(CompletableFuture.runAsync(() -> dispatcher.write(sheetsClient, "sheet", tab(name))));
+        }
+        while ((long) dispatcher.metrics().get("queuedWrites") < 3) Thread.onSpinWait();
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        for (CompletableFuture<Void> write : queued) write.get(5, TimeUnit.SECONDS);
+
+        // Tests if the three writes queued behind the first one were sent together.
+        assertEquals(2, sent.size());
+        assertEquals(Set.of("b-campanhas", "c-campanhas", "d-campanhas"), sent.get(1));
+        assertEquals(2L, dispatcher.metrics().get("mergedWrites"));
+        assertEquals(0, dispatcher.metrics().get("spreadsheetsInFlight"));
+    }
+
+    /**
+     *
+     * Testing the appends are sent on their own, in order with the writes, and a transient error is not repeated.
+     *
+     */
+    @Test
+    void appendInOrder() {
+        final List<String> sent = Collections.synchronizedList(new ArrayList<>());
+        final GoogleSheetsDispatcher dispatcher = new GoogleSheetsDispatcher(
+            (client, id, tabs, acquire) -> sent.add("write " + tabs.keySet()),
+            (client, id, tabs, acquire) -> {
+                if (tabs.containsKey("b-grafico")) throw new HttpResponseException.Builder(503, "Unavailable", new HttpHeaders()).build();
+                sent.add("append " + tabs.keySet());
+            },
+            6000, 3, 1, 2);
+
+        dispatcher.write(sheetsClient, "sheet", tab("a-campanhas"));
+        dispatcher.append(sheetsClient, "sheet", tab("a-grafico"));
+        assertEquals(List.of("write [a-campanhas]", "append [a-grafico]"), sent);
+
+        // Tests if an append that may have added its rows fails instead of adding them again.
+        assertThrows(GoogleSheetsException.class, () -> dispatcher.append(sheetsClient, "sheet", tab("b-grafico")));
+        assertEquals(0L, dispatcher.metrics().get("retries"));
+    }
+
+    /**
+     *
+     * Testing a send rejected by the quota is retried, and a permanent error fails the write.
+     *
+     */
+    @Test
+    void writeRetries() {
+        final AtomicInteger attempts = new AtomicInteger();
+        final GoogleSheetsDispatcher dispatcher = new GoogleSheetsDispatcher((client, id, tabs, acquire) -> {
+            if (id.equals("missing")) throw new HttpResponseException.Builder(404, "Not Found", new HttpHeaders()).build();
+            if (attempts.incrementAndGet() == 1) throw new HttpResponseException.Builder(429, "Too Many Requests", new HttpHeaders()).build();
+        }, 6000, 3, 1, 2);
+
+        assertDoesNotThrow(() -> dispatcher.write(sheetsClient, "sheet", tab("a-grafico")));
+        assertEquals(2, attempts.get());
+        assertEquals(1L, dispatcher.metrics().get("quotaErrors"));
+
+        // Tests if an error that is not transient fails on its first attempt.
+        assertThrows(GoogleSheetsException.class, () -> dispatcher.write(sheetsClient, "missing", tab("a-grafico")));
+        assertEquals(1L, dispatcher.metrics().get("retries"));
+    }
+}
@@ -0,0 +1,192 @@
+package com.ads.report;
+
+import com.ads.report.infrastructure.gateway.redis.RedisSheetFingerprintStore;
+import com.ads.report.infrastructure.gateway.sheets.GoogleSheetsChunkedWriter;
+import com.ads.report.infrastructure.gateway.sheets.GoogleSheetsTabSync;
+import com.ads.report.infrastructure.gateway.sheets.SheetTabDiff;
+import com.google.api.services.sheets.v4.Sheets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ *
+ * The incremental sync of the sheets tabs tests, with the fingerprints of the rows last written.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+@ExtendWith(MockitoExtension.class)
+public class GoogleSheetsTabSyncTests {
+
+    @Mock
+    private RedisSheetFingerprintStore fingerprintStore;
+    @Mock
+    private GoogleSheetsChunkedWriter writer;
+    @Mock
+    private Sheets sheetsClient;
+    @Captor
+    private ArgumentCaptor<List<String>> clears;
+    @Captor
+    private ArgumentCaptor<List<SheetTabDiff.Rows>> runs;
+    @Captor
+    private ArgumentCaptor<Map<String, byte[]>> saved;
+
+    private GoogleSheetsTabSync tabSync;
+
+    private final List<String> tabs = List.of("a-grafico");
+    private final Runnable acquire = () -> {};
+
+    @BeforeEach
+    void setUp() {
+        tabSync = new GoogleSheetsTabSync(fingerprintStore, writer);
+    }
+
+    /**
+     *
+     * Testing only the changed rows are written, between the delete and the save of the fingerprints.
+     *
+     */
+    @Test
+    void sendChangedRows() throws Exception {
+        final List<List<Object>> before = rows(20);
+        final List<List<Object>> after = rows(21);
+        after.set(20, List.of("2025-01-20", 2500L, 12L));
+        stored(before);
+        when(fingerprintStore.deleteAll("sheet", tabs)).thenReturn(true);
+
+        tabSync.send(sheetsClient, "sheet", Map.of("a-grafico", after), acquire);
+
+        // Tests if the fingerprints are deleted before the write, and saved only after it.
+        final InOrder order = inOrder(fingerprintStore, writer);
+        order.verify(fingerprintStore).deleteAll("sheet", tabs);
+        order.verify(writer).write(eq(sheetsClient), eq("sheet"), clears.capture(), runs.capture(), eq(acquire));
+        order.verify(fingerprintStore).putAll(eq("sheet"), saved.capture());
+
+        // Tests if only the changed day 20 and the new day 21 were written, from row 21, without clearing the tab.
+        assertTrue(clears.getValue().isEmpty());
+        assertEquals(1, runs.getValue().size());
+        assertEquals(21, runs.getValue().getFirst().firstRow());
+        assertEquals(2, runs.getValue().getFirst().values().size());
+        assertArrayEquals(SheetTabDiff.fingerprint(after).encode(), saved.getValue().get("a-grafico"));
+        assertEquals(1L, tabSync.metrics().get("diffTabs"));
+    }
+
+    /**
+     *
+     * Testing a tab without a stored fingerprint is cleared and rewritten whole.
+     *
+     */
+    @Test
+    void sendWithoutFingerprint() throws Exception {
+        when(fingerprintStore.getAll("sheet", tabs)).thenReturn(Arrays.asList((byte[]) null));
+        when(fingerprintStore.deleteAll("sheet", tabs)).thenReturn(true);
+
+        tabSync.send(sheetsClient, "sheet", Map.of("a-grafico", rows(20)), acquire);
+
+        assertWholeRewrite(21);
+        verify(fingerprintStore).putAll(eq("sheet"), anyMap());
+    }
+
+    /**
+     *
+     * Testing a tab whose old fingerprint could not be deleted is rewritten whole, instead of diffed against it.
+     *
+     */
+    @Test
+    void sendWithUntrustedFingerprint() throws Exception {
+        stored(rows(20));
+        when(fingerprintStore.deleteAll("sheet", tabs)).thenReturn(false);
+
+        tabSync.send(sheetsClient, "sheet", Map.of("a-grafico", rows(20)), acquire);
+
+        assertWholeRewrite(21);
+    }
+
+    /**
+     *
+     * Testing a write failing after the delete saves no fingerprint, so the retry rewrites the tab whole.
+     *
+     */
+    @Test
+    void sendRetriedAfterFailure() throws Exception {
+        final List<List<Object>> before = rows(20);
+        final List<List<Object>> after = rows(21);
+        // The fingerprint of the rows before is there for the first send, and deleted by it.
+        when(fingerprintStore.getAll("sheet", tabs))
+            .thenReturn(List.of(SheetTabDiff.fingerprint(before).encode()))
+            .thenReturn(Arrays.asList((byte[]) null));
+        when(fingerprintStore.deleteAll("sheet", tabs)).thenReturn(true);
+        doThrow(new IOException("quota"))
+            .doNothing()
+            .when(writer).write(any(), anyString(), anyList(), anyList(), any());
+
+        final IOException e = assertThrows(IOException.class, () -> tabSync.send(sheetsClient, "sheet", Map.of("a-grafico", after), acquire));
+        assertEquals("quota", e.getMessage());
+        verify(fingerprintStore).deleteAll("sheet", tabs);
+        verify(fingerprintStore, never()).putAll(anyString(), anyMap());
+
+        // Tests if the retry, with no fingerprint left, clears and rewrites the tab whole.
+        clearInvocations(writer);
+        tabSync.send(sheetsClient, "sheet", Map.of("a-grafico", after), acquire);
+        assertWholeRewrite(22);
+        verify(fingerprintStore, times(1)).putAll(eq("sheet"), anyMap());
+    }
+
+    /**
+     *
+     * Testing the store reads a failure as a miss of every tab, and tells when the fingerprints were not deleted.
+     *
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void storeFailures() {
+        final RedisTemplate<String, byte[]> redisTemplate = mock(RedisTemplate.class);
+        final ValueOperations<String, byte[]> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(anyList())).thenThrow(new IllegalStateException("down"));
+        when(redisTemplate.delete(anyList())).thenThrow(new IllegalStateException("down"));
+        final RedisSheetFingerprintStore store = new RedisSheetFingerprintStore(redisTemplate, Duration.ofDays(1));
+
+        assertEquals(Arrays.asList(null, null), store.getAll("sheet", List.of("a-grafico", "a-campanhas")));
+        assertFalse(store.deleteAll("sheet", List.of("a-grafico")));
+        verify(redisTemplate).delete(List.of("sheet:fingerprint:sheet:a-grafico"));
+    }
+
+    private void stored(List<List<Object>> rows) {
+        when(fingerprintStore.getAll("sheet", tabs)).thenReturn(List.of(SheetTabDiff.fingerprint(rows).encode()));
+    }
+
+    // Verifies the tab was cleared, and all its rows written from the headers.
+    private void assertWholeRewrite(int rows) throws IOException {
+        verify(writer).write(eq(sheetsClient), eq("sheet"), clears.capture(), runs.capture(), eq(acquire));
+        assertEquals(List.of("a-grafico!A:Z"), clears.getValue());
+        assertEquals(1, runs.getValue().getFirst().firstRow());
+        assertEquals(rows, runs.getValue().getFirst().values().size());
+    }
+
+    private static List<List<Object>> rows(int days) {
+        final List<List<Object>> rows = new ArrayList<>();
+        rows.add(List.of("date", "impressions", "clicks"));
+        for (int day = 1; day <= days; day++) rows.add(List.of("2025-01-" + day, 100L * day, 10L));
+        return rows;
+    }
+}
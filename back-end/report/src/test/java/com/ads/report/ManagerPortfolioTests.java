@@ -0,0 +1,91 @@
+package com.ads.report;
+
+import com.ads.report.application.exception.GoogleAdsException;
+import com.ads.report.application.gateway.ads.GoogleAdsGateway;
+import com.ads.report.application.usecases.ads.ManagerPortfolioUseCase;
+import com.ads.report.domain.account.AccountMetrics;
+import com.ads.report.domain.manager.ManagerClient;
+import com.ads.report.domain.manager.ManagerPortfolio;
+import com.ads.report.domain.reports.ReportStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The manager account portfolio use case tests.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+@ExtendWith(MockitoExtension.class)
+public class ManagerPortfolioTests {
+
+    @Mock
+    private GoogleAdsGateway googleAdsGateway;
+
+    @BeforeEach
+    void setUp() {
+        // Running the calls through the manager account as they are.
+        when(googleAdsGateway.throughManager(eq("999"), any())).thenAnswer(i -> ((Supplier<?>) i.getArgument(1)).get());
+        when(googleAdsGateway.getManagerClients("999")).thenReturn(List.of(
+            new ManagerClient("111", "client1", 1L),
+            new ManagerClient("222", "client2", 2L)
+        ));
+    }
+
+    /**
+     *
+     * Testing every client is fetched, and the failure of one client does not fail the others.
+     *
+     */
+    @Test
+    void getPortfolio() {
+        final ManagerPortfolioUseCase useCase = new ManagerPortfolioUseCase(googleAdsGateway, Executors.newVirtualThreadPerTaskExecutor(), 4, Duration.ofSeconds(10));
+        when(googleAdsGateway.getAccountMetrics("111", "2025-01-01", "2025-01-31"))
+            .thenReturn(List.of(new AccountMetrics(111L, "client1", 100L, 10L, 5d, 1d, 0.1, 0.5, 5d)));
+        when(googleAdsGateway.getAccountMetrics("222", "2025-01-01", "2025-01-31")).thenThrow(new GoogleAdsException("denied"));
+
+        final ManagerPortfolio portfolio = useCase.getPortfolio("999", "2025-01-01", "2025-01-31");
+
+        // Tests if the results keep the order of the clients.
+        assertFalse(portfolio.isComplete());
+        assertEquals(ReportStatus.SUCCESS, portfolio.getClients().getFirst().getStatus());
+        assertEquals(100L, portfolio.getClients().getFirst().getMetrics().getImpressions());
+        assertEquals(ReportStatus.FAILED, portfolio.getClients().get(1).getStatus());
+        assertEquals("denied", portfolio.getClients().get(1).getError());
+    }
+
+    /**
+     *
+     * Testing the clients not fetched within the time budget are failed, without holding the request.
+     *
+     */
+    @Test
+    void getPortfolioOutOfBudget() {
+        final ManagerPortfolioUseCase useCase = new ManagerPortfolioUseCase(googleAdsGateway, Executors.newVirtualThreadPerTaskExecutor(), 4, Duration.ofMillis(200));
+        when(googleAdsGateway.getAccountMetrics(anyString(), anyString(), anyString())).thenAnswer(i -> {
+            if (i.getArgument(0).equals("222")) Thread.sleep(5_000);
+            return List.of();
+        });
+
+        final ManagerPortfolio portfolio = useCase.getPortfolio("999", "2025-01-01", "2025-01-31");
+
+        // Tests if the slow client was cut by the budget.
+        assertTrue(portfolio.getElapsedMillis() < 5_000);
+        assertFalse(portfolio.isComplete());
+        assertEquals(ReportStatus.SUCCESS, portfolio.getClients().getFirst().getStatus());
+        assertEquals("The time budget ran out.", portfolio.getClients().get(1).getError());
+    }
+}
@@ -0,0 +1,98 @@
+package com.ads.report;
+
+import com.ads.report.domain.columnar.MetricRollup;
+import com.ads.report.domain.columnar.MetricTable;
+import com.ads.report.domain.columnar.MetricTables;
+import com.ads.report.domain.columnar.RollupDimension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The metric table rollup tests.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+public class MetricRollupTests {
+
+    private MetricTable keywords;
+
+    @BeforeEach
+    void setUp() {
+        keywords = MetricTables.keywordMetrics();
+        // The keyword 'shoes' in two ad groups of 'brand', and 'boots' in 'generic', across two months.
+        add("2025-01-30", "brand", "adGroup1", "shoes", 100L, 10L, 5d, 1d);
+        add("2025-01-30", "brand", "adGroup2", "shoes", 100L, 0L, 0d, 0d);
+        add("2025-01-31", "generic", "adGroup1", "boots", 50L, 5L, 25d, 0d);
+        add("2025-02-03", "brand", "adGroup1", "shoes", 300L, 30L, 15d, 3d);
+    }
+
+    /**
+     *
+     * Testing the rows of each keyword are summed, with the ratios recomputed from the sums.
+     *
+     */
+    @Test
+    void rollupByKeyword() {
+        final MetricTable rollup = MetricRollup.rollup(keywords, RollupDimension.KEYWORD);
+
+        // Tests if the same keyword of two ad groups makes two groups, the highest cost first.
+        assertEquals(3, rollup.size());
+        assertEquals("boots", rollup.string(rollup.column("keywordText"), 0));
+        assertEquals("adGroup1", rollup.string(rollup.column("adGroupName"), 1));
+        assertEquals(400L, rollup.longValue(rollup.column("impressions"), 1));
+        assertEquals(40L, rollup.longValue(rollup.column("clicks"), 1));
+        assertEquals(0.1, rollup.doubleValue(rollup.column("ctr"), 1), 1e-9);
+        assertEquals(0.5, rollup.doubleValue(rollup.column("averageCpc"), 1), 1e-9);
+        assertEquals(5d, rollup.doubleValue(rollup.column("averageCpa"), 1), 1e-9);
+        assertEquals(0d, rollup.doubleValue(rollup.column("averageCpc"), 2));
+        assertEquals(0d, rollup.doubleValue(rollup.column("averageCpa"), 0));
+    }
+
+    /**
+     *
+     * Testing the rows are summed by campaign, month and ISO week.
+     *
+     */
+    @Test
+    void rollupByPeriod() {
+        final MetricTable campaigns = MetricRollup.rollup(keywords, RollupDimension.CAMPAIGN);
+        assertEquals(2, campaigns.size());
+        assertEquals("generic", campaigns.string(0, 0));
+        assertEquals(500L, campaigns.longValue(1, 1));
+
+        final MetricTable months = MetricRollup.rollup(keywords, RollupDimension.MONTH);
+        assertEquals("month", months.name(0));
+        assertEquals("2025-01", months.string(0, 0));
+        assertEquals(250L, months.longValue(1, 0));
+        assertEquals("2025-02", months.string(0, 1));
+
+        // Tests if the thursday and friday share the week 5, and the monday starts the week 6.
+        final MetricTable weeks = MetricRollup.rollup(keywords, RollupDimension.WEEK);
+        assertEquals(2, weeks.size());
+        assertEquals("2025-W05", weeks.string(0, 0));
+        assertEquals("2025-W06", weeks.string(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> MetricRollup.rollup(MetricTables.totalPerDay(), RollupDimension.KEYWORD));
+    }
+
+    private void add(String date, String campaign, String adGroup, String keyword, long impressions, long clicks, double cost, double conversions) {
+        keywords.appendRow()
+            .date(date)
+            .string("MONDAY")
+            .string(campaign)
+            .string("SEARCH")
+            .string(adGroup)
+            .string(keyword)
+            .string("EXACT")
+            .longValue(impressions)
+            .longValue(clicks)
+            .doubleValue(cost)
+            .doubleValue(0d)
+            .doubleValue(conversions)
+            .doubleValue(0d);
+    }
+}
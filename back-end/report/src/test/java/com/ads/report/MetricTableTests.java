@@ -0,0 +1,100 @@
+package com.ads.report;
+
+import com.ads.report.domain.columnar.MetricTable;
+import com.ads.report.domain.columnar.MetricTables;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The columnar metric table tests.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+public class MetricTableTests {
+
+    /**
+     *
+     * Testing the rows are stored by column and read back as the CSV text of each cell.
+     *
+     */
+    @Test
+    void appendRow() {
+        final MetricTable table = MetricTables.totalPerDay();
+        for (int i = 0; i < 1000; i++) {
+            table.appendRow()
+                .date("2025-01-1" + (i % 3))
+                .longValue(i)
+                .longValue(2L)
+                .doubleValue(0.5)
+                .doubleValue(1.25)
+                .longValue(i % 24)
+                .string("FRIDAY");
+        }
+
+        // Tests if the table grew past its initial capacity, keeping every cell.
+        assertEquals(1000, table.size());
+        assertEquals("date", table.name(0));
+        assertEquals("2025-01-12", table.text(0, 2));
+        assertEquals("999", table.text(1, 999));
+        assertEquals("1.25", table.text(4, 0));
+        assertEquals("FRIDAY", table.value(6, 500));
+        assertEquals(LocalDate.of(2025, 1, 11).toEpochDay(), table.epochDay(0, 1));
+    }
+
+    /**
+     *
+     * Testing a row written out of the column order is rejected.
+     *
+     */
+    @Test
+    void appendRowWrongKind() {
+        final MetricTable table = MetricTables.totalPerDay();
+
+        assertThrows(IllegalStateException.class, () -> table.appendRow().date("2025-01-10").string("FRIDAY"));
+    }
+
+    /**
+     *
+     * Testing 'withDayGapsFilled' adds the fillers of the empty days and drops the rows out of the period.
+     *
+     */
+    @Test
+    void withDayGapsFilled() {
+        final MetricTable table = MetricTables.keywordMetrics();
+        for (String date : new String[]{"2025-01-09", "2025-01-11", "2025-01-11"}) {
+            table.appendRow()
+                .date(date)
+                .string("SATURDAY")
+                .string("campaign")
+                .string("SEARCH")
+                .string("adGroup")
+                .string("keyword")
+                .string("EXACT")
+                .longValue(10L)
+                .longValue(1L)
+                .doubleValue(1.5)
+                .doubleValue(1.5)
+                .doubleValue(0d)
+                .doubleValue(0d);
+        }
+
+        final MetricTable filled = table.withDayGapsFilled(LocalDate.of(2025, 1, 10), LocalDate.of(2025, 1, 12));
+
+        // Tests if the days 10 and 12 got fillers around the two rows of day 11.
+        assertEquals(4, filled.size());
+        assertEquals("2025-01-10", filled.text(0, 0));
+        assertEquals("FRIDAY", filled.string(1, 0));
+        assertEquals("null", filled.string(2, 0));
+        assertEquals(0L, filled.longValue(7, 0));
+        assertEquals("keyword", filled.string(5, 1));
+        assertEquals("keyword", filled.string(5, 2));
+        assertEquals("2025-01-12", filled.text(0, 3));
+        assertThrows(IllegalArgumentException.class, () -> table.withDayGapsFilled(LocalDate.of(2025, 1, 12), LocalDate.of(2025, 1, 10)));
+    }
+}
@@ -0,0 +1,101 @@
+package com.ads.report;
+
+import com.ads.report.infrastructure.configuration.oauth.PrincipalClientCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The principal client cache tests.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+public class PrincipalClientCacheTests {
+
+    private Instant now = Instant.parse("2025-01-01T10:00:00Z");
+
+    // A clock that only moves when the test moves it.
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    };
+
+    private final AtomicInteger built = new AtomicInteger();
+    private final PrincipalClientCache<Object> cache = new PrincipalClientCache<>(Duration.ofMinutes(30), 2, clock);
+
+    /**
+     *
+     * Testing 'get' reuses the client while the refresh_token is the same.
+     *
+     */
+    @Test
+    void reusesClient() {
+        final Object first = cache.get("google:user", "refresh", this::build);
+
+        assertSame(first, cache.get("google:user", "refresh", this::build));
+        assertNotSame(first, cache.get("google:other", "refresh", this::build));
+        assertEquals(2, built.get());
+    }
+
+    /**
+     *
+     * Testing 'get' rebuilds the client when the refresh_token changes or the entry is idle for too long.
+     *
+     */
+    @Test
+    void rebuildsClient() {
+        final Object first = cache.get("google:user", "refresh", this::build);
+        final Object second = cache.get("google:user", "new-refresh", this::build);
+        now = now.plus(Duration.ofMinutes(31));
+        final Object third = cache.get("google:user", "new-refresh", this::build);
+
+        assertNotSame(first, second);
+        assertNotSame(second, third);
+        assertEquals(3, built.get());
+    }
+
+    /**
+     *
+     * Testing 'get' evicts the least recently used client past the maximum size.
+     *
+     */
+    @Test
+    void evictsLeastRecentlyUsed() {
+        cache.get("google:a", "refresh", this::build);
+        now = now.plusSeconds(1);
+        cache.get("google:b", "refresh", this::build);
+        now = now.plusSeconds(1);
+        cache.get("google:c", "refresh", this::build);
+
+        assertEquals(2, cache.size());
+        cache.get("google:b", "refresh", this::build);
+        assertEquals(3, built.get());
+    }
+
+    private Object build() {
+        built.incrementAndGet();
+        return new Object();
+    }
+}
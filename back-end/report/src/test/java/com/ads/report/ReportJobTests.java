@@ -0,0 +1,122 @@
+package com.ads.report;
+
+import com.ads.report.application.exception.ReportJobException;
+import com.ads.report.application.gateway.reports.ReportJobGateway;
+import com.ads.report.application.usecases.ads.ReportProgressListener;
+import com.ads.report.application.usecases.ads.UpdateAllReportsUseCase;
+import com.ads.report.application.usecases.reports.ReportJobUseCase;
+import com.ads.report.domain.reports.ReportJob;
+import com.ads.report.domain.reports.ReportStatus;
+import com.ads.report.domain.reports.ReportTabResult;
+import com.ads.report.domain.reports.UpdateAllReports;
+import com.ads.report.domain.reports.UpdateAllReportsResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The report job use case tests.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+@ExtendWith(MockitoExtension.class)
+public class ReportJobTests {
+
+    @Mock
+    private ReportJobGateway reportJobGateway;
+    @Mock
+    private UpdateAllReportsUseCase updateAllReportsUseCase;
+
+    private ReportJobUseCase reportJobUseCase;
+
+    // Update all reports object.
+    UpdateAllReports client1 = new UpdateAllReports("111", "2025-01-01", "2025-01-31", "sheet1", "client1", true);
+
+    @BeforeEach
+    void setUp() {
+        // Running the jobs on the calling thread.
+        reportJobUseCase = new ReportJobUseCase(reportJobGateway, updateAllReportsUseCase, Runnable::run, Duration.ofMinutes(1));
+    }
+
+    /**
+     *
+     * Testing 'submit' method.
+     *
+     */
+    @Test
+    void submit() {
+        // Mocking the update to report one tab and finish successfully.
+        when(updateAllReportsUseCase.updateReports(anyList(), any(ReportProgressListener.class))).thenAnswer(invocation -> {
+            final ReportProgressListener listener = invocation.getArgument(1);
+            listener.tabStarted(0, "client1-campanhas");
+            final ReportTabResult tab = new ReportTabResult("client1-campanhas", ReportStatus.SUCCESS, 0L, 10L, null);
+            listener.tabFinished(0, tab);
+            return List.of(new UpdateAllReportsResult("111", "client1", "sheet1", ReportStatus.SUCCESS, List.of(tab)));
+        });
+
+        final ReportJob submitted = reportJobUseCase.submit(List.of(client1), "user");
+
+        // Tests if the submitted job is returned as pending, for its owner.
+        assertNotNull(submitted.getId());
+        assertEquals(ReportStatus.PENDING, submitted.getStatus());
+        assertEquals("user", submitted.getOwner());
+
+        // Verifies the job was saved on submission, on start, on each tab change and on finish.
+        final ArgumentCaptor<ReportJob> saved = ArgumentCaptor.forClass(ReportJob.class);
+        verify(reportJobGateway, times(5)).save(saved.capture());
+        final ReportJob finished = saved.getAllValues().getLast();
+        assertEquals(ReportStatus.SUCCESS, finished.getStatus());
+        assertEquals(submitted.getId(), finished.getId());
+        assertTrue(finished.getFinishedAt() >= finished.getStartedAt());
+        assertTrue(finished.getLeaseUntil() > finished.getStartedAt());
+    }
+
+    /**
+     *
+     * Testing 'getJob' method for another user.
+     *
+     */
+    @Test
+    void getJobOfAnotherUser() {
+        // Mocking the gateway to return a job of another user.
+        when(reportJobGateway.findById("id")).thenReturn(new ReportJob("id", "other", ReportStatus.RUNNING, 0L, List.of()));
+
+        // Tests if the job is hidden from the user, and returned to its owner.
+        assertThrows(ReportJobException.class, () -> reportJobUseCase.getJob("id", "user"));
+        assertEquals("id", reportJobUseCase.getJob("id", "other").getId());
+    }
+
+    /**
+     *
+     * Testing 'getJob' method reports a running job as failed once its lease expired.
+     *
+     */
+    @Test
+    void getJobWithLeaseExpired() {
+        final ReportJob alive = new ReportJob("alive", "user", ReportStatus.RUNNING, 0L, List.of());
+        alive.setLeaseUntil(System.currentTimeMillis() + 60_000);
+        final ReportJob dead = new ReportJob("dead", "user", ReportStatus.RUNNING, 0L, List.of());
+        dead.setLeaseUntil(System.currentTimeMillis() - 1_000);
+        when(reportJobGateway.findById("alive")).thenReturn(alive);
+        when(reportJobGateway.findById("dead")).thenReturn(dead);
+
+        // Tests if only the job of the replica that stopped renewing it is failed.
+        assertEquals(ReportStatus.RUNNING, reportJobUseCase.getJob("alive", "user").getStatus());
+        final ReportJob failed = reportJobUseCase.getJob("dead", "user");
+        assertEquals(ReportStatus.FAILED, failed.getStatus());
+        assertEquals(dead.getLeaseUntil(), failed.getFinishedAt());
+        assertNotNull(failed.getError());
+    }
+}
@@ -0,0 +1,116 @@
+package com.ads.report;
+
+import com.ads.report.application.gateway.reports.ReportScheduleGateway;
+import com.ads.report.application.usecases.reports.ReportScheduleUseCase;
+import com.ads.report.domain.reports.ReportSchedule;
+import com.ads.report.domain.reports.UpdateAllReports;
+import com.ads.report.infrastructure.gateway.schedule.CronReportScheduleCalendar;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ *
+ * The report schedule use case tests.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+@ExtendWith(MockitoExtension.class)
+public class ReportScheduleTests {
+
+    @Mock
+    private ReportScheduleGateway reportScheduleGateway;
+
+    private ReportScheduleUseCase reportScheduleUseCase;
+
+    // Now is 2025-01-20 at 05:00, an hour before the schedules of the tests.
+    private final Instant now = Instant.parse("2025-01-20T05:00:00Z");
+    private final Instant six = Instant.parse("2025-01-20T06:00:00Z");
+
+    // Update all reports object.
+    UpdateAllReports client1 = new UpdateAllReports("111", "2025-01-01", "2025-01-31", "sheet1", "client1", true);
+
+    @BeforeEach
+    void setUp() {
+        final Clock clock = Clock.fixed(now, ZoneOffset.UTC);
+        reportScheduleUseCase = new ReportScheduleUseCase(reportScheduleGateway, new CronReportScheduleCalendar(), clock, Duration.ofHours(1));
+    }
+
+    /**
+     *
+     * Testing the schedules of the same time run spread over the hour, and invalid ones are refused.
+     *
+     */
+    @Test
+    void create() {
+        final ReportSchedule first = reportScheduleUseCase.create(new ReportSchedule("0 0 6 * * *", "UTC", 7, List.of(client1)), "user", "google");
+        final ReportSchedule second = reportScheduleUseCase.create(new ReportSchedule("0 0 6 * * *", "UTC", 7, List.of(client1)), "user", "google");
+        verify(reportScheduleGateway, times(2)).save(any(ReportSchedule.class));
+
+        // Tests if both run within the hour after six, each with its own offset.
+        for (ReportSchedule schedule : List.of(first, second)) {
+            assertTrue(schedule.getNextRunAt() >= six.toEpochMilli());
+            assertTrue(schedule.getNextRunAt() < six.plus(Duration.ofHours(1)).toEpochMilli());
+            assertEquals("user", schedule.getOwner());
+        }
+        assertNotEquals(first.getNextRunAt(), second.getNextRunAt());
+
+        assertThrows(IllegalArgumentException.class, () -> reportScheduleUseCase.create(new ReportSchedule("every day", "UTC", 0, List.of(client1)), "user", "google"));
+        assertThrows(IllegalArgumentException.class, () -> reportScheduleUseCase.create(new ReportSchedule("0 0 6 * * *", "UTC", 0, List.of()), "user", "google"));
+    }
+
+    /**
+     *
+     * Testing only the runs due, claimed and not deleted are returned, moved to their next run, with their dates rolled.
+     *
+     */
+    @Test
+    void claimDue() {
+        final ReportSchedule due = schedule("due", now.minusSeconds(60));
+        final ReportSchedule claimedElsewhere = schedule("claimed", now.minusSeconds(60));
+        final ReportSchedule later = schedule("later", now.plusSeconds(60));
+        final ReportSchedule deleted = schedule("deleted", now.minusSeconds(60));
+        when(reportScheduleGateway.findAll()).thenReturn(List.of(due, claimedElsewhere, later, deleted));
+        when(reportScheduleGateway.claim("due", now.minusSeconds(60).toEpochMilli())).thenReturn(true);
+        when(reportScheduleGateway.claim("claimed", now.minusSeconds(60).toEpochMilli())).thenReturn(false);
+        when(reportScheduleGateway.claim("deleted", now.minusSeconds(60).toEpochMilli())).thenReturn(true);
+        when(reportScheduleGateway.reschedule(due)).thenReturn(true);
+        // The schedule deleted between the load and the save.
+        when(reportScheduleGateway.reschedule(deleted)).thenReturn(false);
+
+        final List<ReportSchedule> claimed = reportScheduleUseCase.claimDue();
+        assertEquals(List.of(due), claimed);
+        verify(reportScheduleGateway, never()).claim(eq("later"), anyLong());
+        verify(reportScheduleGateway, times(1)).reschedule(due);
+        verify(reportScheduleGateway, never()).save(any(ReportSchedule.class));
+        assertTrue(due.getNextRunAt() > now.toEpochMilli());
+        assertEquals(now.minusSeconds(60).toEpochMilli(), due.getLastRunAt());
+
+        // Tests if the dates roll to the last seven days.
+        final UpdateAllReports report = reportScheduleUseCase.reportsOf(due).getFirst();
+        assertEquals("2025-01-13", report.getStartDate());
+        assertEquals("2025-01-20", report.getEndDate());
+        assertEquals("sheet1", report.getSpreadsheetId());
+    }
+
+    private ReportSchedule schedule(String id, Instant nextRunAt) {
+        final ReportSchedule schedule = new ReportSchedule("0 0 6 * * *", "UTC", 7, List.of(client1));
+        schedule.setId(id);
+        schedule.setOwner("user");
+        schedule.setNextRunAt(nextRunAt.toEpochMilli());
+        return schedule;
+    }
+}
@@ -0,0 +1,141 @@
+package com.ads.report;
+
+import com.ads.report.application.gateway.ads.GoogleAdsGateway;
+import com.ads.report.application.gateway.reports.ReportTaskQueue;
+import com.ads.report.application.gateway.sheets.GoogleSheetsGateway;
+import com.ads.report.application.gateway.sheets.SheetsBatch;
+import com.ads.report.application.usecases.ads.GoogleAdsUseCase;
+import com.ads.report.application.usecases.ads.UpdateAllReportsUseCase;
+import com.ads.report.application.usecases.reports.ReportTaskUseCase;
+import com.ads.report.domain.reports.ReportStatus;
+import com.ads.report.domain.reports.ReportTabResult;
+import com.ads.report.domain.reports.ReportTask;
+import com.ads.report.domain.reports.ReportTaskResult;
+import com.ads.report.domain.reports.ReportType;
+import com.ads.report.domain.reports.UpdateAllReports;
+import com.ads.report.domain.reports.UpdateAllReportsResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ *
+ * The report task queue use cases tests.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+@ExtendWith(MockitoExtension.class)
+public class ReportTaskTests {
+
+    @Mock
+    private GoogleAdsGateway googleAdsGateway;
+    @Mock
+    private GoogleSheetsGateway googleSheetsGateway;
+    @Mock
+    private GoogleAdsUseCase googleAdsUseCase;
+    @Mock
+    private SheetsBatch sheetsBatch;
+    @Mock
+    private ReportTaskQueue reportTaskQueue;
+    @Captor
+    private ArgumentCaptor<List<ReportTask>> queued;
+
+    private UpdateAllReportsUseCase updateAllReportsUseCase;
+
+    // Update all reports object.
+    UpdateAllReports client1 = new UpdateAllReports("111", "2025-01-01", "2025-01-31", "sheet1", "client1", true);
+
+    @BeforeEach
+    void setUp() {
+        updateAllReportsUseCase = new UpdateAllReportsUseCase(
+            googleAdsGateway,
+            googleSheetsGateway,
+            googleAdsUseCase,
+            Executors.newVirtualThreadPerTaskExecutor(),
+            2,
+            2,
+            reportTaskQueue,
+            Duration.ofMillis(200)
+        );
+    }
+
+    /**
+     *
+     * Testing an update queues a task per tab, counts the first result of each, and fails the ones never finished.
+     *
+     */
+    @Test
+    void distribute() {
+        final Deque<ReportTaskResult> results = new ArrayDeque<>();
+        doAnswer(invocation -> {
+            final List<ReportTask> tasks = invocation.getArgument(0);
+            // Every tab but the last one finishes, and the first one is delivered twice.
+            for (ReportTask task : tasks.subList(0, tasks.size() - 1)) results.add(success(task));
+            results.add(success(tasks.getFirst()));
+            return null;
+        }).when(reportTaskQueue).enqueue(anyList());
+        when(reportTaskQueue.awaitResult(anyString(), any(Duration.class))).thenAnswer(invocation -> results.poll());
+
+        final List<UpdateAllReportsResult> updated = updateAllReportsUseCase.updateReports(List.of(client1));
+        verify(reportTaskQueue).enqueue(queued.capture());
+        assertEquals(ReportType.values().length, queued.getValue().size());
+        verifyNoInteractions(googleAdsGateway, googleSheetsGateway);
+
+        // Tests if the tab without a result failed, and the others succeeded once.
+        final List<ReportTabResult> tabs = updated.getFirst().getTabs();
+        assertEquals(ReportStatus.FAILED, updated.getFirst().getStatus());
+        assertEquals(ReportType.values().length, tabs.size());
+        assertEquals(3, tabs.stream().filter(t -> t.getStatus() == ReportStatus.SUCCESS).count());
+        assertEquals(ReportStatus.FAILED, tabs.getLast().getStatus());
+        assertEquals("client1-grafico", tabs.getLast().getTab());
+    }
+
+    /**
+     *
+     * Testing a task is completed, retried while it has attempts, and dead-lettered after them.
+     *
+     */
+    @Test
+    void handle() {
+        final ReportTaskUseCase reportTaskUseCase = new ReportTaskUseCase(reportTaskQueue, updateAllReportsUseCase, 2);
+        when(googleSheetsGateway.batch("sheet1")).thenReturn(sheetsBatch);
+        when(sheetsBatch.campaignMetrics(anyString(), anyList())).thenReturn(sheetsBatch);
+
+        // Testing a task that writes its tab.
+        final ReportTask task = new ReportTask("t1", "b1", 0, ReportType.CAMPAIGNS, client1);
+        task.setAttempts(1);
+        reportTaskUseCase.handle(task);
+        verify(sheetsBatch).execute();
+        verify(reportTaskQueue).complete(eq(task), argThat(r -> r.getTab().getStatus() == ReportStatus.SUCCESS));
+
+        // Testing a failed task goes back to the queue, then to the dead letters on its last attempt.
+        doThrow(new RuntimeException("quota")).when(sheetsBatch).execute();
+        reportTaskUseCase.handle(task);
+        verify(reportTaskQueue).retry(task);
+        task.setAttempts(2);
+        reportTaskUseCase.handle(task);
+        verify(reportTaskQueue).deadLetter(task, "quota");
+        verify(reportTaskQueue).complete(eq(task), argThat(r -> "quota".equals(r.getTab().getError())));
+        verify(reportTaskQueue, times(1)).retry(task);
+    }
+
+    private static ReportTaskResult success(ReportTask task) {
+        final ReportTabResult tab = new ReportTabResult(task.getType().tab(task.getReport().getClient()), ReportStatus.SUCCESS, 0L, 1L, null);
+        return new ReportTaskResult(task.getClientIndex(), tab);
+    }
+}
@@ -0,0 +1,125 @@
+package com.ads.report;
+
+import com.ads.report.application.gateway.ads.GoogleAdsGateway;
+import com.ads.report.domain.campaign.CampaignMetrics;
+import com.ads.report.infrastructure.gateway.ads.SegmentedGoogleAdsGateway;
+import com.ads.report.infrastructure.gateway.redis.RedisDaySegmentStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The day segmented Google Ads gateway tests.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+@ExtendWith(MockitoExtension.class)
+public class SegmentedGoogleAdsGatewayTests {
+
+    @Mock
+    private GoogleAdsGateway delegate;
+
+    // The day segments, kept in memory.
+    private final Map<String, byte[]> segments = new HashMap<>();
+    private SegmentedGoogleAdsGateway gateway;
+
+    @BeforeEach
+    void setUp() {
+        final RedisDaySegmentStore store = new RedisDaySegmentStore(null) {
+            @Override
+            public List<byte[]> getAll(List<String> keys) {
+                return keys.stream().map(segments::get).toList();
+            }
+
+            @Override
+            public void putAll(List<Segment> values) {
+                values.forEach(s -> segments.put(s.key(), s.payload()));
+            }
+        };
+        // Streaming one row on each even day of the requested range.
+        lenient().doAnswer(i -> {
+            final Consumer<CampaignMetrics> consumer = i.getArgument(4);
+            final LocalDate end = LocalDate.parse(i.getArgument(2));
+            for (LocalDate d = LocalDate.parse(i.getArgument(1)); !d.isAfter(end); d = d.plusDays(1)) {
+                if (d.getDayOfMonth() % 2 == 0) consumer.accept(row(d.toString()));
+            }
+            return null;
+        }).when(delegate).streamCampaignMetrics(anyString(), anyString(), anyString(), anyBoolean(), any());
+        final Clock clock = Clock.fixed(Instant.parse("2025-01-20T12:00:00Z"), ZoneOffset.UTC);
+        gateway = new SegmentedGoogleAdsGateway(delegate, store, Duration.ofDays(35), 1, 2, 100, clock);
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("user-1", null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     *
+     * Testing an overlapping range only fetches the mutable day, and keeps the date order.
+     *
+     */
+    @Test
+    void getCampaignMetricsOverlapping() {
+        gateway.getCampaignMetrics("111", "2025-01-01", "2025-01-20", true);
+        final List<CampaignMetrics> rows = gateway.getCampaignMetrics("111", "2025-01-02", "2025-01-20", true);
+
+        // Tests if every closed day became a segment, the empty ones included.
+        assertEquals(19, segments.size());
+        assertEquals(10, rows.size());
+        assertEquals("2025-01-02", rows.getFirst().getDate());
+        assertEquals("2025-01-20", rows.getLast().getDate());
+        verify(delegate).streamCampaignMetrics(eq("111"), eq("2025-01-01"), eq("2025-01-20"), eq(true), any());
+        verify(delegate).streamCampaignMetrics(eq("111"), eq("2025-01-20"), eq("2025-01-20"), eq(true), any());
+    }
+
+    /**
+     *
+     * Testing the missing days are coalesced, merging the ranges separated by only a few cached days.
+     *
+     */
+    @Test
+    void getCampaignMetricsCoalesced() {
+        gateway.getCampaignMetrics("111", "2025-01-01", "2025-01-19", true);
+        segments.remove("user-1:campaign:111:true:2025-01-05");
+        segments.remove("user-1:campaign:111:true:2025-01-08");
+        segments.remove("user-1:campaign:111:true:2025-01-15");
+        clearInvocations(delegate);
+
+        final List<CampaignMetrics> rows = gateway.getCampaignMetrics("111", "2025-01-01", "2025-01-20", true);
+
+        // Tests if three queries were made, and the rows are still in date order.
+        assertEquals(10, rows.size());
+        for (int i = 0; i < rows.size(); i++) assertEquals(LocalDate.of(2025, 1, 2 * (i + 1)).toString(), rows.get(i).getDate());
+        verify(delegate).streamCampaignMetrics(eq("111"), eq("2025-01-05"), eq("2025-01-08"), eq(true), any());
+        verify(delegate).streamCampaignMetrics(eq("111"), eq("2025-01-15"), eq("2025-01-15"), eq(true), any());
+        verify(delegate).streamCampaignMetrics(eq("111"), eq("2025-01-20"), eq("2025-01-20"), eq(true), any());
+        verifyNoMoreInteractions(delegate);
+    }
+
+    private static CampaignMetrics row(String date) {
+        return new CampaignMetrics(date, "FRIDAY", 1L, "campaign", "adGroup", "ENABLED", 10L, 2L, 1.5, 1.0, 0.2, 0.75, 0d);
+    }
+}
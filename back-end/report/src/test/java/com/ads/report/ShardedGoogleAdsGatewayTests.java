@@ -0,0 +1,134 @@
+package com.ads.report;
+
+import com.ads.report.application.exception.GoogleAdsException;
+import com.ads.report.application.gateway.ads.GoogleAdsGateway;
+import com.ads.report.domain.campaign.CampaignKeywordMetrics;
+import com.ads.report.infrastructure.gateway.ads.ShardedGoogleAdsGateway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The date sharding Google Ads gateway tests.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+@ExtendWith(MockitoExtension.class)
+public class ShardedGoogleAdsGatewayTests {
+
+    @Mock
+    private GoogleAdsGateway delegate;
+
+    private ShardedGoogleAdsGateway gateway;
+
+    @BeforeEach
+    void setUp() {
+        // Shards of 31 days for a new customer, and of 10 days once two rows per day were seen.
+        gateway = new ShardedGoogleAdsGateway(delegate, Executors.newVirtualThreadPerTaskExecutor(), 4, 31, 7, 92, 20);
+    }
+
+    /**
+     *
+     * Testing 'getKeywordMetrics' is split in shards, merged in date order, and resized by the rows seen.
+     *
+     */
+    @Test
+    void getKeywordMetrics() {
+        // Streaming two rows on each day of the requested range.
+        doAnswer(i -> {
+            final Consumer<CampaignKeywordMetrics> consumer = i.getArgument(4);
+            final LocalDate end = LocalDate.parse(i.getArgument(2));
+            for (LocalDate d = LocalDate.parse(i.getArgument(1)); !d.isAfter(end); d = d.plusDays(1)) {
+                consumer.accept(row(d.toString()));
+                consumer.accept(row(d.toString()));
+            }
+            return null;
+        }).when(delegate).streamKeywordMetrics(anyString(), anyString(), anyString(), anyBoolean(), any());
+
+        final List<CampaignKeywordMetrics> rows = gateway.getKeywordMetrics("111", "2024-01-01", "2024-03-31", true);
+
+        // Tests if every row is there, in date order.
+        assertEquals(182, rows.size());
+        for (int i = 1; i < rows.size(); i++) assertTrue(rows.get(i - 1).getDate().compareTo(rows.get(i).getDate()) <= 0);
+        verify(delegate).streamKeywordMetrics(eq("111"), eq("2024-01-01"), eq("2024-01-31"), eq(true), any());
+        verify(delegate).streamKeywordMetrics(eq("111"), eq("2024-03-03"), eq("2024-03-31"), eq(true), any());
+        verify(delegate, times(3)).streamKeywordMetrics(anyString(), anyString(), anyString(), anyBoolean(), any());
+
+        // Tests if the next period of the same customer uses the adapted shard size.
+        clearInvocations(delegate);
+        assertEquals(182, gateway.getKeywordMetrics("111", "2024-01-01", "2024-03-31", true).size());
+        verify(delegate).streamKeywordMetrics(eq("111"), eq("2024-01-01"), eq("2024-01-10"), eq(true), any());
+        verify(delegate, times(10)).streamKeywordMetrics(anyString(), anyString(), anyString(), anyBoolean(), any());
+    }
+
+    /**
+     *
+     * Testing the failure of one shard fails the whole report.
+     *
+     */
+    @Test
+    void getKeywordMetricsWithFailure() {
+        lenient().doThrow(new GoogleAdsException("quota"))
+            .when(delegate).streamKeywordMetrics(anyString(), eq("2024-02-01"), anyString(), anyBoolean(), any());
+
+        final GoogleAdsException e = assertThrows(
+            GoogleAdsException.class,
+            () -> gateway.getKeywordMetrics("111", "2024-01-01", "2024-03-31", true)
+        );
+        assertEquals("quota", e.getMessage());
+    }
+
+    /**
+     *
+     * Testing the shards fetched never run more than the concurrency ahead of a slow consumer.
+     *
+     */
+    @Test
+    void streamKeywordMetricsWithSlowConsumer() {
+        // One row per shard, counting the shards started.
+        final AtomicInteger started = new AtomicInteger();
+        doAnswer(i -> {
+            started.incrementAndGet();
+            final Consumer<CampaignKeywordMetrics> consumer = i.getArgument(4);
+            consumer.accept(row(i.getArgument(1)));
+            return null;
+        }).when(delegate).streamKeywordMetrics(anyString(), anyString(), anyString(), anyBoolean(), any());
+
+        final List<String> consumed = new ArrayList<>();
+        final List<Integer> ahead = new ArrayList<>();
+        gateway.streamKeywordMetrics("111", "2024-01-01", "2024-12-31", true, r -> {
+            ahead.add(started.get() - consumed.size());
+            consumed.add(r.getDate());
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // Tests if every shard came in date order, with at most four shards fetched but not consumed.
+        assertEquals(12, consumed.size());
+        assertEquals("2024-01-01", consumed.getFirst());
+        for (int i = 1; i < consumed.size(); i++) assertTrue(consumed.get(i - 1).compareTo(consumed.get(i)) < 0);
+        assertTrue(ahead.stream().allMatch(n -> n <= 4), "Shards fetched ahead: " + ahead);
+    }
+
+    private static CampaignKeywordMetrics row(String date) {
+        return new CampaignKeywordMetrics(date, "", "", "", "", "", "", 1L, 1L, 0d, 0d, 0d, 0d);
+    }
+}
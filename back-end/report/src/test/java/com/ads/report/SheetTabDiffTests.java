@@ -0,0 +1,72 @@
+package com.ads.report;
+
+import com.ads.report.infrastructure.gateway.sheets.SheetTabDiff;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The sheets tab diff tests.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+public class SheetTabDiffTests {
+
+    private static List<List<Object>> rows(int days) {
+        final List<List<Object>> rows = new ArrayList<>();
+        rows.add(List.of("date", "impressions", "clicks"));
+        for (int day = 1; day <= days; day++) rows.add(List.of("2025-01-" + day, 100L * day, 10L));
+        return rows;
+    }
+
+    /**
+     *
+     * Testing only the changed and appended rows are written, and the unchanged tab sends nothing.
+     *
+     */
+    @Test
+    void diff() {
+        final List<List<Object>> before = rows(20);
+        final SheetTabDiff.Fingerprint old = SheetTabDiff.Fingerprint.decode(SheetTabDiff.fingerprint(before).encode());
+        final List<List<Object>> after = rows(22);
+        after.set(20, List.of("2025-01-20", 2500L, 12L));
+
+        final SheetTabDiff.Plan plan = SheetTabDiff.diff("a-grafico", old, after, SheetTabDiff.fingerprint(after));
+
+        // Tests if the changed day 20 and the new days 21 and 22 went in one range, from row 21.
+        assertEquals(1, plan.updates().size());
+        assertEquals(21, plan.updates().getFirst().firstRow());
+        assertEquals(3, plan.rowsSent());
+        assertTrue(plan.clears().isEmpty());
+
+        // Tests if an unchanged tab sends nothing.
+        final SheetTabDiff.Plan unchanged = SheetTabDiff.diff("a-grafico", old, before, SheetTabDiff.fingerprint(before));
+        assertTrue(unchanged.updates().isEmpty());
+        assertTrue(unchanged.clears().isEmpty());
+    }
+
+    /**
+     *
+     * Testing the old rows past the new ones are cleared, and a narrower changed row blanks its old cells.
+     *
+     */
+    @Test
+    void diffShrinks() {
+        final SheetTabDiff.Fingerprint old = SheetTabDiff.fingerprint(rows(10));
+        final List<List<Object>> after = rows(6);
+        after.set(1, List.of("2025-01-1"));
+
+        final SheetTabDiff.Plan plan = SheetTabDiff.diff("a-grafico", old, after, SheetTabDiff.fingerprint(after));
+
+        assertEquals(List.of("a-grafico!A8:Z11"), plan.clears());
+        assertEquals(2, plan.updates().getFirst().firstRow());
+        assertEquals(List.of("2025-01-1", "", ""), plan.updates().getFirst().values().getFirst());
+        assertNull(SheetTabDiff.Fingerprint.decode(new byte[3]));
+    }
+}
@@ -0,0 +1,117 @@
+package com.ads.report;
+
+import com.ads.report.application.exception.GoogleSheetsException;
+import com.ads.report.application.gateway.sheets.GoogleSheetsGateway;
+import com.ads.report.application.gateway.sheets.SheetsBatch;
+import com.ads.report.application.gateway.sheets.SheetsWatermarkGateway;
+import com.ads.report.application.usecases.ads.GoogleAdsUseCase;
+import com.ads.report.application.usecases.sheets.SheetsAppendUseCase;
+import com.ads.report.domain.campaign.CampaignPerDay;
+import com.ads.report.domain.sheets.SheetsAppendReport;
+import com.ads.report.domain.sheets.SheetsAppendResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ *
+ * The sheets append use case tests.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+@ExtendWith(MockitoExtension.class)
+public class SheetsAppendTests {
+
+    @Mock
+    private GoogleAdsUseCase googleAdsUseCase;
+    @Mock
+    private GoogleSheetsGateway googleSheetsGateway;
+    @Mock
+    private SheetsWatermarkGateway sheetsWatermarkGateway;
+    @Mock
+    private SheetsBatch batch;
+
+    private SheetsAppendUseCase sheetsAppendUseCase;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(sheetsWatermarkGateway.claim(anyString(), anyString())).thenReturn(true);
+        // Today is 2025-01-20, so the last closed day is 2025-01-19.
+        final Clock clock = Clock.fixed(Instant.parse("2025-01-20T12:00:00Z"), ZoneOffset.UTC);
+        sheetsAppendUseCase = new SheetsAppendUseCase(googleAdsUseCase, googleSheetsGateway, sheetsWatermarkGateway, clock);
+    }
+
+    /**
+     *
+     * Testing the first run writes the whole tab, and the next ones append only the days after the last one.
+     *
+     */
+    @Test
+    void append() {
+        final List<CampaignPerDay> days = List.of(
+            new CampaignPerDay("2025-01-16", 10, 1, 0, 1.0, 0, "THURSDAY"),
+            new CampaignPerDay("2025-01-17", 20, 2, 1, 2.0, 0, "FRIDAY")
+        );
+        when(googleAdsUseCase.getTotalPerDay(eq("111"), anyString(), anyString())).thenReturn(days);
+        when(batch.totalPerDay(anyString(), anyList())).thenReturn(batch);
+
+        // Testing the first run, up to yesterday instead of the end date.
+        when(googleSheetsGateway.batch("sheet")).thenReturn(batch);
+        final SheetsAppendResult first = sheetsAppendUseCase.append(SheetsAppendReport.TOTAL_PER_DAY, "111", "sheet", "grafico", "2025-01-01", "2025-01-31", true);
+        verify(googleAdsUseCase).getTotalPerDay("111", "2025-01-01", "2025-01-19");
+        verify(sheetsWatermarkGateway).saveLastDate("sheet", "grafico", "2025-01-19");
+        assertTrue(first.isReplaced());
+        assertEquals(2, first.getRows());
+
+        // Testing the next run appends from the day after the last one written.
+        when(sheetsWatermarkGateway.lastDate("sheet", "grafico")).thenReturn("2025-01-15");
+        when(googleSheetsGateway.appendBatch("sheet")).thenReturn(batch);
+        final SheetsAppendResult next = sheetsAppendUseCase.append(SheetsAppendReport.TOTAL_PER_DAY, "111", "sheet", "grafico", "2025-01-01", "2025-01-31", true);
+        verify(googleAdsUseCase).getTotalPerDay("111", "2025-01-16", "2025-01-19");
+        assertFalse(next.isReplaced());
+        assertEquals("2025-01-16", next.getFromDate());
+        verify(batch, times(2)).execute();
+    }
+
+    /**
+     *
+     * Testing an up to date tab fetches and sends nothing.
+     *
+     */
+    @Test
+    void upToDate() {
+        when(sheetsWatermarkGateway.lastDate("sheet", "grafico")).thenReturn("2025-01-19");
+        final SheetsAppendResult result = sheetsAppendUseCase.append(SheetsAppendReport.TOTAL_PER_DAY, "111", "sheet", "grafico", "2025-01-01", "2025-01-31", true);
+        assertEquals(0, result.getRows());
+        assertNull(result.getFromDate());
+        verifyNoInteractions(googleAdsUseCase, googleSheetsGateway);
+        verify(sheetsWatermarkGateway, never()).saveLastDate(anyString(), anyString(), anyString());
+        verify(sheetsWatermarkGateway).release("sheet", "grafico");
+    }
+
+    /**
+     *
+     * Testing an append of a tab claimed by another one fails before reading its last day.
+     *
+     */
+    @Test
+    void claimed() {
+        when(sheetsWatermarkGateway.claim("sheet", "grafico")).thenReturn(false);
+        assertThrows(GoogleSheetsException.class, () -> sheetsAppendUseCase.append(SheetsAppendReport.TOTAL_PER_DAY, "111", "sheet", "grafico", "2025-01-01", "2025-01-31", true));
+        verify(sheetsWatermarkGateway, never()).lastDate(anyString(), anyString());
+        verify(sheetsWatermarkGateway, never()).release(anyString(), anyString());
+        verifyNoInteractions(googleAdsUseCase, googleSheetsGateway);
+    }
+}
@@ -0,0 +1,215 @@
+package com.ads.report;
+
+import com.ads.report.application.gateway.ads.GoogleAdsGateway;
+import com.ads.report.domain.campaign.CampaignPerDay;
+import com.ads.report.domain.manager.ManagerAccountInfo;
+import com.ads.report.infrastructure.configuration.ads.GoogleAdsConfiguration;
+import com.ads.report.infrastructure.gateway.ads.GoogleAdsRepoGateway;
+import com.ads.report.infrastructure.gateway.ads.SingleFlightGoogleAdsGateway;
+import com.ads.report.infrastructure.gateway.redis.RedisDaySegmentStore;
+import com.ads.report.infrastructure.gateway.redis.RedisReportCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ *
+ * The single-flight Google Ads gateway tests.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+@ExtendWith(MockitoExtension.class)
+public class SingleFlightGoogleAdsGatewayTests {
+
+    @Mock
+    private GoogleAdsGateway googleAdsGateway;
+
+    private final Set<String> allowed = ConcurrentHashMap.newKeySet();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private SingleFlightGoogleAdsGateway singleFlightGateway;
+
+    private final List<CampaignPerDay> days = List.of(new CampaignPerDay("2025-01-16", 10, 1, 0, 1.0, 0, "THURSDAY"));
+
+    @BeforeEach
+    void setUp() {
+        // Only the principals in the allowed set pass the access check.
+        singleFlightGateway = new SingleFlightGoogleAdsGateway(
+            googleAdsGateway,
+            customerId -> allowed.contains(SecurityContextHolder.getContext().getAuthentication().getName()),
+            Duration.ofMinutes(1),
+            1000,
+            Clock.systemDefaultZone()
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     *
+     * Testing the concurrent identical calls of users with access share one query and its rows.
+     *
+     */
+    @Test
+    void shared() throws Exception {
+        allowed.add("user2");
+        when(googleAdsGateway.getTotalPerDay("111", "2025-01-01", "2025-01-31")).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return days;
+        });
+        final CompletableFuture<List<CampaignPerDay>> first = call("user1");
+        awaitInFlight();
+        final CompletableFuture<List<CampaignPerDay>> second = call("user2");
+        awaitMetric("accessChecks", 1L);
+        release.countDown();
+
+        assertEquals(days, first.get(5, TimeUnit.SECONDS));
+        assertEquals(days, second.get(5, TimeUnit.SECONDS));
+        assertNotSame(first.get(), second.get());
+        verify(googleAdsGateway, times(1)).getTotalPerDay("111", "2025-01-01", "2025-01-31");
+        assertEquals(1L, singleFlightGateway.metrics().get("sharedCalls"));
+        assertEquals(0, singleFlightGateway.metrics().get("inFlight"));
+    }
+
+    /**
+     *
+     * Testing a user that fails the access check runs its own query instead of sharing the rows.
+     *
+     */
+    @Test
+    void denied() throws Exception {
+        when(googleAdsGateway.getTotalPerDay("111", "2025-01-01", "2025-01-31")).thenAnswer(invocation -> {
+            if ("user1".equals(SecurityContextHolder.getContext().getAuthentication().getName())) {
+                release.await(5, TimeUnit.SECONDS);
+                return days;
+            }
+            throw new RuntimeException("no access");
+        });
+        final CompletableFuture<List<CampaignPerDay>> first = call("user1");
+        awaitInFlight();
+        final CompletableFuture<List<CampaignPerDay>> second = call("user2");
+
+        // Tests if the denied user gets its own error, while the first query still runs.
+        final Exception error = assertThrows(Exception.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertEquals("no access", error.getCause().getMessage());
+        release.countDown();
+        assertEquals(days, first.get(5, TimeUnit.SECONDS));
+        verify(googleAdsGateway, times(2)).getTotalPerDay("111", "2025-01-01", "2025-01-31");
+        assertEquals(1L, singleFlightGateway.metrics().get("deniedCalls"));
+        assertEquals(0L, singleFlightGateway.metrics().get("sharedCalls"));
+    }
+
+    /**
+     *
+     * Testing the gateway bean, with its cache, segments and shards, sends the identical shards of two users as one query.
+     *
+     */
+    @Test
+    void wired() throws Exception {
+        final GoogleAdsRepoGateway repoGateway = mock(GoogleAdsRepoGateway.class);
+        when(repoGateway.getManagerAccount("111")).thenReturn(mock(ManagerAccountInfo.class));
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            final Consumer<CampaignPerDay> consumer = invocation.getArgument(3);
+            days.forEach(consumer);
+            return null;
+        }).when(repoGateway).streamTotalPerDay(eq("111"), anyString(), anyString(), any());
+        // The cache and the day segments of both users miss.
+        final RedisReportCache cache = mock(RedisReportCache.class);
+        when(cache.get(anyString(), any())).thenReturn(null);
+        final GoogleAdsConfiguration configuration = configuration();
+        singleFlightGateway = configuration.singleFlightGoogleAdsGateway(repoGateway);
+        final GoogleAdsGateway wired = configuration.googleAdsGateway(
+            repoGateway,
+            Optional.of(singleFlightGateway),
+            cache,
+            mock(RedisDaySegmentStore.class),
+            new TaskExecutorAdapter(executor)
+        );
+
+        final CompletableFuture<List<CampaignPerDay>> first = call("user1", () -> wired.getTotalPerDay("111", "2025-01-01", "2025-01-31"));
+        awaitInFlight();
+        final CompletableFuture<List<CampaignPerDay>> second = call("user2", () -> wired.getTotalPerDay("111", "2025-01-01", "2025-01-31"));
+        awaitMetric("accessChecks", 1L);
+        release.countDown();
+
+        assertEquals(days, first.get(5, TimeUnit.SECONDS));
+        assertEquals(days, second.get(5, TimeUnit.SECONDS));
+        verify(repoGateway, times(1)).streamTotalPerDay(eq("111"), anyString(), anyString(), any());
+        assertEquals(1L, singleFlightGateway.metrics().get("sharedCalls"));
+    }
+
+    private CompletableFuture<List<CampaignPerDay>> call(String principal) {
+        return call(principal, () -> singleFlightGateway.getTotalPerDay("111", "2025-01-01", "2025-01-31"));
+    }
+
+    private CompletableFuture<List<CampaignPerDay>> call(String principal, Supplier<List<CampaignPerDay>> query) {
+        return CompletableFuture.supplyAsync(() -> {
+            SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(principal, null));
+            try {
+                return query.get();
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        }, executor);
+    }
+
+    // The configuration with the default properties, the cache and the shards on.
+    private static GoogleAdsConfiguration configuration() {
+        final GoogleAdsConfiguration configuration = new GoogleAdsConfiguration();
+        ReflectionTestUtils.setField(configuration, "cacheEnabled", true);
+        ReflectionTestUtils.setField(configuration, "closedTimeToLive", Duration.ofHours(12));
+        ReflectionTestUtils.setField(configuration, "mutableTtlMinutes", 5L);
+        ReflectionTestUtils.setField(configuration, "mutableDays", 1);
+        ReflectionTestUtils.setField(configuration, "maxCachedStreamRows", 100000);
+        ReflectionTestUtils.setField(configuration, "segmentTtlDays", 35L);
+        ReflectionTestUtils.setField(configuration, "segmentMaxGapDays", 2);
+        ReflectionTestUtils.setField(configuration, "shardsEnabled", true);
+        ReflectionTestUtils.setField(configuration, "shardConcurrency", 8);
+        ReflectionTestUtils.setField(configuration, "shardDays", 31);
+        ReflectionTestUtils.setField(configuration, "minShardDays", 7);
+        ReflectionTestUtils.setField(configuration, "maxShardDays", 92);
+        ReflectionTestUtils.setField(configuration, "targetRowsPerShard", 50000);
+        ReflectionTestUtils.setField(configuration, "accessTtlSeconds", 60L);
+        ReflectionTestUtils.setField(configuration, "maxSharedRows", 100000);
+        return configuration;
+    }
+
+    private void awaitInFlight() throws InterruptedException {
+        awaitMetric("inFlight", 1);
+    }
+
+    private void awaitMetric(String name, Object value) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (!value.equals(singleFlightGateway.metrics().get(name)) && System.currentTimeMillis() < deadline) Thread.sleep(5);
+    }
+}
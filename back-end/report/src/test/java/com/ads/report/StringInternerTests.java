@@ -0,0 +1,39 @@
+package com.ads.report;
+
+import com.ads.report.infrastructure.gateway.ads.StringInterner;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The string interner tests.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+public class StringInternerTests {
+
+    /**
+     *
+     * Testing equal values share one instance, and the least recently used ones are evicted.
+     *
+     */
+    @Test
+    void intern() {
+        final StringInterner strings = new StringInterner(2);
+        final String campaign = strings.intern(new String("campaign"));
+        final String adGroup = strings.intern(new String("adGroup"));
+
+        // Tests if a new copy of a kept value gets the shared instance.
+        assertSame(campaign, strings.intern(new String("campaign")));
+        assertNull(strings.intern(null));
+
+        // Tests if the third value evicts 'adGroup', the least recently used.
+        strings.intern("keyword");
+        assertEquals(2, strings.size());
+        assertSame(campaign, strings.intern(new String("campaign")));
+        assertNotSame(adGroup, strings.intern(new String("adGroup")));
+    }
+}
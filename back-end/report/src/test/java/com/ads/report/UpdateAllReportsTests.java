@@ -0,0 +1,122 @@
+package com.ads.report;
+
+import com.ads.report.application.exception.GoogleAdsException;
+import com.ads.report.application.gateway.ads.GoogleAdsGateway;
+import com.ads.report.application.gateway.sheets.GoogleSheetsGateway;
+import com.ads.report.application.gateway.sheets.SheetsBatch;
+import com.ads.report.application.usecases.ads.GoogleAdsUseCase;
+import com.ads.report.application.usecases.ads.UpdateAllReportsUseCase;
+import com.ads.report.domain.reports.ReportStatus;
+import com.ads.report.domain.reports.UpdateAllReports;
+import com.ads.report.domain.reports.UpdateAllReportsResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The update all reports use case tests.
+ *
+ * @author Marcus Nastasi
+ * @version 1.0.2
+ * @since 2025
+ * */
+@ExtendWith(MockitoExtension.class)
+public class UpdateAllReportsTests {
+
+    @Mock
+    private GoogleAdsGateway googleAdsGateway;
+    @Mock
+    private GoogleSheetsGateway googleSheetsGateway;
+    @Mock
+    private GoogleAdsUseCase googleAdsUseCase;
+    @Mock
+    private SheetsBatch sheetsBatch;
+
+    private UpdateAllReportsUseCase updateAllReportsUseCase;
+
+    // Update all reports objects.
+    UpdateAllReports client1 = new UpdateAllReports("111", "2025-01-01", "2025-01-31", "sheet1", "client1", true);
+    UpdateAllReports client2 = new UpdateAllReports("222", "2025-01-01", "2025-01-31", "sheet2", "client2", true);
+
+    @BeforeEach
+    void setUp() {
+        updateAllReportsUseCase = new UpdateAllReportsUseCase(
+            googleAdsGateway,
+            googleSheetsGateway,
+            googleAdsUseCase,
+            Executors.newVirtualThreadPerTaskExecutor(),
+            2,
+            2
+        );
+    }
+
+    /**
+     *
+     * Testing 'updateReports' with all clients successful.
+     *
+     */
+    @Test
+    void updateReports() {
+        // Mocking the Ads calls to return empty lists.
+        when(googleAdsGateway.getCampaignMetrics(anyString(), anyString(), anyString(), anyBoolean())).thenReturn(List.of());
+        when(googleAdsGateway.getAdTitleAndDescriptions(anyString(), anyString(), anyString())).thenReturn(List.of());
+        when(googleAdsGateway.getKeywordMetrics(anyString(), anyString(), anyString(), anyBoolean())).thenReturn(List.of());
+        when(googleAdsUseCase.getTotalPerDay(anyString(), anyString(), anyString())).thenReturn(List.of());
+        when(googleSheetsGateway.batch(anyString())).thenReturn(sheetsBatch);
+
+        final List<UpdateAllReportsResult> results = updateAllReportsUseCase.updateReports(List.of(client1, client2));
+
+        // Tests if each client has its own successful result, in the given order.
+        assertEquals(2, results.size());
+        assertEquals("client1", results.get(0).getClient());
+        assertEquals("client2", results.get(1).getClient());
+        assertTrue(results.stream().allMatch(r -> r.getStatus() == ReportStatus.SUCCESS));
+        assertEquals(4, results.getFirst().getTabs().size());
+
+        // Verifies each client was sent in one batch, with all of its tabs.
+        verify(googleSheetsGateway).batch("sheet1");
+        verify(googleSheetsGateway).batch("sheet2");
+        verify(sheetsBatch, times(2)).campaignMetrics(anyString(), anyList());
+        verify(sheetsBatch, times(2)).keywordMetrics(anyString(), anyList());
+        verify(sheetsBatch, times(2)).execute();
+    }
+
+    /**
+     *
+     * Testing 'updateReports' when one tab of one client fails.
+     *
+     */
+    @Test
+    void updateReportsWithFailure() {
+        // Mocking the keyword call of the first client to fail.
+        when(googleAdsGateway.getCampaignMetrics(anyString(), anyString(), anyString(), anyBoolean())).thenReturn(List.of());
+        when(googleAdsGateway.getAdTitleAndDescriptions(anyString(), anyString(), anyString())).thenReturn(List.of());
+        when(googleAdsGateway.getKeywordMetrics(eq("111"), anyString(), anyString(), anyBoolean()))
+            .thenThrow(new GoogleAdsException("quota"));
+        when(googleAdsGateway.getKeywordMetrics(eq("222"), anyString(), anyString(), anyBoolean())).thenReturn(List.of());
+        when(googleAdsUseCase.getTotalPerDay(anyString(), anyString(), anyString())).thenReturn(List.of());
+        when(googleSheetsGateway.batch(anyString())).thenReturn(sheetsBatch);
+
+        final List<UpdateAllReportsResult> results = updateAllReportsUseCase.updateReports(List.of(client1, client2));
+
+        // Tests if only the first client failed, and only on the keywords tab.
+        assertEquals(ReportStatus.FAILED, results.get(0).getStatus());
+        assertEquals(ReportStatus.SUCCESS, results.get(1).getStatus());
+        assertEquals(1, results.get(0).getTabs().stream().filter(t -> t.getStatus() == ReportStatus.FAILED).count());
+        assertEquals("quota", results.get(0).getTabs().get(2).getError());
+
+        // Verifies the other tabs of the failed client were still sent.
+        verify(sheetsBatch, times(2)).campaignMetrics(anyString(), anyList());
+        verify(sheetsBatch, times(1)).keywordMetrics(eq("client2-keywords"), anyList());
+        verify(sheetsBatch, times(2)).execute();
+    }
+}